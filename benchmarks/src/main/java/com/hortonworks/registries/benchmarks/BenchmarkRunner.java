@@ -0,0 +1,74 @@
+/*
+ * Copyright 2016-2019 Cloudera, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hortonworks.registries.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Entry point of the benchmarks jar. It accepts the regular JMH command line options and always attaches
+ * {@link GCProfiler}, so that every benchmark reports its allocation rate and normalized bytes allocated per operation
+ * next to its throughput. On java 9 and later, {@code java.lang} is opened to the forked benchmark JVMs as HikariCP
+ * generates its connection proxies by defining classes through reflection.
+ * <p>
+ * For example, to run only the serdes benchmarks and write the results as json:
+ * <pre>{@code
+ * java -jar benchmarks/target/benchmarks.jar ".*SerDes.*" -rf json -rff serdes.json
+ * }</pre>
+ */
+public final class BenchmarkRunner {
+
+    private static final String OPEN_JAVA_LANG = "--add-opens=java.base/java.lang=ALL-UNNAMED";
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws CommandLineOptionException, IOException, RunnerException {
+        CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+        if (commandLineOptions.shouldHelp()) {
+            commandLineOptions.showHelp();
+            return;
+        }
+
+        List<String> jvmArgsAppend = new ArrayList<>(commandLineOptions.getJvmArgsAppend().orElse(Collections.emptyList()));
+        if (!System.getProperty("java.specification.version").startsWith("1.")) {
+            jvmArgsAppend.add(OPEN_JAVA_LANG);
+        }
+
+        Options options = new OptionsBuilder()
+                .parent(commandLineOptions)
+                .addProfiler(GCProfiler.class)
+                .jvmArgsAppend(jvmArgsAppend.toArray(new String[0]))
+                .build();
+
+        Runner runner = new Runner(options);
+        if (commandLineOptions.shouldList()) {
+            runner.list();
+        } else {
+            runner.run();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2016-2019 Cloudera, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hortonworks.registries.benchmarks.schema;
+
+import com.hortonworks.registries.schemaregistry.CompatibilityResult;
+import com.hortonworks.registries.schemaregistry.SchemaCompatibility;
+import com.hortonworks.registries.schemaregistry.avro.AvroSchemaProvider;
+import com.hortonworks.registries.schemaregistry.errors.InvalidSchemaException;
+import com.hortonworks.registries.schemaregistry.errors.SchemaNotFoundException;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fingerprinting and compatibility checks of {@link AvroSchemaProvider} for generated record schemas with the given
+ * number of fields. Each schema mixes primitive, nullable, enum, array, map and nested record fields.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class AvroSchemaProviderBenchmark {
+
+    private static final String NAMESPACE = "com.hortonworks.registries.benchmarks";
+
+    @Param({"10", "100", "1000"})
+    private int fieldCount;
+
+    private AvroSchemaProvider schemaProvider;
+    private String schemaText;
+    private String evolvedSchemaText;
+
+    @Setup
+    public void setup() {
+        schemaProvider = new AvroSchemaProvider();
+        schemaProvider.init(Collections.emptyMap());
+
+        schemaText = createSchema(fieldCount, false).toString();
+        evolvedSchemaText = createSchema(fieldCount, true).toString();
+    }
+
+    @Benchmark
+    public byte[] fingerprint() throws InvalidSchemaException, SchemaNotFoundException {
+        return schemaProvider.getFingerprint(schemaText);
+    }
+
+    @Benchmark
+    public CompatibilityResult checkBackwardCompatibility() {
+        return schemaProvider.checkCompatibility(evolvedSchemaText, schemaText, SchemaCompatibility.BACKWARD);
+    }
+
+    @Benchmark
+    public CompatibilityResult checkBothCompatibility() {
+        return schemaProvider.checkCompatibility(evolvedSchemaText, schemaText, SchemaCompatibility.BOTH);
+    }
+
+    /**
+     * Creates a record schema with {@code fieldCount} fields. An evolved schema has an additional optional field, which
+     * keeps it compatible in both directions with the schema created without it.
+     */
+    private static Schema createSchema(int fieldCount, boolean evolved) {
+        SchemaBuilder.FieldAssembler<Schema> fields = SchemaBuilder.record("LargeRecord").namespace(NAMESPACE).fields();
+        for (int i = 0; i < fieldCount; i++) {
+            String name = "field" + i;
+            switch (i % 6) {
+                case 0:
+                    fields = fields.requiredLong(name);
+                    break;
+                case 1:
+                    fields = fields.optionalString(name);
+                    break;
+                case 2:
+                    fields = fields.name(name).type().enumeration("Enum" + i).symbols("A", "B", "C").noDefault();
+                    break;
+                case 3:
+                    fields = fields.name(name).type().array().items().intType().noDefault();
+                    break;
+                case 4:
+                    fields = fields.name(name).type().map().values().stringType().noDefault();
+                    break;
+                default:
+                    fields = fields.name(name).type(SchemaBuilder.record("Nested" + i).fields()
+                                                                 .requiredString("id")
+                                                                 .optionalDouble("value")
+                                                                 .endRecord()).noDefault();
+            }
+        }
+        if (evolved) {
+            fields = fields.optionalString("addedField");
+        }
+
+        return fields.endRecord();
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2016-2019 Cloudera, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hortonworks.registries.benchmarks.serdes;
+
+import com.hortonworks.registries.schemaregistry.client.ISchemaRegistryClient;
+import com.hortonworks.registries.schemaregistry.client.MockSchemaRegistryClient;
+import com.hortonworks.registries.schemaregistry.serdes.avro.AbstractAvroSnapshotDeserializer;
+import com.hortonworks.registries.schemaregistry.serdes.avro.AbstractAvroSnapshotSerializer;
+import com.hortonworks.registries.schemaregistry.serdes.avro.SerDesProtocolHandlerRegistry;
+import com.hortonworks.registries.schemaregistry.serdes.avro.kafka.KafkaAvroDeserializer;
+import com.hortonworks.registries.schemaregistry.serdes.avro.kafka.KafkaAvroSerializer;
+import com.hortonworks.registries.serdes.Device;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization and deserialization throughput of {@link KafkaAvroSerializer} and {@link KafkaAvroDeserializer} for
+ * each protocol registered in {@link SerDesProtocolHandlerRegistry}, with generic and specific avro readers.
+ * Schemas are registered with an in memory schema registry so that only the serdes path is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class KafkaAvroSerDesBenchmark {
+
+    private static final String TOPIC = "benchmark-topic";
+
+    /**
+     * Protocol ids of {@link SerDesProtocolHandlerRegistry}: confluent, metadata id, version id as long and
+     * version id as int.
+     */
+    @Param({"0", "1", "2", "3"})
+    private byte protocolId;
+
+    @Param({"false", "true"})
+    private boolean specificAvroReader;
+
+    private KafkaAvroSerializer serializer;
+    private KafkaAvroDeserializer deserializer;
+    private Device device;
+    private byte[] payload;
+
+    @Setup
+    public void setup() {
+        ISchemaRegistryClient schemaRegistryClient = new MockSchemaRegistryClient();
+
+        Map<String, Object> serializerConfig = new HashMap<>();
+        serializerConfig.put(AbstractAvroSnapshotSerializer.SERDES_PROTOCOL_VERSION, protocolId);
+        serializer = new KafkaAvroSerializer(schemaRegistryClient);
+        serializer.configure(serializerConfig, false);
+
+        Map<String, Object> deserializerConfig = new HashMap<>();
+        deserializerConfig.put(AbstractAvroSnapshotDeserializer.SPECIFIC_AVRO_READER, specificAvroReader);
+        deserializer = new KafkaAvroDeserializer(schemaRegistryClient);
+        deserializer.configure(deserializerConfig, false);
+
+        device = SerDesBenchmarks.createDevice();
+        payload = serializer.serialize(TOPIC, device);
+    }
+
+    @TearDown
+    public void tearDown() {
+        serializer.close();
+        deserializer.close();
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return serializer.serialize(TOPIC, device);
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        return deserializer.deserialize(TOPIC, payload);
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2016-2019 Cloudera, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hortonworks.registries.benchmarks.serdes;
+
+import com.hortonworks.registries.schemaregistry.client.ISchemaRegistryClient;
+import com.hortonworks.registries.schemaregistry.client.MockSchemaRegistryClient;
+import com.hortonworks.registries.schemaregistry.serdes.avro.kafka.KafkaAvroDeserializer;
+import com.hortonworks.registries.schemaregistry.serdes.avro.kafka.KafkaAvroSerializer;
+import com.hortonworks.registries.serdes.Device;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares storing the schema version id in a kafka record header with embedding it in the payload, which is
+ * controlled by {@link KafkaAvroSerializer#STORE_SCHEMA_VERSION_ID_IN_HEADER}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SchemaVersionIdLocationBenchmark {
+
+    private static final String TOPIC = "benchmark-topic";
+
+    @Param({"false", "true"})
+    private String storeSchemaVersionIdInHeader;
+
+    private KafkaAvroSerializer serializer;
+    private KafkaAvroDeserializer deserializer;
+    private Device device;
+    private Headers headers;
+    private byte[] payload;
+
+    @Setup
+    public void setup() {
+        ISchemaRegistryClient schemaRegistryClient = new MockSchemaRegistryClient();
+
+        serializer = new KafkaAvroSerializer(schemaRegistryClient);
+        serializer.configure(Collections.singletonMap(KafkaAvroSerializer.STORE_SCHEMA_VERSION_ID_IN_HEADER,
+                                                      storeSchemaVersionIdInHeader), false);
+
+        deserializer = new KafkaAvroDeserializer(schemaRegistryClient);
+        deserializer.configure(Collections.emptyMap(), false);
+
+        device = SerDesBenchmarks.createDevice();
+        headers = new RecordHeaders();
+        payload = serializer.serialize(TOPIC, headers, device);
+    }
+
+    @TearDown
+    public void tearDown() {
+        serializer.close();
+        deserializer.close();
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return serializer.serialize(TOPIC, new RecordHeaders(), device);
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        return deserializer.deserialize(TOPIC, headers, payload);
+    }
+}
@@ -0,0 +1,31 @@
+/*
+ * Copyright 2016-2019 Cloudera, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hortonworks.registries.benchmarks.serdes;
+
+import com.hortonworks.registries.serdes.Device;
+
+/**
+ * Records shared by the serdes benchmarks.
+ */
+final class SerDesBenchmarks {
+
+    private SerDesBenchmarks() {
+    }
+
+    static Device createDevice() {
+        return new Device(1024L, "benchmark-device", 3, 1561013215000L);
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright 2016-2019 Cloudera, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hortonworks.registries.benchmarks.storage;
+
+import com.hortonworks.registries.common.QueryParam;
+import com.hortonworks.registries.schemaregistry.SchemaVersionStorable;
+import com.hortonworks.registries.storage.OrderByField;
+import com.hortonworks.registries.storage.StorableKey;
+import com.hortonworks.registries.storage.StorageManager;
+import com.hortonworks.registries.storage.impl.jdbc.JdbcStorageManager;
+import com.hortonworks.registries.storage.impl.jdbc.config.ExecutionConfig;
+import com.hortonworks.registries.storage.impl.jdbc.connection.HikariCPConnectionBuilder;
+import com.hortonworks.registries.storage.impl.jdbc.provider.mysql.factory.MySqlExecutor;
+import com.hortonworks.registries.storage.impl.memory.InMemoryStorageManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Query paths of {@link InMemoryStorageManager} and {@link JdbcStorageManager} backed by an in memory H2 database in
+ * MySQL mode, using {@link SchemaVersionStorable} entries as they are the most frequently queried entities of schema
+ * registry.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class StorageManagerBenchmark {
+
+    private static final String CREATE_TABLE =
+            "CREATE TABLE IF NOT EXISTS schema_version_info (" +
+            "  id               BIGINT AUTO_INCREMENT NOT NULL," +
+            "  description      TEXT," +
+            "  schemaText       TEXT                  NOT NULL," +
+            "  fingerprint      TEXT                  NOT NULL," +
+            "  version          INT                   NOT NULL," +
+            "  schemaMetadataId BIGINT                NOT NULL," +
+            "  timestamp        BIGINT                NOT NULL," +
+            "  name             VARCHAR(256)          NOT NULL," +
+            "  state            TINYINT               NOT NULL," +
+            "  UNIQUE KEY (id)," +
+            "  PRIMARY KEY (name, version)" +
+            ")";
+    private static final String DROP_TABLE = "DROP TABLE IF EXISTS schema_version_info";
+
+    @Param({"inmemory", "jdbc"})
+    private String storage;
+
+    @Param({"100"})
+    private int schemaCount;
+
+    @Param({"10"})
+    private int versionsPerSchema;
+
+    private HikariCPConnectionBuilder connectionBuilder;
+    private StorageManager storageManager;
+    private long next;
+
+    @Setup
+    public void setup() throws SQLException {
+        if ("jdbc".equals(storage)) {
+            Map<String, Object> config = new HashMap<>();
+            config.put("dataSourceClassName", "org.h2.jdbcx.JdbcDataSource");
+            config.put("dataSource.URL", "jdbc:h2:mem:benchmarks;MODE=MySQL;DATABASE_TO_UPPER=false;DB_CLOSE_DELAY=-1");
+            connectionBuilder = new HikariCPConnectionBuilder(config);
+            execute(CREATE_TABLE);
+            storageManager = new JdbcStorageManager(new MySqlExecutor(new ExecutionConfig(-1), connectionBuilder));
+        } else if ("inmemory".equals(storage)) {
+            storageManager = new InMemoryStorageManager();
+        } else {
+            throw new IllegalArgumentException("Unsupported storage: " + storage);
+        }
+        storageManager.registerStorables(Collections.singletonList(SchemaVersionStorable.class));
+
+        long id = 1;
+        for (int i = 0; i < schemaCount; i++) {
+            for (int version = 1; version <= versionsPerSchema; version++) {
+                storageManager.add(createSchemaVersionStorable(id++, i, version));
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        storageManager.cleanup();
+        if (connectionBuilder != null) {
+            execute(DROP_TABLE);
+            connectionBuilder.cleanup();
+        }
+    }
+
+    @Benchmark
+    public SchemaVersionStorable getById() {
+        long id = nextId();
+        return storageManager.get(new StorableKey(SchemaVersionStorable.NAME_SPACE, SchemaVersionStorable.getPrimaryKey(id)));
+    }
+
+    @Benchmark
+    public Collection<SchemaVersionStorable> findByNameAndVersion() {
+        long id = nextId();
+        List<QueryParam> queryParams = QueryParam.params(SchemaVersionStorable.NAME, schemaName(schemaIndex(id)),
+                                                         SchemaVersionStorable.VERSION, String.valueOf(version(id)));
+        return storageManager.find(SchemaVersionStorable.NAME_SPACE, queryParams);
+    }
+
+    @Benchmark
+    public Collection<SchemaVersionStorable> findAllVersionsOrderedByVersion() {
+        long id = nextId();
+        return storageManager.find(SchemaVersionStorable.NAME_SPACE,
+                                   QueryParam.params(SchemaVersionStorable.NAME, schemaName(schemaIndex(id))),
+                                   Collections.singletonList(OrderByField.of(SchemaVersionStorable.VERSION, true)));
+    }
+
+    private long nextId() {
+        next = next % ((long) schemaCount * versionsPerSchema) + 1;
+        return next;
+    }
+
+    private int schemaIndex(long id) {
+        return (int) ((id - 1) / versionsPerSchema);
+    }
+
+    private int version(long id) {
+        return (int) ((id - 1) % versionsPerSchema) + 1;
+    }
+
+    private static String schemaName(int index) {
+        return "schema-" + index;
+    }
+
+    private static SchemaVersionStorable createSchemaVersionStorable(long id, int schemaIndex, int version) {
+        SchemaVersionStorable storable = new SchemaVersionStorable();
+        storable.setId(id);
+        storable.setSchemaMetadataId((long) schemaIndex + 1);
+        storable.setName(schemaName(schemaIndex));
+        storable.setVersion(version);
+        storable.setDescription("version " + version + " of " + schemaName(schemaIndex));
+        storable.setSchemaText("{\"type\":\"record\",\"name\":\"Record" + schemaIndex + "\",\"fields\":[" +
+                               "{\"name\":\"field" + version + "\",\"type\":\"string\"}]}");
+        storable.setFingerprint(Long.toHexString(id));
+        storable.setTimestamp(System.currentTimeMillis());
+        storable.setState((byte) 5);
+        return storable;
+    }
+
+    private void execute(String sql) throws SQLException {
+        try (Connection connection = connectionBuilder.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+}
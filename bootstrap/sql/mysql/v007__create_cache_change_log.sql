@@ -0,0 +1,24 @@
+-- Copyright 2018-2019 Cloudera, Inc.;
+-- ;
+-- Licensed under the Apache License, Version 2.0 (the "License");
+-- you may not use this file except in compliance with the License.;
+-- You may obtain a copy of the License at;
+-- ;
+--    http://www.apache.org/licenses/LICENSE-2.0;
+-- ;
+-- Unless required by applicable law or agreed to in writing, software;
+-- distributed under the License is distributed on an "AS IS" BASIS,;
+-- WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.;
+-- See the License for the specific language governing permissions and;
+-- limitations under the License.;
+-- ;
+
+CREATE TABLE `cache_change_log` (
+  `id`                   BIGINT(20)      NOT NULL AUTO_INCREMENT,
+  `cacheType`            VARCHAR(255)    NOT NULL,
+  `cacheKey`             VARCHAR(4000)   NOT NULL,
+  `origin`               VARCHAR(255)    NOT NULL,
+  `timestamp`            BIGINT(20)      NOT NULL,
+  PRIMARY KEY (`id`),
+  INDEX `IDX_CACHE_CHANGE_LOG_TIMESTAMP` (`timestamp`)
+);
@@ -36,6 +36,8 @@ import java.io.IOException;
 import java.security.Principal;
 import java.text.SimpleDateFormat;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 /**
  * <p>The {@link AuthenticationFilter} enables protecting web application
@@ -176,6 +178,16 @@ public class AuthenticationFilter implements Filter {
      */
     public static final String ALLOWED_RESOURCES = "allowed.resources";
 
+    /**
+     * Constant for the configuration property that indicates the number of verified signed tokens kept, so that
+     * the requests of an authenticated session do not verify the signature of the cookie again. 0 disables this.
+     */
+    public static final String VERIFIED_TOKEN_CACHE_SIZE = "token.cache.size";
+
+    private static final int DEFAULT_VERIFIED_TOKEN_CACHE_SIZE = 1000;
+    // kept short so that a cookie signed with a secret which has been rolled out is not accepted for long
+    private static final long VERIFIED_TOKEN_CACHE_TTL_MS = TimeUnit.MINUTES.toMillis(1);
+
     private Properties config;
     private Signer signer;
     private SignerSecretProvider secretProvider;
@@ -185,6 +197,8 @@ public class AuthenticationFilter implements Filter {
     private String cookiePath;
     private boolean isInitializedByTomcat;
     private List<String> allowedResources = new ArrayList<>();
+    private final Map<String, VerifiedToken> verifiedTokens = new ConcurrentHashMap<>();
+    private int verifiedTokenCacheSize;
 
     /**
      * <p>Initializes the authentication filter and signer secret provider.</p>
@@ -227,6 +241,9 @@ public class AuthenticationFilter implements Filter {
 
         initializeAuthHandler(authHandlerClassName, filterConfig);
 
+        verifiedTokenCacheSize = Integer.parseInt(config.getProperty(VERIFIED_TOKEN_CACHE_SIZE,
+                String.valueOf(DEFAULT_VERIFIED_TOKEN_CACHE_SIZE)));
+
         cookieDomain = config.getProperty(COOKIE_DOMAIN, null);
         cookiePath = config.getProperty(COOKIE_PATH, null);
         if ((config.getProperty(ALLOWED_RESOURCES) != null) && !config.getProperty(ALLOWED_RESOURCES).isEmpty()) {
@@ -452,12 +469,18 @@ public class AuthenticationFilter implements Filter {
      */
     protected AuthenticationToken getToken(HttpServletRequest request) throws IOException, AuthenticationException {
         AuthenticationToken token = null;
+        String signedTokenStr = null;
         String tokenStr = null;
         Cookie[] cookies = request.getCookies();
         if (cookies != null) {
             for (Cookie cookie : cookies) {
                 if (cookie.getName().equals(AuthenticatedURL.AUTH_COOKIE)) {
-                    tokenStr = cookie.getValue();
+                    signedTokenStr = cookie.getValue();
+                    AuthenticationToken verifiedToken = getVerifiedToken(signedTokenStr);
+                    if (verifiedToken != null) {
+                        return verifiedToken;
+                    }
+                    tokenStr = signedTokenStr;
                     try {
                         tokenStr = signer.verifyAndExtract(tokenStr);
                     } catch (SignerException ex) {
@@ -475,10 +498,53 @@ public class AuthenticationFilter implements Filter {
             if (token.isExpired()) {
                 throw new AuthenticationException("AuthenticationToken expired");
             }
+            putVerifiedToken(signedTokenStr, token);
         }
         return token;
     }
 
+    private AuthenticationToken getVerifiedToken(String signedTokenStr) {
+        VerifiedToken verifiedToken = verifiedTokens.get(signedTokenStr);
+        if (verifiedToken == null) {
+            return null;
+        }
+        if (verifiedToken.isValid()) {
+            return verifiedToken.token;
+        }
+        verifiedTokens.remove(signedTokenStr, verifiedToken);
+        return null;
+    }
+
+    private void putVerifiedToken(String signedTokenStr, AuthenticationToken token) {
+        if (verifiedTokenCacheSize <= 0) {
+            return;
+        }
+        if (verifiedTokens.size() >= verifiedTokenCacheSize) {
+            verifiedTokens.values().removeIf(verifiedToken -> !verifiedToken.isValid());
+            if (verifiedTokens.size() >= verifiedTokenCacheSize) {
+                verifiedTokens.clear();
+            }
+        }
+        verifiedTokens.put(signedTokenStr, new VerifiedToken(token));
+    }
+
+    /**
+     * A token whose signature has been verified, which is reused until it expires or for a short while at most.
+     */
+    private static class VerifiedToken {
+        private final AuthenticationToken token;
+        private final long validUntil;
+
+        VerifiedToken(AuthenticationToken token) {
+            this.token = token;
+            this.validUntil = System.currentTimeMillis() + VERIFIED_TOKEN_CACHE_TTL_MS;
+        }
+
+        boolean isValid() {
+            return System.currentTimeMillis() < validUntil && !token.isExpired();
+        }
+    }
+
     /**
      * If the request has a valid authentication token it allows the request to continue to the target resource,
      * otherwise it triggers an authentication sequence using the configured {@link AuthenticationHandler}.
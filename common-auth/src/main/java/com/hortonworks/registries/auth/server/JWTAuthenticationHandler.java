@@ -20,13 +20,19 @@ import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Base64;
 import java.util.Date;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
 import java.text.ParseException;
 
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.security.interfaces.RSAPublicKey;
 
 import com.hortonworks.registries.auth.client.AuthenticationException;
@@ -68,6 +74,9 @@ import com.nimbusds.jose.crypto.RSASSAVerifier;
  * null which indicates that all audiences will be accepted.</li>
  * <li>jwt.cookie.name: the name of the cookie that contains the JWT token.
  * Default value is "hadoop-jwt".</li>
+ * <li>jwt.cache.size: the number of validated JWT tokens kept, so that a token
+ * is verified only the first time it is presented. Default value is 1000, 0
+ * disables the cache.</li>
  * </ul>
  */
 public class JWTAuthenticationHandler implements AuthenticationHandler {
@@ -80,9 +89,15 @@ public class JWTAuthenticationHandler implements AuthenticationHandler {
     public static final String PUBLIC_KEY_PEM = "public.key.pem";
     public static final String EXPECTED_JWT_AUDIENCES = "expected.jwt.audiences";
     public static final String JWT_COOKIE_NAME = "jwt.cookie.name";
+    public static final String JWT_CACHE_SIZE = "jwt.cache.size";
+    private static final int DEFAULT_JWT_CACHE_SIZE = 1000;
     private static final String ORIGINAL_URL_QUERY_PARAM = "originalUrl=";
     private String authenticationProviderUrl = null;
     private RSAPublicKey publicKey = null;
+    private volatile JWSVerifier verifier = null;
+    // validated tokens by the digest of their serialized form
+    private final Map<String, ValidatedJWT> validatedTokens = new ConcurrentHashMap<>();
+    private int jwtCacheSize = DEFAULT_JWT_CACHE_SIZE;
     private List<String> audiences = null;
     private String cookieName = "hadoop-jwt";
     private String[] nonBrowserUserAgents;
@@ -95,6 +110,8 @@ public class JWTAuthenticationHandler implements AuthenticationHandler {
      */
     public void setPublicKey(RSAPublicKey pk) {
         publicKey = pk;
+        verifier = null;
+        validatedTokens.clear();
     }
 
     @Override
@@ -134,6 +151,7 @@ public class JWTAuthenticationHandler implements AuthenticationHandler {
             }
             publicKey = CertificateUtil.parseRSAPublicKey(pemPublicKey);
         }
+        verifier = new RSASSAVerifier(publicKey);
         // setup the list of valid audiences for token validation
         String auds = config.getProperty(EXPECTED_JWT_AUDIENCES);
         if (auds != null) {
@@ -152,11 +170,13 @@ public class JWTAuthenticationHandler implements AuthenticationHandler {
         }
         nonBrowserUserAgents = Utils.getNonBrowserUserAgents(config.getProperty(
                 NON_BROWSER_USER_AGENTS, NON_BROWSER_USER_AGENTS_DEFAULT));
+        jwtCacheSize = Integer.parseInt(config.getProperty(JWT_CACHE_SIZE,
+                String.valueOf(DEFAULT_JWT_CACHE_SIZE)));
     }
 
     @Override
     public void destroy() {
-
+        validatedTokens.clear();
     }
 
     @Override
@@ -178,6 +198,16 @@ public class JWTAuthenticationHandler implements AuthenticationHandler {
             LOG.info("sending redirect to: " + loginURL);
             ((HttpServletResponse) response).sendRedirect(loginURL);
         } else {
+            String tokenDigest = digest(serializedJWT);
+            ValidatedJWT validatedJWT = validatedTokens.get(tokenDigest);
+            if (validatedJWT != null) {
+                if (!validatedJWT.isExpired()) {
+                    LOG.debug("Issuing AuthenticationToken for already validated user.");
+                    return new AuthenticationToken(validatedJWT.userName, validatedJWT.userName, getType());
+                }
+                validatedTokens.remove(tokenDigest, validatedJWT);
+            }
+
             String userName = null;
             SignedJWT jwtToken = null;
             boolean valid = false;
@@ -187,6 +217,7 @@ public class JWTAuthenticationHandler implements AuthenticationHandler {
                 if (valid) {
                     userName = jwtToken.getJWTClaimsSet().getSubject();
                     LOG.info("USERNAME: " + userName);
+                    putValidatedToken(tokenDigest, userName, jwtToken.getJWTClaimsSet().getExpirationTime());
                 } else {
                     LOG.warn("jwtToken failed validation: " + jwtToken.serialize());
                 }
@@ -206,6 +237,46 @@ public class JWTAuthenticationHandler implements AuthenticationHandler {
         return token;
     }
 
+    private void putValidatedToken(String tokenDigest, String userName, Date expires) {
+        if (jwtCacheSize <= 0) {
+            return;
+        }
+        if (validatedTokens.size() >= jwtCacheSize) {
+            validatedTokens.values().removeIf(ValidatedJWT::isExpired);
+            if (validatedTokens.size() >= jwtCacheSize) {
+                validatedTokens.clear();
+            }
+        }
+        validatedTokens.put(tokenDigest, new ValidatedJWT(userName, expires));
+    }
+
+    private static String digest(String serializedJWT) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(serializedJWT.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new RuntimeException("It should not happen, " + ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * The user of a JWT token which passed the validation, until the token expires.
+     */
+    private static class ValidatedJWT {
+        private final String userName;
+        private final Date expires;
+
+        ValidatedJWT(String userName, Date expires) {
+            this.userName = userName;
+            this.expires = expires;
+        }
+
+        boolean isExpired() {
+            return expires != null && !new Date().before(expires);
+        }
+    }
+
     @Override
     public boolean shouldAuthenticate(HttpServletRequest request) {
         if (Utils.isBrowser(nonBrowserUserAgents, request)) {
@@ -304,7 +375,12 @@ public class JWTAuthenticationHandler implements AuthenticationHandler {
             if (jwtToken.getSignature() != null) {
                 LOG.debug("JWT token signature is not null");
                 try {
-                    JWSVerifier verifier = new RSASSAVerifier(publicKey);
+                    // the verifier is immutable and can be shared by the requests
+                    JWSVerifier verifier = this.verifier;
+                    if (verifier == null) {
+                        verifier = new RSASSAVerifier(publicKey);
+                        this.verifier = verifier;
+                    }
                     if (jwtToken.verify(verifier)) {
                         valid = true;
                         LOG.debug("JWT token has been successfully verified");
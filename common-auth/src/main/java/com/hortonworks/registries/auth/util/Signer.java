@@ -14,17 +14,28 @@
 package com.hortonworks.registries.auth.util;
 
 
-import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.Base64;
 
 /**
  * Signs strings and verifies signed strings using a SHA digest.
+ * <p>
+ * Instances are safe to be used by several threads without locking, each thread computes digests with its own
+ * {@link MessageDigest}.
  */
 public class Signer {
     private static final String SIGNATURE = "&s=";
 
+    private static final ThreadLocal<MessageDigest> SHA_DIGEST = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new RuntimeException("It should not happen, " + ex.getMessage(), ex);
+        }
+    });
+
     private SignerSecretProvider secretProvider;
 
     /**
@@ -47,7 +58,7 @@ public class Signer {
      *
      * @return the signed string.
      */
-    public synchronized String sign(String str) {
+    public String sign(String str) {
         if (str == null || str.length() == 0) {
             throw new IllegalArgumentException("NULL or empty string to sign");
         }
@@ -85,26 +96,25 @@ public class Signer {
      * @return the signature for the string.
      */
     protected String computeSignature(byte[] secret, String str) {
-        try {
-            MessageDigest md = MessageDigest.getInstance("SHA");
-            md.update(str.getBytes(Charset.forName("UTF-8")));
-            md.update(secret);
-            byte[] digest = md.digest();
-            return Base64.getEncoder().encodeToString(digest);
-        } catch (NoSuchAlgorithmException ex) {
-            throw new RuntimeException("It should not happen, " + ex.getMessage(), ex);
-        }
+        MessageDigest md = SHA_DIGEST.get();
+        md.reset();
+        md.update(str.getBytes(StandardCharsets.UTF_8));
+        md.update(secret);
+        byte[] digest = md.digest();
+        return Base64.getEncoder().encodeToString(digest);
     }
 
     protected void checkSignatures(String rawValue, String originalSignature)
             throws SignerException {
         boolean isValid = false;
+        byte[] originalSignatureBytes = originalSignature.getBytes(StandardCharsets.UTF_8);
         byte[][] secrets = secretProvider.getAllSecrets();
         for (int i = 0; i < secrets.length; i++) {
             byte[] secret = secrets[i];
             if (secret != null) {
                 String currentSignature = computeSignature(secret, rawValue);
-                if (originalSignature.equals(currentSignature)) {
+                // compared in constant time to not reveal how much of a forged signature matches
+                if (MessageDigest.isEqual(originalSignatureBytes, currentSignature.getBytes(StandardCharsets.UTF_8))) {
                     isValid = true;
                     break;
                 }
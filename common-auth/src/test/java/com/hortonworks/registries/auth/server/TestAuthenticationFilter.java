@@ -401,6 +401,54 @@ public class TestAuthenticationFilter {
         }
     }
 
+    @Test
+    public void testGetTokenVerifiedOnce() throws Exception {
+        AuthenticationFilter filter = new AuthenticationFilter();
+
+        try {
+            FilterConfig config = Mockito.mock(FilterConfig.class);
+            Mockito.when(config.getInitParameter("management.operation.return")).
+                    thenReturn("true");
+            Mockito.when(config.getInitParameter(AuthenticationFilter.AUTH_TYPE)).thenReturn(
+                    DummyAuthenticationHandler.class.getName());
+            Mockito.when(config.getInitParameter(AuthenticationFilter.SIGNATURE_SECRET)).thenReturn("secret");
+            Mockito.when(config.getInitParameterNames()).thenReturn(
+                    new Vector<String>(
+                            Arrays.asList(AuthenticationFilter.AUTH_TYPE,
+                                    AuthenticationFilter.SIGNATURE_SECRET,
+                                    "management.operation.return")).elements());
+            SignerSecretProvider secretProvider =
+                    getMockedServletContextWithStringSigner(config);
+            filter.init(config);
+
+            AuthenticationToken token = new AuthenticationToken("u", "p", DummyAuthenticationHandler.TYPE);
+            token.setExpires(System.currentTimeMillis() + TOKEN_VALIDITY_SEC);
+
+            Signer signer = new Signer(secretProvider);
+            String tokenSigned = signer.sign(token.toString());
+
+            HttpServletRequest request = Mockito.mock(HttpServletRequest.class);
+            Mockito.when(request.getCookies()).thenReturn(
+                    new Cookie[]{new Cookie(AuthenticatedURL.AUTH_COOKIE, tokenSigned)});
+            AuthenticationToken newToken = filter.getToken(request);
+
+            // the token of the same cookie is reused
+            Assert.assertSame(newToken, filter.getToken(request));
+
+            // a tampered cookie is still verified
+            Mockito.when(request.getCookies()).thenReturn(
+                    new Cookie[]{new Cookie(AuthenticatedURL.AUTH_COOKIE, tokenSigned.replace("u=u", "u=v"))});
+            try {
+                filter.getToken(request);
+                Assert.fail("tampered cookie should be rejected");
+            } catch (AuthenticationException ex) {
+                // Expected
+            }
+        } finally {
+            filter.destroy();
+        }
+    }
+
     @Test
     public void testGetTokenExpired() throws Exception {
         AuthenticationFilter filter = new AuthenticationFilter();
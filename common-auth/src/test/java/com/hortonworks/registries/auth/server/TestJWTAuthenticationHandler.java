@@ -26,6 +26,7 @@ import java.util.List;
 import java.util.ArrayList;
 import java.util.Properties;
 import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.servlet.ServletException;
 import javax.servlet.http.Cookie;
@@ -379,6 +380,39 @@ public class TestJWTAuthenticationHandler extends
         }
     }
 
+    @Test
+    public void testValidJWTValidatedOnceUntilExpired() throws Exception {
+        AtomicInteger validations = new AtomicInteger();
+        handler = new JWTAuthenticationHandler() {
+            @Override
+            protected boolean validateToken(SignedJWT jwtToken) {
+                validations.incrementAndGet();
+                return super.validateToken(jwtToken);
+            }
+        };
+        handler.setPublicKey(publicKey);
+        handler.init(getProperties());
+
+        long expires = new Date().getTime() + 1000;
+        SignedJWT jwt = getJWT("alice", new Date(expires), privateKey);
+
+        Cookie cookie = new Cookie("hadoop-jwt", jwt.serialize());
+        HttpServletRequest request = Mockito.mock(HttpServletRequest.class);
+        Mockito.when(request.getCookies()).thenReturn(new Cookie[] { cookie });
+        Mockito.when(request.getRequestURL()).thenReturn(
+                new StringBuffer(SERVICE_URL));
+        HttpServletResponse response = Mockito.mock(HttpServletResponse.class);
+
+        Assert.assertEquals("alice", handler.authenticate(request, response).getUserName());
+        Assert.assertEquals("alice", handler.authenticate(request, response).getUserName());
+        Assert.assertEquals(1, validations.get());
+
+        // an expired token is validated again, which fails
+        Thread.sleep(Math.max(0, expires - new Date().getTime()) + 100);
+        Assert.assertNull(handler.authenticate(request, response));
+        Assert.assertEquals(2, validations.get());
+    }
+
     @Test
     public void testOrigURLWithQueryString() throws Exception {
         handler.setPublicKey(publicKey);
@@ -13,7 +13,12 @@
  */
 package com.hortonworks.registries.auth.util;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import javax.servlet.ServletContext;
 
 import com.hortonworks.registries.auth.server.AuthenticationFilter;
@@ -62,6 +67,30 @@ public class TestSigner {
         Assert.assertEquals(t, e);
     }
 
+    @Test
+    public void testConcurrentSignAndVerify() throws Exception {
+        Signer signer = new Signer(createStringSignerSecretProvider());
+        String expected = signer.sign("test");
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(() -> {
+                    for (int j = 0; j < 1000; j++) {
+                        Assert.assertEquals(expected, signer.sign("test"));
+                        Assert.assertEquals("test", signer.verifyAndExtract(expected));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     @Test
     public void testInvalidSignedText() throws Exception {
         Signer signer = new Signer(createStringSignerSecretProvider());
@@ -23,7 +23,7 @@ import java.util.Collection;
  * A wrapper entity for passing collection (more than one resource) back to the client.
  * This response is used only for succeed requests.
  * <p>
- * This can be expanded to handle paged result.
+ * For a paged result, it also carries the token to get the next page, which is absent on the last page.
  */
 @JsonInclude(JsonInclude.Include.NON_NULL)
 public class CollectionResponse {
@@ -32,6 +32,11 @@ public class CollectionResponse {
      */
     private Collection<?> entities;
 
+    /**
+     * For response that returns a page of entities, token to get the next page.
+     */
+    private String continuationToken;
+
     private CollectionResponse() {}
 
     public void setEntities(Collection<?> entities) {
@@ -42,12 +47,21 @@ public class CollectionResponse {
         return entities;
     }
 
+    public void setContinuationToken(String continuationToken) {
+        this.continuationToken = continuationToken;
+    }
+
+    public String getContinuationToken() {
+        return continuationToken;
+    }
+
     public static Builder newResponse() {
         return new Builder();
     }
 
     public static class Builder {
         private Collection<?> entities;
+        private String continuationToken;
 
         private Builder() {
         }
@@ -57,9 +71,15 @@ public class CollectionResponse {
             return this;
         }
 
+        public CollectionResponse.Builder continuationToken(String continuationToken) {
+            this.continuationToken = continuationToken;
+            return this;
+        }
+
         public CollectionResponse build() {
             CollectionResponse response = new CollectionResponse();
             response.setEntities(entities);
+            response.setContinuationToken(continuationToken);
             return response;
         }
     }
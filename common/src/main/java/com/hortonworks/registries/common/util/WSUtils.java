@@ -46,6 +46,12 @@ public final class WSUtils {
                 .build();
     }
 
+    public static Response respondEntities(Collection<?> entities, String continuationToken, Response.Status status) {
+        return Response.status(status)
+                .entity(CollectionResponse.newResponse().entities(entities).continuationToken(continuationToken).build())
+                .build();
+    }
+
     public static Response respondEntity(Object entity, Response.Status status) {
         return Response.status(status)
                 .entity(entity)
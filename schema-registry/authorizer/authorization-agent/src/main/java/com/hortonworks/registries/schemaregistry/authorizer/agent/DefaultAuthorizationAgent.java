@@ -33,6 +33,8 @@ import com.hortonworks.registries.schemaregistry.errors.SchemaNotFoundException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 
 import com.hortonworks.registries.schemaregistry.authorizer.core.Authorizer;
@@ -64,10 +66,61 @@ public class DefaultAuthorizationAgent implements AuthorizationAgent {
              Collection<AggregatedSchemaMetadataInfo> aggregatedSchemaMetadataInfoList)
             throws SchemaNotFoundException {
 
-        return removeUnauthorizedAndNullEntities(aggregatedSchemaMetadataInfoList,
-                aggregatedSchemaMetadataInfo -> authorizeGetAggregatedSchemaInfo(userAndGroups,
-                        aggregatedSchemaMetadataInfo));
+        Collection<AggregatedSchemaMetadataInfo> schemas = authorizeGetEntities(userAndGroups,
+                aggregatedSchemaMetadataInfoList,
+                aggregatedSchemaMetadataInfo -> schemaMetadataResource(aggregatedSchemaMetadataInfo.getSchemaMetadata()));
+        if(schemas == null) {
+            return null;
+        }
+
+        // The branches of all the schemas are authorized at once
+        List<Authorizer.Resource> branchResources = new ArrayList<>();
+        List<Authorizer.Resource> versionResources = new ArrayList<>();
+        for(AggregatedSchemaMetadataInfo schema : schemas) {
+            if(schema.getSchemaBranches() != null) {
+                SchemaMetadata sm = schema.getSchemaMetadata();
+                for(AggregatedSchemaBranch branch : schema.getSchemaBranches()) {
+                    String bName = branch.getSchemaBranch().getName();
+                    branchResources.add(new Authorizer.SchemaBranchResource(sm.getSchemaGroup(), sm.getName(), bName));
+                    versionResources.add(new Authorizer.SchemaVersionResource(sm.getSchemaGroup(), sm.getName(), bName));
+                }
+            }
+        }
+        Iterator<Boolean> branchDecisions = authorizer.authorizeAll(branchResources, AccessType.READ, userAndGroups).iterator();
+        Iterator<Boolean> versionDecisions = authorizer.authorizeAll(versionResources, AccessType.READ, userAndGroups).iterator();
+
+        Boolean serDesAuthorized = null;
+        ArrayList<AggregatedSchemaMetadataInfo> res = new ArrayList<>();
+        for(AggregatedSchemaMetadataInfo schema : schemas) {
+            Collection<AggregatedSchemaBranch> filteredBranches = null;
+            if(schema.getSchemaBranches() != null) {
+                filteredBranches = new ArrayList<>();
+                for(AggregatedSchemaBranch branch : schema.getSchemaBranches()) {
+                    boolean branchAuthorized = branchDecisions.next();
+                    if(versionDecisions.next() && branchAuthorized) {
+                        filteredBranches.add(branch);
+                    }
+                }
+            }
 
+            Collection<SerDesInfo> serDesInfos = schema.getSerDesInfos();
+            if(serDesInfos != null && !serDesInfos.isEmpty()) {
+                if(serDesAuthorized == null) {
+                    serDesAuthorized = authorizer.authorize(new Authorizer.SerdeResource(), AccessType.READ, userAndGroups);
+                }
+                if(!serDesAuthorized) {
+                    serDesInfos = new ArrayList<>();
+                }
+            }
+
+            res.add(new AggregatedSchemaMetadataInfo(schema.getSchemaMetadata(),
+                    schema.getId(),
+                    schema.getTimestamp(),
+                    filteredBranches,
+                    serDesInfos));
+        }
+
+        return res;
     }
 
 
@@ -123,13 +176,8 @@ public class DefaultAuthorizationAgent implements AuthorizationAgent {
                                                                Collection<SchemaMetadataInfo> schemas)
             throws SchemaNotFoundException {
 
-        return authorizeGetEntities(userAndGroups, schemas, schemaMetadataInfo -> {
-            SchemaMetadata schemaMetadata = schemaMetadataInfo.getSchemaMetadata();
-            String gName = schemaMetadata.getSchemaGroup();
-            String smName = schemaMetadata.getName();
-
-            return new Authorizer.SchemaMetadataResource(gName, smName);
-        });
+        return authorizeGetEntities(userAndGroups, schemas,
+                schemaMetadataInfo -> schemaMetadataResource(schemaMetadataInfo.getSchemaMetadata()));
     }
 
 
@@ -474,9 +522,29 @@ public class DefaultAuthorizationAgent implements AuthorizationAgent {
                                                    Collection<T> entities,
                                                    EntityToAuthorizerResourceMapFunc<T> mapFunc)
             throws SchemaNotFoundException {
-        return removeUnauthorizedAndNullEntities(entities, elem ->
-                authorizer.authorize(mapFunc.map(elem), AccessType.READ, userAndGroups) ?
-                        elem : null);
+        if(entities == null) {
+            return null;
+        }
+
+        List<T> elems = new ArrayList<>(entities);
+        List<Authorizer.Resource> resources = new ArrayList<>(elems.size());
+        for(T elem : elems) {
+            resources.add(mapFunc.map(elem));
+        }
+        List<Boolean> decisions = authorizer.authorizeAll(resources, AccessType.READ, userAndGroups);
+
+        ArrayList<T> res = new ArrayList<>();
+        for(int i = 0; i < elems.size(); i++) {
+            if(decisions.get(i)) {
+                res.add(elems.get(i));
+            }
+        }
+
+        return res;
+    }
+
+    private Authorizer.SchemaMetadataResource schemaMetadataResource(SchemaMetadata schemaMetadata) {
+        return new Authorizer.SchemaMetadataResource(schemaMetadata.getSchemaGroup(), schemaMetadata.getName());
     }
 
     private <T> Collection<T> removeUnauthorizedAndNullEntities(Collection<T> elems,
@@ -464,6 +464,61 @@ public class DefaultAuthorizationAgentTest {
         // NOT_FOUND TEST CASES do not exist
     }
 
+    @Test
+    public void authorizeGetAggregatedSchemaListFiltersBranchesAndVersions() throws SchemaNotFoundException {
+        SchemaMetadataInfo smi3 = schemaRegistry.getSchemaMetadataInfo("Schema3");
+        SchemaVersionInfo svi31 = schemaRegistry.getSchemaVersionInfo(siv31);
+        List<AggregatedSchemaBranch> branches3 = new ArrayList<>();
+        for (String branchName : new String[] {"Branch3", "Branch4", "Branch5"}) {
+            branches3.add(new AggregatedSchemaBranch(new SchemaBranch(branchName, "Schema3"),
+                    siv3.getSchemaVersionId(),
+                    Collections.singletonList(svi31)));
+        }
+        List<SerDesInfo> serDesInfo = new ArrayList<>();
+        serDesInfo.add(new SerDesInfo(1l, smi3.getTimestamp(), new SerDesPair()));
+        serDesInfo.add(new SerDesInfo(2l, smi3.getTimestamp(), new SerDesPair()));
+
+        SchemaMetadataInfo smi4 = schemaRegistry.getSchemaMetadataInfo("Schema4");
+        List<AggregatedSchemaMetadataInfo> asmiList = new ArrayList<>();
+        asmiList.add(new AggregatedSchemaMetadataInfo(smi3.getSchemaMetadata(), smi3.getId(), smi3.getTimestamp(),
+                branches3, serDesInfo));
+        asmiList.add(new AggregatedSchemaMetadataInfo(smi4.getSchemaMetadata(), smi4.getId(), smi4.getTimestamp(),
+                Collections.emptyList(), Collections.emptyList()));
+
+        // Schema4 is filtered by p3, Branch3 is kept by p4 and p7, Branch4 can only be created (p6), serdes kept by p10
+        Collection<AggregatedSchemaMetadataInfo> res = authorizationAgent.authorizeGetAggregatedSchemaList(
+                AuthorizationUtils.getUserAndGroups(new SecurityContextForTesting("user3")), asmiList);
+        assertThat(res.size(), is(1));
+        AggregatedSchemaMetadataInfo schema = res.iterator().next();
+        assertThat(schema.getSchemaMetadata().getName(), is("Schema3"));
+        assertThat(branchNames(schema), is(Collections.singletonList("Branch3")));
+        assertThat(schema.getSerDesInfos().size(), is(2));
+
+        // user101 can read Branch3 (p4) but not its versions (p7), nor the serdes
+        res = authorizationAgent.authorizeGetAggregatedSchemaList(
+                AuthorizationUtils.getUserAndGroups(new SecurityContextForTesting("user101")), asmiList);
+        assertThat(res.size(), is(1));
+        schema = res.iterator().next();
+        assertTrue(schema.getSchemaBranches().isEmpty());
+        assertTrue(schema.getSerDesInfos().isEmpty());
+
+        // user102 can read Branch3 and its versions, but not the serdes
+        res = authorizationAgent.authorizeGetAggregatedSchemaList(
+                AuthorizationUtils.getUserAndGroups(new SecurityContextForTesting("user102")), asmiList);
+        assertThat(res.size(), is(1));
+        schema = res.iterator().next();
+        assertThat(branchNames(schema), is(Collections.singletonList("Branch3")));
+        assertTrue(schema.getSerDesInfos().isEmpty());
+    }
+
+    private static List<String> branchNames(AggregatedSchemaMetadataInfo schema) {
+        List<String> names = new ArrayList<>();
+        for (AggregatedSchemaBranch branch : schema.getSchemaBranches()) {
+            names.add(branch.getSchemaBranch().getName());
+        }
+        return names;
+    }
+
     @Test
     public void authorizeGetAggregatedSchemaInfo() throws SchemaNotFoundException, AuthorizationException {
         SchemaMetadataInfo smi3 = schemaRegistry.getSchemaMetadataInfo("Schema3");
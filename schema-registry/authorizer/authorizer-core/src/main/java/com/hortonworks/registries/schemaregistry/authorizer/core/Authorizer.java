@@ -15,8 +15,11 @@
  */
 package com.hortonworks.registries.schemaregistry.authorizer.core;
 
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * This is an interface that is implemented by RangerSchemaRegistryAuthorizer
@@ -48,6 +51,23 @@ public interface Authorizer {
      */
     boolean authorize(Resource resource, AccessType accessType, UserAndGroups userAndGroups);
 
+    /**
+     * Performs the authorization of a collection of resources, like the entities of a listing. Authorizers can override
+     * this to evaluate the collection at once instead of one resource at a time.
+     *
+     * @param resources - objects to check access to
+     * @param accessType - required access type
+     * @param userAndGroups - user and user groups that are use for permission check
+     * @return whether access is allowed for each of the resources, in the same order
+     */
+    default List<Boolean> authorizeAll(List<? extends Resource> resources,
+                                       AccessType accessType,
+                                       UserAndGroups userAndGroups) {
+        return resources.stream()
+                        .map(resource -> authorize(resource, accessType, userAndGroups))
+                        .collect(Collectors.toList());
+    }
+
 
     ///// The below classes are used to define independent object model for authorization /////
 
@@ -116,6 +136,18 @@ public interface Authorizer {
         public ResourceType getResourceType() {
             return resourceType;
         }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            return resourceType == ((Resource) o).resourceType;
+        }
+
+        @Override
+        public int hashCode() {
+            return resourceType.hashCode();
+        }
     }
 
     /**
@@ -157,6 +189,18 @@ public interface Authorizer {
             return sMetadataName;
         }
 
+        @Override
+        public boolean equals(Object o) {
+            if (!super.equals(o)) return false;
+            SchemaMetadataResource that = (SchemaMetadataResource) o;
+            return Objects.equals(sGroupName, that.sGroupName) && Objects.equals(sMetadataName, that.sMetadataName);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(super.hashCode(), sGroupName, sMetadataName);
+        }
+
         @Override
         public String toString() {
             return String.format("SchemaMetadata{ schemaGroupName='%s', schemaMetadataName='%s' }",
@@ -183,6 +227,16 @@ public interface Authorizer {
             return sBranchName;
         }
 
+        @Override
+        public boolean equals(Object o) {
+            return super.equals(o) && Objects.equals(sBranchName, ((SchemaBranchResource) o).sBranchName);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(super.hashCode(), sBranchName);
+        }
+
         @Override
         public String toString() {
             return String.format("SchemaBranch{ schemaGroupName='%s', schemaMetadataName='%s', schemaBranchName='%s' }",
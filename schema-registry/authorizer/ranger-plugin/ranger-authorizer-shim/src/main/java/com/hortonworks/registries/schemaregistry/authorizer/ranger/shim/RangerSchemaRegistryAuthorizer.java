@@ -21,6 +21,7 @@ import org.slf4j.LoggerFactory;
 
 import com.hortonworks.registries.schemaregistry.authorizer.core.Authorizer;
 import java.lang.reflect.Constructor;
+import java.util.List;
 import java.util.Map;
 
 public class RangerSchemaRegistryAuthorizer implements Authorizer {
@@ -34,7 +35,14 @@ public class RangerSchemaRegistryAuthorizer implements Authorizer {
     private Authorizer  rangerSRAuthorizerImpl;
     private static RangerPluginClassLoader rangerPluginClassLoader;
 
-    public void configure(Map<String, Object> props) { }
+    public void configure(Map<String, Object> props) {
+        try {
+            activatePluginClassLoader();
+            rangerSRAuthorizerImpl.configure(props);
+        } finally {
+            deactivatePluginClassLoader();
+        }
+    }
 
     public RangerSchemaRegistryAuthorizer() {
         if(LOG.isDebugEnabled()) {
@@ -77,6 +85,35 @@ public class RangerSchemaRegistryAuthorizer implements Authorizer {
         return ret;
     }
 
+    @Override
+    public List<Boolean> authorizeAll(List<? extends Resource> resources,
+                                      AccessType accessType,
+                                      UserAndGroups userAndGroups) {
+        if(LOG.isDebugEnabled()) {
+            LOG.debug(String.format(
+                    "==> RangerSchemaRegistryAuthorizer.authorizeAll(resources=%d accessType='%s', uName='%s', uGroup='%s')",
+                    resources.size(),
+                    accessType,
+                    userAndGroups.getUser(),
+                    userAndGroups.getGroups()));
+        }
+
+        List<Boolean> ret;
+
+        try {
+            activatePluginClassLoader();
+            ret = rangerSRAuthorizerImpl.authorizeAll(resources, accessType, userAndGroups);
+        } finally {
+            deactivatePluginClassLoader();
+        }
+
+        if(LOG.isDebugEnabled()) {
+            LOG.debug("<== RangerSchemaRegistryAuthorizer.authorizeAll: " + ret);
+        }
+
+        return ret;
+    }
+
     private void init(){
         if(LOG.isDebugEnabled()) {
             LOG.debug("==> RangerSchemaRegistryAuthorizer.init()");
@@ -15,13 +15,28 @@
  */
 package com.hortonworks.registries.schemaregistry.authorizer.ranger;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.apache.ranger.plugin.policyengine.RangerAccessRequest;
 import org.apache.ranger.plugin.policyengine.RangerAccessRequestImpl;
 import org.apache.ranger.plugin.policyengine.RangerAccessResourceImpl;
 import org.apache.ranger.plugin.policyengine.RangerAccessResult;
 import org.apache.ranger.plugin.service.RangerBasePlugin;
+import org.apache.ranger.plugin.util.ServicePolicies;
 import com.hortonworks.registries.schemaregistry.authorizer.core.Authorizer;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class RangerSchemaRegistryAuthorizerImpl implements Authorizer {
 
@@ -34,34 +49,141 @@ public class RangerSchemaRegistryAuthorizerImpl implements Authorizer {
     private static final String RANGER_RESOURCE_SCHEMA_BRANCH = "schema-branch";
     private static final String RANGER_RESOURCE_SCHEMA_VERSION = "schema-version";
 
-    private final RangerBasePlugin plg;
+    /**
+     * Property of the 'authorization' section that sets the number of decisions cached, 0 (the default) disables
+     * the cache. Only the decision that fills the cache is audited by Ranger, the requests answered from the cache
+     * are not, so enable it only where the audit log does not need to list every access.
+     */
+    public static final String DECISION_CACHE_SIZE_CONFIG = "decisionCacheSize";
+    /**
+     * Property of the 'authorization' section that sets how long a cached decision is used, in seconds.
+     */
+    public static final String DECISION_CACHE_EXPIRY_SECS_CONFIG = "decisionCacheExpirySecs";
+    private static final int DEFAULT_DECISION_CACHE_SIZE = 0;
+    private static final long DEFAULT_DECISION_CACHE_EXPIRY_SECS = 60L;
+
+    private final SchemaRegistryRangerPlugin plg;
+
+    // decisions made with the policies of the given version, replaced when the policies are refreshed
+    private volatile DecisionCache decisionCache;
+    private int decisionCacheSize = DEFAULT_DECISION_CACHE_SIZE;
+    private long decisionCacheExpirySecs = DEFAULT_DECISION_CACHE_EXPIRY_SECS;
 
     public RangerSchemaRegistryAuthorizerImpl() {
         this.plg = SchemaRegistryRangerPlugin.getInstance();
+        this.decisionCache = new DecisionCache(-1L);
     }
 
     @Override
-    public void configure(Map<String, Object> props) { }
+    public void configure(Map<String, Object> props) {
+        if (props != null && props.containsKey(DECISION_CACHE_SIZE_CONFIG)) {
+            decisionCacheSize = Integer.parseInt(props.get(DECISION_CACHE_SIZE_CONFIG).toString());
+        }
+        if (props != null && props.containsKey(DECISION_CACHE_EXPIRY_SECS_CONFIG)) {
+            decisionCacheExpirySecs = Long.parseLong(props.get(DECISION_CACHE_EXPIRY_SECS_CONFIG).toString());
+        }
+        decisionCache = new DecisionCache(plg.getPolicyVersion());
+    }
 
     @Override
     public boolean authorize(Resource registryResource,
                              AccessType accessType,
                              UserAndGroups userAndGroups) {
 
-        return authorize(registryResource2RangerResource(registryResource), accessType, userAndGroups)
-                || authorizeRangerSchemaRegistryResource(accessType, userAndGroups);
+        DecisionCache cache = currentDecisionCache();
+        DecisionKey key = new DecisionKey(registryResource, accessType, userAndGroups);
+        Boolean ret = cache.get(key);
+        if (ret == null) {
+            ret = authorize(registryResource2RangerResource(registryResource), accessType, userAndGroups)
+                    || authorizeRangerSchemaRegistryResource(accessType, userAndGroups);
+            cache.put(key, ret);
+        }
+
+        return ret;
+    }
+
+    @Override
+    public List<Boolean> authorizeAll(List<? extends Resource> registryResources,
+                                      AccessType accessType,
+                                      UserAndGroups userAndGroups) {
+
+        DecisionCache cache = currentDecisionCache();
+        Boolean[] ret = new Boolean[registryResources.size()];
+
+        // indexes of the resources which are not decided yet, a resource can be listed more than once
+        Map<DecisionKey, List<Integer>> undecided = new LinkedHashMap<>();
+        for (int i = 0; i < ret.length; i++) {
+            DecisionKey key = new DecisionKey(registryResources.get(i), accessType, userAndGroups);
+            ret[i] = cache.get(key);
+            if (ret[i] == null) {
+                undecided.computeIfAbsent(key, k -> new ArrayList<>()).add(i);
+            }
+        }
+
+        if (!undecided.isEmpty()) {
+            // access to the registry service allows everything, which spares evaluating the resources one by one
+            Iterator<Boolean> decisions;
+            if (authorizeRangerSchemaRegistryResource(accessType, userAndGroups)) {
+                decisions = Collections.nCopies(undecided.size(), Boolean.TRUE).iterator();
+            } else {
+                List<RangerAccessRequest> requests = new ArrayList<>(undecided.size());
+                for (DecisionKey key : undecided.keySet()) {
+                    requests.add(createRequest(registryResource2RangerResource(key.resource), accessType, userAndGroups));
+                }
+                List<Boolean> allowed = new ArrayList<>(requests.size());
+                Collection<RangerAccessResult> results = plg.isAccessAllowed(requests);
+                if (results != null) {
+                    for (RangerAccessResult res : results) {
+                        allowed.add(res != null && res.getIsAllowed());
+                    }
+                }
+                if (allowed.size() != requests.size()) {
+                    throw new IllegalStateException(String.format("Ranger returned %d results for %d requests",
+                            allowed.size(), requests.size()));
+                }
+                decisions = allowed.iterator();
+            }
+
+            for (Map.Entry<DecisionKey, List<Integer>> entry : undecided.entrySet()) {
+                Boolean decision = decisions.next();
+                cache.put(entry.getKey(), decision);
+                for (Integer i : entry.getValue()) {
+                    ret[i] = decision;
+                }
+            }
+        }
+
+        return Arrays.asList(ret);
     }
 
     private boolean authorize(RangerAccessResourceImpl resource,
                               AccessType accessType,
                               UserAndGroups userAndGroups) {
-        RangerAccessRequestImpl request = new RangerAccessRequestImpl(resource, accessType.getName(),
+        RangerAccessResult res = plg.isAccessAllowed(createRequest(resource, accessType, userAndGroups));
+
+        return res != null && res.getIsAllowed();
+    }
+
+    private RangerAccessRequestImpl createRequest(RangerAccessResourceImpl resource,
+                                                  AccessType accessType,
+                                                  UserAndGroups userAndGroups) {
+        return new RangerAccessRequestImpl(resource, accessType.getName(),
                 userAndGroups.getUser(),
                 userAndGroups.getGroups());
+    }
 
-        RangerAccessResult res = plg.isAccessAllowed(request);
+    private DecisionCache currentDecisionCache() {
+        DecisionCache cache = decisionCache;
+        long policyVersion = plg.getPolicyVersion();
+        if (cache.policyVersion != policyVersion) {
+            cache = new DecisionCache(policyVersion);
+            decisionCache = cache;
+        }
+        return cache;
+    }
 
-        return res != null && res.getIsAllowed();
+    RangerBasePlugin getPlugin() {
+        return plg;
     }
 
     RangerAccessResourceImpl registryResource2RangerResource(Resource registryResource) {
@@ -108,12 +230,71 @@ public class RangerSchemaRegistryAuthorizerImpl implements Authorizer {
         return authorize(resource, accessType, userAndGroups);
     }
 
+    private class DecisionCache {
+        private final long policyVersion;
+        private final Cache<DecisionKey, Boolean> decisions;
+
+        DecisionCache(long policyVersion) {
+            this.policyVersion = policyVersion;
+            // user and group membership come from outside of the policies, so decisions also expire with time
+            this.decisions = decisionCacheSize > 0
+                    ? CacheBuilder.newBuilder()
+                            .maximumSize(decisionCacheSize)
+                            .expireAfterWrite(decisionCacheExpirySecs, TimeUnit.SECONDS)
+                            .build()
+                    : null;
+        }
+
+        Boolean get(DecisionKey key) {
+            return decisions != null ? decisions.getIfPresent(key) : null;
+        }
+
+        void put(DecisionKey key, Boolean decision) {
+            if (decisions != null) {
+                decisions.put(key, decision);
+            }
+        }
+    }
+
+    private static class DecisionKey {
+        private final Resource resource;
+        private final AccessType accessType;
+        private final String user;
+        private final Set<String> groups;
+
+        DecisionKey(Resource resource, AccessType accessType, UserAndGroups userAndGroups) {
+            this.resource = resource;
+            this.accessType = accessType;
+            this.user = userAndGroups.getUser();
+            this.groups = userAndGroups.getGroups();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            DecisionKey that = (DecisionKey) o;
+            return accessType == that.accessType &&
+                    Objects.equals(resource, that.resource) &&
+                    Objects.equals(user, that.user) &&
+                    Objects.equals(groups, that.groups);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(resource, accessType, user, groups);
+        }
+    }
+
     private static class SchemaRegistryRangerPlugin extends RangerBasePlugin {
         private static final String PLG_TYPE = "schema-registry";
         private static final String PLG_NAME = "schema-registry";
 
         private static SchemaRegistryRangerPlugin instance;
 
+        // bumped whenever the policies are refreshed from Ranger Admin
+        private final AtomicLong policyVersion = new AtomicLong();
+
         private SchemaRegistryRangerPlugin() {
             this(PLG_TYPE, PLG_NAME);
         }
@@ -133,6 +314,16 @@ public class RangerSchemaRegistryAuthorizerImpl implements Authorizer {
             }
             return instance;
         }
+
+        @Override
+        public void setPolicies(ServicePolicies policies) {
+            super.setPolicies(policies);
+            policyVersion.incrementAndGet();
+        }
+
+        long getPolicyVersion() {
+            return policyVersion.get();
+        }
     }
 
 }
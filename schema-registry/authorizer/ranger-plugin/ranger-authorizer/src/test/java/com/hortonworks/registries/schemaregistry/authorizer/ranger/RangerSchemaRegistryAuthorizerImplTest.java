@@ -15,14 +15,19 @@
  */
 package com.hortonworks.registries.schemaregistry.authorizer.ranger;
 
+import com.hortonworks.registries.schemaregistry.authorizer.ranger.util.TestRangerAdminClientImpl;
 import org.apache.ranger.plugin.policyengine.RangerAccessResourceImpl;
+import org.apache.ranger.plugin.util.ServicePolicies;
 import org.junit.BeforeClass;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.BlockJUnit4ClassRunner;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import static junit.framework.TestCase.assertTrue;
@@ -351,6 +356,64 @@ public class RangerSchemaRegistryAuthorizerImplTest {
 
     }
 
+    @Test
+    public void authorizeAllSchemaMetadata() {
+        List<Authorizer.Resource> resources = Arrays.asList(
+                new Authorizer.SchemaMetadataResource("Group1", "Schema1"),
+                new Authorizer.SchemaMetadataResource("Group1", "Schema2"),
+                new Authorizer.SchemaMetadataResource("Group1", "Schema1"));
+
+        // Exclude from deny policy exists that allows reading Group1/Schema1, no policy for Group1/Schema2
+        UserAndGroups user4 = new UserAndGroups("user4", Collections.singleton("user4"));
+        List<Boolean> res = authorizer.authorizeAll(resources, Authorizer.AccessType.READ, user4);
+        assertThat(res, is(Arrays.asList(true, false, true)));
+
+        // No policy for user1 that 'allows' reading Schema
+        res = authorizer.authorizeAll(resources, Authorizer.AccessType.READ,
+                new UserAndGroups("user1", new HashSet<>()));
+        assertThat(res, is(Arrays.asList(false, false, false)));
+
+        // Allow policy exists that allows reading registry-service
+        res = authorizer.authorizeAll(resources, Authorizer.AccessType.READ,
+                new UserAndGroups("user6", Collections.singleton("user6")));
+        assertThat(res, is(Arrays.asList(true, true, true)));
+    }
+
+    @Test
+    public void decisionCacheInvalidatedOnPolicyChange() throws Exception {
+        RangerSchemaRegistryAuthorizerImpl cachingAuthorizer = new RangerSchemaRegistryAuthorizerImpl();
+        HashMap<String, Object> props = new HashMap<>();
+        props.put(RangerSchemaRegistryAuthorizerImpl.DECISION_CACHE_SIZE_CONFIG, 100);
+        cachingAuthorizer.configure(props);
+
+        Authorizer.Resource resource = new Authorizer.SchemaMetadataResource("Group1", "Schema2");
+        UserAndGroups user6 = new UserAndGroups("user6", Collections.singleton("user6"));
+
+        // Allow policy exists that allows reading registry-service
+        assertTrue(cachingAuthorizer.authorize(resource, Authorizer.AccessType.READ, user6));
+        assertTrue(cachingAuthorizer.authorize(resource, Authorizer.AccessType.READ, user6));
+
+        TestRangerAdminClientImpl adminClient = new TestRangerAdminClientImpl();
+        adminClient.init("SR1", "schema-registry", null);
+        ServicePolicies policies = adminClient.getServicePoliciesIfUpdated(-1, -1);
+        long policyVersion = policies.getPolicyVersion();
+        try {
+            // drop the registry-service policy, the cached decision must not be used any more
+            policies.getPolicies().removeIf(policy -> policy.getName().startsWith("P8 "));
+            policies.setPolicyVersion(policyVersion + 1);
+            cachingAuthorizer.getPlugin().setPolicies(policies);
+            assertFalse(cachingAuthorizer.authorize(resource, Authorizer.AccessType.READ, user6));
+            assertThat(cachingAuthorizer.authorizeAll(Collections.singletonList(resource),
+                    Authorizer.AccessType.READ, user6), is(Collections.singletonList(false)));
+        } finally {
+            ServicePolicies original = adminClient.getServicePoliciesIfUpdated(-1, -1);
+            original.setPolicyVersion(policyVersion + 2);
+            cachingAuthorizer.getPlugin().setPolicies(original);
+        }
+
+        assertTrue(cachingAuthorizer.authorize(resource, Authorizer.AccessType.READ, user6));
+    }
+
     @Test
     public void authorizeSchemaBranch() {
         Set<String> groups = new HashSet<>();
@@ -0,0 +1,446 @@
+/*
+ * Copyright 2016-2019 Cloudera, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hortonworks.registries.schemaregistry.client;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.hortonworks.registries.auth.Login;
+import com.hortonworks.registries.common.catalog.CatalogResponse;
+import com.hortonworks.registries.schemaregistry.SchemaBranch;
+import com.hortonworks.registries.schemaregistry.SchemaIdVersion;
+import com.hortonworks.registries.schemaregistry.SchemaMetadataInfo;
+import com.hortonworks.registries.schemaregistry.SchemaVersion;
+import com.hortonworks.registries.schemaregistry.SchemaVersionInfo;
+import com.hortonworks.registries.schemaregistry.SchemaVersionKey;
+import com.hortonworks.registries.schemaregistry.cache.SchemaVersionInfoCache;
+import com.hortonworks.registries.schemaregistry.errors.IncompatibleSchemaException;
+import com.hortonworks.registries.schemaregistry.errors.InvalidSchemaException;
+import com.hortonworks.registries.schemaregistry.errors.SchemaNotFoundException;
+import com.hortonworks.registries.schemaregistry.exceptions.RegistryRetryableException;
+import com.hortonworks.registries.schemaregistry.retry.RetryExecutor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.security.auth.login.LoginException;
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.client.AsyncInvoker;
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.client.InvocationCallback;
+import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import java.security.PrivilegedAction;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Asynchronous counterpart of {@link SchemaRegistryClient} for the following operations, which return a
+ * {@link CompletableFuture} instead of blocking the calling thread:
+ * <ul>
+ *     <li>{@link #getSchemaMetadataInfo(String)} and {@link #getSchemaMetadataInfo(Long)}</li>
+ *     <li>{@link #getSchemaVersionInfo(SchemaVersionKey)} and {@link #getSchemaVersionInfo(SchemaIdVersion)}</li>
+ *     <li>{@link #getLatestSchemaVersionInfo(String)} and {@link #getLatestSchemaVersionInfo(String, String)}</li>
+ *     <li>{@link #getAllVersions(String)} and {@link #getAllVersions(String, String)}</li>
+ *     <li>{@link #addSchemaVersion(String, SchemaVersion, boolean)} and
+ *     {@link #addSchemaVersion(String, String, SchemaVersion, boolean)}</li>
+ * </ul>
+ * Other operations of {@link ISchemaRegistryClient} are only available on {@link SchemaRegistryClient}.
+ * <p>
+ * Requests are sent with the JAX-RS {@link AsyncInvoker} of the underlying jersey client and share its url selection,
+ * security context and caches. The client uses jersey's default {@code HttpUrlConnector}, which does blocking I/O, so
+ * each request in flight occupies a thread of jersey's async executor till its response is read: the calling thread is
+ * not blocked, but I/O is still thread-per-request. Concurrent identical lookups are coalesced into a single request to
+ * the target registry, and failed requests are retried with the configured
+ * {@link com.hortonworks.registries.schemaregistry.retry.policy.BackoffPolicy} by scheduling the next attempt instead
+ * of sleeping.
+ * <pre>
+ *     AsyncSchemaRegistryClient client = new AsyncSchemaRegistryClient(conf);
+ *     client.getSchemaVersionInfo(new SchemaVersionKey("device", 1))
+ *           .thenAccept(schemaVersionInfo -&gt; ...);
+ * </pre>
+ */
+public class AsyncSchemaRegistryClient implements AutoCloseable {
+    private static final Logger LOG = LoggerFactory.getLogger(AsyncSchemaRegistryClient.class);
+
+    private static final String LATEST_VERSION_REQUEST = "latestVersion";
+    private static final String ALL_VERSIONS_REQUEST = "allVersions";
+
+    private final SchemaRegistryClient schemaRegistryClient;
+    private final boolean closeSchemaRegistryClient;
+    private final Login login;
+    private final UrlSelector urlSelector;
+    private final RetryExecutor retryExecutor;
+    private final SchemaMetadataCache schemaMetadataCache;
+    private final ScheduledExecutorService retryScheduler;
+    private final ConcurrentMap<Object, CompletableFuture<?>> inFlightRequests = new ConcurrentHashMap<>();
+
+    /**
+     * Creates {@link AsyncSchemaRegistryClient} instance with the given configuration, see
+     * {@link SchemaRegistryClient.Configuration} for the supported entries.
+     */
+    public AsyncSchemaRegistryClient(Map<String, ?> conf) {
+        this(new SchemaRegistryClient(conf), true);
+    }
+
+    /**
+     * Creates {@link AsyncSchemaRegistryClient} instance which shares the connections, security context and caches of
+     * the given {@code schemaRegistryClient}. The given client is not closed when this instance is closed.
+     */
+    public AsyncSchemaRegistryClient(SchemaRegistryClient schemaRegistryClient) {
+        this(schemaRegistryClient, false);
+    }
+
+    private AsyncSchemaRegistryClient(SchemaRegistryClient schemaRegistryClient, boolean closeSchemaRegistryClient) {
+        this.schemaRegistryClient = schemaRegistryClient;
+        this.closeSchemaRegistryClient = closeSchemaRegistryClient;
+        login = schemaRegistryClient.login();
+        urlSelector = schemaRegistryClient.urlSelector();
+        retryExecutor = schemaRegistryClient.retryExecutor();
+        schemaMetadataCache = schemaRegistryClient.schemaMetadataCache();
+        retryScheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                                                                            .setNameFormat("schema-registry-client-retry-%d")
+                                                                            .setDaemon(true)
+                                                                            .build());
+    }
+
+    /**
+     * @return future of the schema metadata for the given name, it is completed with null if there is no such schema.
+     */
+    public CompletableFuture<SchemaMetadataInfo> getSchemaMetadataInfo(String schemaName) {
+        SchemaMetadataCache.Key key = SchemaMetadataCache.Key.of(schemaName);
+        return getSchemaMetadataInfo(key, targets -> targets.schemasTarget.path(schemaName));
+    }
+
+    /**
+     * @return future of the schema metadata for the given id, it is completed with null if there is no such schema.
+     */
+    public CompletableFuture<SchemaMetadataInfo> getSchemaMetadataInfo(Long schemaMetadataId) {
+        SchemaMetadataCache.Key key = SchemaMetadataCache.Key.of(schemaMetadataId);
+        return getSchemaMetadataInfo(key, targets -> targets.schemasByIdTarget.path(schemaMetadataId.toString()));
+    }
+
+    private CompletableFuture<SchemaMetadataInfo> getSchemaMetadataInfo(SchemaMetadataCache.Key key,
+                                                                        Function<SchemaRegistryClient.SchemaRegistryTargets, WebTarget> target) {
+        SchemaMetadataInfo schemaMetadataInfo = schemaMetadataCache.getIfPresent(key);
+        if (schemaMetadataInfo != null) {
+            return CompletableFuture.completedFuture(schemaMetadataInfo);
+        }
+
+        return coalesce(key, () -> getEntity(target, SchemaMetadataInfo.class)
+                .handle((result, throwable) -> {
+                    if (throwable != null) {
+                        if (unwrap(throwable) instanceof SchemaNotFoundException) {
+                            return null;
+                        }
+                        throw new CompletionException(unwrap(throwable));
+                    }
+                    schemaMetadataCache.put(result);
+                    return result;
+                }));
+    }
+
+    public CompletableFuture<SchemaVersionInfo> getSchemaVersionInfo(SchemaVersionKey schemaVersionKey) {
+        SchemaVersionInfo schemaVersionInfo = schemaRegistryClient.getCachedSchemaVersionInfo(schemaVersionKey);
+        if (schemaVersionInfo != null) {
+            return CompletableFuture.completedFuture(schemaVersionInfo);
+        }
+
+        LOG.debug("Getting schema version from target registry for [{}]", schemaVersionKey);
+        return coalesce(SchemaVersionInfoCache.Key.of(schemaVersionKey), () -> cacheSchemaVersionInfo(getEntity(
+                targets -> targets.schemasTarget.path(String.format("%s/versions/%d",
+                                                                     schemaVersionKey.getSchemaName(),
+                                                                     schemaVersionKey.getVersion())),
+                SchemaVersionInfo.class)));
+    }
+
+    public CompletableFuture<SchemaVersionInfo> getSchemaVersionInfo(SchemaIdVersion schemaIdVersion) {
+        SchemaVersionInfo schemaVersionInfo = schemaRegistryClient.getCachedSchemaVersionInfo(schemaIdVersion);
+        if (schemaVersionInfo != null) {
+            return CompletableFuture.completedFuture(schemaVersionInfo);
+        }
+
+        if (schemaIdVersion.getSchemaVersionId() != null) {
+            LOG.debug("Getting schema version from target registry for [{}]", schemaIdVersion.getSchemaVersionId());
+            return coalesce(SchemaVersionInfoCache.Key.of(schemaIdVersion), () -> cacheSchemaVersionInfo(getEntity(
+                    targets -> targets.schemaVersionsByIdTarget.path(schemaIdVersion.getSchemaVersionId().toString()),
+                    SchemaVersionInfo.class)));
+        } else if (schemaIdVersion.getSchemaMetadataId() != null) {
+            return getSchemaMetadataInfo(schemaIdVersion.getSchemaMetadataId())
+                    .thenCompose(schemaMetadataInfo -> {
+                        if (schemaMetadataInfo == null) {
+                            return failedFuture(new SchemaNotFoundException("Schema with id "
+                                                                                    + schemaIdVersion.getSchemaMetadataId()
+                                                                                    + " not found"));
+                        }
+                        return getSchemaVersionInfo(new SchemaVersionKey(schemaMetadataInfo.getSchemaMetadata().getName(),
+                                                                         schemaIdVersion.getVersion()));
+                    });
+        }
+
+        return failedFuture(new IllegalArgumentException("Given argument not valid: " + schemaIdVersion));
+    }
+
+    public CompletableFuture<SchemaVersionInfo> getLatestSchemaVersionInfo(String schemaName) {
+        return getLatestSchemaVersionInfo(SchemaBranch.MASTER_BRANCH, schemaName);
+    }
+
+    public CompletableFuture<SchemaVersionInfo> getLatestSchemaVersionInfo(String schemaBranchName, String schemaName) {
+        return coalesce(Arrays.asList(LATEST_VERSION_REQUEST, schemaBranchName, schemaName),
+                        () -> getEntity(targets -> targets.schemasTarget.path(SchemaRegistryClient.encode(schemaName) + "/versions/latest")
+                                                                       .queryParam("branch", schemaBranchName),
+                                        SchemaVersionInfo.class));
+    }
+
+    public CompletableFuture<Collection<SchemaVersionInfo>> getAllVersions(String schemaName) {
+        return getAllVersions(SchemaBranch.MASTER_BRANCH, schemaName);
+    }
+
+    public CompletableFuture<Collection<SchemaVersionInfo>> getAllVersions(String schemaBranchName, String schemaName) {
+        return coalesce(Arrays.asList(ALL_VERSIONS_REQUEST, schemaBranchName, schemaName),
+                        () -> runRetryableRequest(targets -> invoke(targets.schemasTarget.path(SchemaRegistryClient.encode(schemaName) + "/versions")
+                                                                                         .queryParam("branch", schemaBranchName),
+                                                                    (invoker, callback) -> invoker.get(callback)))
+                                .thenApply(response -> SchemaRegistryClient.parseResponseAsEntities(readResponse(response),
+                                                                                                    SchemaVersionInfo.class)));
+    }
+
+    public CompletableFuture<SchemaIdVersion> addSchemaVersion(String schemaName,
+                                                               SchemaVersion schemaVersion,
+                                                               boolean disableCanonicalCheck) {
+        return addSchemaVersion(SchemaBranch.MASTER_BRANCH, schemaName, schemaVersion, disableCanonicalCheck);
+    }
+
+    /**
+     * Adds the given version to the schema with the given name. Unlike lookups, these requests are never coalesced.
+     * The returned future is completed exceptionally with {@link SchemaNotFoundException},
+     * {@link InvalidSchemaException} or {@link IncompatibleSchemaException} as the blocking client would throw.
+     */
+    public CompletableFuture<SchemaIdVersion> addSchemaVersion(String schemaBranchName,
+                                                               String schemaName,
+                                                               SchemaVersion schemaVersion,
+                                                               boolean disableCanonicalCheck) {
+        return getSchemaMetadataInfo(schemaName).thenCompose(schemaMetadataInfo -> {
+            if (schemaMetadataInfo == null) {
+                return failedFuture(new SchemaNotFoundException("Schema with name " + schemaName + " not found"));
+            }
+
+            return runRetryableRequest(targets -> invoke(targets.schemasTarget.path(schemaName)
+                                                                              .path("/versions")
+                                                                              .queryParam("branch", schemaBranchName)
+                                                                              .queryParam("disableCanonicalCheck", disableCanonicalCheck),
+                                                         (invoker, callback) -> invoker.post(Entity.json(schemaVersion), callback)))
+                    .thenApply(AsyncSchemaRegistryClient::readSchemaVersionResponse)
+                    .thenCompose(version -> getSchemaVersionInfo(new SchemaVersionKey(schemaName, version)))
+                    .thenApply(schemaVersionInfo -> new SchemaIdVersion(schemaMetadataInfo.getId(),
+                                                                        schemaVersionInfo.getVersion(),
+                                                                        schemaVersionInfo.getId()));
+        });
+    }
+
+    @Override
+    public void close() {
+        retryScheduler.shutdownNow();
+        if (closeSchemaRegistryClient) {
+            schemaRegistryClient.close();
+        }
+    }
+
+    private CompletableFuture<SchemaVersionInfo> cacheSchemaVersionInfo(CompletableFuture<SchemaVersionInfo> future) {
+        return future.thenApply(schemaVersionInfo -> {
+            schemaRegistryClient.cacheSchemaVersionInfo(schemaVersionInfo);
+            return schemaVersionInfo;
+        });
+    }
+
+    /**
+     * Returns the in flight request for the given key if there is one, otherwise starts a new request with the given
+     * supplier. The request is forgotten once it completes, so that later calls make a fresh request.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> CompletableFuture<T> coalesce(Object key, Supplier<CompletableFuture<T>> request) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        CompletableFuture<T> inFlightRequest = (CompletableFuture<T>) inFlightRequests.putIfAbsent(key, future);
+        if (inFlightRequest != null) {
+            LOG.debug("Joining the in flight request for [{}]", key);
+            return inFlightRequest.thenApply(Function.identity());
+        }
+
+        CompletableFuture<T> response;
+        try {
+            response = request.get();
+        } catch (Exception e) {
+            response = failedFuture(e);
+        }
+        response.whenComplete((result, throwable) -> {
+            inFlightRequests.remove(key, future);
+            if (throwable != null) {
+                future.completeExceptionally(unwrap(throwable));
+            } else {
+                future.complete(result);
+            }
+        });
+
+        return future.thenApply(Function.identity());
+    }
+
+    private <T> CompletableFuture<T> getEntity(Function<SchemaRegistryClient.SchemaRegistryTargets, WebTarget> target,
+                                               Class<T> clazz) {
+        return runRetryableRequest(targets -> invoke(target.apply(targets), (invoker, callback) -> invoker.get(callback)))
+                .thenApply(response -> SchemaRegistryClient.readEntity(readResponse(response), clazz));
+    }
+
+    /**
+     * Asynchronous variant of {@link SchemaRegistryClient}'s retryable blocks. Each attempt tries the urls given by the
+     * {@link UrlSelector} in turn until one of them responds, and attempts are retried as per the configured backoff
+     * policy without blocking any thread in between.
+     */
+    private <T> CompletableFuture<T> runRetryableRequest(Function<SchemaRegistryClient.SchemaRegistryTargets, CompletableFuture<T>> request) {
+        return retryExecutor.executeAsync(() -> tryTargets(request, null, null), retryScheduler);
+    }
+
+    private <T> CompletableFuture<T> tryTargets(Function<SchemaRegistryClient.SchemaRegistryTargets, CompletableFuture<T>> request,
+                                                WebTarget initialWebTarget,
+                                                RegistryRetryableException lastException) {
+        SchemaRegistryClient.SchemaRegistryTargets targets = schemaRegistryClient.currentSchemaRegistryTargets();
+        if (initialWebTarget != null && initialWebTarget.equals(targets.rootTarget)) {
+            return failedFuture(lastException);
+        }
+        WebTarget firstWebTarget = initialWebTarget != null ? initialWebTarget : targets.rootTarget;
+
+        LOG.debug("Using '{}' to make request", targets.rootTarget);
+        CompletableFuture<T> result = new CompletableFuture<>();
+        request.apply(targets).whenComplete((value, throwable) -> {
+            if (throwable == null) {
+                result.complete(value);
+                return;
+            }
+
+            Throwable cause = unwrap(throwable);
+            if (cause instanceof RegistryRetryableException) {
+                urlSelector.urlWithError(targets.rootTarget.getUri().toString(), (RegistryRetryableException) cause);
+                tryTargets(request, firstWebTarget, (RegistryRetryableException) cause).whenComplete((nextValue, nextThrowable) -> {
+                    if (nextThrowable != null) {
+                        result.completeExceptionally(unwrap(nextThrowable));
+                    } else {
+                        result.complete(nextValue);
+                    }
+                });
+            } else {
+                result.completeExceptionally(cause);
+            }
+        });
+
+        return result;
+    }
+
+    /**
+     * Sends the request built by {@code call} with the given target's {@link AsyncInvoker}. Connection failures
+     * complete the returned future with {@link RegistryRetryableException} so that they are retried.
+     */
+    private CompletableFuture<Response> invoke(WebTarget target,
+                                               BiConsumer<AsyncInvoker, InvocationCallback<Response>> call) {
+        CompletableFuture<Response> future = new CompletableFuture<>();
+        InvocationCallback<Response> callback = new InvocationCallback<Response>() {
+            @Override
+            public void completed(Response response) {
+                try {
+                    // the entity is read by the dependent stages which may run on another thread, they close the response
+                    response.bufferEntity();
+                    future.complete(response);
+                } catch (ProcessingException e) {
+                    response.close();
+                    future.completeExceptionally(new RegistryRetryableException(e));
+                }
+            }
+
+            @Override
+            public void failed(Throwable throwable) {
+                future.completeExceptionally(throwable instanceof ProcessingException
+                                             ? new RegistryRetryableException(throwable) : throwable);
+            }
+        };
+
+        try {
+            login.doAction(new PrivilegedAction<Void>() {
+                @Override
+                public Void run() {
+                    call.accept(target.request(MediaType.APPLICATION_JSON_TYPE).async(), callback);
+                    return null;
+                }
+            });
+        } catch (LoginException | ProcessingException e) {
+            future.completeExceptionally(new RegistryRetryableException(e));
+        }
+
+        return future;
+    }
+
+    private static String readResponse(Response response) {
+        try {
+            String msg = response.readEntity(String.class);
+            int status = response.getStatus();
+            if (status == Response.Status.NOT_FOUND.getStatusCode()) {
+                throw new CompletionException(new SchemaNotFoundException(msg));
+            } else if (response.getStatusInfo().getFamily() != Response.Status.Family.SUCCESSFUL) {
+                throw new WebApplicationException(msg, status);
+            }
+
+            return msg;
+        } finally {
+            response.close();
+        }
+    }
+
+    private static Integer readSchemaVersionResponse(Response response) {
+        try {
+            int status = response.getStatus();
+            if (status == Response.Status.BAD_REQUEST.getStatusCode() || status == Response.Status.INTERNAL_SERVER_ERROR.getStatusCode()) {
+                CatalogResponse catalogResponse = SchemaRegistryClient.readCatalogResponse(response.readEntity(String.class));
+                if (CatalogResponse.ResponseMessage.INCOMPATIBLE_SCHEMA.getCode() == catalogResponse.getResponseCode()) {
+                    throw new CompletionException(new IncompatibleSchemaException(catalogResponse.getResponseMessage()));
+                } else if (CatalogResponse.ResponseMessage.INVALID_SCHEMA.getCode() == catalogResponse.getResponseCode()) {
+                    throw new CompletionException(new InvalidSchemaException(catalogResponse.getResponseMessage()));
+                } else {
+                    throw new RuntimeException(catalogResponse.getResponseMessage());
+                }
+            }
+
+            return SchemaRegistryClient.readEntity(readResponse(response), Integer.class);
+        } finally {
+            response.close();
+        }
+    }
+
+    private static Throwable unwrap(Throwable throwable) {
+        return throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+    }
+
+    private static <T> CompletableFuture<T> failedFuture(Throwable throwable) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        future.completeExceptionally(throwable);
+        return future;
+    }
+}
@@ -17,6 +17,7 @@ package com.hortonworks.registries.schemaregistry.client;
 
 import com.hortonworks.registries.schemaregistry.ISchemaRegistryService;
 import com.hortonworks.registries.schemaregistry.SchemaIdVersion;
+import com.hortonworks.registries.schemaregistry.SchemaMetadataInfo;
 import com.hortonworks.registries.schemaregistry.SerDesInfo;
 import com.hortonworks.registries.schemaregistry.errors.IncompatibleSchemaException;
 import com.hortonworks.registries.schemaregistry.errors.InvalidSchemaException;
@@ -25,6 +26,7 @@ import com.hortonworks.registries.schemaregistry.errors.SchemaNotFoundException;
 import com.hortonworks.registries.schemaregistry.serde.SerDesException;
 
 import java.io.InputStream;
+import java.util.Iterator;
 
 /**
  * This interface defines different methods to interact with remote schema registry.
@@ -80,6 +82,10 @@ import java.io.InputStream;
  * // for avro,
  * AvroSnapshotSerializer serializer = schemaRegistryClient.getDefaultSerializer(AvroSchemaProvider.TYPE);
  * AvroSnapshotDeserializer deserializer = schemaRegistryClient.getDefaultDeserializer(AvroSchemaProvider.TYPE);
+ *
+ * // When the avro schema provider is configured with AvroPullSnapshotDeserializer as defaultDeserializerClass, the
+ * // default deserializer decodes only the projected fields of each payload with a pull deserializer.
+ * AvroPullSnapshotDeserializer pullDeserializer = schemaRegistryClient.getDefaultDeserializer(AvroSchemaProvider.TYPE);
  * </pre>
  * <p>
  * Below code describes how to register serializer and deserializers, map them with a schema etc.
@@ -176,6 +182,18 @@ public interface ISchemaRegistryClient extends ISchemaRegistryService, AutoClose
      */
     boolean isCompatibleWithAllVersions(String schemaBranchName,String schemaName, String toSchemaText) throws SchemaNotFoundException, SchemaBranchNotFoundException ;
 
+    /**
+     * Returns an iterator over all the registered schemas ordered by their names. Schemas are fetched from the registry
+     * lazily as the iterator advances, {@code pageSize} of them at a time.
+     *
+     * @param pageSize maximum number of schemas fetched in one request
+     *
+     * @return iterator over all the registered schemas
+     */
+    default Iterator<SchemaMetadataInfo> iterateSchemas(int pageSize) {
+        return new PageIterator<>(continuationToken -> listSchemas(continuationToken, pageSize));
+    }
+
     /**
      * Returns a new instance of default serializer configured for the given type of schema.
      *
@@ -0,0 +1,58 @@
+/**
+ * Copyright 2016-2019 Cloudera, Inc.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package com.hortonworks.registries.schemaregistry.client;
+
+import com.hortonworks.registries.schemaregistry.Page;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+
+/**
+ * Iterates over the entities of a paged listing, fetching the next page with the continuation token of the previous one
+ * only when the entities fetched so far are consumed.
+ */
+class PageIterator<T> implements Iterator<T> {
+    private final Function<String, Page<T>> pageFetcher;
+    private Iterator<T> currentEntities = Collections.emptyIterator();
+    private String continuationToken;
+    private boolean lastPageFetched;
+
+    PageIterator(Function<String, Page<T>> pageFetcher) {
+        this.pageFetcher = pageFetcher;
+    }
+
+    @Override
+    public boolean hasNext() {
+        // loops as a page may be empty, e.g. when all its entities were filtered out by authorization
+        while (!currentEntities.hasNext() && !lastPageFetched) {
+            Page<T> page = pageFetcher.apply(continuationToken);
+            currentEntities = page.getEntities().iterator();
+            continuationToken = page.getContinuationToken();
+            lastPageFetched = !page.hasNext();
+        }
+        return currentEntities.hasNext();
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return currentEntities.next();
+    }
+}
@@ -0,0 +1,433 @@
+/*
+ * Copyright 2016-2019 Cloudera, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hortonworks.registries.schemaregistry.client;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.annotations.VisibleForTesting;
+import com.hortonworks.registries.schemaregistry.SchemaIdVersion;
+import com.hortonworks.registries.schemaregistry.SchemaVersionInfo;
+import com.hortonworks.registries.schemaregistry.SchemaVersionKey;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.LongSupplier;
+import java.util.zip.CRC32;
+
+/**
+ * Local, persistent cache of schema versions and of the ids of registered schema texts. The schema text of a version and
+ * the ids it is registered with never change, so they can be kept across client restarts. This lets clients start
+ * without any request to the schema registry, or even when the registry is not reachable, for the schemas they have
+ * already used.
+ * <p>
+ * Other attributes of a version, like its state, can change on the registry and the cached ones are not authoritative.
+ * Versions deleted on the registry by other clients are not removed from the cache either. Entries are dropped once
+ * they are older than the configured max age, so that they are fetched again from the registry, and the oldest ones are
+ * dropped when there are more than the configured max entries.
+ * <p>
+ * Entries are appended to a log file in the configured directory, named after the registry url so that clients of
+ * different registries can share the directory. The file is memory mapped and read when the cache is opened, and the
+ * entries are kept in memory. The file is then compacted: it is rewritten with the live entries only. This is repeated
+ * whenever the file holds twice as many records as entries allowed. A record which was partially written, for example
+ * because the process crashed, is discarded together with everything after it. The file is locked while it is written,
+ * so it can be shared by several clients and processes.
+ * <p>
+ * Record format: payload length (int), CRC32 of the payload (int), payload. The payload is the record type (byte), the
+ * time the entry was cached (long) and the json of the entry.
+ */
+public class PersistentSchemaCache implements Closeable {
+    private static final Logger LOG = LoggerFactory.getLogger(PersistentSchemaCache.class);
+
+    public static final long DEFAULT_MAX_AGE_MS = 7 * 24 * 60 * 60 * 1000L;
+    public static final int DEFAULT_MAX_ENTRIES = 10000;
+
+    private static final int MAGIC = 0x53524332;
+    private static final int HEADER_SIZE = 4;
+    private static final int RECORD_HEADER_SIZE = 8;
+    private static final int MAX_RECORD_SIZE = 64 * 1024 * 1024;
+
+    private static final byte SCHEMA_VERSION_RECORD = 1;
+    private static final byte SCHEMA_TEXT_RECORD = 2;
+    private static final byte REMOVED_SCHEMA_VERSION_RECORD = 3;
+
+    // channels of the same file in a JVM can not hold overlapping locks, so writers in a JVM are serialized first.
+    private static final ConcurrentMap<String, Object> FILE_MONITORS = new ConcurrentHashMap<>();
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final File file;
+    private final Object fileMonitor;
+    private final FileChannel fileChannel;
+    private final long maxAgeMs;
+    private final int maxEntries;
+    private final LongSupplier clock;
+    // records in the file, guarded by fileMonitor
+    private int records;
+
+    private final ConcurrentMap<Long, Entry<SchemaVersionInfo>> schemaVersionsById = new ConcurrentHashMap<>();
+    private final ConcurrentMap<SchemaVersionKey, Long> schemaVersionIdsByKey = new ConcurrentHashMap<>();
+    private final ConcurrentMap<SchemaIdVersion, Long> schemaVersionIdsByMetadataIdVersion = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Entry<SchemaIdVersion>> schemaIdVersionsByText = new ConcurrentHashMap<>();
+
+    /**
+     * Opens the cache of the given registry stored in the given directory, creating it if it does not exist yet.
+     *
+     * @param dir         directory in which the cache file is stored
+     * @param registryUrl url of the schema registry the entries come from
+     * @throws IOException when the cache file can not be created or read
+     */
+    public PersistentSchemaCache(File dir, String registryUrl) throws IOException {
+        this(dir, registryUrl, DEFAULT_MAX_AGE_MS, DEFAULT_MAX_ENTRIES);
+    }
+
+    /**
+     * @param maxAgeMs   time after which an entry is fetched from the registry again
+     * @param maxEntries number of entries kept, the oldest ones are dropped first
+     */
+    public PersistentSchemaCache(File dir, String registryUrl, long maxAgeMs, int maxEntries) throws IOException {
+        this(dir, registryUrl, maxAgeMs, maxEntries, System::currentTimeMillis);
+    }
+
+    @VisibleForTesting
+    PersistentSchemaCache(File dir, String registryUrl, long maxAgeMs, int maxEntries, LongSupplier clock) throws IOException {
+        if (!dir.exists() && !dir.mkdirs()) {
+            throw new IOException("Could not create persistent schema cache dir: " + dir.getAbsolutePath());
+        }
+        this.maxAgeMs = maxAgeMs;
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+        file = new File(dir, fileName(registryUrl));
+        fileMonitor = FILE_MONITORS.computeIfAbsent(file.getCanonicalPath(), path -> new Object());
+        fileChannel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        synchronized (fileMonitor) {
+            compact();
+        }
+    }
+
+    /**
+     * @return name of the cache file of the given registry
+     */
+    static String fileName(String registryUrl) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(registryUrl.getBytes(StandardCharsets.UTF_8));
+            StringBuilder fileName = new StringBuilder("schema-cache-");
+            for (int i = 0; i < 8; i++) {
+                fileName.append(String.format("%02x", digest[i]));
+            }
+            return fileName.append(".log").toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Reads the file, including the records appended by other clients, and rewrites it with the live entries only.
+     */
+    private void compact() throws IOException {
+        try (FileLock ignored = fileChannel.lock()) {
+            read();
+            evict();
+
+            fileChannel.truncate(0);
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(0, MAGIC);
+            fileChannel.write(header, 0);
+            records = 0;
+            for (Entry<SchemaVersionInfo> entry : schemaVersionsById.values()) {
+                write(SCHEMA_VERSION_RECORD, entry.cachedAt, objectMapper.valueToTree(entry.value));
+            }
+            for (Map.Entry<String, Entry<SchemaIdVersion>> entry : schemaIdVersionsByText.entrySet()) {
+                write(SCHEMA_TEXT_RECORD, entry.getValue().cachedAt, schemaTextNode(entry.getKey(), entry.getValue().value));
+            }
+            LOG.info("Compacted persistent schema cache [{}] to [{}] records", file, records);
+        }
+    }
+
+    private void read() throws IOException {
+        long size = fileChannel.size();
+        if (size < HEADER_SIZE) {
+            return;
+        }
+
+        MappedByteBuffer buffer = fileChannel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        if (buffer.getInt() != MAGIC) {
+            throw new IOException("File " + file + " is not a persistent schema cache");
+        }
+
+        // the file holds all the entries, including the ones of this instance
+        schemaVersionsById.clear();
+        schemaVersionIdsByKey.clear();
+        schemaVersionIdsByMetadataIdVersion.clear();
+        schemaIdVersionsByText.clear();
+        while (buffer.remaining() >= RECORD_HEADER_SIZE) {
+            int start = buffer.position();
+            int length = buffer.getInt();
+            int checksum = buffer.getInt();
+            if (length <= Long.BYTES || length > MAX_RECORD_SIZE || length > buffer.remaining()) {
+                buffer.position(start);
+                break;
+            }
+            byte[] payload = new byte[length];
+            buffer.get(payload);
+            if (checksum(payload) != checksum) {
+                buffer.position(start);
+                break;
+            }
+            applyRecord(payload);
+        }
+
+        if (buffer.position() < size) {
+            LOG.warn("Discarding [{}] bytes of incomplete records at the end of persistent schema cache [{}]",
+                     size - buffer.position(), file);
+        }
+    }
+
+    private void applyRecord(byte[] payload) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(payload);
+        byte recordType = buffer.get();
+        long cachedAt = buffer.getLong();
+        int jsonOffset = 1 + Long.BYTES;
+        JsonNode node = objectMapper.readTree(new String(payload, jsonOffset, payload.length - jsonOffset, StandardCharsets.UTF_8));
+        switch (recordType) {
+            case SCHEMA_VERSION_RECORD:
+                putSchemaVersionInfo(objectMapper.treeToValue(node, SchemaVersionInfo.class), cachedAt);
+                break;
+            case SCHEMA_TEXT_RECORD:
+                schemaIdVersionsByText.put(node.get("key").asText(),
+                                           new Entry<>(objectMapper.treeToValue(node.get("schemaIdVersion"), SchemaIdVersion.class),
+                                                       cachedAt));
+                break;
+            case REMOVED_SCHEMA_VERSION_RECORD:
+                removeSchemaVersionInfo(node.get("id").asLong());
+                break;
+            default:
+                LOG.warn("Ignoring record of unknown type [{}] in persistent schema cache [{}]", recordType, file);
+        }
+    }
+
+    /**
+     * Drops the expired entries and the oldest ones above the max entries.
+     */
+    private void evict() {
+        long now = clock.getAsLong();
+        List<Long> expiredVersionIds = new ArrayList<>();
+        schemaVersionsById.forEach((id, entry) -> {
+            if (isExpired(entry, now)) {
+                expiredVersionIds.add(id);
+            }
+        });
+        expiredVersionIds.forEach(this::removeSchemaVersionInfo);
+        schemaIdVersionsByText.values().removeIf(entry -> isExpired(entry, now));
+
+        int excess = schemaVersionsById.size() + schemaIdVersionsByText.size() - maxEntries;
+        if (excess > 0) {
+            PriorityQueue<Map.Entry<?, ? extends Entry<?>>> oldest =
+                    new PriorityQueue<>((e1, e2) -> Long.compare(e1.getValue().cachedAt, e2.getValue().cachedAt));
+            oldest.addAll(schemaVersionsById.entrySet());
+            oldest.addAll(schemaIdVersionsByText.entrySet());
+            while (excess-- > 0 && !oldest.isEmpty()) {
+                Object key = oldest.poll().getKey();
+                if (key instanceof Long) {
+                    removeSchemaVersionInfo((Long) key);
+                } else {
+                    schemaIdVersionsByText.remove(key);
+                }
+            }
+        }
+    }
+
+    public SchemaVersionInfo getSchemaVersionInfo(SchemaVersionKey schemaVersionKey) {
+        return getSchemaVersionInfo(schemaVersionIdsByKey.get(schemaVersionKey));
+    }
+
+    public SchemaVersionInfo getSchemaVersionInfo(SchemaIdVersion schemaIdVersion) {
+        if (schemaIdVersion.getSchemaVersionId() != null) {
+            return getSchemaVersionInfo(schemaIdVersion.getSchemaVersionId());
+        } else if (schemaIdVersion.getSchemaMetadataId() != null) {
+            return getSchemaVersionInfo(schemaVersionIdsByMetadataIdVersion.get(new SchemaIdVersion(schemaIdVersion.getSchemaMetadataId(),
+                                                                                                    schemaIdVersion.getVersion())));
+        }
+        return null;
+    }
+
+    private SchemaVersionInfo getSchemaVersionInfo(Long schemaVersionId) {
+        Entry<SchemaVersionInfo> entry = schemaVersionId != null ? schemaVersionsById.get(schemaVersionId) : null;
+        return entry != null && !isExpired(entry, clock.getAsLong()) ? entry.value : null;
+    }
+
+    /**
+     * @return id of the version registered in the given branch for the schema text with the given digest, or null if it
+     * is not cached.
+     */
+    public SchemaIdVersion getSchemaIdVersion(String schemaBranchName, String schemaName, byte[] schemaDigest) {
+        Entry<SchemaIdVersion> entry = schemaIdVersionsByText.get(schemaTextKey(schemaBranchName, schemaName, schemaDigest));
+        return entry != null && !isExpired(entry, clock.getAsLong()) ? entry.value : null;
+    }
+
+    public void addSchemaVersionInfo(SchemaVersionInfo schemaVersionInfo) {
+        if (getSchemaVersionInfo(schemaVersionInfo.getId()) != null) {
+            return;
+        }
+        long cachedAt = clock.getAsLong();
+        putSchemaVersionInfo(schemaVersionInfo, cachedAt);
+        append(SCHEMA_VERSION_RECORD, cachedAt, objectMapper.valueToTree(schemaVersionInfo));
+    }
+
+    public void addSchemaIdVersion(String schemaBranchName, String schemaName, byte[] schemaDigest, SchemaIdVersion schemaIdVersion) {
+        String key = schemaTextKey(schemaBranchName, schemaName, schemaDigest);
+        if (schemaIdVersion.equals(getSchemaIdVersion(schemaBranchName, schemaName, schemaDigest))) {
+            return;
+        }
+        long cachedAt = clock.getAsLong();
+        schemaIdVersionsByText.put(key, new Entry<>(schemaIdVersion, cachedAt));
+        append(SCHEMA_TEXT_RECORD, cachedAt, schemaTextNode(key, schemaIdVersion));
+    }
+
+    /**
+     * Removes the schema version with the given id, and the ids of schema texts registered as that version.
+     */
+    public void removeSchemaVersion(Long schemaVersionId) {
+        if (removeSchemaVersionInfo(schemaVersionId)) {
+            ObjectNode node = objectMapper.createObjectNode();
+            node.put("id", schemaVersionId);
+            append(REMOVED_SCHEMA_VERSION_RECORD, clock.getAsLong(), node);
+        }
+    }
+
+    /**
+     * Removes all the versions of the schema with the given name.
+     */
+    public void removeSchemaVersions(String schemaName) {
+        List<Long> schemaVersionIds = new ArrayList<>();
+        for (Entry<SchemaVersionInfo> entry : schemaVersionsById.values()) {
+            if (schemaName.equals(entry.value.getName())) {
+                schemaVersionIds.add(entry.value.getId());
+            }
+        }
+        schemaVersionIds.forEach(this::removeSchemaVersion);
+    }
+
+    private void putSchemaVersionInfo(SchemaVersionInfo schemaVersionInfo, long cachedAt) {
+        schemaVersionsById.put(schemaVersionInfo.getId(), new Entry<>(schemaVersionInfo, cachedAt));
+        schemaVersionIdsByKey.put(new SchemaVersionKey(schemaVersionInfo.getName(), schemaVersionInfo.getVersion()), schemaVersionInfo.getId());
+        if (schemaVersionInfo.getSchemaMetadataId() != null) {
+            schemaVersionIdsByMetadataIdVersion.put(new SchemaIdVersion(schemaVersionInfo.getSchemaMetadataId(),
+                                                                        schemaVersionInfo.getVersion()),
+                                                    schemaVersionInfo.getId());
+        }
+    }
+
+    private boolean removeSchemaVersionInfo(Long schemaVersionId) {
+        Entry<SchemaVersionInfo> entry = schemaVersionsById.remove(schemaVersionId);
+        schemaIdVersionsByText.values().removeIf(text -> schemaVersionId.equals(text.value.getSchemaVersionId()));
+        if (entry == null) {
+            return false;
+        }
+        SchemaVersionInfo schemaVersionInfo = entry.value;
+        schemaVersionIdsByKey.remove(new SchemaVersionKey(schemaVersionInfo.getName(), schemaVersionInfo.getVersion()), schemaVersionId);
+        if (schemaVersionInfo.getSchemaMetadataId() != null) {
+            schemaVersionIdsByMetadataIdVersion.remove(new SchemaIdVersion(schemaVersionInfo.getSchemaMetadataId(),
+                                                                           schemaVersionInfo.getVersion()),
+                                                       schemaVersionId);
+        }
+        return true;
+    }
+
+    private ObjectNode schemaTextNode(String key, SchemaIdVersion schemaIdVersion) {
+        ObjectNode node = objectMapper.createObjectNode();
+        node.put("key", key);
+        node.set("schemaIdVersion", objectMapper.valueToTree(schemaIdVersion));
+        return node;
+    }
+
+    private void append(byte recordType, long cachedAt, JsonNode node) {
+        // the cache only saves requests to the registry, so a failed write must not fail the client.
+        synchronized (fileMonitor) {
+            try {
+                try (FileLock ignored = fileChannel.lock()) {
+                    write(recordType, cachedAt, node);
+                }
+                if (records > 2 * maxEntries) {
+                    compact();
+                }
+            } catch (IOException e) {
+                LOG.warn("Could not write to persistent schema cache [{}]", file, e);
+            }
+        }
+    }
+
+    private void write(byte recordType, long cachedAt, JsonNode node) throws IOException {
+        byte[] json = node.toString().getBytes(StandardCharsets.UTF_8);
+        ByteBuffer payload = ByteBuffer.allocate(1 + Long.BYTES + json.length);
+        payload.put(recordType).putLong(cachedAt).put(json);
+
+        ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_SIZE + payload.capacity());
+        record.putInt(payload.capacity()).putInt(checksum(payload.array())).put(payload.array()).flip();
+
+        long position = fileChannel.size();
+        while (record.hasRemaining()) {
+            position += fileChannel.write(record, position);
+        }
+        records++;
+    }
+
+    private static int checksum(byte[] payload) {
+        CRC32 crc32 = new CRC32();
+        crc32.update(payload, 0, payload.length);
+        return (int) crc32.getValue();
+    }
+
+    private static String schemaTextKey(String schemaBranchName, String schemaName, byte[] schemaDigest) {
+        // schema and branch names can not have new lines
+        return schemaBranchName + '\n' + schemaName + '\n' + Base64.getEncoder().encodeToString(schemaDigest);
+    }
+
+    private boolean isExpired(Entry<?> entry, long now) {
+        return now - entry.cachedAt > maxAgeMs;
+    }
+
+    @Override
+    public void close() throws IOException {
+        fileChannel.close();
+    }
+
+    private static final class Entry<T> {
+        final T value;
+        final long cachedAt;
+
+        Entry(T value, long cachedAt) {
+            this.value = value;
+            this.cachedAt = cachedAt;
+        }
+    }
+}
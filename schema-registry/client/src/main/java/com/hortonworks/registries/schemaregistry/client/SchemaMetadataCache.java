@@ -110,6 +110,16 @@ public class SchemaMetadataCache {
         loadingCache.put(key, schemaMetadataInfo);
     }
 
+    /**
+     * Adds the given schema metadata to the cache with both its name and its id as keys.
+     */
+    public void put(SchemaMetadataInfo schemaMetadataInfo) {
+        String name = schemaMetadataInfo.getSchemaMetadata().getName();
+        schemaNameToIdMap.put(name, schemaMetadataInfo.getId());
+        loadingCache.put(Key.of(name), schemaMetadataInfo);
+        loadingCache.put(Key.of(schemaMetadataInfo.getId()), schemaMetadataInfo);
+    }
+
     public SchemaMetadataInfo getIfPresent(Key key) {
         return loadingCache.getIfPresent(key);
     }
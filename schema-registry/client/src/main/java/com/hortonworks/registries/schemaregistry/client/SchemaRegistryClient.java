@@ -19,6 +19,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.base.Preconditions;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 import com.hortonworks.registries.auth.KerberosLogin;
 import com.hortonworks.registries.auth.Login;
@@ -30,6 +31,7 @@ import com.hortonworks.registries.common.catalog.CatalogResponse;
 import com.hortonworks.registries.common.util.ClassLoaderAwareInvocationHandler;
 import com.hortonworks.registries.schemaregistry.CompatibilityResult;
 import com.hortonworks.registries.schemaregistry.ConfigEntry;
+import com.hortonworks.registries.schemaregistry.Page;
 import com.hortonworks.registries.schemaregistry.SchemaVersionMergeResult;
 import com.hortonworks.registries.schemaregistry.SchemaBranch;
 import com.hortonworks.registries.schemaregistry.SchemaFieldQuery;
@@ -108,6 +110,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -166,6 +169,8 @@ public class SchemaRegistryClient implements ISchemaRegistryClient {
     private static final Set<Class<?>> SERIALIZER_INTERFACE_CLASSES = Sets.<Class<?>>newHashSet(SnapshotSerializer.class, PullSerializer.class);
     private static final String SEARCH_FIELDS = SCHEMA_REGISTRY_PATH + "/search/schemas/fields";
     private static final long KERBEROS_SYNCHRONIZATION_TIMEOUT_MS = 180000;
+    // most version ids the registry accepts in a request
+    private static final int MAX_SCHEMA_VERSION_IDS_PER_REQUEST = 1000;
 
     private static final String SSL_KEY_PASSWORD = "keyPassword";
     private static final String SSL_KEY_STORE_PATH = "keyStorePath";
@@ -182,6 +187,7 @@ public class SchemaRegistryClient implements ISchemaRegistryClient {
     private final SchemaVersionInfoCache schemaVersionInfoCache;
     private final SchemaMetadataCache schemaMetadataCache;
     private final Cache<SchemaDigestEntry, SchemaIdVersion> schemaTextCache;
+    private final PersistentSchemaCache persistentSchemaCache;
 
     private static final String SSL_CONFIGURATION_KEY = "schema.registry.client.ssl";
     private static final String SSL_PROTOCOL_KEY = "schema.registry.client.ssl.protocol";
@@ -268,17 +274,30 @@ public class SchemaRegistryClient implements ISchemaRegistryClient {
                                          .build();
 
         classLoaderCache = new ClassLoaderCache(this);
+        persistentSchemaCache = createPersistentSchemaCache();
 
         schemaVersionInfoCache = new SchemaVersionInfoCache(
                 new SchemaVersionRetriever() {
                     @Override
                     public SchemaVersionInfo retrieveSchemaVersion(SchemaVersionKey key) throws SchemaNotFoundException {
-                        return doGetSchemaVersionInfo(key);
+                        if (persistentSchemaCache != null) {
+                            SchemaVersionInfo schemaVersionInfo = persistentSchemaCache.getSchemaVersionInfo(key);
+                            if (schemaVersionInfo != null) {
+                                return schemaVersionInfo;
+                            }
+                        }
+                        return persistSchemaVersionInfo(doGetSchemaVersionInfo(key));
                     }
 
                     @Override
                     public SchemaVersionInfo retrieveSchemaVersion(SchemaIdVersion key) throws SchemaNotFoundException {
-                        return doGetSchemaVersionInfo(key);
+                        if (persistentSchemaCache != null) {
+                            SchemaVersionInfo schemaVersionInfo = persistentSchemaCache.getSchemaVersionInfo(key);
+                            if (schemaVersionInfo != null) {
+                                return schemaVersionInfo;
+                            }
+                        }
+                        return persistSchemaVersionInfo(doGetSchemaVersionInfo(key));
                     }
                 },
                 ((Number) configuration.getValue(Configuration.SCHEMA_VERSION_CACHE_SIZE.name())).intValue(),
@@ -301,6 +320,33 @@ public class SchemaRegistryClient implements ISchemaRegistryClient {
                                       .build();
     }
 
+    private PersistentSchemaCache createPersistentSchemaCache() {
+        String persistentCachePath = configuration.getValue(Configuration.PERSISTENT_SCHEMA_CACHE_PATH.name());
+        if (persistentCachePath == null) {
+            return null;
+        }
+
+        try {
+            long maxAgeMs = ((Number) configuration.getValue(Configuration.PERSISTENT_SCHEMA_CACHE_EXPIRY_INTERVAL_SECS.name()))
+                    .longValue() * 1000L;
+            int maxEntries = ((Number) configuration.getValue(Configuration.PERSISTENT_SCHEMA_CACHE_SIZE.name())).intValue();
+            return new PersistentSchemaCache(new File(persistentCachePath),
+                                             configuration.getValue(SCHEMA_REGISTRY_URL.name()),
+                                             maxAgeMs,
+                                             maxEntries);
+        } catch (IOException e) {
+            LOG.error("Could not open persistent schema cache at [{}], schemas will only be cached in memory", persistentCachePath, e);
+            return null;
+        }
+    }
+
+    private SchemaVersionInfo persistSchemaVersionInfo(SchemaVersionInfo schemaVersionInfo) {
+        if (persistentSchemaCache != null && schemaVersionInfo != null) {
+            persistentSchemaCache.addSchemaVersionInfo(schemaVersionInfo);
+        }
+        return schemaVersionInfo;
+    }
+
     private BackoffPolicy createRetryPolicy(String retryPolicyClass, Map<String, Object> retryPolicyProps) {
         ClassLoader classLoader = this.getClass().getClassLoader();
         BackoffPolicy backoffPolicy;
@@ -380,23 +426,23 @@ public class SchemaRegistryClient implements ISchemaRegistryClient {
         return sslConfigurator.createSSLContext();
     }
 
-    private SchemaRegistryTargets currentSchemaRegistryTargets() {
+    SchemaRegistryTargets currentSchemaRegistryTargets() {
         String url = urlSelector.select();
         urlWithTargets.computeIfAbsent(url, s -> new SchemaRegistryTargets(client.target(s)));
         return urlWithTargets.get(url);
     }
 
-    private static class SchemaRegistryTargets {
-        private final WebTarget schemaProvidersTarget;
-        private final WebTarget schemasTarget;
-        private final WebTarget schemasByIdTarget;
-        private final WebTarget rootTarget;
-        private final WebTarget searchFieldsTarget;
-        private final WebTarget serializersTarget;
-        private final WebTarget filesTarget;
-        private final WebTarget schemaVersionsTarget;
-        private final WebTarget schemaVersionsByIdTarget;
-        private final WebTarget schemaVersionsStatesMachineTarget;
+    static class SchemaRegistryTargets {
+        final WebTarget schemaProvidersTarget;
+        final WebTarget schemasTarget;
+        final WebTarget schemasByIdTarget;
+        final WebTarget rootTarget;
+        final WebTarget searchFieldsTarget;
+        final WebTarget serializersTarget;
+        final WebTarget filesTarget;
+        final WebTarget schemaVersionsTarget;
+        final WebTarget schemaVersionsByIdTarget;
+        final WebTarget schemaVersionsStatesMachineTarget;
 
         SchemaRegistryTargets(WebTarget rootTarget) {
             this.rootTarget = rootTarget;
@@ -536,10 +582,24 @@ public class SchemaRegistryClient implements ISchemaRegistryClient {
         return schemaMetadataCache.get(SchemaMetadataCache.Key.of(schemaMetadataId));
     }
 
+    @Override
+    public Page<SchemaMetadataInfo> listSchemas(String continuationToken, int pageSize) {
+        return runRetryableBlock((SchemaRegistryTargets targets) -> {
+            WebTarget target = targets.schemasTarget.queryParam(Page.PAGE_SIZE_PARAM_NAME, pageSize);
+            if (continuationToken != null) {
+                target = target.queryParam(Page.CONTINUATION_TOKEN_PARAM_NAME, continuationToken);
+            }
+            return getEntitiesPage(target, SchemaMetadataInfo.class);
+        });
+    }
+
     @Override
     public void deleteSchema(String schemaName) throws SchemaNotFoundException {
         Collection<SchemaVersionInfo> schemaVersionInfos = getAllVersions(schemaName);
         schemaMetadataCache.invalidateSchemaMetadata(SchemaMetadataCache.Key.of(schemaName));
+        if (persistentSchemaCache != null) {
+            persistentSchemaCache.removeSchemaVersions(schemaName);
+        }
         if (schemaVersionInfos != null) {
             for (SchemaVersionInfo schemaVersionInfo: schemaVersionInfos) {
                 SchemaIdVersion schemaIdVersion = new SchemaIdVersion(schemaVersionInfo.getId());
@@ -581,6 +641,12 @@ public class SchemaRegistryClient implements ISchemaRegistryClient {
         // get it, if it exists in cache
         SchemaDigestEntry schemaDigestEntry = buildSchemaTextEntry(schemaVersion, schemaMetadata.getName());
         SchemaIdVersion schemaIdVersion = schemaTextCache.getIfPresent(schemaDigestEntry);
+        if (schemaIdVersion == null && persistentSchemaCache != null) {
+            schemaIdVersion = persistentSchemaCache.getSchemaIdVersion(schemaBranchName, schemaDigestEntry.name, schemaDigestEntry.schemaDigest);
+            if (schemaIdVersion != null) {
+                schemaTextCache.put(schemaDigestEntry, schemaIdVersion);
+            }
+        }
 
         if (schemaIdVersion == null) {
             //register schema metadata if it does not exist
@@ -662,8 +728,18 @@ public class SchemaRegistryClient implements ISchemaRegistryClient {
             throws InvalidSchemaException, IncompatibleSchemaException, SchemaNotFoundException, SchemaBranchNotFoundException {
 
         try {
-            return schemaTextCache.get(buildSchemaTextEntry(schemaVersion, schemaName),
-                    () -> doAddSchemaVersion(schemaBranchName, schemaName, schemaVersion, disableCanonicalCheck));
+            SchemaDigestEntry schemaDigestEntry = buildSchemaTextEntry(schemaVersion, schemaName);
+            return schemaTextCache.get(schemaDigestEntry, () -> {
+                if (persistentSchemaCache == null) {
+                    return doAddSchemaVersion(schemaBranchName, schemaName, schemaVersion, disableCanonicalCheck);
+                }
+                SchemaIdVersion schemaIdVersion = persistentSchemaCache.getSchemaIdVersion(schemaBranchName, schemaName, schemaDigestEntry.schemaDigest);
+                if (schemaIdVersion == null) {
+                    schemaIdVersion = doAddSchemaVersion(schemaBranchName, schemaName, schemaVersion, disableCanonicalCheck);
+                    persistentSchemaCache.addSchemaIdVersion(schemaBranchName, schemaName, schemaDigestEntry.schemaDigest, schemaIdVersion);
+                }
+                return schemaIdVersion;
+            });
         } catch (ExecutionException e) {
             Throwable cause = e.getCause();
             LOG.error("Encountered error while adding new version [{}] of schema [{}] and error [{}]", schemaVersion, schemaName, e);
@@ -686,6 +762,12 @@ public class SchemaRegistryClient implements ISchemaRegistryClient {
     @Override
     public void deleteSchemaVersion(SchemaVersionKey schemaVersionKey) throws SchemaNotFoundException, SchemaLifecycleException {
         schemaVersionInfoCache.invalidateSchema(new SchemaVersionInfoCache.Key(schemaVersionKey));
+        if (persistentSchemaCache != null) {
+            SchemaVersionInfo schemaVersionInfo = persistentSchemaCache.getSchemaVersionInfo(schemaVersionKey);
+            if (schemaVersionInfo != null) {
+                persistentSchemaCache.removeSchemaVersion(schemaVersionInfo.getId());
+            }
+        }
 
         Response response = runRetryableBlock((SchemaRegistryTargets targets) -> {
             WebTarget target = targets.schemasTarget.path(String.format("%s/versions/%s", schemaVersionKey
@@ -834,6 +916,94 @@ public class SchemaRegistryClient implements ISchemaRegistryClient {
         });
     }
 
+    /**
+     * Loads the schema versions with the given ids into the schema version cache with a request to the registry per
+     * {@value #MAX_SCHEMA_VERSION_IDS_PER_REQUEST} ids, so that a consumer which is about to read records written with many schema versions does not fetch them one by
+     * one. Ids which are already cached are not requested again and ids for which there is no schema version are ignored.
+     *
+     * @param schemaVersionIds ids of the schema versions to be loaded
+     */
+    public void prefetchSchemaVersions(Collection<Long> schemaVersionIds) {
+        List<Long> missingIds = new ArrayList<>();
+        for (Long schemaVersionId : new LinkedHashSet<>(schemaVersionIds)) {
+            if (getCachedSchemaVersionInfo(new SchemaIdVersion(schemaVersionId)) == null) {
+                missingIds.add(schemaVersionId);
+            }
+        }
+
+        if (!missingIds.isEmpty()) {
+            LOG.info("Getting [{}] schema versions from target registry", missingIds.size());
+        }
+        for (List<Long> ids : Lists.partition(missingIds, MAX_SCHEMA_VERSION_IDS_PER_REQUEST)) {
+            String idsJson = writeValueAsString(ids);
+            List<SchemaVersionInfo> schemaVersionInfos = runRetryableBlock((SchemaRegistryTargets targets) -> {
+                return postEntities(targets.schemaVersionsByIdTarget, idsJson, SchemaVersionInfo.class);
+            });
+            schemaVersionInfos.forEach(this::cacheSchemaVersionInfo);
+        }
+    }
+
+    /**
+     * Loads all the versions of the given schema into the schema version cache with a single request to the registry.
+     *
+     * @param schemaName name of the schema
+     */
+    public void prefetchSchemaVersions(String schemaName) throws SchemaNotFoundException {
+        prefetchSchemaVersions(SchemaBranch.MASTER_BRANCH, schemaName);
+    }
+
+    /**
+     * Loads all the versions of the given schema branch into the schema version cache with a single request to the
+     * registry.
+     *
+     * @param schemaBranchName name of the schema branch
+     * @param schemaName       name of the schema
+     */
+    public void prefetchSchemaVersions(String schemaBranchName, String schemaName) throws SchemaNotFoundException {
+        getAllVersions(schemaBranchName, schemaName).forEach(this::cacheSchemaVersionInfo);
+    }
+
+    void cacheSchemaVersionInfo(SchemaVersionInfo schemaVersionInfo) {
+        schemaVersionInfoCache.put(schemaVersionInfo);
+        persistSchemaVersionInfo(schemaVersionInfo);
+    }
+
+    /**
+     * @return schema version from the in memory or persistent cache, or null if it is not cached.
+     */
+    SchemaVersionInfo getCachedSchemaVersionInfo(SchemaIdVersion schemaIdVersion) {
+        SchemaVersionInfo schemaVersionInfo = getCachedSchemaVersionInfo(SchemaVersionInfoCache.Key.of(schemaIdVersion));
+        if (schemaVersionInfo == null && persistentSchemaCache != null) {
+            schemaVersionInfo = persistentSchemaCache.getSchemaVersionInfo(schemaIdVersion);
+            if (schemaVersionInfo != null) {
+                schemaVersionInfoCache.put(schemaVersionInfo);
+            }
+        }
+        return schemaVersionInfo;
+    }
+
+    /**
+     * @return schema version from the in memory or persistent cache, or null if it is not cached.
+     */
+    SchemaVersionInfo getCachedSchemaVersionInfo(SchemaVersionKey schemaVersionKey) {
+        SchemaVersionInfo schemaVersionInfo = getCachedSchemaVersionInfo(SchemaVersionInfoCache.Key.of(schemaVersionKey));
+        if (schemaVersionInfo == null && persistentSchemaCache != null) {
+            schemaVersionInfo = persistentSchemaCache.getSchemaVersionInfo(schemaVersionKey);
+            if (schemaVersionInfo != null) {
+                schemaVersionInfoCache.put(schemaVersionInfo);
+            }
+        }
+        return schemaVersionInfo;
+    }
+
+    private SchemaVersionInfo getCachedSchemaVersionInfo(SchemaVersionInfoCache.Key key) {
+        try {
+            return schemaVersionInfoCache.getSchemaIfPresent(key);
+        } catch (SchemaNotFoundException e) {
+            return null;
+        }
+    }
+
     @Override
     public SchemaVersionInfo getLatestSchemaVersionInfo(String schemaBranchName, String schemaName) throws SchemaNotFoundException {
         return runRetryableBlock((SchemaRegistryTargets targets) -> {
@@ -847,7 +1017,7 @@ public class SchemaRegistryClient implements ISchemaRegistryClient {
         return getAllVersions(SchemaBranch.MASTER_BRANCH, schemaName);
     }
 
-    private static String encode(String schemaName) {
+    static String encode(String schemaName) {
         try {
             return URLEncoder.encode(schemaName, "UTF-8");
         } catch (UnsupportedEncodingException e) {
@@ -876,6 +1046,9 @@ public class SchemaRegistryClient implements ISchemaRegistryClient {
 
     @Override
     public void deleteSchemaVersion(Long schemaVersionId) throws SchemaNotFoundException, SchemaLifecycleException {
+        if (persistentSchemaCache != null) {
+            persistentSchemaCache.removeSchemaVersion(schemaVersionId);
+        }
         transitionSchemaVersionState(schemaVersionId, "delete", null);
     }
 
@@ -1232,12 +1405,37 @@ public class SchemaRegistryClient implements ISchemaRegistryClient {
     @Override
     public void close() {
         client.close();
+        if (persistentSchemaCache != null) {
+            try {
+                persistentSchemaCache.close();
+            } catch (IOException e) {
+                LOG.warn("Error while closing persistent schema cache", e);
+            }
+        }
     }
 
     public SchemaRegistryVersion clientVersion() {
         return CLIENT_VERSION;
     }
 
+    // below accessors share the client's state with AsyncSchemaRegistryClient
+
+    Login login() {
+        return login;
+    }
+
+    UrlSelector urlSelector() {
+        return urlSelector;
+    }
+
+    RetryExecutor retryExecutor() {
+        return retryExecutor;
+    }
+
+    SchemaMetadataCache schemaMetadataCache() {
+        return schemaMetadataCache;
+    }
+
     private <T> T createInstance(SerDesInfo serDesInfo, boolean isSerializer) {
         Set<Class<?>> interfaceClasses = isSerializer ? SERIALIZER_INTERFACE_CLASSES : DESERIALIZER_INTERFACE_CLASSES;
 
@@ -1295,7 +1493,33 @@ public class SchemaRegistryClient implements ISchemaRegistryClient {
         return parseResponseAsEntities(response, clazz);
     }
 
-    private <T> List<T> parseResponseAsEntities(String response, Class<T> clazz) {
+    private <T> Page<T> getEntitiesPage(WebTarget target, Class<T> clazz) {
+        String response = null;
+        try {
+            response = login.doAction(new PrivilegedAction<String>() {
+                @Override
+                public String run() {
+                    return target.request(MediaType.APPLICATION_JSON_TYPE).get(String.class);
+                }
+            });
+        } catch (LoginException | ProcessingException e) {
+            throw new RegistryRetryableException(e);
+        }
+        return parseResponseAsPage(response, clazz);
+    }
+
+    static <T> Page<T> parseResponseAsPage(String response, Class<T> clazz) {
+        String continuationToken;
+        try {
+            JsonNode continuationTokenNode = new ObjectMapper().readTree(response).get("continuationToken");
+            continuationToken = continuationTokenNode != null && !continuationTokenNode.isNull() ? continuationTokenNode.asText() : null;
+        } catch (IOException ex) {
+            throw new RuntimeException(ex);
+        }
+        return new Page<>(parseResponseAsEntities(response, clazz), continuationToken);
+    }
+
+    static <T> List<T> parseResponseAsEntities(String response, Class<T> clazz) {
         List<T> entities = new ArrayList<>();
         try {
             ObjectMapper mapper = new ObjectMapper();
@@ -1325,7 +1549,30 @@ public class SchemaRegistryClient implements ISchemaRegistryClient {
         return readEntity(response, responseType);
     }
 
-    private <T> T readEntity(String response, Class<T> clazz) {
+    private static String writeValueAsString(Object value) {
+        try {
+            return new ObjectMapper().writeValueAsString(value);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private <T> List<T> postEntities(WebTarget target, Object json, Class<T> clazz) {
+        String response = null;
+        try {
+            response = login.doAction(new PrivilegedAction<String>() {
+                @Override
+                public String run() {
+                    return target.request(MediaType.APPLICATION_JSON_TYPE).post(Entity.json(json), String.class);
+                }
+            });
+        } catch (LoginException | ProcessingException e) {
+            throw new RegistryRetryableException(e);
+        }
+        return parseResponseAsEntities(response, clazz);
+    }
+
+    static <T> T readEntity(String response, Class<T> clazz) {
         try {
             ObjectMapper mapper = new ObjectMapper();
             return mapper.readValue(response, clazz);
@@ -1420,6 +1667,51 @@ public class SchemaRegistryClient implements ISchemaRegistryClient {
                                      ConfigEntry.StringConverter.get(),
                                      ConfigEntry.NonEmptyStringValidator.get());
 
+        /**
+         * Local directory in which schema versions are cached across client restarts. For ex: /tmp/schema-registry/schema-cache
+         * Schemas are only cached in memory when this is not set.
+         */
+        public static final ConfigEntry<String> PERSISTENT_SCHEMA_CACHE_PATH =
+                ConfigEntry.optional("schema.registry.client.persistent.schema.cache.path",
+                                     String.class,
+                                     "Local directory in which schema versions are cached across client restarts",
+                                     null,
+                                     ConfigEntry.StringConverter.get(),
+                                     ConfigEntry.NonEmptyStringValidator.get());
+
+        /**
+         * Default expiry interval(in secs) of an entry in the persistent schema cache.
+         */
+        public static final long DEFAULT_PERSISTENT_SCHEMA_CACHE_EXPIRY_INTERVAL_SECS = PersistentSchemaCache.DEFAULT_MAX_AGE_MS / 1000L;
+
+        /**
+         * Default number of entries in the persistent schema cache.
+         */
+        public static final int DEFAULT_PERSISTENT_SCHEMA_CACHE_SIZE = PersistentSchemaCache.DEFAULT_MAX_ENTRIES;
+
+        /**
+         * Expiry interval(in seconds) of an entry in the persistent schema cache, after which it is fetched from the registry
+         * again. Default value is {@link #DEFAULT_PERSISTENT_SCHEMA_CACHE_EXPIRY_INTERVAL_SECS}
+         */
+        public static final ConfigEntry<Number> PERSISTENT_SCHEMA_CACHE_EXPIRY_INTERVAL_SECS =
+                ConfigEntry.optional("schema.registry.client.persistent.schema.cache.expiry.interval.secs",
+                                     Integer.class,
+                                     "Expiry interval(in seconds) of an entry in the persistent schema cache",
+                                     DEFAULT_PERSISTENT_SCHEMA_CACHE_EXPIRY_INTERVAL_SECS,
+                                     ConfigEntry.IntegerConverter.get(),
+                                     ConfigEntry.PositiveNumberValidator.get());
+
+        /**
+         * Maximum number of entries in the persistent schema cache. Default value is {@link #DEFAULT_PERSISTENT_SCHEMA_CACHE_SIZE}
+         */
+        public static final ConfigEntry<Number> PERSISTENT_SCHEMA_CACHE_SIZE =
+                ConfigEntry.optional("schema.registry.client.persistent.schema.cache.size",
+                                     Integer.class,
+                                     "Maximum number of entries in the persistent schema cache",
+                                     DEFAULT_PERSISTENT_SCHEMA_CACHE_SIZE,
+                                     ConfigEntry.IntegerConverter.get(),
+                                     ConfigEntry.PositiveNumberValidator.get());
+
         /**
          * Default value for classloader cache size.
          */
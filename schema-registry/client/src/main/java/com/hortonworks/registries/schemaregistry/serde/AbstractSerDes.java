@@ -62,6 +62,14 @@ public abstract class AbstractSerDes {
     protected void doInit(Map<String, ?> config) {
     }
 
+    protected Object getValue(Map<String, ?> config, String key, Object defaultValue) {
+        Object value = config.get(key);
+        if (value == null) {
+            value = defaultValue;
+        }
+        return value;
+    }
+
     public void close() throws Exception {
         if (closed) {
             LOG.info("This instance [{}] is already closed", this);
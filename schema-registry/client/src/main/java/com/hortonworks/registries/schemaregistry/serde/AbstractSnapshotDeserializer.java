@@ -116,14 +116,6 @@ public abstract class AbstractSnapshotDeserializer<I, O, S> extends AbstractSerD
         return value;
     }
 
-    protected Object getValue(Map<String, ?> config, String key, Object defaultValue) {
-        Object value = config.get(key);
-        if (value == null) {
-            value = defaultValue;
-        }
-        return value;
-    }
-
     /**
      * Returns the parsed schema representation of the schema associated with the given {@code schemaVersionKey}
      * @param schemaVersionKey
@@ -200,7 +192,7 @@ public abstract class AbstractSnapshotDeserializer<I, O, S> extends AbstractSerD
         }
     }
 
-    private void ensureInitialized() {
+    protected void ensureInitialized() {
         if (!initialized) {
             throw new IllegalStateException("init should be invoked before invoking deserialize operation");
         }
@@ -14,6 +14,8 @@
  **/
 package com.hortonworks.registries.schemaregistry.serde;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.hortonworks.registries.schemaregistry.SchemaIdVersion;
 import com.hortonworks.registries.schemaregistry.SchemaMetadata;
 import com.hortonworks.registries.schemaregistry.SchemaVersion;
@@ -24,6 +26,10 @@ import com.hortonworks.registries.schemaregistry.errors.SchemaBranchNotFoundExce
 import com.hortonworks.registries.schemaregistry.errors.SchemaNotFoundException;
 import com.hortonworks.registries.schemaregistry.exceptions.RegistryException;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
 /**
  * This class implements {@link SnapshotSerializer} and internally creates schema registry client to connect to the
  * target schema registry.
@@ -33,9 +39,36 @@ import com.hortonworks.registries.schemaregistry.exceptions.RegistryException;
  *    <li>{@link #doSerialize(Object, SchemaIdVersion)}</li>
  *    <li>{@link #getSchemaText(Object)}</li>
  * </ul>
+ *
+ * Extensions can also implement {@link #getSchema(Object)} to return the schema instance of an input payload. Registered
+ * schema versions are then cached against that instance so that serializing payloads with an already seen schema
+ * instance does not build schema text.
  */
 public abstract class AbstractSnapshotSerializer<I, O> extends AbstractSerDes implements SnapshotSerializer<I, O, SchemaMetadata> {
 
+    /**
+     * Maximum number of schema instances for which registered schema versions are cached in serializer instance.
+     */
+    public static final String SERIALIZER_SCHEMA_CACHE_MAX_SIZE = "schemaregistry.serializer.schema.cache.size";
+
+    /**
+     * Default schema cache max size.
+     */
+    public static final Integer DEFAULT_SERIALIZER_SCHEMA_CACHE_SIZE = 1024;
+
+    /**
+     * Expiry interval(in seconds) after an access for an entry in schema cache
+     */
+    public static final String SERIALIZER_SCHEMA_CACHE_EXPIRY_IN_SECS = "schemaregistry.serializer.schema.cache.expiry.secs";
+
+    /**
+     * Default schema cache entry access expiration interval
+     */
+    public static final Long DEFAULT_SERIALIZER_SCHEMA_CACHE_EXPIRY_IN_SECS = 60 * 5L;
+
+    // keys are compared by identity as weak keys are used
+    private Cache<Object, Map<String, SchemaIdVersion>> schemaIdVersionCache;
+
     public AbstractSnapshotSerializer() {
     }
 
@@ -43,21 +76,76 @@ public abstract class AbstractSnapshotSerializer<I, O> extends AbstractSerDes im
         super(schemaRegistryClient);
     }
 
+    @Override
+    protected void doInit(Map<String, ?> config) {
+        schemaIdVersionCache = CacheBuilder.newBuilder()
+                .weakKeys()
+                .maximumSize(getCacheMaxSize(config))
+                .expireAfterAccess(getCacheExpiryInSecs(config), TimeUnit.SECONDS)
+                .build();
+    }
+
+    private long getCacheExpiryInSecs(Map<String, ?> config) {
+        long value = ((Number) getValue(config, SERIALIZER_SCHEMA_CACHE_EXPIRY_IN_SECS, DEFAULT_SERIALIZER_SCHEMA_CACHE_EXPIRY_IN_SECS)).longValue();
+        if (value < 0) {
+            throw new IllegalArgumentException("Property: " + SERIALIZER_SCHEMA_CACHE_EXPIRY_IN_SECS + " must be non negative.");
+        }
+        return value;
+    }
+
+    private long getCacheMaxSize(Map<String, ?> config) {
+        long value = ((Number) getValue(config, SERIALIZER_SCHEMA_CACHE_MAX_SIZE, DEFAULT_SERIALIZER_SCHEMA_CACHE_SIZE)).longValue();
+        if (value < 0) {
+            throw new IllegalArgumentException("Property: " + SERIALIZER_SCHEMA_CACHE_MAX_SIZE + " must be non negative.");
+        }
+        return value;
+    }
+
     @Override
     public final O serialize(I input, SchemaMetadata schemaMetadata) throws SerDesException {
         ensureInitialized();
 
-        // compute schema based on input object
-        String schema = getSchemaText(input);
+        // look up the version registered for this schema instance before building schema text
+        Object schema = getSchema(input);
+        SchemaIdVersion schemaIdVersion = getCachedSchemaIdVersion(schema, schemaMetadata.getName());
+
+        if (schemaIdVersion == null) {
+            // compute schema based on input object
+            String schemaText = getSchemaText(input);
 
-        // register that schema and get the version
-        try {
-            SchemaIdVersion schemaIdVersion = schemaRegistryClient.addSchemaVersion(schemaMetadata, new SchemaVersion(schema, "Schema registered by serializer:" + this.getClass()));
-            // write the version and given object to the output
-            return doSerialize(input, schemaIdVersion);
-        } catch (SchemaNotFoundException | IncompatibleSchemaException | InvalidSchemaException | SchemaBranchNotFoundException e) {
-            throw new RegistryException(e);
+            // register that schema and get the version
+            try {
+                schemaIdVersion = schemaRegistryClient.addSchemaVersion(schemaMetadata, new SchemaVersion(schemaText, "Schema registered by serializer:" + this.getClass()));
+            } catch (SchemaNotFoundException | IncompatibleSchemaException | InvalidSchemaException | SchemaBranchNotFoundException e) {
+                throw new RegistryException(e);
+            }
+
+            if (schema != null) {
+                schemaIdVersionCache.asMap()
+                                    .computeIfAbsent(schema, x -> new ConcurrentHashMap<>())
+                                    .put(schemaMetadata.getName(), schemaIdVersion);
+            }
         }
+
+        // write the version and given object to the output
+        return doSerialize(input, schemaIdVersion);
+    }
+
+    private SchemaIdVersion getCachedSchemaIdVersion(Object schema, String schemaName) {
+        if (schema == null || schemaIdVersionCache == null) {
+            return null;
+        }
+        Map<String, SchemaIdVersion> schemaIdVersions = schemaIdVersionCache.getIfPresent(schema);
+        return schemaIdVersions != null ? schemaIdVersions.get(schemaName) : null;
+    }
+
+    /**
+     * Returns the schema instance of the given {@code input} payload which is used as an identity key to cache the
+     * registered schema version. Returning null disables this cache and the schema text is always looked up.
+     * @param input input payload
+     */
+    protected Object getSchema(I input) {
+        return null;
     }
 
     /**
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2016-2019 Cloudera, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hortonworks.registries.schemaregistry.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hortonworks.registries.schemaregistry.SchemaIdVersion;
+import com.hortonworks.registries.schemaregistry.SchemaVersionInfo;
+import com.hortonworks.registries.schemaregistry.SchemaVersionKey;
+import com.hortonworks.registries.schemaregistry.errors.SchemaNotFoundException;
+import com.hortonworks.registries.schemaregistry.exceptions.RegistryRetryableException;
+import com.hortonworks.registries.schemaregistry.retry.policy.BackoffPolicy;
+import com.hortonworks.registries.schemaregistry.retry.policy.FixedTimeBackoffPolicy;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ *
+ */
+public class AsyncSchemaRegistryClientTest {
+
+    private static final SchemaVersionInfo SCHEMA_VERSION_INFO =
+            new SchemaVersionInfo(1L, "device", 1, 10L, "\"string\"", System.currentTimeMillis(), "device schema", null);
+
+    private HttpServer server;
+    private AtomicInteger requestCount;
+    private CountDownLatch responseLatch;
+
+    @Before
+    public void setup() throws Exception {
+        requestCount = new AtomicInteger();
+        responseLatch = new CountDownLatch(1);
+        byte[] schemaVersionInfo = new ObjectMapper().writeValueAsBytes(SCHEMA_VERSION_INFO);
+
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/api/v1/schemaregistry/schemas/versionsById/", exchange -> {
+            requestCount.incrementAndGet();
+            try {
+                responseLatch.await(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            boolean found = exchange.getRequestURI().getPath().endsWith("/1");
+            byte[] response = found ? schemaVersionInfo : "{}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(found ? 200 : 404, response.length);
+            try (OutputStream outputStream = exchange.getResponseBody()) {
+                outputStream.write(response);
+            }
+        });
+        server.start();
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void testConcurrentLookupsAreCoalesced() throws Exception {
+        try (AsyncSchemaRegistryClient client = new AsyncSchemaRegistryClient(conf("http://localhost:" + server.getAddress().getPort() + "/api/v1"))) {
+            List<CompletableFuture<SchemaVersionInfo>> futures = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                futures.add(client.getSchemaVersionInfo(new SchemaIdVersion(1L)));
+            }
+            // none of the callers is blocked while the request is in flight
+            for (CompletableFuture<SchemaVersionInfo> future : futures) {
+                Assert.assertFalse(future.isDone());
+            }
+
+            responseLatch.countDown();
+            for (CompletableFuture<SchemaVersionInfo> future : futures) {
+                Assert.assertEquals(SCHEMA_VERSION_INFO, future.get(30, TimeUnit.SECONDS));
+            }
+            Assert.assertEquals(1, requestCount.get());
+
+            // later lookups with either key are served from the cache
+            Assert.assertEquals(SCHEMA_VERSION_INFO, client.getSchemaVersionInfo(new SchemaIdVersion(1L)).get());
+            Assert.assertEquals(SCHEMA_VERSION_INFO, client.getSchemaVersionInfo(new SchemaVersionKey("device", 1)).get());
+            Assert.assertEquals(SCHEMA_VERSION_INFO, client.getSchemaVersionInfo(new SchemaIdVersion(10L, 1)).get());
+            Assert.assertEquals(1, requestCount.get());
+        }
+    }
+
+    @Test
+    public void testMissingSchemaVersion() throws Exception {
+        responseLatch.countDown();
+        try (AsyncSchemaRegistryClient client = new AsyncSchemaRegistryClient(conf("http://localhost:" + server.getAddress().getPort() + "/api/v1"))) {
+            client.getSchemaVersionInfo(new SchemaIdVersion(2L)).get(30, TimeUnit.SECONDS);
+            Assert.fail("Lookup of a missing schema version should fail");
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof SchemaNotFoundException);
+        }
+    }
+
+    @Test
+    public void testUnreachableRegistryIsRetried() throws Exception {
+        int port;
+        try (ServerSocket serverSocket = new ServerSocket(0)) {
+            port = serverSocket.getLocalPort();
+        }
+
+        try (AsyncSchemaRegistryClient client = new AsyncSchemaRegistryClient(conf("http://localhost:" + port + "/api/v1"))) {
+            client.getSchemaVersionInfo(new SchemaIdVersion(1L)).get(30, TimeUnit.SECONDS);
+            Assert.fail("Lookup against an unreachable registry should fail");
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof RegistryRetryableException);
+        }
+    }
+
+    private static Map<String, Object> conf(String url) {
+        Map<String, Object> retryPolicyConfig = new HashMap<>();
+        retryPolicyConfig.put(BackoffPolicy.SLEEP_TIME_MS, 10L);
+        retryPolicyConfig.put(BackoffPolicy.MAX_ATTEMPTS, 3);
+        retryPolicyConfig.put(BackoffPolicy.TIMEOUT_MS, 10_000L);
+        Map<String, Object> retryPolicy = new HashMap<>();
+        retryPolicy.put("className", FixedTimeBackoffPolicy.class.getName());
+        retryPolicy.put("config", retryPolicyConfig);
+
+        Map<String, Object> conf = new HashMap<>();
+        conf.put(SchemaRegistryClient.Configuration.SCHEMA_REGISTRY_URL.name(), url);
+        conf.put("schema.registry.client.retry.policy", retryPolicy);
+        return conf;
+    }
+}
@@ -0,0 +1,58 @@
+/**
+ * Copyright 2016-2019 Cloudera, Inc.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package com.hortonworks.registries.schemaregistry.client;
+
+import com.google.common.collect.Lists;
+import com.hortonworks.registries.schemaregistry.Page;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class PageIteratorTest {
+
+    @Test
+    public void testIterator_MultiplePages_AllEntitiesInOrder() {
+        Map<String, Page<Integer>> pages = new HashMap<>();
+        pages.put(null, new Page<>(Arrays.asList(1, 2), "a"));
+        pages.put("a", new Page<>(Collections.emptyList(), "b"));
+        pages.put("b", new Page<>(Collections.singletonList(3), null));
+        List<String> requestedTokens = new ArrayList<>();
+
+        PageIterator<Integer> iterator = new PageIterator<>(token -> {
+            requestedTokens.add(token);
+            return pages.get(token);
+        });
+
+        Assert.assertEquals(Arrays.asList(1, 2, 3), Lists.newArrayList(iterator));
+        Assert.assertEquals(Arrays.asList(null, "a", "b"), requestedTokens);
+        Assert.assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    public void testParseResponseAsPage_WithContinuationToken() {
+        Page<String> page = SchemaRegistryClient.parseResponseAsPage("{\"entities\":[\"x\",\"y\"],\"continuationToken\":\"eA\"}", String.class);
+
+        Assert.assertEquals(Arrays.asList("x", "y"), page.getEntities());
+        Assert.assertEquals("eA", page.getContinuationToken());
+        Assert.assertFalse(SchemaRegistryClient.parseResponseAsPage("{\"entities\":[]}", String.class).hasNext());
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright 2016-2019 Cloudera, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hortonworks.registries.schemaregistry.client;
+
+import com.hortonworks.registries.schemaregistry.SchemaIdVersion;
+import com.hortonworks.registries.schemaregistry.SchemaVersionInfo;
+import com.hortonworks.registries.schemaregistry.SchemaVersionKey;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.net.ServerSocket;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ *
+ */
+public class PersistentSchemaCacheTest {
+    private static final String REGISTRY_URL = "http://localhost:9090/api/v1";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testEntriesAreKeptAcrossRestarts() throws Exception {
+        File dir = temporaryFolder.newFolder();
+        SchemaVersionInfo first = schemaVersionInfo(1L, 1);
+        SchemaVersionInfo second = schemaVersionInfo(2L, 2);
+        byte[] digest = {1, 2, 3};
+
+        try (PersistentSchemaCache cache = new PersistentSchemaCache(dir, REGISTRY_URL)) {
+            cache.addSchemaVersionInfo(first);
+            cache.addSchemaVersionInfo(second);
+            cache.addSchemaIdVersion("MASTER", "device", digest, new SchemaIdVersion(10L, 2, 2L));
+        }
+
+        try (PersistentSchemaCache cache = new PersistentSchemaCache(dir, REGISTRY_URL)) {
+            Assert.assertEquals(first, cache.getSchemaVersionInfo(new SchemaIdVersion(1L)));
+            Assert.assertEquals(second, cache.getSchemaVersionInfo(new SchemaVersionKey("device", 2)));
+            Assert.assertEquals(second, cache.getSchemaVersionInfo(new SchemaIdVersion(10L, 2)));
+            Assert.assertEquals(new SchemaIdVersion(10L, 2, 2L), cache.getSchemaIdVersion("MASTER", "device", digest));
+
+            cache.removeSchemaVersion(2L);
+        }
+
+        try (PersistentSchemaCache cache = new PersistentSchemaCache(dir, REGISTRY_URL)) {
+            Assert.assertEquals(first, cache.getSchemaVersionInfo(new SchemaIdVersion(1L)));
+            Assert.assertNull(cache.getSchemaVersionInfo(new SchemaIdVersion(2L)));
+            Assert.assertNull(cache.getSchemaIdVersion("MASTER", "device", digest));
+        }
+    }
+
+    @Test
+    public void testIncompleteRecordIsDiscarded() throws Exception {
+        File dir = temporaryFolder.newFolder();
+        try (PersistentSchemaCache cache = new PersistentSchemaCache(dir, REGISTRY_URL)) {
+            cache.addSchemaVersionInfo(schemaVersionInfo(1L, 1));
+            cache.addSchemaVersionInfo(schemaVersionInfo(2L, 2));
+        }
+
+        // simulate a crash while the last record was being written
+        File file = new File(dir, PersistentSchemaCache.fileName(REGISTRY_URL));
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+            randomAccessFile.setLength(randomAccessFile.length() - 5);
+        }
+
+        try (PersistentSchemaCache cache = new PersistentSchemaCache(dir, REGISTRY_URL)) {
+            Assert.assertNotNull(cache.getSchemaVersionInfo(new SchemaIdVersion(1L)));
+            Assert.assertNull(cache.getSchemaVersionInfo(new SchemaIdVersion(2L)));
+            cache.addSchemaVersionInfo(schemaVersionInfo(3L, 3));
+        }
+
+        try (PersistentSchemaCache cache = new PersistentSchemaCache(dir, REGISTRY_URL)) {
+            Assert.assertNotNull(cache.getSchemaVersionInfo(new SchemaIdVersion(1L)));
+            Assert.assertNotNull(cache.getSchemaVersionInfo(new SchemaIdVersion(3L)));
+        }
+    }
+
+    @Test
+    public void testClientStartsWithUnreachableRegistry() throws Exception {
+        File dir = temporaryFolder.newFolder();
+        SchemaVersionInfo schemaVersionInfo = schemaVersionInfo(1L, 1);
+        int port;
+        try (ServerSocket serverSocket = new ServerSocket(0)) {
+            port = serverSocket.getLocalPort();
+        }
+        String registryUrl = "http://localhost:" + port + "/api/v1";
+        try (PersistentSchemaCache cache = new PersistentSchemaCache(dir, registryUrl)) {
+            cache.addSchemaVersionInfo(schemaVersionInfo);
+        }
+
+        Map<String, Object> conf = new HashMap<>();
+        conf.put(SchemaRegistryClient.Configuration.SCHEMA_REGISTRY_URL.name(), registryUrl);
+        conf.put(SchemaRegistryClient.Configuration.PERSISTENT_SCHEMA_CACHE_PATH.name(), dir.getAbsolutePath());
+        try (SchemaRegistryClient client = new SchemaRegistryClient(conf)) {
+            Assert.assertEquals(schemaVersionInfo, client.getSchemaVersionInfo(new SchemaIdVersion(1L)));
+            Assert.assertEquals(schemaVersionInfo, client.getSchemaVersionInfo(new SchemaVersionKey("device", 1)));
+        }
+    }
+
+    @Test
+    public void testRegistriesHaveSeparateFiles() throws Exception {
+        File dir = temporaryFolder.newFolder();
+        String otherRegistryUrl = "http://otherhost:9090/api/v1";
+        Assert.assertNotEquals(PersistentSchemaCache.fileName(REGISTRY_URL), PersistentSchemaCache.fileName(otherRegistryUrl));
+
+        try (PersistentSchemaCache cache = new PersistentSchemaCache(dir, REGISTRY_URL)) {
+            cache.addSchemaVersionInfo(schemaVersionInfo(1L, 1));
+        }
+
+        try (PersistentSchemaCache cache = new PersistentSchemaCache(dir, otherRegistryUrl)) {
+            Assert.assertNull(cache.getSchemaVersionInfo(new SchemaIdVersion(1L)));
+        }
+        try (PersistentSchemaCache cache = new PersistentSchemaCache(dir, REGISTRY_URL)) {
+            Assert.assertNotNull(cache.getSchemaVersionInfo(new SchemaIdVersion(1L)));
+        }
+    }
+
+    @Test
+    public void testSchemaTextsAreCachedPerBranch() throws Exception {
+        File dir = temporaryFolder.newFolder();
+        byte[] digest = {1, 2, 3};
+        try (PersistentSchemaCache cache = new PersistentSchemaCache(dir, REGISTRY_URL)) {
+            cache.addSchemaIdVersion("MASTER", "device", digest, new SchemaIdVersion(10L, 1, 1L));
+            cache.addSchemaIdVersion("feature", "device", digest, new SchemaIdVersion(10L, 2, 2L));
+        }
+
+        try (PersistentSchemaCache cache = new PersistentSchemaCache(dir, REGISTRY_URL)) {
+            Assert.assertEquals(new SchemaIdVersion(10L, 1, 1L), cache.getSchemaIdVersion("MASTER", "device", digest));
+            Assert.assertEquals(new SchemaIdVersion(10L, 2, 2L), cache.getSchemaIdVersion("feature", "device", digest));
+            Assert.assertNull(cache.getSchemaIdVersion("other", "device", digest));
+        }
+    }
+
+    @Test
+    public void testExpiredEntriesAreDropped() throws Exception {
+        File dir = temporaryFolder.newFolder();
+        AtomicLong clock = new AtomicLong(1000L);
+        byte[] digest = {1, 2, 3};
+        try (PersistentSchemaCache cache = new PersistentSchemaCache(dir, REGISTRY_URL, 100L, 10, clock::get)) {
+            cache.addSchemaVersionInfo(schemaVersionInfo(1L, 1));
+            cache.addSchemaIdVersion("MASTER", "device", digest, new SchemaIdVersion(10L, 1, 1L));
+            clock.addAndGet(60L);
+            cache.addSchemaVersionInfo(schemaVersionInfo(2L, 2));
+
+            clock.addAndGet(60L);
+            Assert.assertNull(cache.getSchemaVersionInfo(new SchemaIdVersion(1L)));
+            Assert.assertNull(cache.getSchemaIdVersion("MASTER", "device", digest));
+            Assert.assertNotNull(cache.getSchemaVersionInfo(new SchemaIdVersion(2L)));
+        }
+
+        File file = new File(dir, PersistentSchemaCache.fileName(REGISTRY_URL));
+        long size = file.length();
+        try (PersistentSchemaCache cache = new PersistentSchemaCache(dir, REGISTRY_URL, 100L, 10, clock::get)) {
+            Assert.assertNull(cache.getSchemaVersionInfo(new SchemaIdVersion(1L)));
+            Assert.assertNotNull(cache.getSchemaVersionInfo(new SchemaVersionKey("device", 2)));
+        }
+        // the expired entries were compacted away when the cache was opened
+        Assert.assertTrue(file.length() < size);
+    }
+
+    @Test
+    public void testOldestEntriesAreDroppedAboveMaxEntries() throws Exception {
+        File dir = temporaryFolder.newFolder();
+        AtomicLong clock = new AtomicLong(1000L);
+        try (PersistentSchemaCache cache = new PersistentSchemaCache(dir, REGISTRY_URL, 100_000L, 3, clock::get)) {
+            for (long id = 1; id <= 10; id++) {
+                clock.incrementAndGet();
+                cache.addSchemaVersionInfo(schemaVersionInfo(id, (int) id));
+            }
+        }
+
+        try (PersistentSchemaCache cache = new PersistentSchemaCache(dir, REGISTRY_URL, 100_000L, 3, clock::get)) {
+            for (long id = 1; id <= 7; id++) {
+                Assert.assertNull(cache.getSchemaVersionInfo(new SchemaIdVersion(id)));
+            }
+            for (long id = 8; id <= 10; id++) {
+                Assert.assertNotNull(cache.getSchemaVersionInfo(new SchemaIdVersion(id)));
+            }
+        }
+    }
+
+    private static SchemaVersionInfo schemaVersionInfo(Long id, Integer version) {
+        return new SchemaVersionInfo(id, "device", version, 10L, "\"string\"", 1000L + id, "version " + version, (byte) 5);
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2016-2019 Cloudera, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hortonworks.registries.schemaregistry.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hortonworks.registries.schemaregistry.SchemaIdVersion;
+import com.hortonworks.registries.schemaregistry.SchemaVersionInfo;
+import com.hortonworks.registries.schemaregistry.SchemaVersionKey;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ *
+ */
+public class SchemaRegistryClientPrefetchTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<Long, SchemaVersionInfo> schemaVersionInfos = new HashMap<>();
+    private final List<String> requestedIds = new ArrayList<>();
+    private final AtomicInteger requestCount = new AtomicInteger();
+    private HttpServer server;
+
+    @Before
+    public void setup() throws Exception {
+        for (long id = 1; id <= 3; id++) {
+            schemaVersionInfos.put(id, new SchemaVersionInfo(id, "device", (int) id, 10L, "\"string\"",
+                                                             System.currentTimeMillis(), "version " + id, null));
+        }
+
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/api/v1/schemaregistry/schemas/versionsById", exchange -> {
+            requestCount.incrementAndGet();
+            Long[] ids = objectMapper.readValue(IOUtils.toString(exchange.getRequestBody(), StandardCharsets.UTF_8), Long[].class);
+            requestedIds.add(Arrays.toString(ids));
+            List<SchemaVersionInfo> entities = new ArrayList<>();
+            for (Long id : ids) {
+                if (schemaVersionInfos.containsKey(id)) {
+                    entities.add(schemaVersionInfos.get(id));
+                }
+            }
+            byte[] response = objectMapper.writeValueAsBytes(Collections.singletonMap("entities", entities));
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, response.length);
+            try (OutputStream outputStream = exchange.getResponseBody()) {
+                outputStream.write(response);
+            }
+        });
+        server.start();
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void testPrefetchSchemaVersions() throws Exception {
+        String url = "http://localhost:" + server.getAddress().getPort() + "/api/v1";
+        try (SchemaRegistryClient client = new SchemaRegistryClient(Collections.singletonMap(SchemaRegistryClient.Configuration.SCHEMA_REGISTRY_URL.name(), url))) {
+            client.prefetchSchemaVersions(Arrays.asList(1L, 2L, 2L, 4L));
+            Assert.assertEquals(1, requestCount.get());
+            Assert.assertEquals("[1, 2, 4]", requestedIds.get(0));
+
+            // prefetched versions are served from the cache with any of their keys
+            Assert.assertEquals(schemaVersionInfos.get(1L), client.getSchemaVersionInfo(new SchemaIdVersion(1L)));
+            Assert.assertEquals(schemaVersionInfos.get(2L), client.getSchemaVersionInfo(new SchemaVersionKey("device", 2)));
+            Assert.assertEquals(schemaVersionInfos.get(2L), client.getSchemaVersionInfo(new SchemaIdVersion(10L, 2)));
+            Assert.assertEquals(1, requestCount.get());
+
+            // only the ids which are not yet cached are requested
+            client.prefetchSchemaVersions(Arrays.asList(1L, 2L, 3L));
+            Assert.assertEquals(2, requestCount.get());
+            Assert.assertEquals("[3]", requestedIds.get(1));
+
+            client.prefetchSchemaVersions(Arrays.asList(1L, 3L));
+            Assert.assertEquals(2, requestCount.get());
+        }
+    }
+
+    @Test
+    public void testPrefetchSchemaVersions_SplitIntoRequestsOfAtMostThousandIds() throws Exception {
+        List<Long> ids = new ArrayList<>();
+        for (long id = 1; id <= 2500; id++) {
+            ids.add(id);
+        }
+
+        String url = "http://localhost:" + server.getAddress().getPort() + "/api/v1";
+        try (SchemaRegistryClient client = new SchemaRegistryClient(Collections.singletonMap(SchemaRegistryClient.Configuration.SCHEMA_REGISTRY_URL.name(), url))) {
+            client.prefetchSchemaVersions(ids);
+
+            Assert.assertEquals(3, requestCount.get());
+            Assert.assertEquals(schemaVersionInfos.get(3L), client.getSchemaVersionInfo(new SchemaIdVersion(3L)));
+            Assert.assertEquals(3, requestCount.get());
+        }
+    }
+}
@@ -86,6 +86,16 @@ public interface ISchemaRegistryService {
      */
     SchemaMetadataInfo getSchemaMetadataInfo(Long schemaMetadataId);
 
+    /**
+     * Lists the registered schemas ordered by their names, one page at a time.
+     *
+     * @param continuationToken token of the previous page to get the next page, null to get the first page
+     * @param pageSize          maximum number of schemas in the returned page
+     *
+     * @return page of schemas with the token to get the next page
+     */
+    Page<SchemaMetadataInfo> listSchemas(String continuationToken, int pageSize);
+
     /**
      * Deletes a schema metadata and all related data given {@code schemaName}, throws an SchemaNotFoundException if schema is absent.
      *
@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hortonworks.registries.schemaregistry;
+
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * A page of entities of a listing ordered by a unique key. The continuation token is an opaque value to be passed to
+ * the listing API to get the next page, it is null when this is the last page.
+ *
+ * @param <T> type of the entities
+ */
+public class Page<T> implements Serializable {
+
+    private static final long serialVersionUID = 4527380318569376925L;
+
+    /**
+     * Query parameter of the REST listing APIs for the maximum number of entities in a page.
+     */
+    public static final String PAGE_SIZE_PARAM_NAME = "_pageSize";
+
+    /**
+     * Query parameter of the REST listing APIs for the continuation token of the previous page.
+     */
+    public static final String CONTINUATION_TOKEN_PARAM_NAME = "_continuationToken";
+
+    private final Collection<T> entities;
+
+    private final String continuationToken;
+
+    public Page(Collection<T> entities, String continuationToken) {
+        this.entities = entities != null ? entities : Collections.emptyList();
+        this.continuationToken = continuationToken;
+    }
+
+    public Collection<T> getEntities() {
+        return entities;
+    }
+
+    public String getContinuationToken() {
+        return continuationToken;
+    }
+
+    public boolean hasNext() {
+        return continuationToken != null;
+    }
+
+    /**
+     * Returns the page of the given entities which follows the page of the given continuation token, with the
+     * entities ordered by the given unique key. This is for listings which can only load all the entities at once.
+     *
+     * @param entities          all the entities of the listing
+     * @param keyFunction       returns the unique key of an entity
+     * @param continuationToken token of the previous page to get the next page, null to get the first page
+     * @param pageSize          maximum number of entities in the returned page
+     * @param <T>               type of the entities
+     *
+     * @return page of entities with the token to get the next page
+     */
+    public static <T> Page<T> of(Collection<T> entities,
+                                 Function<T, String> keyFunction,
+                                 String continuationToken,
+                                 int pageSize) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("pageSize should be greater than zero but was " + pageSize);
+        }
+        String lastKey = continuationToken != null ? decodeContinuationToken(continuationToken) : null;
+        List<T> sorted = entities.stream()
+                                 .filter(entity -> lastKey == null || keyFunction.apply(entity).compareTo(lastKey) > 0)
+                                 .sorted(Comparator.comparing(keyFunction))
+                                 .collect(Collectors.toList());
+        if (sorted.size() <= pageSize) {
+            return new Page<>(sorted, null);
+        }
+        List<T> page = sorted.subList(0, pageSize);
+        return new Page<>(page, encodeContinuationToken(keyFunction.apply(page.get(pageSize - 1))));
+    }
+
+    /**
+     * Returns the continuation token of a page which ends with the entity of the given unique key.
+     */
+    public static String encodeContinuationToken(String lastKey) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(lastKey.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns the unique key of the last entity of the page the given continuation token was created for.
+     *
+     * @throws IllegalArgumentException if the given token was not created by {@link #encodeContinuationToken(String)}
+     */
+    public static String decodeContinuationToken(String continuationToken) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(continuationToken), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid continuation token: " + continuationToken, e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "Page{" +
+                "entities=" + entities +
+                ", continuationToken='" + continuationToken + '\'' +
+                '}';
+    }
+}
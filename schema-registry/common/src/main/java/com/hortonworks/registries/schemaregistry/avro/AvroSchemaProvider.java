@@ -15,6 +15,10 @@
 package com.hortonworks.registries.schemaregistry.avro;
 
 import com.google.common.base.Joiner;
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import com.hortonworks.registries.schemaregistry.AbstractSchemaProvider;
 import com.hortonworks.registries.schemaregistry.CompatibilityResult;
 import com.hortonworks.registries.schemaregistry.SchemaCompatibility;
@@ -32,6 +36,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
 import java.util.stream.Collectors;
 
 /**
@@ -42,6 +47,31 @@ public class AvroSchemaProvider extends AbstractSchemaProvider {
 
     public static final String TYPE = "avro";
 
+    /**
+     * Maximum number of parsed schemas kept by this provider, configured with the provider's properties.
+     */
+    public static final String PARSED_SCHEMA_CACHE_SIZE = "parsedSchemaCacheSize";
+    public static final int DEFAULT_PARSED_SCHEMA_CACHE_SIZE = 1000;
+
+    // parsed schemas keyed by their (resolved) schema text, registering a schema version parses the same texts for
+    // fingerprint, compatibility and fields generation and every enabled version is parsed again for each registration.
+    // Avro schemas are mutable (props, aliases, record fields) and these instances are shared between threads, so they
+    // are only handed to code which reads them and never leave this provider.
+    private volatile Cache<String, Schema> parsedSchemaCache = createParsedSchemaCache(DEFAULT_PARSED_SCHEMA_CACHE_SIZE);
+
+    @Override
+    public void init(Map<String, Object> config) {
+        super.init(config);
+        Object cacheSize = config.get(PARSED_SCHEMA_CACHE_SIZE);
+        if (cacheSize != null) {
+            parsedSchemaCache = createParsedSchemaCache(Integer.parseInt(cacheSize.toString()));
+        }
+    }
+
+    private static Cache<String, Schema> createParsedSchemaCache(int size) {
+        return CacheBuilder.newBuilder().maximumSize(size).build();
+    }
+
     @Override
     public String getName() {
         return "Avro schema provider";
@@ -63,15 +93,15 @@ public class AvroSchemaProvider extends AbstractSchemaProvider {
                                                   SchemaCompatibility existingSchemaCompatibility) {
         return AvroSchemaValidator
                 .of(existingSchemaCompatibility)
-                .validate(new Schema.Parser().parse(toSchemaText),
-                          new Schema.Parser().parse(existingSchemaText));
+                .validate(parseSchema(toSchemaText),
+                          parseSchema(existingSchemaText));
     }
 
     @Override
     public byte[] getFingerprint(String schemaText) throws InvalidSchemaException, SchemaNotFoundException {
         try {
             // generates fingerprint of canonical form of the given schema.
-            Schema schema = new Schema.Parser().parse(getResultantSchema(schemaText));
+            Schema schema = parseSchema(getResultantSchema(schemaText));
             return MessageDigest.getInstance("MD5").digest(normalize(schema).getBytes());
         } catch (IOException e) {
             throw new InvalidSchemaException("Given schema is invalid", e);
@@ -89,7 +119,23 @@ public class AvroSchemaProvider extends AbstractSchemaProvider {
     @Override
     public List<SchemaFieldInfo> generateFields(String schemaText) throws InvalidSchemaException, SchemaNotFoundException {
         AvroFieldsGenerator avroFieldsGenerator = new AvroFieldsGenerator();
-        return avroFieldsGenerator.generateFields(new Schema.Parser().parse(getResultantSchema(schemaText)));
+        return avroFieldsGenerator.generateFields(parseSchema(getResultantSchema(schemaText)));
+    }
+
+    /**
+     * Returns the parsed schema for the given schema text, reusing an earlier parse of the same text when available.
+     * <p>
+     * The returned instance is shared by all the callers and threads and must be treated as read-only: it must not be
+     * modified (for example with {@code addProp}, {@code addAlias} or {@code setFields}) nor returned from the public
+     * API of this provider. Parse the text again with a new {@link Schema.Parser} when a modifiable schema is needed.
+     */
+    Schema parseSchema(String schemaText) {
+        try {
+            return parsedSchemaCache.get(schemaText, () -> new Schema.Parser().parse(schemaText));
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            Throwables.throwIfUnchecked(e.getCause());
+            throw new RuntimeException(e.getCause());
+        }
     }
 
     public String normalize(Schema schema) throws IOException {
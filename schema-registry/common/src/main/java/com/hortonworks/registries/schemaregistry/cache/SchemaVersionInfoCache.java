@@ -112,6 +112,24 @@ public class SchemaVersionInfoCache implements AbstractCache {
         return loadingCache.getIfPresent(key);
     }
 
+    /**
+     * Adds the given schema version to the cache so that it can be looked up either with its id or with its name and
+     * version without going to the target service.
+     */
+    public void put(SchemaVersionInfo schemaVersionInfo) {
+        LOG.debug("Adding entry to the cache for schema version [{}]", schemaVersionInfo.getId());
+        updateCacheInvalidationEntries(schemaVersionInfo);
+
+        loadingCache.put(Key.of(new SchemaVersionKey(schemaVersionInfo.getName(), schemaVersionInfo.getVersion())),
+                         schemaVersionInfo);
+        loadingCache.put(Key.of(new SchemaIdVersion(schemaVersionInfo.getId())), schemaVersionInfo);
+        if (schemaVersionInfo.getSchemaMetadataId() != null) {
+            loadingCache.put(Key.of(new SchemaIdVersion(schemaVersionInfo.getSchemaMetadataId(),
+                                                        schemaVersionInfo.getVersion())),
+                             schemaVersionInfo);
+        }
+    }
+
     public void invalidateSchema(SchemaVersionInfoCache.Key key) {
         LOG.debug("Invalidating cache entry for key [{}]", key);
         loadingCache.invalidate(key);
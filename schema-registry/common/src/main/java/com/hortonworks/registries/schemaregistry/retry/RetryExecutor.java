@@ -23,6 +23,12 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 /**
  *   RetryExecutor encapsulates the necessary context to attempt retry on an instance of
@@ -73,6 +79,67 @@ public class RetryExecutor {
         throw exception;
     }
 
+    /**
+     * Asynchronous variant of {@link #execute(RetryableBlock)}. {@code retryableBlock} is invoked for each attempt and
+     * a failed attempt is retried when the returned future completes with an instance of {@link #exceptionClass}.
+     * Instead of sleeping, the next attempt is scheduled on the given {@code scheduler} after the delay given by
+     * {@link BackoffPolicy#nextAttemptDelayMs(int, long)}, so no thread is blocked between attempts.
+     *
+     * @param retryableBlock supplies the future of an attempt
+     * @param scheduler      used to schedule the next attempt
+     * @param <T>            result type of the attempt
+     * @return future which completes with the result of the first successful attempt or with the last failure
+     */
+    public <T> CompletableFuture<T> executeAsync(Supplier<CompletableFuture<T>> retryableBlock,
+                                                 ScheduledExecutorService scheduler) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        attemptAsync(retryableBlock, scheduler, result, 1, System.currentTimeMillis());
+        return result;
+    }
+
+    private <T> void attemptAsync(Supplier<CompletableFuture<T>> retryableBlock,
+                                  ScheduledExecutorService scheduler,
+                                  CompletableFuture<T> result,
+                                  int attemptNumber,
+                                  long startTime) {
+        LOG.debug("Executing the retryable block asynchronously with attempt number : {} and elapsed time : {} ms",
+                  attemptNumber, (System.currentTimeMillis() - startTime));
+
+        CompletableFuture<T> attempt;
+        try {
+            attempt = retryableBlock.get();
+        } catch (Exception e) {
+            attempt = new CompletableFuture<>();
+            attempt.completeExceptionally(e);
+        }
+
+        attempt.whenComplete((value, throwable) -> {
+            if (throwable == null) {
+                result.complete(value);
+                return;
+            }
+
+            Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null
+                              ? throwable.getCause() : throwable;
+            long timeElapsed = System.currentTimeMillis() - startTime;
+            long delayMs = cause.getClass().equals(exceptionClass)
+                           ? backoffPolicy.nextAttemptDelayMs(attemptNumber, timeElapsed) : -1;
+            if (delayMs < 0) {
+                LOG.debug("Giving up on executing the retryable block after attempt number : {} and elapsed time : {} ms",
+                          attemptNumber, timeElapsed);
+                result.completeExceptionally(cause);
+                return;
+            }
+
+            try {
+                scheduler.schedule(() -> attemptAsync(retryableBlock, scheduler, result, attemptNumber + 1, startTime),
+                                   delayMs, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                result.completeExceptionally(cause);
+            }
+        });
+    }
+
     public static class Builder {
 
         private BackoffPolicy policy = new NOOPBackoffPolicy();
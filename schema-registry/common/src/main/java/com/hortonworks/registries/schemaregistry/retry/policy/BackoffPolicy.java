@@ -41,19 +41,36 @@ public abstract class BackoffPolicy {
     public abstract void init(Map<String, Object> properties);
 
     public boolean mayBeSleep(int attemptNumber, long timeElapsed) {
-        if (attemptNumber >= maxAttempts) {
+        long sleepTime = nextAttemptDelayMs(attemptNumber, timeElapsed);
+
+        if (sleepTime < 0) {
             return false;
         }
 
+        sleep(sleepTime);
+
+        return true;
+    }
+
+    /**
+     * Returns the time in milli seconds to wait before making the next attempt, or -1 if no further attempt should be
+     * made. This does not block the caller, it lets asynchronous callers schedule the next attempt instead of sleeping.
+     *
+     * @param attemptNumber number of the attempt which has just failed, starting from 1
+     * @param timeElapsed   time in milli seconds elapsed since the first attempt
+     */
+    public long nextAttemptDelayMs(int attemptNumber, long timeElapsed) {
+        if (attemptNumber >= maxAttempts) {
+            return -1;
+        }
+
         long sleepTime = sleepTime(attemptNumber, timeElapsed);
 
         if (sleepTime + timeElapsed > this.timeoutMs) {
-            return false;
+            return -1;
         }
 
-        sleep(sleepTime);
-
-        return true;
+        return sleepTime;
     }
 
     abstract long sleepTime(int iteration, long timeElapsed);
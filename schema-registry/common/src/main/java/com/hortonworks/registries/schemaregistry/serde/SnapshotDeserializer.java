@@ -17,6 +17,9 @@ package com.hortonworks.registries.schemaregistry.serde;
 
 import com.hortonworks.registries.schemaregistry.Resourceable;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Deserializer interface for de-serializing input {@code I} into output {@code O} according to the Schema {@code S}.
  * <p>Common way to use this deserializer implementation is like below. </p>
@@ -60,4 +63,23 @@ public interface SnapshotDeserializer<I, O, RS> extends Resourceable {
         return deserialize(input, null);
     }
 
+    /**
+     * De-serializes all the given {@code inputs} according to their writer schemas and projects them based on the
+     * reader schema {@code RS} (if not null). Default implementation de-serializes each input with
+     * {@link #deserialize(Object, Object)}, implementations can override this to share the work done for inputs
+     * written with the same schema.
+     *
+     * @param inputs input payloads to be de-serialized
+     * @param readerSchemaInfo schema information for reading/projection
+     * @return de-serialized outputs in the same order as the given inputs
+     * @throws SerDesException
+     */
+    default List<O> deserializeAll(List<I> inputs, RS readerSchemaInfo) throws SerDesException {
+        List<O> outputs = new ArrayList<>(inputs.size());
+        for (I input : inputs) {
+            outputs.add(deserialize(input, readerSchemaInfo));
+        }
+        return outputs;
+    }
+
 }
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2016-2019 Cloudera, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hortonworks.registries.schemaregistry;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+public class PageTest {
+
+    @Test
+    public void testPagesOfAllEntities() {
+        List<String> entities = Arrays.asList("d", "b", "e", "a", "c");
+
+        List<String> listed = new ArrayList<>();
+        List<Integer> pageSizes = new ArrayList<>();
+        String continuationToken = null;
+        do {
+            Page<String> page = Page.of(entities, Function.identity(), continuationToken, 2);
+            listed.addAll(page.getEntities());
+            pageSizes.add(page.getEntities().size());
+            continuationToken = page.getContinuationToken();
+        } while (continuationToken != null);
+
+        Assert.assertEquals(Arrays.asList("a", "b", "c", "d", "e"), listed);
+        Assert.assertEquals(Arrays.asList(2, 2, 1), pageSizes);
+    }
+
+    @Test
+    public void testLastPageHasNoContinuationToken() {
+        Page<String> page = Page.of(Arrays.asList("b", "a"), Function.identity(), null, 2);
+
+        Assert.assertEquals(Arrays.asList("a", "b"), page.getEntities());
+        Assert.assertFalse(page.hasNext());
+    }
+
+    @Test
+    public void testContinuationTokenRoundTrip() {
+        String key = "schema/with?unsafe&chars-é";
+        Assert.assertEquals(key, Page.decodeContinuationToken(Page.encodeContinuationToken(key)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidContinuationToken() {
+        Page.of(Arrays.asList("a"), Function.identity(), "not base64!", 2);
+    }
+}
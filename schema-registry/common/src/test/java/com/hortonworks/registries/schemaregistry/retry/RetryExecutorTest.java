@@ -27,6 +27,10 @@ import org.junit.runner.RunWith;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.atomic.AtomicInteger;
 
 @RunWith(CustomParameterizedRunner.class)
@@ -82,6 +86,50 @@ public class RetryExecutorTest {
         });
     }
 
+    @Test
+    public void testAsyncRetries() throws Exception {
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        try {
+            AtomicInteger attempt = new AtomicInteger(0);
+            CompletableFuture<Integer> result = createRetryExecutor(100, 3, 100000).executeAsync(() -> {
+                CompletableFuture<Integer> future = new CompletableFuture<>();
+                if (attempt.incrementAndGet() < 3) {
+                    future.completeExceptionally(new RuntimeException());
+                } else {
+                    future.complete(attempt.get());
+                }
+                return future;
+            }, scheduler);
+
+            Assert.assertEquals(3, result.get().intValue());
+            Assert.assertEquals(3, attempt.get());
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testAsyncExceptionOnExceedingMaxAttempts() throws Exception {
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        try {
+            AtomicInteger attempt = new AtomicInteger(0);
+            CompletableFuture<Object> result = createRetryExecutor(100, 2, 60_000).executeAsync(() -> {
+                attempt.incrementAndGet();
+                throw new RuntimeException("attempt failed");
+            }, scheduler);
+
+            try {
+                result.get();
+                Assert.fail("Future should have failed after exceeding max attempts");
+            } catch (ExecutionException e) {
+                Assert.assertEquals("attempt failed", e.getCause().getMessage());
+            }
+            Assert.assertEquals(2, attempt.get());
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+
     private RetryExecutor createRetryExecutor(long sleepTimeMs, int maxAttempts, long timeoutMs) {
         BackoffPolicy backoffPolicy;
         Map<String, Object> props = new HashMap<>();
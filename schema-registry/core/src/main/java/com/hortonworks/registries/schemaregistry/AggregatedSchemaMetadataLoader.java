@@ -0,0 +1,181 @@
+/**
+ * Copyright 2016-2019 Cloudera, Inc.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package com.hortonworks.registries.schemaregistry;
+
+import com.google.common.collect.Iterables;
+import com.hortonworks.registries.schemaregistry.state.SchemaVersionLifecycleStates;
+import com.hortonworks.registries.schemaregistry.state.details.InitializedStateDetails;
+import com.hortonworks.registries.schemaregistry.state.details.MergeInfo;
+import com.hortonworks.registries.schemaregistry.utils.ObjectMapperUtils;
+import com.hortonworks.registries.storage.Storable;
+import com.hortonworks.registries.storage.StorageManager;
+import com.hortonworks.registries.storage.search.SearchQuery;
+import com.hortonworks.registries.storage.search.WhereClause;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Builds {@link AggregatedSchemaMetadataInfo}s for a set of schemas with a fixed number of IN-list queries, one for
+ * each of versions, branch version mappings, branches, INITIATED states, serdes mappings and serdes, instead of
+ * querying them schema by schema, branch by branch and version by version.
+ */
+class AggregatedSchemaMetadataLoader {
+
+    private final StorageManager storageManager;
+
+    AggregatedSchemaMetadataLoader(StorageManager storageManager) {
+        this.storageManager = storageManager;
+    }
+
+    List<AggregatedSchemaMetadataInfo> load(Collection<SchemaMetadataInfo> schemaMetadataInfos) {
+        if (schemaMetadataInfos.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Set<String> schemaNames = new LinkedHashSet<>();
+        Set<Long> schemaMetadataIds = new LinkedHashSet<>();
+        for (SchemaMetadataInfo schemaMetadataInfo : schemaMetadataInfos) {
+            schemaNames.add(schemaMetadataInfo.getSchemaMetadata().getName());
+            schemaMetadataIds.add(schemaMetadataInfo.getId());
+        }
+
+        Map<Long, SchemaVersionInfo> versions = new HashMap<>();
+        for (SchemaVersionStorable storable : this.<SchemaVersionStorable>findIn(SchemaVersionStorable.NAME_SPACE,
+                                                                                  SchemaVersionStorable.NAME,
+                                                                                  schemaNames)) {
+            SchemaVersionInfo schemaVersionInfo = storable.toSchemaVersionInfo();
+            versions.put(schemaVersionInfo.getId(), schemaVersionInfo);
+        }
+        setMergeInfos(versions);
+
+        // versions of each branch in ascending order of their ids, the first one being the root version of the branch
+        Map<Long, Set<Long>> branchToVersionIds = new HashMap<>();
+        for (SchemaBranchVersionMapping mapping : this.<SchemaBranchVersionMapping>findIn(SchemaBranchVersionMapping.NAMESPACE,
+                                                                                          SchemaBranchVersionMapping.SCHEMA_VERSION_INFO_ID,
+                                                                                          versions.keySet())) {
+            branchToVersionIds.computeIfAbsent(mapping.getSchemaBranchId(), x -> new TreeSet<>())
+                              .add(mapping.getSchemaVersionInfoId());
+        }
+
+        Map<String, Map<Long, SchemaBranch>> schemaNameToBranches = new HashMap<>();
+        for (SchemaBranchStorable storable : this.<SchemaBranchStorable>findIn(SchemaBranchStorable.NAME_SPACE,
+                                                                                SchemaBranchStorable.ID,
+                                                                                branchToVersionIds.keySet())) {
+            SchemaBranch schemaBranch = storable.toSchemaBranch();
+            schemaNameToBranches.computeIfAbsent(schemaBranch.getSchemaMetadataName(), x -> new TreeMap<>())
+                                .put(schemaBranch.getId(), schemaBranch);
+        }
+
+        Map<Long, List<SerDesInfo>> schemaMetadataIdToSerDes = loadSerDesInfos(schemaMetadataIds);
+
+        List<AggregatedSchemaMetadataInfo> aggregatedSchemaMetadataInfos = new ArrayList<>(schemaMetadataInfos.size());
+        for (SchemaMetadataInfo schemaMetadataInfo : schemaMetadataInfos) {
+            String schemaName = schemaMetadataInfo.getSchemaMetadata().getName();
+            Collection<AggregatedSchemaBranch> aggregatedSchemaBranches = new ArrayList<>();
+            for (SchemaBranch schemaBranch : schemaNameToBranches.getOrDefault(schemaName, Collections.emptyMap()).values()) {
+                List<SchemaVersionInfo> schemaVersionInfos = branchToVersionIds.get(schemaBranch.getId())
+                                                                               .stream()
+                                                                               .map(versions::get)
+                                                                               .collect(Collectors.toList());
+                Long rootVersion = schemaBranch.getName().equals(SchemaBranch.MASTER_BRANCH) ? null : schemaVersionInfos.get(0).getId();
+                // versions are listed latest first as in ISchemaRegistry#getAllVersions(String, String)
+                Collections.reverse(schemaVersionInfos);
+                aggregatedSchemaBranches.add(new AggregatedSchemaBranch(schemaBranch, rootVersion, schemaVersionInfos));
+            }
+            aggregatedSchemaMetadataInfos.add(new AggregatedSchemaMetadataInfo(schemaMetadataInfo.getSchemaMetadata(),
+                                                                               schemaMetadataInfo.getId(),
+                                                                               schemaMetadataInfo.getTimestamp(),
+                                                                               aggregatedSchemaBranches,
+                                                                               schemaMetadataIdToSerDes.getOrDefault(schemaMetadataInfo.getId(),
+                                                                                                                     Collections.emptyList())));
+        }
+
+        return aggregatedSchemaMetadataInfos;
+    }
+
+    private void setMergeInfos(Map<Long, SchemaVersionInfo> versions) {
+        // latest INITIATED state of each version carries the merge information, if the version was created by a merge
+        Map<Long, SchemaVersionStateStorable> initiatedStates = new HashMap<>();
+        for (List<Long> versionIds : Iterables.partition(versions.keySet(), WhereClause.MAX_IN_LIST_SIZE)) {
+            SearchQuery searchQuery = SearchQuery.searchFrom(SchemaVersionStateStorable.NAME_SPACE)
+                                                 .where(WhereClause.begin()
+                                                                   .in(SchemaVersionStateStorable.SCHEMA_VERSION_ID, versionIds)
+                                                                   .and()
+                                                                   .eq(SchemaVersionStateStorable.STATE,
+                                                                       SchemaVersionLifecycleStates.INITIATED.getId())
+                                                                   .combine());
+            for (Storable storable : storageManager.search(searchQuery)) {
+                SchemaVersionStateStorable stateStorable = (SchemaVersionStateStorable) storable;
+                initiatedStates.merge(stateStorable.getSchemaVersionId(),
+                                      stateStorable,
+                                      (x, y) -> x.getSequence() >= y.getSequence() ? x : y);
+            }
+        }
+
+        for (SchemaVersionInfo schemaVersionInfo : versions.values()) {
+            SchemaVersionStateStorable stateStorable = initiatedStates.get(schemaVersionInfo.getId());
+            MergeInfo mergeInfo = null;
+            if (stateStorable != null && stateStorable.getDetails() != null) {
+                try {
+                    mergeInfo = ObjectMapperUtils.deserialize(stateStorable.getDetails(), InitializedStateDetails.class).getMergeInfo();
+                } catch (IOException e) {
+                    throw new RuntimeException(String.format("Failed to serialize state details of schema version : '%s'",
+                                                             schemaVersionInfo.getId()), e);
+                }
+            }
+            schemaVersionInfo.setMergeInfo(mergeInfo);
+        }
+    }
+
+    private Map<Long, List<SerDesInfo>> loadSerDesInfos(Set<Long> schemaMetadataIds) {
+        Collection<SchemaSerDesMapping> mappings = findIn(SchemaSerDesMapping.NAMESPACE, SchemaSerDesMapping.SCHEMA_METADATA_ID, schemaMetadataIds);
+        if (mappings.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        Set<Long> serDesIds = mappings.stream().map(SchemaSerDesMapping::getSerDesId).collect(Collectors.toSet());
+        Map<Long, SerDesInfo> serDesInfos = new HashMap<>();
+        for (SerDesInfoStorable storable : this.<SerDesInfoStorable>findIn(SerDesInfoStorable.NAME_SPACE, SerDesInfoStorable.ID, serDesIds)) {
+            serDesInfos.put(storable.getId(), storable.toSerDesInfo());
+        }
+
+        Map<Long, List<SerDesInfo>> schemaMetadataIdToSerDes = new HashMap<>();
+        for (SchemaSerDesMapping mapping : mappings) {
+            schemaMetadataIdToSerDes.computeIfAbsent(mapping.getSchemaMetadataId(), x -> new ArrayList<>())
+                                    .add(serDesInfos.get(mapping.getSerDesId()));
+        }
+        return schemaMetadataIdToSerDes;
+    }
+
+    private <T extends Storable> Collection<T> findIn(String nameSpace, String fieldName, Collection<?> values) {
+        List<T> storables = new ArrayList<>();
+        for (List<?> partition : Iterables.partition(values, WhereClause.MAX_IN_LIST_SIZE)) {
+            SearchQuery searchQuery = SearchQuery.searchFrom(nameSpace).where(WhereClause.begin().in(fieldName, partition).combine());
+            storables.addAll(storageManager.<T>search(searchQuery));
+        }
+        return storables;
+    }
+}
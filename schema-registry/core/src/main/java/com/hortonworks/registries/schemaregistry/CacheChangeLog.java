@@ -0,0 +1,218 @@
+/**
+ * Copyright 2016-2019 Cloudera, Inc.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package com.hortonworks.registries.schemaregistry;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.hortonworks.registries.schemaregistry.cache.SchemaRegistryCacheType;
+import com.hortonworks.registries.storage.StorageManager;
+import com.hortonworks.registries.storage.search.OrderBy;
+import com.hortonworks.registries.storage.search.SearchQuery;
+import com.hortonworks.registries.storage.search.WhereClause;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collection;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+/**
+ * Keeps the caches of the registry nodes coherent through a change log in the storage.
+ * <p>
+ * Invalidations of cached entries are published as {@link CacheChangeLogStorable}s, which are written in the transaction
+ * of the change itself, so only committed changes are seen by the other nodes. Every node tails the log and applies the
+ * invalidations of the other nodes in the order of their ids. Peers are still notified over HTTP as that is quicker
+ * than waiting for the next poll, but a missed notification is now covered by the log.
+ * <p>
+ * Ids are allocated when a change is written but become visible when it commits, so a smaller id may show up after a
+ * larger one. The tailer keeps its position below such gaps until they are filled or, for rolled back transactions,
+ * until they are older than {@link #GAP_TIMEOUT_MS}.
+ * <p>
+ * The position of every node is saved as a {@link CacheChangeLogPositionStorable}, keyed by the node id, so a node which
+ * is restarted catches up from the position it last applied instead of skipping the entries written while it was down.
+ * <p>
+ * The log is only written and tailed when it is enabled with {@link DefaultSchemaRegistry.Options#ENABLE_CACHE_CHANGE_LOG},
+ * for registries run as several nodes, otherwise peers are only notified over HTTP.
+ */
+class CacheChangeLog {
+    private static final Logger LOG = LoggerFactory.getLogger(CacheChangeLog.class);
+
+    private static final int BATCH_SIZE = 500;
+    private static final long GAP_TIMEOUT_MS = TimeUnit.MINUTES.toMillis(5);
+    private static final long RETENTION_MS = TimeUnit.DAYS.toMillis(1);
+    private static final long RETENTION_CHECK_INTERVAL_MS = TimeUnit.MINUTES.toMillis(10);
+
+    private final StorageManager storageManager;
+    private final HAServerNotificationManager haServerNotificationManager;
+    private final boolean enabled;
+    private final String nodeId;
+    // identifies the entries written by this registry, which are already applied locally
+    private final String origin = UUID.randomUUID().toString();
+    private ScheduledExecutorService tailer;
+
+    // entries up to the position are applied, entries in appliedAfterPosition are applied beyond a gap
+    private long position;
+    private long savedPosition;
+    private final TreeSet<Long> appliedAfterPosition = new TreeSet<>();
+    private long gapSeenAt;
+    private long lastRetentionCheck;
+
+    CacheChangeLog(StorageManager storageManager,
+                   HAServerNotificationManager haServerNotificationManager,
+                   boolean enabled,
+                   String nodeId) {
+        this.storageManager = storageManager;
+        this.haServerNotificationManager = haServerNotificationManager;
+        this.enabled = enabled;
+        this.nodeId = nodeId;
+    }
+
+    /**
+     * Publishes the invalidation of a cached entry to the other nodes. This should be invoked within the transaction
+     * which changes the entry.
+     */
+    void publish(SchemaRegistryCacheType cacheType, String keyAsString) {
+        if (enabled) {
+            storageManager.add(new CacheChangeLogStorable(storageManager.nextId(CacheChangeLogStorable.NAME_SPACE),
+                                                          cacheType.name(),
+                                                          keyAsString,
+                                                          origin,
+                                                          System.currentTimeMillis()));
+        }
+        haServerNotificationManager.notifyCacheInvalidation(cacheType, keyAsString);
+    }
+
+    /**
+     * Starts applying the invalidations published by the other nodes, from the saved position of this node or, when
+     * the node has none, from now on.
+     */
+    void startTailing(BiConsumer<SchemaRegistryCacheType, String> invalidator, long pollIntervalMs) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (this) {
+            CacheChangeLogPositionStorable saved = storageManager.get(new CacheChangeLogPositionStorable(nodeId).getStorableKey());
+            position = saved != null ? saved.getPosition() : head();
+            savedPosition = saved != null ? saved.getPosition() : -1;
+            LOG.info("Tailing the cache change log of node {} from position {}", nodeId, position);
+            tailer = Executors.newSingleThreadScheduledExecutor(
+                    new ThreadFactoryBuilder().setDaemon(true).setNameFormat("cache-change-log-tailer-" + nodeId).build());
+            tailer.scheduleWithFixedDelay(() -> {
+                try {
+                    poll(invalidator);
+                } catch (Exception e) {
+                    LOG.warn("Failed to apply the cache change log after position {}", position, e);
+                }
+            }, pollIntervalMs, pollIntervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Stops tailing the log and saves the position of this node.
+     */
+    synchronized void close() {
+        if (tailer != null) {
+            tailer.shutdown();
+            tailer = null;
+            try {
+                savePosition();
+            } catch (Exception e) {
+                LOG.warn("Failed to save the cache change log position {} of node {}", position, nodeId, e);
+            }
+        }
+    }
+
+    @VisibleForTesting
+    synchronized void poll(BiConsumer<SchemaRegistryCacheType, String> invalidator) {
+        long from = position;
+        Collection<CacheChangeLogStorable> entries;
+        do {
+            entries = storageManager.search(SearchQuery.searchFrom(CacheChangeLogStorable.NAME_SPACE)
+                                                       .where(WhereClause.begin().gt(CacheChangeLogStorable.ID, from).combine())
+                                                       .orderBy(OrderBy.asc(CacheChangeLogStorable.ID))
+                                                       .limit(BATCH_SIZE));
+            for (CacheChangeLogStorable entry : entries) {
+                from = entry.getId();
+                if (appliedAfterPosition.contains(entry.getId())) {
+                    continue;
+                }
+                if (!origin.equals(entry.getOrigin())) {
+                    LOG.debug("Applying cache change log entry {}", entry);
+                    invalidator.accept(SchemaRegistryCacheType.valueOf(entry.getCacheType()), entry.getCacheKey());
+                }
+                // only once applied, a failed entry is retried by the next poll
+                appliedAfterPosition.add(entry.getId());
+            }
+        } while (entries.size() == BATCH_SIZE);
+
+        advancePosition();
+        savePosition();
+        removeExpiredEntries();
+    }
+
+    private void savePosition() {
+        if (position != savedPosition) {
+            storageManager.addOrUpdate(new CacheChangeLogPositionStorable(nodeId, position, System.currentTimeMillis()));
+            savedPosition = position;
+        }
+    }
+
+    private void advancePosition() {
+        while (appliedAfterPosition.remove(position + 1)) {
+            position++;
+        }
+        if (appliedAfterPosition.isEmpty()) {
+            gapSeenAt = 0;
+        } else if (gapSeenAt == 0) {
+            gapSeenAt = System.currentTimeMillis();
+        } else if (System.currentTimeMillis() - gapSeenAt > GAP_TIMEOUT_MS) {
+            // the missing entries belong to transactions which were rolled back
+            LOG.debug("Skipping cache change log entries between {} and {}", position, appliedAfterPosition.first());
+            position = appliedAfterPosition.first() - 1;
+            gapSeenAt = 0;
+            advancePosition();
+        }
+    }
+
+    private long head() {
+        Collection<CacheChangeLogStorable> entries = storageManager.search(SearchQuery.searchFrom(CacheChangeLogStorable.NAME_SPACE)
+                                                                                      .orderBy(OrderBy.desc(CacheChangeLogStorable.ID))
+                                                                                      .limit(1));
+        return entries.isEmpty() ? 0 : entries.iterator().next().getId();
+    }
+
+    private void removeExpiredEntries() {
+        long now = System.currentTimeMillis();
+        if (now - lastRetentionCheck < RETENTION_CHECK_INTERVAL_MS) {
+            return;
+        }
+        lastRetentionCheck = now;
+
+        // every node does this, removing entries which are already removed by another node is harmless
+        int removed = storageManager.removeLessThan(CacheChangeLogStorable.NAME_SPACE,
+                                                    CacheChangeLogStorable.TIMESTAMP,
+                                                    now - RETENTION_MS);
+        LOG.debug("Removed {} expired cache change log entries", removed);
+    }
+
+    @VisibleForTesting
+    synchronized long getPosition() {
+        return position;
+    }
+}
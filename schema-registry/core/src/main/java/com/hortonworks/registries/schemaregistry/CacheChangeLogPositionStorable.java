@@ -0,0 +1,97 @@
+/**
+ * Copyright 2016-2019 Cloudera, Inc.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package com.hortonworks.registries.schemaregistry;
+
+import com.hortonworks.registries.common.Schema;
+import com.hortonworks.registries.storage.PrimaryKey;
+import com.hortonworks.registries.storage.catalog.AbstractStorable;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Position of a registry node in the cache change log, up to which the node applied the entries. It is kept so that a
+ * node which is restarted catches up from where it stopped.
+ */
+public class CacheChangeLogPositionStorable extends AbstractStorable {
+
+    public static final String NAME_SPACE = "cache_change_log_position";
+
+    public static final String NODE_ID = "nodeId";
+    public static final String POSITION = "position";
+    public static final String TIMESTAMP = "timestamp";
+
+    private String nodeId;
+    private Long position;
+    private Long timestamp;
+
+    public CacheChangeLogPositionStorable() {
+    }
+
+    public CacheChangeLogPositionStorable(String nodeId) {
+        this.nodeId = nodeId;
+    }
+
+    public CacheChangeLogPositionStorable(String nodeId, Long position, Long timestamp) {
+        this.nodeId = nodeId;
+        this.position = position;
+        this.timestamp = timestamp;
+    }
+
+    @Override
+    public String getNameSpace() {
+        return NAME_SPACE;
+    }
+
+    @Override
+    public PrimaryKey getPrimaryKey() {
+        Map<Schema.Field, Object> values = new HashMap<>();
+        values.put(new Schema.Field(NODE_ID, Schema.Type.STRING), nodeId);
+        return new PrimaryKey(values);
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public void setNodeId(String nodeId) {
+        this.nodeId = nodeId;
+    }
+
+    public Long getPosition() {
+        return position;
+    }
+
+    public void setPosition(Long position) {
+        this.position = position;
+    }
+
+    public Long getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(Long timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheChangeLogPositionStorable{" +
+                "nodeId='" + nodeId + '\'' +
+                ", position=" + position +
+                ", timestamp=" + timestamp +
+                '}';
+    }
+}
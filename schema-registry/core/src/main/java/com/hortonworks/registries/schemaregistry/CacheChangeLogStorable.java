@@ -0,0 +1,117 @@
+/**
+ * Copyright 2016-2019 Cloudera, Inc.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package com.hortonworks.registries.schemaregistry;
+
+import com.hortonworks.registries.common.Schema;
+import com.hortonworks.registries.storage.PrimaryKey;
+import com.hortonworks.registries.storage.catalog.AbstractStorable;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Entry of the change log of the schema registry caches. An entry is added in the same transaction as the change which
+ * invalidates the cached entry, and the registry nodes apply the entries in the order of their ids.
+ */
+public class CacheChangeLogStorable extends AbstractStorable {
+
+    public static final String NAME_SPACE = "cache_change_log";
+
+    public static final String ID = "id";
+    public static final String CACHE_TYPE = "cacheType";
+    public static final String CACHE_KEY = "cacheKey";
+    public static final String ORIGIN = "origin";
+    public static final String TIMESTAMP = "timestamp";
+
+    private Long id;
+    private String cacheType;
+    private String cacheKey;
+    private String origin;
+    private Long timestamp;
+
+    public CacheChangeLogStorable() {
+    }
+
+    public CacheChangeLogStorable(Long id, String cacheType, String cacheKey, String origin, Long timestamp) {
+        this.id = id;
+        this.cacheType = cacheType;
+        this.cacheKey = cacheKey;
+        this.origin = origin;
+        this.timestamp = timestamp;
+    }
+
+    @Override
+    public String getNameSpace() {
+        return NAME_SPACE;
+    }
+
+    @Override
+    public PrimaryKey getPrimaryKey() {
+        Map<Schema.Field, Object> values = new HashMap<>();
+        values.put(new Schema.Field(ID, Schema.Type.LONG), id);
+        return new PrimaryKey(values);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getCacheType() {
+        return cacheType;
+    }
+
+    public void setCacheType(String cacheType) {
+        this.cacheType = cacheType;
+    }
+
+    public String getCacheKey() {
+        return cacheKey;
+    }
+
+    public void setCacheKey(String cacheKey) {
+        this.cacheKey = cacheKey;
+    }
+
+    public String getOrigin() {
+        return origin;
+    }
+
+    public void setOrigin(String origin) {
+        this.origin = origin;
+    }
+
+    public Long getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(Long timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheChangeLogStorable{" +
+                "id=" + id +
+                ", cacheType='" + cacheType + '\'' +
+                ", cacheKey='" + cacheKey + '\'' +
+                ", origin='" + origin + '\'' +
+                ", timestamp=" + timestamp +
+                '}';
+    }
+}
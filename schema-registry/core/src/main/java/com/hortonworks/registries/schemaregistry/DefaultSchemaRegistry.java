@@ -49,6 +49,8 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -82,6 +84,8 @@ public class DefaultSchemaRegistry implements ISchemaRegistry {
     private SchemaBranchCache schemaBranchCache;
     private HAServerNotificationManager haServerNotificationManager;
     private SchemaLockManager schemaLockManager;
+    private CacheChangeLog cacheChangeLog;
+    private final AggregatedSchemaMetadataLoader aggregatedSchemaMetadataLoader;
 
     public DefaultSchemaRegistry(StorageManager storageManager,
                                  FileStorage fileStorage,
@@ -93,6 +97,7 @@ public class DefaultSchemaRegistry implements ISchemaRegistry {
         this.schemaProvidersConfig = schemaProvidersConfig;
         this.haServerNotificationManager = haServerNotificationManager;
         this.schemaLockManager = schemaLockManager;
+        this.aggregatedSchemaMetadataLoader = new AggregatedSchemaMetadataLoader(storageManager);
     }
 
     @Override
@@ -109,9 +114,15 @@ public class DefaultSchemaRegistry implements ISchemaRegistry {
                         SchemaBranchStorable.class,
                         SchemaBranchVersionMapping.class,
                         HostConfigStorable.class,
-                        SchemaLockStorable.class));
+                        SchemaLockStorable.class,
+                        CacheChangeLogStorable.class,
+                        CacheChangeLogPositionStorable.class));
 
         Options options = new Options(props);
+        cacheChangeLog = new CacheChangeLog(storageManager,
+                                            haServerNotificationManager,
+                                            options.isCacheChangeLogEnabled(),
+                                            options.getCacheChangeLogNodeId());
         schemaBranchCache = new SchemaBranchCache(options.getMaxSchemaCacheSize(),
                                                   options.getSchemaExpiryInSecs(),
                                                   createSchemaBranchFetcher());
@@ -121,7 +132,7 @@ public class DefaultSchemaRegistry implements ISchemaRegistry {
                                                                           props,
                                                                           schemaMetadataFetcher,
                                                                           schemaBranchCache,
-                                                                          haServerNotificationManager);
+                                                                          cacheChangeLog);
 
         Collection<? extends SchemaProvider> schemaProviders = initSchemaProviders(schemaProvidersConfig,
                                                                                    schemaVersionLifecycleManager.getSchemaVersionRetriever());
@@ -144,6 +155,15 @@ public class DefaultSchemaRegistry implements ISchemaRegistry {
                                                                       schemaProvider
                                                                               .getDefaultDeserializerClassName()))
                                .collect(Collectors.toList()));
+
+        cacheChangeLog.startTailing(this::invalidateCache, options.getCacheChangeLogPollIntervalMs());
+    }
+
+    /**
+     * Stops the background work of this registry, it should be invoked when the registry is shut down.
+     */
+    public void close() {
+        cacheChangeLog.close();
     }
 
 
@@ -288,6 +308,32 @@ public class DefaultSchemaRegistry implements ISchemaRegistry {
         return schemaMetadataInfo;
     }
 
+    @Override
+    public Page<SchemaMetadataInfo> listSchemas(String continuationToken, int pageSize) {
+        Preconditions.checkArgument(pageSize > 0, "pageSize should be greater than zero but was %s", pageSize);
+
+        // keyset pagination on the unique schema name, one more row is fetched to know whether there is a next page
+        SearchQuery searchQuery = SearchQuery.searchFrom(SchemaMetadataStorable.NAME_SPACE);
+        if (continuationToken != null) {
+            searchQuery.where(WhereClause.begin()
+                                         .gt(SchemaMetadataStorable.NAME, Page.decodeContinuationToken(continuationToken))
+                                         .combine());
+        }
+        searchQuery.orderBy(OrderBy.asc(SchemaMetadataStorable.NAME)).limit(pageSize + 1);
+
+        List<SchemaMetadataInfo> schemaMetadataInfos = storageManager.<SchemaMetadataStorable>search(searchQuery)
+                                                                     .stream()
+                                                                     .map(SchemaMetadataStorable::toSchemaMetadataInfo)
+                                                                     .collect(Collectors.toList());
+        String nextContinuationToken = null;
+        if (schemaMetadataInfos.size() > pageSize) {
+            schemaMetadataInfos = schemaMetadataInfos.subList(0, pageSize);
+            nextContinuationToken = Page.encodeContinuationToken(schemaMetadataInfos.get(pageSize - 1).getSchemaMetadata().getName());
+        }
+
+        return new Page<>(schemaMetadataInfos, nextContinuationToken);
+    }
+
     @Override
     public void deleteSchema(String schemaName) throws SchemaNotFoundException {
         Collection<SchemaVersionInfo> schemaVersionInfos = getAllVersions(schemaName);
@@ -337,16 +383,16 @@ public class DefaultSchemaRegistry implements ISchemaRegistry {
     public Collection<AggregatedSchemaMetadataInfo> findAggregatedSchemaMetadata(Map<String, String> props)
             throws SchemaBranchNotFoundException, SchemaNotFoundException {
 
-        return findSchemaMetadata(props)
-                .stream()
-                .map(schemaMetadataInfo -> {
-                    try {
-                        return buildAggregatedSchemaMetadataInfo(schemaMetadataInfo);
-                    } catch (SchemaNotFoundException | SchemaBranchNotFoundException e) {
-                        throw new RuntimeException(e);
-                    }
-                })
-                .collect(Collectors.toList());
+        return aggregatedSchemaMetadataLoader.load(findSchemaMetadata(props));
+    }
+
+    @Override
+    public Page<AggregatedSchemaMetadataInfo> listAggregatedSchemas(String continuationToken, int pageSize)
+            throws SchemaBranchNotFoundException, SchemaNotFoundException {
+        Page<SchemaMetadataInfo> schemaMetadataInfos = listSchemas(continuationToken, pageSize);
+
+        return new Page<>(aggregatedSchemaMetadataLoader.load(schemaMetadataInfos.getEntities()),
+                          schemaMetadataInfos.getContinuationToken());
     }
 
     @Override
@@ -491,6 +537,14 @@ public class DefaultSchemaRegistry implements ISchemaRegistry {
                                             SchemaVersion schemaVersion,
                                             boolean disableCanonicalCheck)
             throws IncompatibleSchemaException, InvalidSchemaException, SchemaNotFoundException, SchemaBranchNotFoundException {
+        SchemaIdVersion existingSchemaIdVersion = schemaVersionLifecycleManager.findSchemaIdVersion(SchemaBranch.MASTER_BRANCH,
+                                                                                                   schemaMetadata.getName(),
+                                                                                                   schemaVersion.getSchemaText(),
+                                                                                                   disableCanonicalCheck);
+        if (existingSchemaIdVersion != null) {
+            return existingSchemaIdVersion;
+        }
+
         lockSchemaMetadata(schemaMetadata.getName());
         return schemaVersionLifecycleManager.addSchemaVersion(SchemaBranch.MASTER_BRANCH, schemaMetadata, schemaVersion, x -> registerSchemaMetadata(x), disableCanonicalCheck);
     }
@@ -501,6 +555,14 @@ public class DefaultSchemaRegistry implements ISchemaRegistry {
                                             SchemaVersion schemaVersion,
                                             boolean disableCanonicalCheck)
             throws IncompatibleSchemaException, InvalidSchemaException, SchemaNotFoundException, SchemaBranchNotFoundException {
+        SchemaIdVersion existingSchemaIdVersion = schemaVersionLifecycleManager.findSchemaIdVersion(SchemaBranch.MASTER_BRANCH,
+                                                                                                   schemaMetadata.getName(),
+                                                                                                   schemaVersion.getSchemaText(),
+                                                                                                   disableCanonicalCheck);
+        if (existingSchemaIdVersion != null) {
+            return existingSchemaIdVersion;
+        }
+
         lockSchemaMetadata(schemaMetadata.getName());
         return schemaVersionLifecycleManager.addSchemaVersion(schemaBranchName, schemaMetadata, schemaVersion, x -> registerSchemaMetadata(x), disableCanonicalCheck);
     }
@@ -510,6 +572,14 @@ public class DefaultSchemaRegistry implements ISchemaRegistry {
                                             SchemaVersion schemaVersion,
                                             boolean disableCanonicalCheck)
             throws SchemaNotFoundException, IncompatibleSchemaException, InvalidSchemaException, SchemaBranchNotFoundException {
+        SchemaIdVersion existingSchemaIdVersion = schemaVersionLifecycleManager.findSchemaIdVersion(SchemaBranch.MASTER_BRANCH,
+                                                                                                   schemaName,
+                                                                                                   schemaVersion.getSchemaText(),
+                                                                                                   disableCanonicalCheck);
+        if (existingSchemaIdVersion != null) {
+            return existingSchemaIdVersion;
+        }
+
         lockSchemaMetadata(schemaName);
         return schemaVersionLifecycleManager.addSchemaVersion(SchemaBranch.MASTER_BRANCH, schemaName, schemaVersion, disableCanonicalCheck);
     }
@@ -520,6 +590,14 @@ public class DefaultSchemaRegistry implements ISchemaRegistry {
                                             SchemaVersion schemaVersion,
                                             boolean disableCanonicalCheck)
             throws SchemaNotFoundException, IncompatibleSchemaException, InvalidSchemaException, SchemaBranchNotFoundException {
+        SchemaIdVersion existingSchemaIdVersion = schemaVersionLifecycleManager.findSchemaIdVersion(schemaBranchName,
+                                                                                                   schemaName,
+                                                                                                   schemaVersion.getSchemaText(),
+                                                                                                   disableCanonicalCheck);
+        if (existingSchemaIdVersion != null) {
+            return existingSchemaIdVersion;
+        }
+
         lockSchemaMetadata(schemaName);
         return schemaVersionLifecycleManager.addSchemaVersion(schemaBranchName, schemaName, schemaVersion, disableCanonicalCheck);
     }
@@ -560,6 +638,11 @@ public class DefaultSchemaRegistry implements ISchemaRegistry {
         return schemaVersionLifecycleManager.getSchemaVersionInfo(schemaVersionKey);
     }
 
+    @Override
+    public Collection<SchemaVersionInfo> getSchemaVersionInfos(Collection<Long> schemaVersionIds) throws SchemaNotFoundException {
+        return schemaVersionLifecycleManager.getSchemaVersionInfos(schemaVersionIds);
+    }
+
     @Override
     public SchemaVersionInfo findSchemaVersionByFingerprint(String fingerprint) throws SchemaNotFoundException {
         return schemaVersionLifecycleManager.findSchemaVersionInfoByFingerprint(fingerprint);
@@ -941,22 +1024,10 @@ public class DefaultSchemaRegistry implements ISchemaRegistry {
 
     public AggregatedSchemaMetadataInfo getAggregatedSchemaMetadataInfo(String schemaName) throws SchemaNotFoundException, SchemaBranchNotFoundException {
         SchemaMetadataInfo schemaMetadataInfo = getSchemaMetadataInfo(schemaName);
-        return buildAggregatedSchemaMetadataInfo(schemaMetadataInfo);
-    }
-
-    private AggregatedSchemaMetadataInfo buildAggregatedSchemaMetadataInfo(SchemaMetadataInfo schemaMetadataInfo) throws SchemaNotFoundException, SchemaBranchNotFoundException {
-
         if (schemaMetadataInfo == null) {
             return null;
         }
-
-        List<SerDesInfo> serDesInfos = getSerDesInfos(schemaMetadataInfo.getSchemaMetadata().getName());
-
-        return new AggregatedSchemaMetadataInfo(schemaMetadataInfo.getSchemaMetadata(),
-                                                schemaMetadataInfo.getId(),
-                                                schemaMetadataInfo.getTimestamp(),
-                                                getAggregatedSchemaBranch(schemaMetadataInfo.getSchemaMetadata().getName()),
-                                                serDesInfos);
+        return aggregatedSchemaMetadataLoader.load(Collections.singletonList(schemaMetadataInfo)).get(0);
     }
 
     private SchemaBranch getSchemaBranch(SchemaBranchKey schemaBranchKey) throws SchemaBranchNotFoundException {
@@ -997,6 +1068,15 @@ public class DefaultSchemaRegistry implements ISchemaRegistry {
         public static final String SCHEMA_CACHE_EXPIRY_INTERVAL_SECS = "schemaCacheExpiryInterval";
         public static final int DEFAULT_SCHEMA_CACHE_SIZE = 10000;
         public static final long DEFAULT_SCHEMA_CACHE_EXPIRY_INTERVAL_SECS = 60 * 60L;
+        // keeps the caches of several registry nodes coherent through a change log in the storage, off by default
+        public static final String ENABLE_CACHE_CHANGE_LOG = "enableCacheChangeLog";
+        public static final String CACHE_CHANGE_LOG_POLL_INTERVAL_MS = "cacheChangeLogPollInterval";
+        public static final long DEFAULT_CACHE_CHANGE_LOG_POLL_INTERVAL_MS = 1000L;
+        // timeouts of the cache invalidation requests sent to the peers of a HA cluster
+        public static final String HA_NOTIFICATION_CONNECT_TIMEOUT_MS = "haNotificationConnectTimeout";
+        public static final String HA_NOTIFICATION_READ_TIMEOUT_MS = "haNotificationReadTimeout";
+        // identifies the node in the cache change log, it must be set when several nodes run on the same host
+        public static final String CACHE_CHANGE_LOG_NODE_ID = "cacheChangeLogNodeId";
 
         private final Map<String, ?> config;
 
@@ -1018,6 +1098,10 @@ public class DefaultSchemaRegistry implements ISchemaRegistry {
             return (Boolean) getValue(config, ENABLE_CACHING, Boolean.TRUE);
         }
 
+        public boolean isCacheChangeLogEnabled() {
+            return isCacheEnabled() && (Boolean) getValue(config, ENABLE_CACHE_CHANGE_LOG, Boolean.FALSE);
+        }
+
         public int getMaxSchemaCacheSize() {
             return isCacheEnabled() == true ?
                       Integer.parseInt(getPropertyValue(SCHEMA_CACHE_SIZE, DEFAULT_SCHEMA_CACHE_SIZE).toString()) : 0;
@@ -1027,6 +1111,34 @@ public class DefaultSchemaRegistry implements ISchemaRegistry {
             return Long.valueOf(getPropertyValue(SCHEMA_CACHE_EXPIRY_INTERVAL_SECS, DEFAULT_SCHEMA_CACHE_EXPIRY_INTERVAL_SECS)
                                         .toString());
         }
+
+        public long getCacheChangeLogPollIntervalMs() {
+            return Long.valueOf(getPropertyValue(CACHE_CHANGE_LOG_POLL_INTERVAL_MS, DEFAULT_CACHE_CHANGE_LOG_POLL_INTERVAL_MS)
+                                        .toString());
+        }
+
+        public int getHaNotificationConnectTimeoutMs() {
+            return Integer.parseInt(getPropertyValue(HA_NOTIFICATION_CONNECT_TIMEOUT_MS,
+                                                     HAServerNotificationManager.DEFAULT_CONNECT_TIMEOUT_MS).toString());
+        }
+
+        public int getHaNotificationReadTimeoutMs() {
+            return Integer.parseInt(getPropertyValue(HA_NOTIFICATION_READ_TIMEOUT_MS,
+                                                     HAServerNotificationManager.DEFAULT_READ_TIMEOUT_MS).toString());
+        }
+
+        public String getCacheChangeLogNodeId() {
+            Object nodeId = getPropertyValue(CACHE_CHANGE_LOG_NODE_ID, null);
+            if (nodeId != null) {
+                return nodeId.toString();
+            }
+            try {
+                return InetAddress.getLocalHost().getCanonicalHostName();
+            } catch (UnknownHostException e) {
+                throw new IllegalStateException("Could not resolve the local host name, set the " + CACHE_CHANGE_LOG_NODE_ID
+                                                        + " cache property", e);
+            }
+        }
     }
 
     private void invalidateSchemaBranchInAllHAServers(SchemaBranchCache.Key key) {
@@ -1040,7 +1152,7 @@ public class DefaultSchemaRegistry implements ISchemaRegistry {
             throw new RuntimeException(String.format("Failed to serialized key : %s", key),e);
         }
 
-        haServerNotificationManager.notifyCacheInvalidation(schemaBranchCache.getCacheType(),keyAsString);
+        cacheChangeLog.publish(schemaBranchCache.getCacheType(), keyAsString);
     }
 
     // Clear the relevant caches for this schema version and notify HA servers
@@ -16,36 +16,94 @@
 
 package com.hortonworks.registries.schemaregistry;
 
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.SharedMetricRegistries;
+import com.codahale.metrics.Timer;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import com.google.common.collect.Iterables;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.hortonworks.registries.schemaregistry.cache.SchemaRegistryCacheType;
-import org.apache.commons.lang3.tuple.Pair;
+import org.glassfish.jersey.client.ClientProperties;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.ws.rs.client.Client;
 import javax.ws.rs.client.ClientBuilder;
 import javax.ws.rs.client.Entity;
-import javax.ws.rs.client.WebTarget;
 import javax.ws.rs.core.Response;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.EnumMap;
 import java.util.HashSet;
-import java.util.PriorityQueue;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Notifies the peer servers of a HA cluster about the debut of this server and about the cache entries they have to
+ * invalidate.
+ * <p>
+ * Notifications are delivered off the request thread. Each peer has its own queue in which repeated invalidations
+ * of a key are coalesced, and queued keys are sent in batches. Peers are notified in parallel with a shared client, and
+ * failed deliveries are retried with a growing back off until {@link #MAX_RETRY} attempts are made.
+ */
 public class HAServerNotificationManager {
 
-    Set<String> hostIps = new HashSet<>();
-    private final String UPDATE_ITERATE_LOCK = "UPDATE_ITERATE_LOCK";
-    private String serverUrl;
+    public static final String METRIC_REGISTRY_NAME = "registries.ha";
+    public static final int DEFAULT_CONNECT_TIMEOUT_MS = 5000;
+    public static final int DEFAULT_READ_TIMEOUT_MS = 10000;
+
     private static final Logger LOG = LoggerFactory.getLogger(HAServerNotificationManager.class);
+    private static final String DEBUT_PATH = "api/v1/schemaregistry/notifications/node/debut";
+    private static final String CACHE_INVALIDATION_PATH = "api/v1/schemaregistry/cache/%s/invalidate";
+    private static final String BATCH_CACHE_INVALIDATION_PATH = CACHE_INVALIDATION_PATH + "/batch";
+    private static final int MAX_BATCH_SIZE = 100;
+    private static final int NOTIFIER_THREADS = 4;
+    private static final long RETRY_BACKOFF_MS = 100;
+
     public static Integer MAX_RETRY = 3;
     public boolean isCacheEnabled = false;
 
+    private final Map<String, PeerNotifier> peers = new ConcurrentHashMap<>();
+    private final String UPDATE_ITERATE_LOCK = "UPDATE_ITERATE_LOCK";
+    private final ScheduledThreadPoolExecutor executor;
+    private final Supplier<Client> client = Suppliers.memoize(this::createClient);
+    private volatile int connectTimeoutMs = DEFAULT_CONNECT_TIMEOUT_MS;
+    private volatile int readTimeoutMs = DEFAULT_READ_TIMEOUT_MS;
+    private final Timer lagTimer;
+    private final Meter failedAttempts;
+    private final Counter droppedNotifications;
+    private String serverUrl;
+
+    public HAServerNotificationManager() {
+        executor = new ScheduledThreadPoolExecutor(NOTIFIER_THREADS, new ThreadFactoryBuilder().setDaemon(true)
+                                                                                                .setNameFormat("ha-notifier-%d")
+                                                                                                .build());
+        executor.setRemoveOnCancelPolicy(true);
+
+        MetricRegistry metricRegistry = SharedMetricRegistries.getOrCreate(METRIC_REGISTRY_NAME);
+        lagTimer = metricRegistry.timer(MetricRegistry.name(HAServerNotificationManager.class, "notifications", "lag"));
+        failedAttempts = metricRegistry.meter(MetricRegistry.name(HAServerNotificationManager.class, "notifications", "failures"));
+        droppedNotifications = metricRegistry.counter(MetricRegistry.name(HAServerNotificationManager.class, "notifications", "dropped"));
+    }
+
     public void refreshServerInfo(Collection<HostConfigStorable> hostConfigStorableList) {
         if (hostConfigStorableList != null) {
             synchronized (UPDATE_ITERATE_LOCK) {
-                hostIps.clear();
+                Set<String> hostUrls = new HashSet<>();
                 hostConfigStorableList.stream().filter(hostConfigStorable -> !hostConfigStorable.getHostUrl().equals(serverUrl)).forEach(hostConfig -> {
-                    hostIps.add(hostConfig.getHostUrl());
+                    hostUrls.add(hostConfig.getHostUrl());
                 });
+                peers.keySet().retainAll(hostUrls);
+                hostUrls.forEach(hostUrl -> peers.computeIfAbsent(hostUrl, PeerNotifier::new));
             }
         }
     }
@@ -54,70 +112,203 @@ public class HAServerNotificationManager {
         this.isCacheEnabled = isCacheEnabled;
     }
 
+    /**
+     * Sets the timeouts of the requests to the peers, it must be invoked before the first notification is delivered.
+     */
+    public void setTimeouts(int connectTimeoutMs, int readTimeoutMs) {
+        this.connectTimeoutMs = connectTimeoutMs;
+        this.readTimeoutMs = readTimeoutMs;
+    }
+
+    private Client createClient() {
+        // a peer which does not respond must not hold the notifier threads of the other peers
+        return ClientBuilder.newClient()
+                            .property(ClientProperties.CONNECT_TIMEOUT, connectTimeoutMs)
+                            .property(ClientProperties.READ_TIMEOUT, readTimeoutMs);
+    }
+
     public void notifyDebut() {
-        if (isCacheEnabled) {
-            notify("api/v1/schemaregistry/notifications/node/debut", serverUrl);
+        // If Schema Registry was not started in HA mode then serverURL would be null, in case don't bother making POST calls
+        if (isCacheEnabled && serverUrl != null) {
+            peers.values().forEach(PeerNotifier::addDebut);
         }
     }
 
     public void notifyCacheInvalidation(SchemaRegistryCacheType schemaRegistryCacheType, String keyAsString) {
-        if (isCacheEnabled) {
-            notify(String.format("api/v1/schemaregistry/cache/%s/invalidate", schemaRegistryCacheType.name()), keyAsString);
+        if (isCacheEnabled && serverUrl != null) {
+            peers.values().forEach(peer -> peer.addInvalidation(schemaRegistryCacheType, keyAsString));
         }
     }
 
-    private void notify(String urlPath, Object postBody) {
-        // If Schema Registry was not started in HA mode then serverURL would be null, in case don't bother making POST calls
-        if(serverUrl != null) {
-            PriorityQueue < Pair<Integer, String> > queue = new PriorityQueue<>();
-            synchronized (UPDATE_ITERATE_LOCK) {
-                hostIps.stream().forEach(hostIp -> {
-                    queue.add(Pair.of(1, hostIp));
-                });
+    public void addNodeUrl(String nodeUrl) {
+        synchronized (UPDATE_ITERATE_LOCK) {
+            peers.computeIfAbsent(nodeUrl, PeerNotifier::new);
+        }
+    }
+
+    public void setHomeNodeURL(String homeNodeURL) {
+        this.serverUrl = homeNodeURL;
+    }
+
+    public String getHomeNodeURL() {
+        return this.serverUrl;
+    }
+
+    /**
+     * Stops delivering notifications, pending ones are discarded.
+     */
+    public void close() {
+        executor.shutdownNow();
+        synchronized (UPDATE_ITERATE_LOCK) {
+            peers.clear();
+        }
+        client.get().close();
+    }
+
+    private boolean post(String url, Object postBody) {
+        return postForStatus(url, postBody) == Response.Status.OK.getStatusCode();
+    }
+
+    private int postForStatus(String url, Object postBody) {
+        Response response = null;
+        try {
+            response = client.get().target(url).request().post(Entity.json(postBody));
+            return response.getStatus();
+        } catch (Exception | LinkageError e) {
+            // a notifier thread must not die with undelivered notifications, so this also covers client setup errors
+            LOG.warn("Failed to notify the peer server at '{}'", url, e);
+            return -1;
+        } finally {
+            if (response != null) {
+                response.close();
             }
+        }
+    }
 
-            while (!queue.isEmpty()) {
-                Pair<Integer, String> priorityWithHostIp = queue.remove();
+    private final class PeerNotifier {
+        private final String peerUrl;
+        // keys are kept in the order they were invalidated, a key invalidated again before it is sent is sent only once
+        private final Map<SchemaRegistryCacheType, Set<String>> pendingKeys = new EnumMap<>(SchemaRegistryCacheType.class);
+        private boolean pendingDebut;
+        private long oldestPendingNanos;
+        private boolean scheduled;
+        private int attempts;
 
-                WebTarget target = ClientBuilder.newClient().target(String.format("%s%s", priorityWithHostIp.getRight(), urlPath));
-                Response response = null;
+        PeerNotifier(String peerUrl) {
+            this.peerUrl = peerUrl;
+        }
 
-                try {
-                   response = target.request().post(Entity.json(postBody));
-                } catch (Exception e) {
-                    LOG.warn("Failed to notify the peer server '{}' about the current host debut.", priorityWithHostIp.getRight());
-                }
+        synchronized void addDebut() {
+            pendingDebut = true;
+            pending();
+        }
 
-                if ( (response == null || response.getStatus() != Response.Status.OK.getStatusCode()) && priorityWithHostIp.getLeft() < MAX_RETRY) {
-                    queue.add(Pair.of(priorityWithHostIp.getLeft() + 1, priorityWithHostIp.getRight()));
-                } else if (priorityWithHostIp.getLeft() < MAX_RETRY ) {
-                    LOG.info("Notified the peer server '{}' about the current host debut.", priorityWithHostIp.getRight());
-                } else if (priorityWithHostIp.getLeft() >= MAX_RETRY) {
-                    LOG.warn("Failed to notify the peer server '{}' about the current host debut, giving up after {} attempts.",
-                            priorityWithHostIp.getRight(), MAX_RETRY);
-                }
+        synchronized void addInvalidation(SchemaRegistryCacheType cacheType, String keyAsString) {
+            pendingKeys.computeIfAbsent(cacheType, x -> new LinkedHashSet<>()).add(keyAsString);
+            pending();
+        }
 
-                try {
-                    Thread.sleep(priorityWithHostIp.getLeft() * 100);
-                } catch (InterruptedException e) {
-                    LOG.warn("Failed to notify the peer server '{}'",priorityWithHostIp.getRight(), e);
-                }
+        private void pending() {
+            if (oldestPendingNanos == 0) {
+                oldestPendingNanos = System.nanoTime();
+            }
+            // a retry which is already scheduled sends the new notifications too
+            if (!scheduled) {
+                schedule(0);
             }
+        }
 
+        private void schedule(long delayMs) {
+            if (!executor.isShutdown() && peers.get(peerUrl) == this) {
+                scheduled = true;
+                executor.schedule(this::deliver, delayMs, TimeUnit.MILLISECONDS);
+            }
         }
-    }
 
-    public void addNodeUrl(String nodeUrl) {
-        synchronized (UPDATE_ITERATE_LOCK) {
-            hostIps.add(nodeUrl);
+        private void deliver() {
+            boolean debut;
+            Map<SchemaRegistryCacheType, Set<String>> keys;
+            long pendingSince;
+            synchronized (this) {
+                debut = pendingDebut;
+                keys = new EnumMap<>(pendingKeys);
+                pendingSince = oldestPendingNanos;
+                pendingDebut = false;
+                pendingKeys.clear();
+                oldestPendingNanos = 0;
+            }
+
+            boolean delivered = !debut || post(peerUrl + DEBUT_PATH, serverUrl);
+            if (delivered) {
+                debut = false;
+                Iterator<Map.Entry<SchemaRegistryCacheType, Set<String>>> iterator = keys.entrySet().iterator();
+                while (delivered && iterator.hasNext()) {
+                    Map.Entry<SchemaRegistryCacheType, Set<String>> entry = iterator.next();
+                    List<String> undelivered = new ArrayList<>();
+                    for (List<String> batch : Iterables.partition(entry.getValue(), MAX_BATCH_SIZE)) {
+                        if (!delivered || !postKeys(entry.getKey(), batch)) {
+                            delivered = false;
+                            undelivered.addAll(batch);
+                        }
+                    }
+                    if (undelivered.isEmpty()) {
+                        iterator.remove();
+                    } else {
+                        entry.setValue(new LinkedHashSet<>(undelivered));
+                    }
+                }
+            }
+
+            synchronized (this) {
+                scheduled = false;
+                if (delivered) {
+                    attempts = 0;
+                    lagTimer.update(System.nanoTime() - pendingSince, TimeUnit.NANOSECONDS);
+                    LOG.debug("Notified the peer server '{}'", peerUrl);
+                } else {
+                    failedAttempts.mark();
+                    if (++attempts < MAX_RETRY) {
+                        requeue(debut, keys, pendingSince);
+                    } else {
+                        int dropped = (debut ? 1 : 0) + keys.values().stream().mapToInt(Set::size).sum();
+                        droppedNotifications.inc(dropped);
+                        LOG.warn("Failed to notify the peer server '{}', giving up {} notifications after {} attempts.",
+                                 peerUrl, dropped, MAX_RETRY);
+                        attempts = 0;
+                    }
+                }
+                if (pendingDebut || !pendingKeys.isEmpty()) {
+                    schedule(attempts * RETRY_BACKOFF_MS);
+                }
+            }
         }
-    }
 
-    public void setHomeNodeURL(String homeNodeURL) {
-        this.serverUrl = homeNodeURL;
-    }
+        private void requeue(boolean debut,
+                             Map<SchemaRegistryCacheType, Set<String>> keys,
+                             long pendingSince) {
+            pendingDebut |= debut;
+            // undelivered keys go before the ones which were added while delivering
+            keys.forEach((cacheType, undelivered) -> {
+                Set<String> merged = new LinkedHashSet<>(undelivered);
+                Set<String> added = pendingKeys.get(cacheType);
+                if (added != null) {
+                    merged.addAll(added);
+                }
+                pendingKeys.put(cacheType, merged);
+            });
+            oldestPendingNanos = pendingSince;
+        }
 
-    public String getHomeNodeURL() {
-        return this.serverUrl;
+        private boolean postKeys(SchemaRegistryCacheType cacheType, List<String> keys) {
+            String singleKeyUrl = peerUrl + String.format(CACHE_INVALIDATION_PATH, cacheType.name());
+            if (keys.size() > 1) {
+                int status = postForStatus(peerUrl + String.format(BATCH_CACHE_INVALIDATION_PATH, cacheType.name()), keys);
+                // peers running an earlier version only take a key at a time
+                if (status != Response.Status.NOT_FOUND.getStatusCode()) {
+                    return status == Response.Status.OK.getStatusCode();
+                }
+            }
+            return keys.stream().allMatch(key -> post(singleKeyUrl, key));
+        }
     }
 }
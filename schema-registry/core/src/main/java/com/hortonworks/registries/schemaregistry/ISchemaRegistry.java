@@ -23,6 +23,7 @@ import com.hortonworks.registries.storage.search.OrderBy;
 import com.hortonworks.registries.storage.search.WhereClause;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
@@ -69,6 +70,17 @@ public interface ISchemaRegistry extends ISchemaRegistryService {
      }
 
 
+    /**
+     * Returns the schema versions with the given ids in a single call. Ids for which there is no schema version are ignored.
+     *
+     * @param schemaVersionIds ids of the schema versions
+     *
+     * @return {@link SchemaVersionInfo}s of the existing schema versions in the order of the given ids
+     *
+     * @throws SchemaNotFoundException when the schema of a version could not be found
+     */
+    Collection<SchemaVersionInfo> getSchemaVersionInfos(Collection<Long> schemaVersionIds) throws SchemaNotFoundException;
+
     /**
      * @param schemaBranchName name of the schema branch
      * @param schemaName name identifying a schema
@@ -111,6 +123,38 @@ public interface ISchemaRegistry extends ISchemaRegistryService {
      */
     Collection<AggregatedSchemaMetadataInfo> findAggregatedSchemaMetadata(Map<String, String> props) throws SchemaNotFoundException, SchemaBranchNotFoundException;
 
+    /**
+     * Lists aggregated information of the registered schemas ordered by their names, one page at a time.
+     * <p>
+     * Default implementation loads all the schemas with {@link #findAggregatedSchemaMetadata(Map)} and returns the
+     * requested page of them.
+     *
+     * @param continuationToken token of the previous page to get the next page, null to get the first page
+     * @param pageSize          maximum number of schemas in the returned page
+     *
+     * @return page of aggregated schema metadata with the token to get the next page
+     */
+    default Page<AggregatedSchemaMetadataInfo> listAggregatedSchemas(String continuationToken, int pageSize) throws SchemaNotFoundException, SchemaBranchNotFoundException {
+        return Page.of(findAggregatedSchemaMetadata(Collections.emptyMap()),
+                       schema -> schema.getSchemaMetadata().getName(),
+                       continuationToken,
+                       pageSize);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Default implementation loads all the schemas with {@link #findSchemaMetadata(Map)} and returns the requested
+     * page of them.
+     */
+    @Override
+    default Page<SchemaMetadataInfo> listSchemas(String continuationToken, int pageSize) {
+        return Page.of(findSchemaMetadata(Collections.emptyMap()),
+                       schema -> schema.getSchemaMetadata().getName(),
+                       continuationToken,
+                       pageSize);
+    }
+
     /**
      * @param schemaName name of the schema
      *
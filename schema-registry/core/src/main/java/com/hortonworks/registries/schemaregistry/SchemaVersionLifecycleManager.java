@@ -17,6 +17,8 @@ package com.hortonworks.registries.schemaregistry;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.Lists;
 import com.hortonworks.registries.common.QueryParam;
 import com.hortonworks.registries.schemaregistry.cache.SchemaBranchCache;
@@ -46,6 +48,8 @@ import com.hortonworks.registries.storage.Storable;
 import com.hortonworks.registries.storage.StorableKey;
 import com.hortonworks.registries.storage.StorageManager;
 import com.hortonworks.registries.storage.search.OrderBy;
+import com.hortonworks.registries.storage.search.SearchQuery;
+import com.hortonworks.registries.storage.search.WhereClause;
 import org.apache.commons.codec.binary.Hex;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.slf4j.Logger;
@@ -57,9 +61,14 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -79,18 +88,19 @@ public class SchemaVersionLifecycleManager {
     private SchemaVersionRetriever schemaVersionRetriever;
     private StorageManager storageManager;
     private SchemaBranchCache schemaBranchCache;
-    private HAServerNotificationManager haServerNotificationManager;
+    private CacheChangeLog cacheChangeLog;
     private DefaultSchemaRegistry.SchemaMetadataFetcher schemaMetadataFetcher;
+    private Cache<CompatibilityCheckKey, CompatibilityResult> compatibilityResultCache;
 
     public SchemaVersionLifecycleManager(StorageManager storageManager,
                                          Map<String, Object> props,
                                          DefaultSchemaRegistry.SchemaMetadataFetcher schemaMetadataFetcher,
                                          SchemaBranchCache schemaBranchCache,
-                                         HAServerNotificationManager haServerNotificationManager) {
+                                         CacheChangeLog cacheChangeLog) {
         this.storageManager = storageManager;
         this.schemaMetadataFetcher = schemaMetadataFetcher;
         this.schemaBranchCache = schemaBranchCache;
-        this.haServerNotificationManager = haServerNotificationManager;
+        this.cacheChangeLog = cacheChangeLog;
         SchemaVersionLifecycleStateMachine.Builder builder = SchemaVersionLifecycleStateMachine.newBuilder();
 
         DefaultSchemaRegistry.Options options = new DefaultSchemaRegistry.Options(props);
@@ -101,6 +111,12 @@ public class SchemaVersionLifecycleManager {
                 options.getMaxSchemaCacheSize(),
                 options.getSchemaExpiryInSecs() * 1000L);
 
+        // schema version texts never change once stored, so results are keyed by version id and candidate fingerprint
+        compatibilityResultCache = CacheBuilder.newBuilder()
+                                               .maximumSize(options.getMaxSchemaCacheSize())
+                                               .expireAfterAccess(options.getSchemaExpiryInSecs(), TimeUnit.SECONDS)
+                                               .build();
+
         customSchemaStateExecutor = createSchemaReviewExecutor(props, builder);
 
         schemaVersionLifecycleStateMachine = builder.build();
@@ -180,6 +196,36 @@ public class SchemaVersionLifecycleManager {
         return new SchemaIdVersion(schemaMetadataId, schemaVersionInfo.getVersion(), schemaVersionInfo.getId());
     }
 
+    /**
+     * Returns the id of an already registered version of the given schema name with the given schema text without taking
+     * any locks, or null when a new version needs to be created. Registrations of existing schemas can be served with
+     * this before escalating to the schema metadata write lock.
+     */
+    public SchemaIdVersion findSchemaIdVersion(String schemaBranchName,
+                                               String schemaName,
+                                               String schemaText,
+                                               boolean disableCanonicalCheck)
+            throws InvalidSchemaException, SchemaNotFoundException, SchemaBranchNotFoundException {
+        Preconditions.checkNotNull(schemaBranchName, "Schema branch name can't be null");
+        Preconditions.checkNotNull(schemaName, "schemaName can't be null");
+
+        checkSchemaText(schemaText);
+
+        SchemaMetadataInfo schemaMetadataInfo = getSchemaMetadataInfo(schemaName);
+        if (schemaMetadataInfo == null) {
+            return null;
+        }
+
+        SchemaVersionInfo schemaVersionInfo = findSchemaVersion(schemaBranchName,
+                                                                schemaMetadataInfo.getSchemaMetadata().getType(),
+                                                                schemaText,
+                                                                schemaName,
+                                                                disableCanonicalCheck);
+        return schemaVersionInfo != null
+               ? new SchemaIdVersion(schemaMetadataInfo.getId(), schemaVersionInfo.getVersion(), schemaVersionInfo.getId())
+               : null;
+    }
+
     private void checkSchemaText(String schemaText) throws InvalidSchemaException {
         if(schemaText == null || schemaText.trim().isEmpty()) {
             throw new InvalidSchemaException();
@@ -356,8 +402,10 @@ public class SchemaVersionLifecycleManager {
             // if the given version is added with enabled or initiated state then only check for compatibility
             if (SchemaVersionLifecycleStates.ENABLED.getId().equals(initialState) ||
                     SchemaVersionLifecycleStates.INITIATED.getId().equals(initialState)) {
-                CompatibilityResult compatibilityResult = checkCompatibility(schemaBranchName, schemaName, schemaVersion
-                        .getSchemaText());
+                CompatibilityResult compatibilityResult = checkCompatibility(schemaBranchName,
+                                                                             schemaName,
+                                                                             schemaVersion.getSchemaText(),
+                                                                             fingerprint);
                 if (!compatibilityResult.isCompatible()) {
                     String errMsg = String.format("Given schema is not compatible with latest schema versions. \n" +
                                     "Error location: [%s] \n" +
@@ -387,13 +435,16 @@ public class SchemaVersionLifecycleManager {
 
         String storableNamespace = new SchemaFieldInfoStorable().getNameSpace();
         List<SchemaFieldInfo> schemaFieldInfos = getSchemaProvider(type).generateFields(schemaVersionStorable.getSchemaText());
+        List<SchemaFieldInfoStorable> schemaFieldInfoStorables = new ArrayList<>(schemaFieldInfos.size());
+        Iterator<Long> fieldInstanceIds = storageManager.nextIds(storableNamespace, schemaFieldInfos.size()).iterator();
         for (SchemaFieldInfo schemaFieldInfo : schemaFieldInfos) {
-            final Long fieldInstanceId = storageManager.nextId(storableNamespace);
+            final Long fieldInstanceId = fieldInstanceIds.next();
             SchemaFieldInfoStorable schemaFieldInfoStorable = SchemaFieldInfoStorable.fromSchemaFieldInfo(schemaFieldInfo, fieldInstanceId);
             schemaFieldInfoStorable.setSchemaInstanceId(schemaInstanceId);
             schemaFieldInfoStorable.setTimestamp(System.currentTimeMillis());
-            storageManager.add(schemaFieldInfoStorable);
+            schemaFieldInfoStorables.add(schemaFieldInfoStorable);
         }
+        storageManager.addAll(schemaFieldInfoStorables);
 
         return schemaVersionStorable.toSchemaVersionInfo();
     }
@@ -424,6 +475,19 @@ public class SchemaVersionLifecycleManager {
     public CompatibilityResult checkCompatibility(String schemaBranchName,
                                                   String schemaName,
                                                   String toSchema) throws SchemaNotFoundException, SchemaBranchNotFoundException {
+        return checkCompatibility(schemaBranchName, schemaName, toSchema, (String) null);
+    }
+
+    /**
+     * Checks compatibility of the given schema against the versions of the given branch as per the validation level.
+     * When {@code toSchemaFingerprint} is given, results against each existing version are memoized so that re-registering
+     * the same schema does not validate it again against the versions it was already checked with.
+     */
+    private CompatibilityResult checkCompatibility(String schemaBranchName,
+                                                   String schemaName,
+                                                   String toSchema,
+                                                   String toSchemaFingerprint)
+            throws SchemaNotFoundException, SchemaBranchNotFoundException {
 
         Preconditions.checkNotNull(schemaBranchName, "Schema branch name can't be null");
 
@@ -435,10 +499,10 @@ public class SchemaVersionLifecycleManager {
             case LATEST:
                 SchemaVersionInfo latestSchemaVersionInfo = getLatestEnabledSchemaVersionInfo(schemaBranchName, schemaName);
                 if (latestSchemaVersionInfo != null) {
-                    compatibilityResult = checkCompatibility(schemaMetadata.getType(),
+                    compatibilityResult = checkCompatibility(schemaMetadata,
                                                              toSchema,
-                                                             latestSchemaVersionInfo.getSchemaText(),
-                                                             schemaMetadata.getCompatibility());
+                                                             toSchemaFingerprint,
+                                                             latestSchemaVersionInfo);
                     if (!compatibilityResult.isCompatible()) {
                         LOG.info("Received schema is not compatible with the latest schema versions [{}] with schema name [{}]",
                                  latestSchemaVersionInfo.getVersion(), schemaName);
@@ -449,10 +513,10 @@ public class SchemaVersionLifecycleManager {
                 Collection<SchemaVersionInfo> schemaVersionInfos = getAllVersions(schemaBranchName, schemaName);
                 for (SchemaVersionInfo schemaVersionInfo : schemaVersionInfos) {
                     if (SchemaVersionLifecycleStates.ENABLED.getId().equals(schemaVersionInfo.getStateId())) {
-                        compatibilityResult = checkCompatibility(schemaMetadata.getType(),
+                        compatibilityResult = checkCompatibility(schemaMetadata,
                                                                  toSchema,
-                                                                 schemaVersionInfo.getSchemaText(),
-                                                                 schemaMetadata.getCompatibility());
+                                                                 toSchemaFingerprint,
+                                                                 schemaVersionInfo);
                         if (!compatibilityResult.isCompatible()) {
                             LOG.info("Received schema is not compatible with one of the schema versions [{}] with schema name [{}]",
                                      schemaVersionInfo.getVersion(), schemaName);
@@ -465,6 +529,31 @@ public class SchemaVersionLifecycleManager {
         return compatibilityResult != null ? compatibilityResult : CompatibilityResult.createCompatibleResult(toSchema);
     }
 
+    private CompatibilityResult checkCompatibility(SchemaMetadata schemaMetadata,
+                                                   String toSchema,
+                                                   String toSchemaFingerprint,
+                                                   SchemaVersionInfo existingSchemaVersionInfo) {
+        if (toSchemaFingerprint == null || existingSchemaVersionInfo.getId() == null) {
+            return checkCompatibility(schemaMetadata.getType(),
+                                      toSchema,
+                                      existingSchemaVersionInfo.getSchemaText(),
+                                      schemaMetadata.getCompatibility());
+        }
+
+        CompatibilityCheckKey key = new CompatibilityCheckKey(existingSchemaVersionInfo.getId(),
+                                                              toSchemaFingerprint,
+                                                              schemaMetadata.getCompatibility());
+        CompatibilityResult compatibilityResult = compatibilityResultCache.getIfPresent(key);
+        if (compatibilityResult == null) {
+            compatibilityResult = checkCompatibility(schemaMetadata.getType(),
+                                                     toSchema,
+                                                     existingSchemaVersionInfo.getSchemaText(),
+                                                     schemaMetadata.getCompatibility());
+            compatibilityResultCache.put(key, compatibilityResult);
+        }
+        return compatibilityResult;
+    }
+
     private CompatibilityResult checkCompatibility(String type,
                                                    String toSchema,
                                                    String existingSchema,
@@ -617,6 +706,43 @@ public class SchemaVersionLifecycleManager {
         return schemaVersionInfoCache.getSchema(SchemaVersionInfoCache.Key.of(schemaVersionKey));
     }
 
+    public Collection<SchemaVersionInfo> getSchemaVersionInfos(Collection<Long> schemaVersionIds) throws SchemaNotFoundException {
+        Preconditions.checkNotNull(schemaVersionIds, "Schema version ids can't be null");
+
+        // keeps the order of the given ids
+        Map<Long, SchemaVersionInfo> schemaVersionInfos = new LinkedHashMap<>();
+        List<Long> missingIds = new ArrayList<>();
+        for (Long schemaVersionId : new LinkedHashSet<>(schemaVersionIds)) {
+            SchemaVersionInfoCache.Key key = SchemaVersionInfoCache.Key.of(new SchemaIdVersion(schemaVersionId));
+            SchemaVersionInfo schemaVersionInfo = schemaVersionInfoCache.getSchemaIfPresent(key);
+            schemaVersionInfos.put(schemaVersionId, schemaVersionInfo);
+            if (schemaVersionInfo == null) {
+                missingIds.add(schemaVersionId);
+            }
+        }
+
+        // versions which are not cached are loaded with one query per chunk of ids
+        for (List<Long> ids : Lists.partition(missingIds, WhereClause.MAX_IN_LIST_SIZE)) {
+            SearchQuery searchQuery = SearchQuery.searchFrom(SchemaVersionStorable.NAME_SPACE)
+                                                 .where(WhereClause.begin().in(SchemaVersionStorable.ID, ids).combine());
+            for (Storable storable : storageManager.search(searchQuery)) {
+                SchemaVersionInfo schemaVersionInfo = ((SchemaVersionStorable) storable).toSchemaVersionInfo();
+                schemaVersionInfoCache.put(schemaVersionInfo);
+                schemaVersionInfos.put(schemaVersionInfo.getId(), schemaVersionInfo);
+            }
+        }
+
+        List<SchemaVersionInfo> result = new ArrayList<>(schemaVersionInfos.size());
+        for (Map.Entry<Long, SchemaVersionInfo> entry : schemaVersionInfos.entrySet()) {
+            if (entry.getValue() == null) {
+                LOG.debug("No schema version exists with id [{}]", entry.getKey());
+            } else {
+                result.add(entry.getValue());
+            }
+        }
+        return result;
+    }
+
     public SchemaVersionInfo findSchemaVersionInfoByFingerprint(final String fingerprint) throws SchemaNotFoundException {
         final List<QueryParam> queryParams = Collections.singletonList(new QueryParam(SchemaVersionStorable.FINGERPRINT, fingerprint));
         final List<OrderByField> orderParams = Collections.singletonList(OrderByField.of(SchemaVersionStorable.TIMESTAMP, true));
@@ -1118,8 +1244,41 @@ public class SchemaVersionLifecycleManager {
             throw new RuntimeException(String.format("Failed to serialized key : %s", key),e);
         }
 
-        haServerNotificationManager.notifyCacheInvalidation(schemaVersionInfoCache.getCacheType(),keyAsString);
+        cacheChangeLog.publish(schemaVersionInfoCache.getCacheType(), keyAsString);
 
     }
 
+
+    private static final class CompatibilityCheckKey {
+        private final Long existingSchemaVersionId;
+        private final String toSchemaFingerprint;
+        private final SchemaCompatibility compatibility;
+
+        private CompatibilityCheckKey(Long existingSchemaVersionId,
+                                      String toSchemaFingerprint,
+                                      SchemaCompatibility compatibility) {
+            this.existingSchemaVersionId = existingSchemaVersionId;
+            this.toSchemaFingerprint = toSchemaFingerprint;
+            this.compatibility = compatibility;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            CompatibilityCheckKey that = (CompatibilityCheckKey) o;
+            return Objects.equals(existingSchemaVersionId, that.existingSchemaVersionId) &&
+                    Objects.equals(toSchemaFingerprint, that.toSchemaFingerprint) &&
+                    compatibility == that.compatibility;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(existingSchemaVersionId, toSchemaFingerprint, compatibility);
+        }
+    }
 }
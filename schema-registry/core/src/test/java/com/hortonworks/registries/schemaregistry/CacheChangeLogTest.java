@@ -0,0 +1,191 @@
+/**
+ * Copyright 2016-2019 Cloudera, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package com.hortonworks.registries.schemaregistry;
+
+import com.hortonworks.registries.schemaregistry.cache.SchemaRegistryCacheType;
+import com.hortonworks.registries.storage.StorageManager;
+import com.hortonworks.registries.storage.impl.memory.InMemoryStorageManager;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+
+public class CacheChangeLogTest {
+
+    private static final String OTHER_NODE = "other-node";
+    private static final String NODE_ID = "node";
+
+    private StorageManager storageManager;
+    private HAServerNotificationManager notificationManager;
+    private CacheChangeLog cacheChangeLog;
+    private final List<String> invalidatedKeys = new ArrayList<>();
+    private final BiConsumer<SchemaRegistryCacheType, String> invalidator = (cacheType, key) -> invalidatedKeys.add(key);
+
+    @Before
+    public void setup() {
+        storageManager = new InMemoryStorageManager();
+        storageManager.registerStorables(Arrays.asList(CacheChangeLogStorable.class, CacheChangeLogPositionStorable.class));
+        addEntry(1L, OTHER_NODE, "existing");
+
+        notificationManager = new HAServerNotificationManager();
+        cacheChangeLog = new CacheChangeLog(storageManager, notificationManager, true, NODE_ID);
+        // polled by the test
+        cacheChangeLog.startTailing(invalidator, TimeUnit.DAYS.toMillis(1));
+    }
+
+    @After
+    public void cleanup() {
+        cacheChangeLog.close();
+        notificationManager.close();
+    }
+
+    @Test
+    public void testEntriesOfOtherNodes_AppliedInOrder() {
+        addEntry(2L, OTHER_NODE, "k2");
+        addEntry(3L, OTHER_NODE, "k3");
+
+        cacheChangeLog.poll(invalidator);
+
+        Assert.assertEquals(Arrays.asList("k2", "k3"), invalidatedKeys);
+        Assert.assertEquals(3L, cacheChangeLog.getPosition());
+    }
+
+    @Test
+    public void testEntryCommittedLate_AppliedOnceAndPositionKeptBelowGap() {
+        addEntry(3L, OTHER_NODE, "k3");
+        cacheChangeLog.poll(invalidator);
+        Assert.assertEquals(Collections.singletonList("k3"), invalidatedKeys);
+        Assert.assertEquals(1L, cacheChangeLog.getPosition());
+
+        addEntry(2L, OTHER_NODE, "k2");
+        cacheChangeLog.poll(invalidator);
+        Assert.assertEquals(Arrays.asList("k3", "k2"), invalidatedKeys);
+        Assert.assertEquals(3L, cacheChangeLog.getPosition());
+    }
+
+    @Test
+    public void testPublishedEntry_NotAppliedByPublisher() {
+        cacheChangeLog.publish(SchemaRegistryCacheType.SCHEMA_VERSION_CACHE, "k2");
+        Assert.assertEquals(2, storageManager.list(CacheChangeLogStorable.NAME_SPACE).size());
+
+        cacheChangeLog.poll(invalidator);
+
+        Assert.assertTrue(invalidatedKeys.isEmpty());
+    }
+
+    @Test
+    public void testFailedInvalidation_RetriedByNextPoll() {
+        addEntry(2L, OTHER_NODE, "k2");
+        addEntry(3L, OTHER_NODE, "k3");
+
+        try {
+            cacheChangeLog.poll((cacheType, key) -> {
+                if ("k3".equals(key)) {
+                    throw new IllegalStateException("failed to invalidate " + key);
+                }
+                invalidatedKeys.add(key);
+            });
+            Assert.fail("The invalidation of k3 should have failed");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        Assert.assertEquals(Collections.singletonList("k2"), invalidatedKeys);
+
+        cacheChangeLog.poll(invalidator);
+
+        Assert.assertEquals(Arrays.asList("k2", "k3"), invalidatedKeys);
+        Assert.assertEquals(3L, cacheChangeLog.getPosition());
+    }
+
+    @Test
+    public void testRestartedNode_CatchesUpFromSavedPosition() {
+        addEntry(2L, OTHER_NODE, "k2");
+        cacheChangeLog.poll(invalidator);
+        cacheChangeLog.close();
+
+        // written while the node is down
+        addEntry(3L, OTHER_NODE, "k3");
+
+        cacheChangeLog = new CacheChangeLog(storageManager, notificationManager, true, NODE_ID);
+        cacheChangeLog.startTailing(invalidator, TimeUnit.DAYS.toMillis(1));
+        Assert.assertEquals(2L, cacheChangeLog.getPosition());
+        cacheChangeLog.poll(invalidator);
+
+        Assert.assertEquals(Arrays.asList("k2", "k3"), invalidatedKeys);
+        Assert.assertEquals(3L, cacheChangeLog.getPosition());
+    }
+
+    @Test
+    public void testNewNode_StartsFromHead() {
+        addEntry(2L, OTHER_NODE, "k2");
+
+        CacheChangeLog otherNodeLog = new CacheChangeLog(storageManager, notificationManager, true, "new-node");
+        otherNodeLog.startTailing(invalidator, TimeUnit.DAYS.toMillis(1));
+        try {
+            Assert.assertEquals(2L, otherNodeLog.getPosition());
+        } finally {
+            otherNodeLog.close();
+        }
+    }
+
+    @Test
+    public void testExpiredEntries_RemovedByPoll() {
+        addEntry(2L, OTHER_NODE, "expired", System.currentTimeMillis() - TimeUnit.DAYS.toMillis(2));
+        addEntry(3L, OTHER_NODE, "k3");
+
+        cacheChangeLog.poll(invalidator);
+
+        Assert.assertEquals(Arrays.asList("expired", "k3"), invalidatedKeys);
+        Collection<CacheChangeLogStorable> entries = storageManager.list(CacheChangeLogStorable.NAME_SPACE);
+        Assert.assertEquals(Arrays.asList(1L, 3L),
+                            entries.stream().map(CacheChangeLogStorable::getId).sorted().collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testOptions_ChangeLogDisabledByDefault() {
+        Map<String, Object> cache = new HashMap<>();
+        cache.put(DefaultSchemaRegistry.Options.ENABLE_CACHING, true);
+        Assert.assertFalse(new DefaultSchemaRegistry.Options(Collections.singletonMap(DefaultSchemaRegistry.Options.CACHE, cache))
+                                   .isCacheChangeLogEnabled());
+
+        cache.put(DefaultSchemaRegistry.Options.ENABLE_CACHE_CHANGE_LOG, true);
+        Assert.assertTrue(new DefaultSchemaRegistry.Options(Collections.singletonMap(DefaultSchemaRegistry.Options.CACHE, cache))
+                                  .isCacheChangeLogEnabled());
+    }
+
+    private void addEntry(Long id, String origin, String key) {
+        addEntry(id, origin, key, System.currentTimeMillis());
+    }
+
+    private void addEntry(Long id, String origin, String key, long timestamp) {
+        storageManager.add(new CacheChangeLogStorable(id,
+                                                      SchemaRegistryCacheType.SCHEMA_VERSION_CACHE.name(),
+                                                      key,
+                                                      origin,
+                                                      timestamp));
+    }
+}
@@ -0,0 +1,136 @@
+/**
+ * Copyright 2016-2019 Cloudera, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package com.hortonworks.registries.schemaregistry;
+
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.SharedMetricRegistries;
+import com.google.common.io.ByteStreams;
+import com.hortonworks.registries.schemaregistry.cache.SchemaRegistryCacheType;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class HAServerNotificationManagerTest {
+
+    private static final String INVALIDATION_PATH = "/api/v1/schemaregistry/cache/SCHEMA_VERSION_CACHE/invalidate";
+
+    private HttpServer peer;
+    private HAServerNotificationManager notificationManager;
+    // "<path> <body>" of the requests received by the peer
+    private final BlockingQueue<String> requests = new LinkedBlockingQueue<>();
+    private final CountDownLatch firstRequestReceived = new CountDownLatch(1);
+    private final CountDownLatch releaseFirstRequest = new CountDownLatch(1);
+    private final AtomicInteger failuresToRespond = new AtomicInteger();
+
+    @Before
+    public void setup() throws Exception {
+        peer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        peer.createContext("/", exchange -> {
+            String body = new String(ByteStreams.toByteArray(exchange.getRequestBody()), StandardCharsets.UTF_8);
+            firstRequestReceived.countDown();
+            try {
+                releaseFirstRequest.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            int status = failuresToRespond.getAndDecrement() > 0 ? 500 : 200;
+            if (status == 200) {
+                requests.add(exchange.getRequestURI().getPath() + " " + body);
+            }
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+        });
+        peer.start();
+
+        notificationManager = new HAServerNotificationManager();
+        notificationManager.setIsCacheEnabled(true);
+        notificationManager.setHomeNodeURL("http://localhost:1/");
+        notificationManager.addNodeUrl("http://localhost:" + peer.getAddress().getPort() + "/");
+    }
+
+    @After
+    public void cleanup() {
+        notificationManager.close();
+        peer.stop(0);
+    }
+
+    @Test
+    public void testInvalidationsWhileDelivering_CoalescedInOneBatch() throws Exception {
+        notificationManager.notifyCacheInvalidation(SchemaRegistryCacheType.SCHEMA_VERSION_CACHE, "k1");
+        Assert.assertTrue(firstRequestReceived.await(10, TimeUnit.SECONDS));
+        // the peer holds the first request, these are queued meanwhile
+        for (String key : Arrays.asList("k2", "k3", "k2")) {
+            notificationManager.notifyCacheInvalidation(SchemaRegistryCacheType.SCHEMA_VERSION_CACHE, key);
+        }
+        releaseFirstRequest.countDown();
+
+        Assert.assertEquals(INVALIDATION_PATH + " k1", requests.poll(10, TimeUnit.SECONDS));
+        Assert.assertEquals(INVALIDATION_PATH + "/batch [\"k2\",\"k3\"]", requests.poll(10, TimeUnit.SECONDS));
+        Assert.assertNull(requests.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testFailedDelivery_Retried() throws Exception {
+        failuresToRespond.set(HAServerNotificationManager.MAX_RETRY - 1);
+        releaseFirstRequest.countDown();
+
+        notificationManager.notifyCacheInvalidation(SchemaRegistryCacheType.SCHEMA_VERSION_CACHE, "k1");
+
+        Assert.assertEquals(INVALIDATION_PATH + " k1", requests.poll(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testUnresponsivePeer_DeliveryTimesOut() throws Exception {
+        Meter failedAttempts = SharedMetricRegistries.getOrCreate(HAServerNotificationManager.METRIC_REGISTRY_NAME)
+                                                     .meter(MetricRegistry.name(HAServerNotificationManager.class,
+                                                                                "notifications",
+                                                                                "failures"));
+        // accepts connections but never responds
+        try (ServerSocket unresponsivePeer = new ServerSocket(0, 0, InetAddress.getLoopbackAddress())) {
+            HAServerNotificationManager timingOutManager = new HAServerNotificationManager();
+            timingOutManager.setIsCacheEnabled(true);
+            timingOutManager.setTimeouts(1000, 200);
+            timingOutManager.setHomeNodeURL("http://localhost:1/");
+            timingOutManager.addNodeUrl("http://localhost:" + unresponsivePeer.getLocalPort() + "/");
+            try {
+                long failures = failedAttempts.getCount();
+                timingOutManager.notifyCacheInvalidation(SchemaRegistryCacheType.SCHEMA_VERSION_CACHE, "k1");
+
+                long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(5);
+                while (failedAttempts.getCount() == failures && System.currentTimeMillis() < deadline) {
+                    Thread.sleep(50);
+                }
+                Assert.assertTrue(failedAttempts.getCount() > failures);
+            } finally {
+                timingOutManager.close();
+            }
+        }
+    }
+}
@@ -15,7 +15,10 @@
  **/
 package com.hortonworks.registries.schemaregistry.avro;
 
+import com.hortonworks.registries.schemaregistry.SchemaCompatibility;
 import com.hortonworks.registries.schemaregistry.SchemaFieldInfo;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaParseException;
 import org.apache.commons.io.IOUtils;
 import org.junit.Assert;
 import org.junit.Test;
@@ -87,4 +90,27 @@ public class AvroSchemaProviderTest {
         Assert.assertThat(schemaWithDefaultsFingerprint, not(equalTo(schemaWithAliasesFingerprint)));
     }
 
+    @Test
+    public void testParsedSchemasAreReused() throws Exception {
+        AvroSchemaProvider avroSchemaProvider = new AvroSchemaProvider();
+        Assert.assertSame(avroSchemaProvider.parseSchema(schema), avroSchemaProvider.parseSchema(schema));
+        Assert.assertNotSame(avroSchemaProvider.parseSchema(schema), avroSchemaProvider.parseSchema(schemaWithDefaults));
+
+        // fingerprints and compatibility checks are computed from the shared parsed instances
+        Assert.assertArrayEquals(avroSchemaProvider.getFingerprint(schema), avroSchemaProvider.getFingerprint(schema));
+        Assert.assertTrue(avroSchemaProvider.checkCompatibility(schemaWithDefaults, schema, SchemaCompatibility.BACKWARD)
+                                            .isCompatible());
+        avroSchemaProvider.generateFields(schema);
+
+        // none of them modifies the shared instances
+        Assert.assertEquals(new Schema.Parser().parse(schema), avroSchemaProvider.parseSchema(schema));
+        Assert.assertEquals(new Schema.Parser().parse(schemaWithDefaults), avroSchemaProvider.parseSchema(schemaWithDefaults));
+    }
+
+    @Test(expected = SchemaParseException.class)
+    public void testInvalidSchemaIsNotCached() throws Exception {
+        AvroSchemaProvider avroSchemaProvider = new AvroSchemaProvider();
+        avroSchemaProvider.parseSchema("{\"type\": \"record\"}");
+    }
+
 }
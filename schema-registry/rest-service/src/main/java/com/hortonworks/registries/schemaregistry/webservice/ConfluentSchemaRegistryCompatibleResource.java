@@ -25,6 +25,7 @@ import com.hortonworks.registries.schemaregistry.authorizer.exception.Authorizat
 import com.hortonworks.registries.storage.transaction.UnitOfWork;
 import com.hortonworks.registries.common.util.WSUtils;
 import com.hortonworks.registries.schemaregistry.ISchemaRegistry;
+import com.hortonworks.registries.schemaregistry.Page;
 import com.hortonworks.registries.schemaregistry.SchemaBranch;
 import com.hortonworks.registries.schemaregistry.SchemaIdVersion;
 import com.hortonworks.registries.schemaregistry.SchemaMetadata;
@@ -56,7 +57,7 @@ import javax.ws.rs.core.Response;
 import javax.ws.rs.core.SecurityContext;
 import javax.ws.rs.core.UriInfo;
 import java.io.IOException;
-import java.util.Collections;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
@@ -74,6 +75,8 @@ public class ConfluentSchemaRegistryCompatibleResource extends BaseRegistryResou
 
     private static final String OPERATION_GROUP_CONFLUENT_SR = "4. Confluent Schema Registry compatible API";
 
+    private static final int SUBJECTS_PAGE_SIZE = 500;
+
     private final AuthorizationAgent authorizationAgent;
 
     public ConfluentSchemaRegistryCompatibleResource(ISchemaRegistry schemaRegistry,
@@ -123,11 +126,15 @@ public class ConfluentSchemaRegistryCompatibleResource extends BaseRegistryResou
     public Response getSubjects(@Context SecurityContext securityContext) {
         Response response;
         try {
-            List<String> registeredSubjects = authorizationAgent.authorizeFindSchemas(AuthorizationUtils.getUserAndGroups(securityContext),
-                    schemaRegistry.findSchemaMetadata(Collections.emptyMap()))
-                    .stream()
-                    .map(x -> x.getSchemaMetadata().getName())
-                    .collect(Collectors.toList());
+            // walk the schemas a page at a time so that neither the query nor the authorization works on the whole table
+            List<String> registeredSubjects = new ArrayList<>();
+            String continuationToken = null;
+            do {
+                Page<SchemaMetadataInfo> page = schemaRegistry.listSchemas(continuationToken, SUBJECTS_PAGE_SIZE);
+                authorizationAgent.authorizeFindSchemas(AuthorizationUtils.getUserAndGroups(securityContext), page.getEntities())
+                        .forEach(x -> registeredSubjects.add(x.getSchemaMetadata().getName()));
+                continuationToken = page.getContinuationToken();
+            } while (continuationToken != null);
 
             response = WSUtils.respondEntity(registeredSubjects, Response.Status.OK);
         } catch (Exception ex) {
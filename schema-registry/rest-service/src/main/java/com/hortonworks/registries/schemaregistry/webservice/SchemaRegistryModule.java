@@ -40,6 +40,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nullable;
+import java.io.Closeable;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
@@ -52,7 +53,8 @@ import static com.hortonworks.registries.schemaregistry.ISchemaRegistry.SCHEMA_P
 /**
  *
  */
-public class SchemaRegistryModule implements ModuleRegistration, StorageManagerAware, LeadershipAware, HAServersAware, TransactionManagerAware {
+public class SchemaRegistryModule implements ModuleRegistration, StorageManagerAware, LeadershipAware, HAServersAware, TransactionManagerAware,
+        Closeable {
     private static final Logger LOG = LoggerFactory.getLogger(SchemaRegistryModule.class);
 
     private Map<String, Object> config;
@@ -61,6 +63,7 @@ public class SchemaRegistryModule implements ModuleRegistration, StorageManagerA
     private TransactionManager transactionManager;
     private HAServerNotificationManager haServerNotificationManager;
     private AtomicReference<LeadershipParticipant> leadershipParticipant;
+    private DefaultSchemaRegistry schemaRegistry;
 
     @Override
     public void setStorageManager(StorageManager storageManager) {
@@ -76,11 +79,11 @@ public class SchemaRegistryModule implements ModuleRegistration, StorageManagerA
     @Override
     public List<Object> getResources() {
         Collection<Map<String, Object>> schemaProviders = (Collection<Map<String, Object>>) config.get(SCHEMA_PROVIDERS);
-        DefaultSchemaRegistry schemaRegistry = new DefaultSchemaRegistry(storageManager,
-                                                                         fileStorage,
-                                                                         schemaProviders,
-                                                                         haServerNotificationManager,
-                                                                         new SchemaLockManager(transactionManager));
+        schemaRegistry = new DefaultSchemaRegistry(storageManager,
+                                                   fileStorage,
+                                                   schemaProviders,
+                                                   haServerNotificationManager,
+                                                   new SchemaLockManager(transactionManager));
         schemaRegistry.init(config);
         SchemaRegistryVersion schemaRegistryVersion = SchemaRegistryServiceInfo.get().version();
         LOG.info("SchemaRegistry is starting with {}", schemaRegistryVersion);
@@ -101,6 +104,13 @@ public class SchemaRegistryModule implements ModuleRegistration, StorageManagerA
         return Arrays.asList(schemaRegistryResource, confluentSchemaRegistryResource);
     }
 
+    @Override
+    public void close() {
+        if (schemaRegistry != null) {
+            schemaRegistry.close();
+        }
+    }
+
     private Collection<? extends SchemaProvider> getSchemaProviders() {
         Collection<Map<String, Object>> schemaProviders = (Collection<Map<String, Object>>) config.get(SCHEMA_PROVIDERS);
         if (schemaProviders == null || schemaProviders.isEmpty()) {
@@ -27,6 +27,7 @@ import com.hortonworks.registries.common.util.WSUtils;
 import com.hortonworks.registries.schemaregistry.AggregatedSchemaMetadataInfo;
 import com.hortonworks.registries.schemaregistry.CompatibilityResult;
 import com.hortonworks.registries.schemaregistry.ISchemaRegistry;
+import com.hortonworks.registries.schemaregistry.Page;
 import com.hortonworks.registries.schemaregistry.SchemaBranch;
 import com.hortonworks.registries.schemaregistry.SchemaFieldInfo;
 import com.hortonworks.registries.schemaregistry.SchemaFieldQuery;
@@ -104,6 +105,11 @@ import static com.hortonworks.registries.schemaregistry.SchemaBranch.MASTER_BRAN
 @Produces(MediaType.APPLICATION_JSON)
 public class SchemaRegistryResource extends BaseRegistryResource {
     private static final Logger LOG = LoggerFactory.getLogger(SchemaRegistryResource.class);
+
+    // page size used when a client continues a listing without giving one, and the largest page served
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int MAX_VERSION_IDS = 1000;
     public static final String THROW_ERROR_IF_EXISTS = "_throwErrorIfExists";
     public static final String THROW_ERROR_IF_EXISTS_LOWER_CASE = THROW_ERROR_IF_EXISTS.toLowerCase();
 
@@ -167,6 +173,13 @@ public class SchemaRegistryResource extends BaseRegistryResource {
                                           @Context SecurityContext securityContext) {
         try {
             MultivaluedMap<String, String> queryParameters = uriInfo.getQueryParameters();
+            if (isPagedRequest(queryParameters)) {
+                Page<AggregatedSchemaMetadataInfo> page = schemaRegistry.listAggregatedSchemas(queryParameters.getFirst(Page.CONTINUATION_TOKEN_PARAM_NAME),
+                                                                                               getPageSize(queryParameters));
+                Collection<AggregatedSchemaMetadataInfo> schemaMetadatas = authorizationAgent
+                        .authorizeGetAggregatedSchemaList(AuthorizationUtils.getUserAndGroups(securityContext), page.getEntities());
+                return WSUtils.respondEntities(schemaMetadatas, page.getContinuationToken(), Response.Status.OK);
+            }
             Map<String, String> filters = new HashMap<>();
             for (Map.Entry<String, List<String>> entry : queryParameters.entrySet()) {
                 List<String> value = entry.getValue();
@@ -178,6 +191,8 @@ public class SchemaRegistryResource extends BaseRegistryResource {
             return WSUtils.respondEntities(schemaMetadatas, Response.Status.OK);
         } catch (SchemaBranchNotFoundException e) {
             return WSUtils.respond(Response.Status.NOT_FOUND, CatalogResponse.ResponseMessage.ENTITY_NOT_FOUND,  e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return WSUtils.respond(Response.Status.BAD_REQUEST, CatalogResponse.ResponseMessage.BAD_REQUEST_WITH_MESSAGE, e.getMessage());
         } catch (Exception ex) {
             LOG.error("Encountered error while listing schemas", ex);
             return WSUtils.respond(Response.Status.INTERNAL_SERVER_ERROR, CatalogResponse.ResponseMessage.EXCEPTION, ex.getMessage());
@@ -226,6 +241,13 @@ public class SchemaRegistryResource extends BaseRegistryResource {
                                 @Context SecurityContext securityContext) {
         try {
             MultivaluedMap<String, String> queryParameters = uriInfo.getQueryParameters();
+            if (isPagedRequest(queryParameters)) {
+                Page<SchemaMetadataInfo> page = schemaRegistry.listSchemas(queryParameters.getFirst(Page.CONTINUATION_TOKEN_PARAM_NAME),
+                                                                           getPageSize(queryParameters));
+                Collection<SchemaMetadataInfo> schemaMetadatas = authorizationAgent
+                        .authorizeFindSchemas(AuthorizationUtils.getUserAndGroups(securityContext), page.getEntities());
+                return WSUtils.respondEntities(schemaMetadatas, page.getContinuationToken(), Response.Status.OK);
+            }
             Map<String, String> filters = new HashMap<>();
             for (Map.Entry<String, List<String>> entry : queryParameters.entrySet()) {
                 List<String> value = entry.getValue();
@@ -236,6 +258,8 @@ public class SchemaRegistryResource extends BaseRegistryResource {
                     .authorizeFindSchemas(AuthorizationUtils.getUserAndGroups(securityContext), schemaRegistry.findSchemaMetadata(filters));
 
             return WSUtils.respondEntities(schemaMetadatas, Response.Status.OK);
+        } catch (IllegalArgumentException e) {
+            return WSUtils.respond(Response.Status.BAD_REQUEST, CatalogResponse.ResponseMessage.BAD_REQUEST_WITH_MESSAGE, e.getMessage());
         } catch (Exception ex) {
             LOG.error("Encountered error while listing schemas", ex);
             return WSUtils.respond(Response.Status.INTERNAL_SERVER_ERROR, CatalogResponse.ResponseMessage.EXCEPTION, ex.getMessage());
@@ -284,6 +308,36 @@ public class SchemaRegistryResource extends BaseRegistryResource {
         return schemaMetadataInfos;
     }
 
+    private static boolean isPagedRequest(MultivaluedMap<String, String> queryParameters) {
+        boolean paged = queryParameters.containsKey(Page.PAGE_SIZE_PARAM_NAME)
+                || queryParameters.containsKey(Page.CONTINUATION_TOKEN_PARAM_NAME);
+        if (paged) {
+            for (String name : queryParameters.keySet()) {
+                if (!Page.PAGE_SIZE_PARAM_NAME.equals(name) && !Page.CONTINUATION_TOKEN_PARAM_NAME.equals(name)) {
+                    throw new IllegalArgumentException("Paged listing can not be combined with query parameter: " + name);
+                }
+            }
+        }
+        return paged;
+    }
+
+    private static int getPageSize(MultivaluedMap<String, String> queryParameters) {
+        String value = queryParameters.getFirst(Page.PAGE_SIZE_PARAM_NAME);
+        if (value == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        int pageSize;
+        try {
+            pageSize = Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid page size: " + value);
+        }
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Page size must be positive: " + value);
+        }
+        return Math.min(pageSize, MAX_PAGE_SIZE);
+    }
+
     private List<OrderBy> getOrderByFields(String value) {
         List<OrderBy> orderByList = new ArrayList<>();
         // _orderByFields=[<field-name>,<a/d>,]*
@@ -809,6 +863,37 @@ public class SchemaRegistryResource extends BaseRegistryResource {
         return response;
     }
 
+    @POST
+    @Path("/schemas/versionsById")
+    @ApiOperation(value = "Get the versions of the schemas identified by the given version ids",
+            notes = "Version ids for which there is no schema version, or which the user is not allowed to read, are ignored. " +
+                    "At most " + MAX_VERSION_IDS + " ids can be given.",
+            response = SchemaVersionInfo.class, responseContainer = "List", tags = OPERATION_GROUP_SCHEMA)
+    @Timed
+    @UnitOfWork
+    public Response getSchemaVersionsByIds(@ApiParam(value = "version identifiers of the schemas", required = true) List<Long> versionIds,
+                                           @Context SecurityContext securityContext) {
+        if (versionIds == null || versionIds.size() > MAX_VERSION_IDS) {
+            return WSUtils.respond(Response.Status.BAD_REQUEST, CatalogResponse.ResponseMessage.BAD_REQUEST_WITH_MESSAGE,
+                                   "Between 0 and " + MAX_VERSION_IDS + " version ids must be given");
+        }
+
+        Response response;
+        try {
+            Collection<SchemaVersionInfo> schemaVersionInfos = authorizationAgent.authorizeGetAllVersions(
+                    AuthorizationUtils.getUserAndGroups(securityContext), schemaRegistry, schemaRegistry.getSchemaVersionInfos(versionIds));
+            response = WSUtils.respondEntities(schemaVersionInfos, Response.Status.OK);
+        } catch (SchemaNotFoundException e) {
+            LOG.info("Schema not found while getting schema versions with ids : [{}]", versionIds);
+            response = WSUtils.respond(Response.Status.NOT_FOUND, CatalogResponse.ResponseMessage.ENTITY_NOT_FOUND, e.getMessage());
+        } catch (Exception ex) {
+            LOG.error("Encountered error while getting schema versions with ids [{}]", versionIds, ex);
+            response = WSUtils.respond(Response.Status.INTERNAL_SERVER_ERROR, CatalogResponse.ResponseMessage.EXCEPTION, ex.getMessage());
+        }
+
+        return response;
+    }
+
     @GET
     @Path("/schemas/versionsByFingerprint/{fingerprint}")
     @ApiOperation(value = "Get a version of the schema with the given fingerprint",
@@ -1399,6 +1484,24 @@ public class SchemaRegistryResource extends BaseRegistryResource {
         }
     }
 
+    // Same as the API above, for the keys a node has batched up to notify in a single call.
+    @POST
+    @Path("/cache/{cacheType}/invalidate/batch")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @UnitOfWork
+    public Response invalidateCacheEntries(@ApiParam(value = "Cache Id to be invalidated", required = true) @PathParam("cacheType") SchemaRegistryCacheType cacheType,
+                                           List<String> keyStrings) {
+        try {
+            LOG.debug("RetryableBlock to invalidate cache : {} with keys : {} accepted", cacheType.name(), keyStrings);
+            for (String keyString : keyStrings) {
+                schemaRegistry.invalidateCache(cacheType, keyString);
+            }
+            return WSUtils.respond(Response.Status.OK);
+        } catch (Exception e) {
+            return WSUtils.respond(Response.Status.INTERNAL_SERVER_ERROR, CatalogResponse.ResponseMessage.EXCEPTION, e.getMessage());
+        }
+    }
+
     // When a new node joins registry cluster, it invokes this API of every node which are already part of the cluster.
     // The existing nodes then update their internal list of nodes part of their cluster.
     // TODO: This API was introduced as a temporary solution to address HA requirements with cache synchronization. A more permanent and stable fix should be incorporated.
@@ -20,6 +20,7 @@ import com.hortonworks.registries.schemaregistry.serde.SerDesException;
 
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.util.Map;
 
 /**
@@ -49,6 +50,20 @@ public interface SerDesProtocolHandler {
      */
     SchemaIdVersion handleSchemaVersionDeserialization(InputStream inputStream) throws SerDesException;
 
+    /**
+     * Deserializes schema version related information from the given buffer starting at its current position. The
+     * position of the buffer is advanced past the schema version information.
+     * <p>
+     * Default implementation reads the buffer through {@link #handleSchemaVersionDeserialization(InputStream)},
+     * implementations should override this to read directly from the buffer.
+     *
+     * @param byteBuffer buffer positioned at schema version information
+     * @return {@link SchemaIdVersion} instance created from deserializing respective information from given buffer.
+     */
+    default SchemaIdVersion handleSchemaVersionDeserialization(ByteBuffer byteBuffer) throws SerDesException {
+        return handleSchemaVersionDeserialization(Utils.asInputStream(byteBuffer));
+    }
+
     /**
      * Handles serialization of input into given output stream
      *
@@ -66,4 +81,18 @@ public interface SerDesProtocolHandler {
      */
     Object handlePayloadDeserialization(InputStream inputStream, Map<String, Object> context) throws SerDesException;
 
+    /**
+     * Handles deserialization of the remaining bytes of the given buffer and returns the deserialized Object.
+     * <p>
+     * Default implementation reads the buffer through {@link #handlePayloadDeserialization(InputStream, Map)},
+     * implementations should override this to read directly from the buffer.
+     *
+     * @param byteBuffer buffer positioned at the payload
+     * @param context    any context required for deserialization.
+     * @return returns the deserialized Object.
+     */
+    default Object handlePayloadDeserialization(ByteBuffer byteBuffer, Map<String, Object> context) throws SerDesException {
+        return handlePayloadDeserialization(Utils.asInputStream(byteBuffer), context);
+    }
+
 }
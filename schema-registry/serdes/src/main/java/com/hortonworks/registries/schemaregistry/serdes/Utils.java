@@ -17,6 +17,8 @@
  */
 package com.hortonworks.registries.schemaregistry.serdes;
 
+import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.util.Map;
 
 public final class Utils {
@@ -66,4 +68,53 @@ public final class Utils {
         T value = (T) map.get(key);
         return value != null ? value : defaultValue;
     }
+
+    /**
+     * Returns an {@link InputStream} over the remaining bytes of the given buffer. Reading from the stream advances
+     * the position of the buffer.
+     *
+     * @param byteBuffer buffer to be read
+     * @return input stream reading from the given buffer
+     */
+    public static InputStream asInputStream(ByteBuffer byteBuffer) {
+        return new ByteBufferBackedInputStream(byteBuffer);
+    }
+
+    private static final class ByteBufferBackedInputStream extends InputStream {
+        private final ByteBuffer byteBuffer;
+
+        private ByteBufferBackedInputStream(ByteBuffer byteBuffer) {
+            this.byteBuffer = byteBuffer;
+        }
+
+        @Override
+        public int read() {
+            return byteBuffer.hasRemaining() ? byteBuffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (!byteBuffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(len, byteBuffer.remaining());
+            byteBuffer.get(bytes, off, count);
+            return count;
+        }
+
+        @Override
+        public long skip(long n) {
+            int count = (int) Math.max(0, Math.min(n, byteBuffer.remaining()));
+            byteBuffer.position(byteBuffer.position() + count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return byteBuffer.remaining();
+        }
+    }
 }
@@ -17,12 +17,15 @@ package com.hortonworks.registries.schemaregistry.serdes.avro;
 
 import com.hortonworks.registries.schemaregistry.SchemaIdVersion;
 import com.hortonworks.registries.schemaregistry.serdes.SerDesProtocolHandler;
+import com.hortonworks.registries.schemaregistry.serdes.avro.exceptions.AvroException;
 import com.hortonworks.registries.schemaregistry.serdes.avro.exceptions.AvroRetryableException;
 import org.apache.avro.Schema;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.Map;
 
 import static com.hortonworks.registries.schemaregistry.serdes.avro.AbstractAvroSnapshotDeserializer.SPECIFIC_AVRO_READER;
@@ -84,4 +87,45 @@ public abstract class AbstractAvroSerDesProtocolHandler implements SerDesProtoco
                                                                      readerSchema,
                                                                      useSpecificAvroReader);
     }
+
+    @Override
+    public Object handlePayloadDeserialization(ByteBuffer byteBuffer, Map<String, Object> context) {
+        boolean useSpecificAvroReader = (boolean) context.getOrDefault(SPECIFIC_AVRO_READER, false);
+        Schema writerSchema = (Schema) context.get(WRITER_SCHEMA);
+        Schema readerSchema = (Schema) context.get(READER_SCHEMA);
+        return avroSerDesHandler.handlePayloadDeserialization(byteBuffer,
+                                                              writerSchema,
+                                                              readerSchema,
+                                                              useSpecificAvroReader);
+    }
+
+    /**
+     * Reads the big-endian int written by this handler at the position of the given buffer, whatever the byte order of
+     * the buffer is, and advances the position past it.
+     */
+    protected static int getBigEndianInt(ByteBuffer byteBuffer) {
+        int position = byteBuffer.position();
+        int value = byteBuffer.getInt(position);
+        byteBuffer.position(position + Integer.BYTES);
+        return byteBuffer.order() == ByteOrder.BIG_ENDIAN ? value : Integer.reverseBytes(value);
+    }
+
+    /**
+     * Reads the big-endian long written by this handler at the position of the given buffer, whatever the byte order
+     * of the buffer is, and advances the position past it.
+     */
+    protected static long getBigEndianLong(ByteBuffer byteBuffer) {
+        int position = byteBuffer.position();
+        long value = byteBuffer.getLong(position);
+        byteBuffer.position(position + Long.BYTES);
+        return byteBuffer.order() == ByteOrder.BIG_ENDIAN ? value : Long.reverseBytes(value);
+    }
+
+    /**
+     * Returns an {@link AvroException} for a buffer which does not have enough bytes for schema version information.
+     */
+    protected AvroException insufficientBytesException(ByteBuffer byteBuffer, int expectedBytes) {
+        return new AvroException("Expected " + expectedBytes + " bytes of schema version information for protocol ["
+                                         + protocolId + "] but only " + byteBuffer.remaining() + " bytes are available");
+    }
 }
@@ -38,8 +38,18 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 /**
  * This class implements most of the required functionality for an avro deserializer by extending {@link AbstractSnapshotDeserializer}
@@ -101,6 +111,8 @@ public abstract class AbstractAvroSnapshotDeserializer<I> extends AbstractSnapsh
 
     private AvroSchemaResolver avroSchemaResolver;
 
+    private DecodePlanCache decodePlans;
+
     protected boolean useSpecificAvroReader = false;
 
     public AbstractAvroSnapshotDeserializer() {
@@ -117,6 +129,164 @@ public abstract class AbstractAvroSnapshotDeserializer<I> extends AbstractSnapsh
         SchemaVersionRetriever schemaVersionRetriever = createSchemaVersionRetriever();
         avroSchemaResolver = new AvroSchemaResolver(schemaVersionRetriever);
         useSpecificAvroReader = (boolean) getValue(config, SPECIFIC_AVRO_READER, false);
+        decodePlans = new DecodePlanCache(((Number) getValue(config, DESERIALIZER_SCHEMA_CACHE_MAX_SIZE, DEFAULT_SCHEMA_CACHE_SIZE)).intValue());
+    }
+
+    /**
+     * Deserializes the given input by looking up the {@link DecodePlan} for the received protocol id, schema version
+     * id and the given reader version. Plans are cached by schema version id, so a payload is decoded with a single
+     * lookup once its schema version was seen. Protocols which do not send a schema version id resolve the plan from
+     * the registry for each payload.
+     */
+    @Override
+    public Object deserialize(I input, Integer readerSchemaVersion) throws SerDesException {
+        ensureInitialized();
+
+        byte protocolId = retrieveProtocolId(input);
+        SchemaIdVersion schemaIdVersion = retrieveSchemaIdVersion(protocolId, input);
+
+        return doDeserialize(input, getDecodePlan(protocolId, schemaIdVersion, readerSchemaVersion));
+    }
+
+    /**
+     * Deserializes all the given inputs with the given reader schema version. Inputs are grouped by protocol id and
+     * schema version, the {@link DecodePlan} of each group is resolved once and the payloads of a group are decoded
+     * one after the other with the same datum reader and decoder.
+     *
+     * @return deserialized objects in the same order as the given inputs
+     */
+    @Override
+    public List<Object> deserializeAll(List<I> inputs, Integer readerSchemaVersion) throws SerDesException {
+        return deserializeAll(inputs, readerSchemaVersion, null);
+    }
+
+    /**
+     * Deserializes all the given inputs like {@link #deserializeAll(List, Integer)}. When an {@code executor} is
+     * given, groups of payloads with different schema versions are decoded in parallel on it and this method returns
+     * once all of them are decoded. Any failure in decoding a group is thrown from this method.
+     *
+     * @param inputs              payloads to be deserialized
+     * @param readerSchemaVersion schema version to be applied for reading or projection
+     * @param executor            executor to decode groups in parallel, it can be null
+     * @return deserialized objects in the same order as the given inputs
+     */
+    public List<Object> deserializeAll(List<I> inputs,
+                                       Integer readerSchemaVersion,
+                                       Executor executor) throws SerDesException {
+        ensureInitialized();
+
+        // headers are read in the given order so that stateful inputs are left positioned at their payloads.
+        Map<DecodeGroupKey, List<Integer>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < inputs.size(); i++) {
+            I input = inputs.get(i);
+            byte protocolId = retrieveProtocolId(input);
+            SchemaIdVersion schemaIdVersion = retrieveSchemaIdVersion(protocolId, input);
+            groups.computeIfAbsent(new DecodeGroupKey(protocolId, schemaIdVersion), key -> new ArrayList<>()).add(i);
+        }
+
+        List<Map.Entry<DecodePlan, List<Integer>>> decodeGroups = new ArrayList<>(groups.size());
+        for (Map.Entry<DecodeGroupKey, List<Integer>> group : groups.entrySet()) {
+            DecodeGroupKey key = group.getKey();
+            DecodePlan decodePlan = getDecodePlan(key.protocolId, key.schemaIdVersion, readerSchemaVersion);
+            decodeGroups.add(new AbstractMap.SimpleImmutableEntry<>(decodePlan, group.getValue()));
+        }
+
+        Object[] results = new Object[inputs.size()];
+        if (executor == null || decodeGroups.size() < 2) {
+            for (Map.Entry<DecodePlan, List<Integer>> group : decodeGroups) {
+                deserializeGroup(inputs, group.getKey(), group.getValue(), results);
+            }
+        } else {
+            CompletableFuture<?>[] futures = decodeGroups.stream()
+                    .map(group -> CompletableFuture.runAsync(() -> deserializeGroup(inputs, group.getKey(), group.getValue(), results),
+                                                             executor))
+                    .toArray(CompletableFuture[]::new);
+            try {
+                CompletableFuture.allOf(futures).join();
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                } else if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw new SerDesException(cause);
+            }
+        }
+
+        return Arrays.asList(results);
+    }
+
+    private void deserializeGroup(List<I> inputs, DecodePlan decodePlan, List<Integer> indexes, Object[] results) {
+        for (Integer index : indexes) {
+            results[index] = doDeserialize(inputs.get(index), decodePlan);
+        }
+    }
+
+    /**
+     * Returns the {@link DecodePlan} for payloads of the given schema version received with the given protocol id.
+     *
+     * @param protocolId          protocol id
+     * @param schemaIdVersion     schema version of the writer
+     * @param readerSchemaVersion schema version to be applied for reading or projection
+     */
+    protected DecodePlan getDecodePlan(byte protocolId,
+                                       SchemaIdVersion schemaIdVersion,
+                                       Integer readerSchemaVersion) throws SerDesException {
+        Long schemaVersionId = schemaIdVersion.getSchemaVersionId();
+        DecodePlan decodePlan = schemaVersionId != null ? decodePlans.get(schemaVersionId, protocolId, readerSchemaVersion) : null;
+        if (decodePlan == null) {
+            decodePlan = createDecodePlan(protocolId, schemaIdVersion, readerSchemaVersion);
+            if (schemaVersionId != null) {
+                decodePlans.put(schemaVersionId, decodePlan);
+            }
+        }
+
+        return decodePlan;
+    }
+
+    private DecodePlan createDecodePlan(byte protocolId,
+                                        SchemaIdVersion schemaIdVersion,
+                                        Integer readerSchemaVersion) throws SerDesException {
+        SchemaVersionInfo schemaVersionInfo;
+        SchemaMetadata schemaMetadata;
+        try {
+            schemaVersionInfo = schemaRegistryClient.getSchemaVersionInfo(schemaIdVersion);
+            schemaMetadata = schemaRegistryClient.getSchemaMetadataInfo(schemaVersionInfo.getName()).getSchemaMetadata();
+        } catch (Exception e) {
+            throw new RegistryException(e);
+        }
+
+        Integer writerSchemaVersion = schemaVersionInfo.getVersion();
+        Schema writerSchema = getWriterSchema(schemaMetadata, writerSchemaVersion);
+        Schema readerSchema = getReaderSchema(schemaMetadata, readerSchemaVersion);
+        SerDesProtocolHandler serDesProtocolHandler = SerDesProtocolHandlerRegistry.get().getSerDesProtocolHandler(protocolId);
+
+        return new DecodePlan(protocolId,
+                              schemaMetadata,
+                              writerSchemaVersion,
+                              readerSchemaVersion,
+                              writerSchema,
+                              readerSchema,
+                              serDesProtocolHandler,
+                              useSpecificAvroReader);
+    }
+
+    /**
+     * Returns the deserialized object for the given input with the given {@link DecodePlan}. Default implementation
+     * invokes {@link #doDeserialize(Object, byte, SchemaMetadata, Integer, Integer)}, extensions can override this to
+     * decode the payload with {@link DecodePlan#deserialize(InputStream)} without any further schema lookups.
+     *
+     * @param input      payload to be deserialized.
+     * @param decodePlan plan resolved for the schema version of the payload
+     * @throws SerDesException when any ser/des error occurs
+     */
+    protected Object doDeserialize(I input, DecodePlan decodePlan) throws SerDesException {
+        return doDeserialize(input,
+                             decodePlan.getProtocolId(),
+                             decodePlan.getSchemaMetadata(),
+                             decodePlan.getWriterSchemaVersion(),
+                             decodePlan.getReaderSchemaVersion());
     }
 
     private SchemaVersionRetriever createSchemaVersionRetriever() {
@@ -155,28 +325,102 @@ public abstract class AbstractAvroSnapshotDeserializer<I> extends AbstractSnapsh
                                              SchemaMetadata schemaMetadata,
                                              Integer writerSchemaVersion,
                                              Integer readerSchemaVersion) throws SerDesException {
-        String schemaName = schemaMetadata.getName();
-        SchemaVersionKey writerSchemaVersionKey = new SchemaVersionKey(schemaName, writerSchemaVersion);
+        Schema writerSchema = getWriterSchema(schemaMetadata, writerSchemaVersion);
+        Schema readerSchema = getReaderSchema(schemaMetadata, readerSchemaVersion);
+
+        return deserializePayloadForProtocol(protocolId, payloadInputStream, writerSchema, readerSchema);
+    }
+
+    /**
+     * Builds the deserialized object from the remaining bytes of the given {@code payloadBuffer} and applying writer
+     * and reader schemas from the respective given versions. The payload is decoded directly from the buffer without
+     * copying it into an intermediate stream.
+     *
+     * @param protocolId          protocol id
+     * @param payloadBuffer       payload
+     * @param schemaMetadata      metadata about schema
+     * @param writerSchemaVersion schema version of the writer
+     * @param readerSchemaVersion schema version to be applied for reading or projection
+     * @return the deserialized object
+     * @throws SerDesException when any ser/des error occurs
+     */
+    protected Object buildDeserializedObject(byte protocolId,
+                                             ByteBuffer payloadBuffer,
+                                             SchemaMetadata schemaMetadata,
+                                             Integer writerSchemaVersion,
+                                             Integer readerSchemaVersion) throws SerDesException {
+        Schema writerSchema = getWriterSchema(schemaMetadata, writerSchemaVersion);
+        Schema readerSchema = getReaderSchema(schemaMetadata, readerSchemaVersion);
+
+        return deserializePayloadForProtocol(protocolId, payloadBuffer, writerSchema, readerSchema);
+    }
+
+    private Schema getWriterSchema(SchemaMetadata schemaMetadata, Integer writerSchemaVersion) {
+        SchemaVersionKey writerSchemaVersionKey = new SchemaVersionKey(schemaMetadata.getName(), writerSchemaVersion);
         LOG.debug("SchemaKey: [{}] for the received payload", writerSchemaVersionKey);
         Schema writerSchema = getSchema(writerSchemaVersionKey);
         if (writerSchema == null) {
             throw new RegistryException("No schema exists with metadata-key: " + schemaMetadata + " and writerSchemaVersion: " + writerSchemaVersion);
         }
-        Schema readerSchema = readerSchemaVersion != null ? getSchema(new SchemaVersionKey(schemaName, readerSchemaVersion)) : null;
+        return writerSchema;
+    }
 
-        return deserializePayloadForProtocol(protocolId, payloadInputStream, writerSchema, readerSchema);
+    private Schema getReaderSchema(SchemaMetadata schemaMetadata, Integer readerSchemaVersion) {
+        return readerSchemaVersion != null ? getSchema(new SchemaVersionKey(schemaMetadata.getName(), readerSchemaVersion)) : null;
     }
 
     protected Object deserializePayloadForProtocol(byte protocolId,
                                                    InputStream payloadInputStream,
                                                    Schema writerSchema,
                                                    Schema readerSchema) throws SerDesException  {
+        Map<String, Object> props = createDeserializationContext(writerSchema, readerSchema);
+        SerDesProtocolHandler serDesProtocolHandler = SerDesProtocolHandlerRegistry.get().getSerDesProtocolHandler(protocolId);
+
+        return serDesProtocolHandler.handlePayloadDeserialization(payloadInputStream, props);
+    }
+
+    protected Object deserializePayloadForProtocol(byte protocolId,
+                                                   ByteBuffer payloadBuffer,
+                                                   Schema writerSchema,
+                                                   Schema readerSchema) throws SerDesException  {
+        Map<String, Object> props = createDeserializationContext(writerSchema, readerSchema);
+        SerDesProtocolHandler serDesProtocolHandler = SerDesProtocolHandlerRegistry.get().getSerDesProtocolHandler(protocolId);
+
+        return serDesProtocolHandler.handlePayloadDeserialization(payloadBuffer, props);
+    }
+
+    private Map<String, Object> createDeserializationContext(Schema writerSchema, Schema readerSchema) {
         Map<String, Object> props = new HashMap<>();
         props.put(SPECIFIC_AVRO_READER, useSpecificAvroReader);
         props.put(WRITER_SCHEMA, writerSchema);
         props.put(READER_SCHEMA, readerSchema);
-        SerDesProtocolHandler serDesProtocolHandler = SerDesProtocolHandlerRegistry.get().getSerDesProtocolHandler(protocolId);
+        return props;
+    }
 
-        return serDesProtocolHandler.handlePayloadDeserialization(payloadInputStream, props);
+    private static final class DecodeGroupKey {
+        private final byte protocolId;
+        private final SchemaIdVersion schemaIdVersion;
+
+        private DecodeGroupKey(byte protocolId, SchemaIdVersion schemaIdVersion) {
+            this.protocolId = protocolId;
+            this.schemaIdVersion = schemaIdVersion;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            DecodeGroupKey that = (DecodeGroupKey) o;
+            return protocolId == that.protocolId && Objects.equals(schemaIdVersion, that.schemaIdVersion);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * protocolId + Objects.hashCode(schemaIdVersion);
+        }
     }
 }
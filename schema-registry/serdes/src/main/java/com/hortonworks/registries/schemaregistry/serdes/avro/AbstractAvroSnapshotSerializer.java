@@ -92,6 +92,7 @@ public abstract class AbstractAvroSnapshotSerializer<O> extends AbstractSnapshot
     @Override
     @SuppressWarnings("unchecked")
     public void doInit(Map<String, ?> config) {
+        super.doInit(config);
 
         Number number = (Number) ((Map<String, Object>) config).getOrDefault(SERDES_PROTOCOL_VERSION,
                                                                              SerDesProtocolHandlerRegistry.CURRENT_PROTOCOL);
@@ -115,6 +116,15 @@ public abstract class AbstractAvroSnapshotSerializer<O> extends AbstractSnapshot
         }
     }
 
+    /**
+     * @param input avro object
+     * @return avro schema instance of the given {@code input} avro object
+     */
+    @Override
+    protected Object getSchema(Object input) {
+        return AvroUtils.computeSchema(input);
+    }
+
     /**
      * @param input avro object
      * @return textual representation of the schema of the given {@code input} avro object
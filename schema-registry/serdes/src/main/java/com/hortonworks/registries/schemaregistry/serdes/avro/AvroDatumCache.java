@@ -0,0 +1,165 @@
+/*
+ * Copyright 2016-2019 Cloudera, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hortonworks.registries.schemaregistry.serdes.avro;
+
+import com.google.common.cache.CacheBuilder;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DatumReader;
+import org.apache.avro.io.DatumWriter;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.EncoderFactory;
+import org.apache.avro.specific.SpecificDatumReader;
+import org.apache.avro.specific.SpecificDatumWriter;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of avro {@link DatumReader}s and {@link DatumWriter}s keyed by writer schema, reader schema and whether
+ * specific or generic records are used. Avro readers and writers are thread safe, so a cached instance is shared by
+ * all threads and avro's schema resolution is done only once for each schema pair.
+ * <p>
+ * This also keeps a {@link BinaryEncoder} and a {@link BinaryDecoder} per thread which are reconfigured for each
+ * payload instead of being created again.
+ */
+public class AvroDatumCache {
+
+    /**
+     * Default maximum number of readers and writers kept in the cache.
+     */
+    public static final int DEFAULT_MAX_SIZE = 1024;
+
+    private static final ThreadLocal<BinaryEncoder> ENCODERS = new ThreadLocal<>();
+    private static final ThreadLocal<BinaryDecoder> DECODERS = new ThreadLocal<>();
+
+    private final ConcurrentMap<DatumKey, DatumReader<Object>> datumReaders;
+    private final ConcurrentMap<DatumKey, DatumWriter<Object>> datumWriters;
+    private final Function<Schema, Schema> specificReaderSchemaResolver;
+
+    /**
+     * @param specificReaderSchemaResolver resolves the reader schema of specific records when no reader schema is given
+     */
+    public AvroDatumCache(Function<Schema, Schema> specificReaderSchemaResolver) {
+        this(specificReaderSchemaResolver, DEFAULT_MAX_SIZE);
+    }
+
+    public AvroDatumCache(Function<Schema, Schema> specificReaderSchemaResolver, int maxSize) {
+        this.specificReaderSchemaResolver = specificReaderSchemaResolver;
+        datumReaders = CacheBuilder.newBuilder().maximumSize(maxSize).<DatumKey, DatumReader<Object>>build().asMap();
+        datumWriters = CacheBuilder.newBuilder().maximumSize(maxSize).<DatumKey, DatumWriter<Object>>build().asMap();
+    }
+
+    /**
+     * Returns a cached {@link DatumReader} for the given schemas, creating it when it does not exist.
+     *
+     * @param writerSchema          schema used to write the payload
+     * @param readerSchema          schema to be used to read the payload, it can be null
+     * @param useSpecificAvroReader whether specific records are to be created
+     */
+    public DatumReader<Object> getDatumReader(Schema writerSchema, Schema readerSchema, boolean useSpecificAvroReader) {
+        return datumReaders.computeIfAbsent(new DatumKey(writerSchema, readerSchema, useSpecificAvroReader), key -> {
+            if (useSpecificAvroReader) {
+                Schema schema = readerSchema != null ? readerSchema : specificReaderSchemaResolver.apply(writerSchema);
+                return new SpecificDatumReader<>(writerSchema, schema);
+            } else {
+                return readerSchema == null ? new GenericDatumReader<>(writerSchema)
+                                            : new GenericDatumReader<>(writerSchema, readerSchema);
+            }
+        });
+    }
+
+    /**
+     * Returns a cached {@link DatumWriter} for the given schema, creating it when it does not exist.
+     *
+     * @param schema         schema of the payload to be written
+     * @param specificRecord whether the payload is a specific record
+     */
+    public DatumWriter<Object> getDatumWriter(Schema schema, boolean specificRecord) {
+        return datumWriters.computeIfAbsent(new DatumKey(schema, null, specificRecord),
+                                            key -> specificRecord ? new SpecificDatumWriter<>(schema)
+                                                                  : new GenericDatumWriter<>(schema));
+    }
+
+    /**
+     * Returns this thread's {@link BinaryEncoder} configured to write into the given {@code outputStream}.
+     */
+    public static BinaryEncoder binaryEncoder(OutputStream outputStream) {
+        BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(outputStream, ENCODERS.get());
+        ENCODERS.set(encoder);
+        return encoder;
+    }
+
+    /**
+     * Returns this thread's {@link BinaryDecoder} configured to read from the given {@code inputStream}.
+     */
+    public static BinaryDecoder binaryDecoder(InputStream inputStream) {
+        BinaryDecoder decoder = DecoderFactory.get().binaryDecoder(inputStream, DECODERS.get());
+        DECODERS.set(decoder);
+        return decoder;
+    }
+
+    /**
+     * Returns this thread's {@link BinaryDecoder} configured to read {@code length} bytes of the given array starting
+     * from {@code offset}, without copying them.
+     */
+    public static BinaryDecoder binaryDecoder(byte[] bytes, int offset, int length) {
+        BinaryDecoder decoder = DecoderFactory.get().binaryDecoder(bytes, offset, length, DECODERS.get());
+        DECODERS.set(decoder);
+        return decoder;
+    }
+
+    private static final class DatumKey {
+        private final Schema writerSchema;
+        private final Schema readerSchema;
+        private final boolean specific;
+        private final int hashCode;
+
+        private DatumKey(Schema writerSchema, Schema readerSchema, boolean specific) {
+            this.writerSchema = writerSchema;
+            this.readerSchema = readerSchema;
+            this.specific = specific;
+            int result = writerSchema.hashCode();
+            result = 31 * result + (readerSchema != null ? readerSchema.hashCode() : 0);
+            this.hashCode = 31 * result + (specific ? 1 : 0);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            DatumKey datumKey = (DatumKey) o;
+            return specific == datumKey.specific &&
+                    Objects.equals(writerSchema, datumKey.writerSchema) &&
+                    Objects.equals(readerSchema, datumKey.readerSchema);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2016-2019 Cloudera, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hortonworks.registries.schemaregistry.serdes.avro;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.io.DatumReader;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Fields of a record schema to be read by {@link AvroPullDeserializer}, with a {@link DatumReader} for each of the
+ * projected fields. Instances are immutable and can be shared by all the payloads written with the same schema.
+ */
+final class AvroFieldProjection {
+    private final Schema schema;
+    private final Schema.Field[] fields;
+    private final DatumReader<Object>[] fieldReaders;
+    private final int lastProjectedField;
+
+    /**
+     * @param schema          record schema of the payloads
+     * @param projectedFields names of the fields to be read, all fields are read when it is empty
+     */
+    @SuppressWarnings("unchecked")
+    AvroFieldProjection(Schema schema, Set<String> projectedFields) {
+        if (schema.getType() != Schema.Type.RECORD) {
+            throw new IllegalArgumentException("Only record schemas can be pulled, given schema type is " + schema.getType());
+        }
+
+        this.schema = schema;
+        List<Schema.Field> schemaFields = schema.getFields();
+        fields = schemaFields.toArray(new Schema.Field[0]);
+        fieldReaders = new DatumReader[fields.length];
+        int last = -1;
+        for (int i = 0; i < fields.length; i++) {
+            if (projectedFields.isEmpty() || projectedFields.contains(fields[i].name())) {
+                fieldReaders[i] = new GenericDatumReader<>(fields[i].schema());
+                last = i;
+            }
+        }
+        lastProjectedField = last;
+    }
+
+    Schema getSchema() {
+        return schema;
+    }
+
+    Schema.Field getField(int index) {
+        return fields[index];
+    }
+
+    boolean isProjected(int index) {
+        return fieldReaders[index] != null;
+    }
+
+    DatumReader<Object> getFieldReader(int index) {
+        return fieldReaders[index];
+    }
+
+    /**
+     * @return index of the last projected field, fields after it need not be decoded at all.
+     */
+    int getLastProjectedField() {
+        return lastProjectedField;
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2016-2019 Cloudera, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hortonworks.registries.schemaregistry.serdes.avro;
+
+import com.hortonworks.registries.schemaregistry.serde.SerDesException;
+import com.hortonworks.registries.schemaregistry.serde.pull.EndRecordContext;
+import com.hortonworks.registries.schemaregistry.serde.pull.FieldValueContext;
+import com.hortonworks.registries.schemaregistry.serde.pull.PullDeserializer;
+import com.hortonworks.registries.schemaregistry.serde.pull.PullEventContext;
+import com.hortonworks.registries.schemaregistry.serde.pull.StartRecordContext;
+import com.hortonworks.registries.schemaregistry.serdes.avro.exceptions.AvroException;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.io.Decoder;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * {@link PullDeserializer} implementation for an avro binary encoded record. It emits a {@link StartRecordContext},
+ * a {@link FieldValueContext} for each projected field of the record and an {@link EndRecordContext}.
+ * <p>
+ * Fields which are not projected are skipped in the decoder without creating their values, and decoding stops after
+ * the last projected field. Values of projected fields are decoded lazily when {@link PullEventContext.FieldValue#value()}
+ * is invoked, a projected field whose value is not accessed before moving to the next event is skipped as well.
+ * <p>
+ * Instances of this class are created by {@link AvroPullSnapshotDeserializer} for each payload and are not thread safe.
+ */
+public class AvroPullDeserializer implements PullDeserializer<Schema, Schema.Field> {
+
+    private final AvroFieldProjection projection;
+    private final Decoder decoder;
+
+    private State nextState = State.START_RECORD;
+    private int nextField;
+    private AvroFieldValue currentFieldValue;
+
+    AvroPullDeserializer(AvroFieldProjection projection, Decoder decoder) {
+        this.projection = projection;
+        this.decoder = decoder;
+    }
+
+    @Override
+    public boolean hasNext() throws SerDesException {
+        return nextState != State.END_DESERIALIZE;
+    }
+
+    @Override
+    public PullEventContext<Schema.Field> next() throws SerDesException {
+        switch (nextState) {
+            case START_RECORD:
+                nextState = State.PROCESS_FIELDS;
+                return new StartRecordContext<>();
+            case PROCESS_FIELDS:
+                finishCurrentField();
+                if (nextField > projection.getLastProjectedField()) {
+                    nextState = State.END_DESERIALIZE;
+                    return new EndRecordContext<>();
+                }
+                while (!projection.isProjected(nextField)) {
+                    skip(projection.getField(nextField++).schema());
+                }
+                currentFieldValue = new AvroFieldValue(nextField++);
+                return new FieldValueContext<>(currentFieldValue);
+            default:
+                throw new AvroException("No more events exist in the given payload");
+        }
+    }
+
+    private void finishCurrentField() {
+        if (currentFieldValue != null) {
+            if (!currentFieldValue.read) {
+                skip(currentFieldValue.field().schema());
+            }
+            currentFieldValue.finished = true;
+            currentFieldValue = null;
+        }
+    }
+
+    private void skip(Schema schema) {
+        try {
+            GenericDatumReader.skip(schema, decoder);
+        } catch (IOException e) {
+            throw new AvroException("Error occurred while skipping a field of the payload", e);
+        }
+    }
+
+    @Override
+    public Schema schema() {
+        return projection.getSchema();
+    }
+
+    @Override
+    public void init(Map<String, ?> config) {
+    }
+
+    @Override
+    public void close() throws Exception {
+    }
+
+    private final class AvroFieldValue implements PullEventContext.FieldValue<Schema.Field> {
+        private final int index;
+        private boolean read;
+        private boolean finished;
+        private Object value;
+
+        private AvroFieldValue(int index) {
+            this.index = index;
+        }
+
+        @Override
+        public Schema.Field field() {
+            return projection.getField(index);
+        }
+
+        @Override
+        public Object value() {
+            if (!read) {
+                if (finished) {
+                    throw new IllegalStateException("Value of field [" + field().name() + "] can not be read after moving to the next event");
+                }
+                try {
+                    value = projection.getFieldReader(index).read(null, decoder);
+                } catch (IOException e) {
+                    throw new AvroException("Error occurred while reading field [" + field().name() + "] of the payload", e);
+                }
+                read = true;
+            }
+            return value;
+        }
+    }
+}
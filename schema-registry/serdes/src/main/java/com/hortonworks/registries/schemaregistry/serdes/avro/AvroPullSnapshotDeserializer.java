@@ -0,0 +1,136 @@
+/*
+ * Copyright 2016-2019 Cloudera, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hortonworks.registries.schemaregistry.serdes.avro;
+
+import com.google.common.cache.CacheBuilder;
+import com.hortonworks.registries.schemaregistry.client.ISchemaRegistryClient;
+import com.hortonworks.registries.schemaregistry.serde.SerDesException;
+import com.hortonworks.registries.schemaregistry.serdes.avro.exceptions.AvroException;
+import org.apache.avro.Schema;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.DecoderFactory;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Deserializer which returns an {@link AvroPullDeserializer} for each payload instead of a deserialized record, so that
+ * only the fields configured with {@link #PROJECTED_FIELDS} are decoded. Protocol id and schema version are read
+ * from the given buffer like {@link ByteBufferAvroSnapshotDeserializer}, and the returned pull deserializer decodes
+ * the rest of the buffer with the writer schema of the payload.
+ * <p>
+ * This can be configured as {@code defaultDeserializerClass} of avro schema provider, so that it is returned by
+ * {@link ISchemaRegistryClient#getDefaultDeserializer(String)} instead of {@link AvroSnapshotDeserializer}.
+ * <pre>{@code
+ * Map<String, Object> config = ...
+ * config.put(AvroPullSnapshotDeserializer.PROJECTED_FIELDS, "id,name");
+ * AvroPullSnapshotDeserializer deserializer = new AvroPullSnapshotDeserializer();
+ * deserializer.init(config);
+ *
+ * AvroPullDeserializer pullDeserializer = deserializer.deserialize(ByteBuffer.wrap(payload), null);
+ * while (pullDeserializer.hasNext()) {
+ *     PullEventContext<Schema.Field> context = pullDeserializer.next();
+ *     if (context.endField()) {
+ *         Object value = context.fieldValue().value();
+ *         ...
+ *     }
+ * }
+ * }</pre>
+ * Only record schemas are supported and reader schema versions are not applied, fields are read as written.
+ */
+public class AvroPullSnapshotDeserializer extends ByteBufferAvroSnapshotDeserializer {
+
+    /**
+     * Names of the top level fields to be decoded, as a collection of names or a comma separated string. All fields
+     * are decoded when this is not configured.
+     */
+    public static final String PROJECTED_FIELDS = "schemaregistry.deserializer.projected.fields";
+
+    private Set<String> projectedFields = Collections.emptySet();
+    private ConcurrentMap<Schema, AvroFieldProjection> projections;
+
+    public AvroPullSnapshotDeserializer() {
+    }
+
+    public AvroPullSnapshotDeserializer(ISchemaRegistryClient schemaRegistryClient) {
+        super(schemaRegistryClient);
+    }
+
+    @Override
+    public void doInit(Map<String, ?> config) {
+        super.doInit(config);
+        projectedFields = toFieldNames(getValue(config, PROJECTED_FIELDS, Collections.emptySet()));
+        projections = CacheBuilder.newBuilder()
+                                  .weakKeys()
+                                  .maximumSize(((Number) getValue(config, DESERIALIZER_SCHEMA_CACHE_MAX_SIZE, DEFAULT_SCHEMA_CACHE_SIZE)).intValue())
+                                  .<Schema, AvroFieldProjection>build()
+                                  .asMap();
+    }
+
+    @Override
+    public AvroPullDeserializer deserialize(ByteBuffer input, Integer readerSchemaVersion) throws SerDesException {
+        return (AvroPullDeserializer) super.deserialize(input, readerSchemaVersion);
+    }
+
+    @Override
+    protected Object doDeserialize(ByteBuffer payloadBuffer, DecodePlan decodePlan) throws SerDesException {
+        AvroFieldProjection projection = projections.computeIfAbsent(decodePlan.getWriterSchema(),
+                                                                     schema -> new AvroFieldProjection(schema, projectedFields));
+        return new AvroPullDeserializer(projection, createDecoder(payloadBuffer));
+    }
+
+    private static BinaryDecoder createDecoder(ByteBuffer payloadBuffer) {
+        byte[] bytes;
+        int offset;
+        int length = payloadBuffer.remaining();
+        if (payloadBuffer.hasArray()) {
+            bytes = payloadBuffer.array();
+            offset = payloadBuffer.arrayOffset() + payloadBuffer.position();
+            payloadBuffer.position(payloadBuffer.limit());
+        } else {
+            bytes = new byte[length];
+            offset = 0;
+            payloadBuffer.get(bytes);
+        }
+
+        // each pull deserializer is read independently, so it can not share a thread local decoder.
+        return DecoderFactory.get().binaryDecoder(bytes, offset, length, null);
+    }
+
+    private static Set<String> toFieldNames(Object value) {
+        if (value instanceof String) {
+            value = Arrays.asList(((String) value).split(","));
+        }
+        if (!(value instanceof Collection)) {
+            throw new AvroException(PROJECTED_FIELDS + " should be a collection of field names or a comma separated string");
+        }
+
+        Set<String> fieldNames = new LinkedHashSet<>();
+        for (Object fieldName : (Collection<?>) value) {
+            String name = fieldName.toString().trim();
+            if (!name.isEmpty()) {
+                fieldNames.add(name);
+            }
+        }
+        return Collections.unmodifiableSet(fieldNames);
+    }
+}
@@ -17,8 +17,11 @@ package com.hortonworks.registries.schemaregistry.serdes.avro;
 
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Collections;
 
 import org.apache.avro.Schema;
+import org.apache.avro.util.ByteBufferInputStream;
 
 /**
  * Interface for serializing and deserializing avro payloads.
@@ -31,4 +34,18 @@ public interface AvroSerDesHandler {
                                         Schema writerSchema,
                                         Schema readerSchema,
                                         boolean useSpecificAvroReader);
+
+    /**
+     * Deserializes the remaining bytes of the given {@code payloadBuffer}. Default implementation reads the buffer
+     * as a stream with {@link #handlePayloadDeserialization(InputStream, Schema, Schema, boolean)}.
+     */
+    default Object handlePayloadDeserialization(ByteBuffer payloadBuffer,
+                                                Schema writerSchema,
+                                                Schema readerSchema,
+                                                boolean useSpecificAvroReader) {
+        return handlePayloadDeserialization(new ByteBufferInputStream(Collections.singletonList(payloadBuffer)),
+                                            writerSchema,
+                                            readerSchema,
+                                            useSpecificAvroReader);
+    }
 }
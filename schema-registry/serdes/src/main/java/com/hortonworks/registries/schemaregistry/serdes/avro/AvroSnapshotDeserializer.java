@@ -77,6 +77,11 @@ public class AvroSnapshotDeserializer extends AbstractAvroSnapshotDeserializer<I
                                    Integer readerSchemaVersion) throws SerDesException {
         return buildDeserializedObject(protocolId, payloadInputStream, schemaMetadata, writerSchemaVersion, readerSchemaVersion);
     }
+
+    @Override
+    protected Object doDeserialize(InputStream payloadInputStream, DecodePlan decodePlan) throws SerDesException {
+        return decodePlan.deserialize(payloadInputStream);
+    }
     
     
 }
@@ -0,0 +1,78 @@
+/**
+ * Copyright 2016-2019 Cloudera, Inc.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package com.hortonworks.registries.schemaregistry.serdes.avro;
+
+import com.hortonworks.registries.schemaregistry.SchemaIdVersion;
+import com.hortonworks.registries.schemaregistry.SchemaMetadata;
+import com.hortonworks.registries.schemaregistry.client.ISchemaRegistryClient;
+import com.hortonworks.registries.schemaregistry.serde.SerDesException;
+import com.hortonworks.registries.schemaregistry.serdes.avro.exceptions.AvroException;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Implementation of {@link AbstractAvroSnapshotDeserializer} which reads protocol id, schema version and payload
+ * directly from a {@link ByteBuffer} without any intermediate streams or copies of the payload.
+ * <p>
+ * The given buffer is read from its current position and its position is advanced while it is deserialized.
+ */
+public class ByteBufferAvroSnapshotDeserializer extends AbstractAvroSnapshotDeserializer<ByteBuffer> {
+
+    public ByteBufferAvroSnapshotDeserializer() {
+    }
+
+    public ByteBufferAvroSnapshotDeserializer(ISchemaRegistryClient schemaRegistryClient) {
+        super(schemaRegistryClient);
+    }
+
+    @Override
+    protected SchemaIdVersion retrieveSchemaIdVersion(byte protocolId, ByteBuffer byteBuffer) throws SerDesException {
+        return SerDesProtocolHandlerRegistry.get()
+                                            .getSerDesProtocolHandler(protocolId)
+                                            .handleSchemaVersionDeserialization(byteBuffer);
+    }
+
+    @Override
+    protected byte retrieveProtocolId(ByteBuffer byteBuffer) throws SerDesException {
+        // first byte is protocol version/id.
+        // protocol format:
+        // 1 byte  : protocol version
+        if (!byteBuffer.hasRemaining()) {
+            throw new AvroException("End of buffer reached while trying to read protocol id");
+        }
+
+        byte protocolId = byteBuffer.get();
+        if (SerDesProtocolHandlerRegistry.get().getSerDesProtocolHandler(protocolId) == null) {
+            throw new AvroException("Unknown protocol id [" + protocolId + "] received while deserializing the payload");
+        }
+
+        return protocolId;
+    }
+
+    @Override
+    protected Object doDeserialize(ByteBuffer payloadBuffer,
+                                   byte protocolId,
+                                   SchemaMetadata schemaMetadata,
+                                   Integer writerSchemaVersion,
+                                   Integer readerSchemaVersion) throws SerDesException {
+        return buildDeserializedObject(protocolId, payloadBuffer, schemaMetadata, writerSchemaVersion, readerSchemaVersion);
+    }
+
+    @Override
+    protected Object doDeserialize(ByteBuffer payloadBuffer, DecodePlan decodePlan) throws SerDesException {
+        return decodePlan.deserialize(payloadBuffer);
+    }
+
+}
@@ -18,22 +18,18 @@ package com.hortonworks.registries.schemaregistry.serdes.avro;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
 import com.hortonworks.registries.schemaregistry.serdes.avro.exceptions.AvroException;
 import com.hortonworks.registries.schemaregistry.serdes.avro.exceptions.AvroRetryableException;
 import org.apache.avro.Schema;
-import org.apache.avro.generic.GenericDatumReader;
-import org.apache.avro.generic.GenericDatumWriter;
 import org.apache.avro.io.BinaryEncoder;
 import org.apache.avro.io.DatumReader;
 import org.apache.avro.io.DatumWriter;
-import org.apache.avro.io.DecoderFactory;
-import org.apache.avro.io.EncoderFactory;
 import org.apache.avro.specific.SpecificData;
-import org.apache.avro.specific.SpecificDatumReader;
-import org.apache.avro.specific.SpecificDatumWriter;
 import org.apache.avro.specific.SpecificRecord;
 import org.apache.commons.io.IOUtils;
 
@@ -42,6 +38,7 @@ import org.apache.commons.io.IOUtils;
  */
 public class ConfluentAvroSerDesHandler implements AvroSerDesHandler {
     private final Map<String, Schema> readerSchemaCache = new ConcurrentHashMap<>();
+    private final AvroDatumCache avroDatumCache = new AvroDatumCache(this::getReaderSchema);
 
     @Override
     public void handlePayloadSerialization(OutputStream outputStream, Object input) {
@@ -50,13 +47,8 @@ public class ConfluentAvroSerDesHandler implements AvroSerDesHandler {
             if (input instanceof byte[]) {
                 outputStream.write((byte[]) input);
             } else {
-                BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(outputStream, null);
-                DatumWriter<Object> writer;
-                if (input instanceof SpecificRecord) {
-                    writer = new SpecificDatumWriter<>(schema);
-                } else {
-                    writer = new GenericDatumWriter<>(schema);
-                }
+                BinaryEncoder encoder = AvroDatumCache.binaryEncoder(outputStream);
+                DatumWriter<Object> writer = avroDatumCache.getDatumWriter(schema, input instanceof SpecificRecord);
                 writer.write(input, encoder);
                 encoder.flush();
             }
@@ -81,8 +73,8 @@ public class ConfluentAvroSerDesHandler implements AvroSerDesHandler {
                 // serializer writes byte array directly without going through avro encoder layers.
                 deserializedObj = IOUtils.toByteArray(payloadInputStream);
             } else {
-                DatumReader datumReader = getDatumReader(writerSchema, readerSchema, useSpecificAvroReader);
-                deserializedObj = datumReader.read(null, DecoderFactory.get().binaryDecoder(payloadInputStream, null));
+                DatumReader<Object> datumReader = avroDatumCache.getDatumReader(writerSchema, readerSchema, useSpecificAvroReader);
+                deserializedObj = datumReader.read(null, AvroDatumCache.binaryDecoder(payloadInputStream));
             }
         } catch (IOException e) {
             throw new AvroRetryableException("Error deserializing Avro message for id " + writerSchema, e);
@@ -93,16 +85,36 @@ public class ConfluentAvroSerDesHandler implements AvroSerDesHandler {
         return deserializedObj;
     }
 
-    private DatumReader getDatumReader(Schema writerSchema, Schema readerSchema, boolean useSpecificAvroReader) {
-        if (useSpecificAvroReader) {
-            if (readerSchema == null) {
-                readerSchema = this.getReaderSchema(writerSchema);
-            }
+    @Override
+    public Object handlePayloadDeserialization(ByteBuffer payloadBuffer,
+                                               Schema writerSchema,
+                                               Schema readerSchema,
+                                               boolean useSpecificAvroReader) {
+        if (!payloadBuffer.hasArray()) {
+            return AvroSerDesHandler.super.handlePayloadDeserialization(payloadBuffer, writerSchema, readerSchema, useSpecificAvroReader);
+        }
 
-            return new SpecificDatumReader(writerSchema, readerSchema);
-        } else {
-            return readerSchema == null ? new GenericDatumReader(writerSchema) : new GenericDatumReader(writerSchema, readerSchema);
+        byte[] bytes = payloadBuffer.array();
+        int offset = payloadBuffer.arrayOffset() + payloadBuffer.position();
+        int length = payloadBuffer.remaining();
+        Object deserializedObj;
+        try {
+            if (Schema.Type.BYTES.equals(writerSchema.getType())) {
+                // serializer writes byte array directly without going through avro encoder layers.
+                deserializedObj = Arrays.copyOfRange(bytes, offset, offset + length);
+            } else {
+                DatumReader<Object> datumReader = avroDatumCache.getDatumReader(writerSchema, readerSchema, useSpecificAvroReader);
+                deserializedObj = datumReader.read(null, AvroDatumCache.binaryDecoder(bytes, offset, length));
+            }
+        } catch (IOException e) {
+            throw new AvroRetryableException("Error deserializing Avro message for id " + writerSchema, e);
+        } catch (RuntimeException e) {
+            // avro deserialization may throw AvroRuntimeException, NullPointerException, etc
+            throw new AvroException("Error deserializing Avro message for id " + writerSchema, e);
         }
+        payloadBuffer.position(payloadBuffer.limit());
+
+        return deserializedObj;
     }
 
     private Schema getReaderSchema(Schema writerSchema) {
@@ -67,4 +67,14 @@ public class ConfluentProtocolHandler extends AbstractAvroSerDesProtocolHandler
         return new SchemaIdVersion((long) schemaVersionId);
     }
 
+    @Override
+    public SchemaIdVersion handleSchemaVersionDeserialization(ByteBuffer byteBuffer) {
+        if (byteBuffer.remaining() < 4) {
+            throw insufficientBytesException(byteBuffer, 4);
+        }
+
+        int schemaVersionId = getBigEndianInt(byteBuffer);
+        return new SchemaIdVersion((long) schemaVersionId);
+    }
+
 }
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2016-2019 Cloudera, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hortonworks.registries.schemaregistry.serdes.avro;
+
+import com.hortonworks.registries.schemaregistry.SchemaMetadata;
+import com.hortonworks.registries.schemaregistry.serde.SerDesException;
+import com.hortonworks.registries.schemaregistry.serdes.SerDesProtocolHandler;
+import org.apache.avro.Schema;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.hortonworks.registries.schemaregistry.serdes.avro.AbstractAvroSerDesProtocolHandler.READER_SCHEMA;
+import static com.hortonworks.registries.schemaregistry.serdes.avro.AbstractAvroSerDesProtocolHandler.WRITER_SCHEMA;
+import static com.hortonworks.registries.schemaregistry.serdes.avro.AbstractAvroSnapshotDeserializer.SPECIFIC_AVRO_READER;
+
+/**
+ * Everything resolved from the schema registry which is needed to decode payloads written with a schema version
+ * through a protocol with a given reader schema version. Instances are immutable and are built once for each
+ * combination by {@link AbstractAvroSnapshotDeserializer}, so decoding a payload does not need any registry lookups.
+ */
+public final class DecodePlan {
+    private final byte protocolId;
+    private final Integer readerSchemaVersion;
+    private final SchemaMetadata schemaMetadata;
+    private final Integer writerSchemaVersion;
+    private final Schema writerSchema;
+    private final Schema readerSchema;
+    private final SerDesProtocolHandler protocolHandler;
+    private final Map<String, Object> context;
+
+    public DecodePlan(byte protocolId,
+                      SchemaMetadata schemaMetadata,
+                      Integer writerSchemaVersion,
+                      Integer readerSchemaVersion,
+                      Schema writerSchema,
+                      Schema readerSchema,
+                      SerDesProtocolHandler protocolHandler,
+                      boolean useSpecificAvroReader) {
+        this.protocolId = protocolId;
+        this.schemaMetadata = schemaMetadata;
+        this.writerSchemaVersion = writerSchemaVersion;
+        this.readerSchemaVersion = readerSchemaVersion;
+        this.writerSchema = writerSchema;
+        this.readerSchema = readerSchema;
+        this.protocolHandler = protocolHandler;
+
+        Map<String, Object> props = new HashMap<>();
+        props.put(SPECIFIC_AVRO_READER, useSpecificAvroReader);
+        props.put(WRITER_SCHEMA, writerSchema);
+        props.put(READER_SCHEMA, readerSchema);
+        this.context = Collections.unmodifiableMap(props);
+    }
+
+    public byte getProtocolId() {
+        return protocolId;
+    }
+
+    public SchemaMetadata getSchemaMetadata() {
+        return schemaMetadata;
+    }
+
+    public Integer getWriterSchemaVersion() {
+        return writerSchemaVersion;
+    }
+
+    public Integer getReaderSchemaVersion() {
+        return readerSchemaVersion;
+    }
+
+    public Schema getWriterSchema() {
+        return writerSchema;
+    }
+
+    public Schema getReaderSchema() {
+        return readerSchema;
+    }
+
+    public SerDesProtocolHandler getProtocolHandler() {
+        return protocolHandler;
+    }
+
+    /**
+     * @return immutable context passed to {@link SerDesProtocolHandler} for payload deserialization.
+     */
+    public Map<String, Object> getContext() {
+        return context;
+    }
+
+    /**
+     * Deserializes the given payload stream with this plan.
+     */
+    public Object deserialize(InputStream payloadInputStream) throws SerDesException {
+        return protocolHandler.handlePayloadDeserialization(payloadInputStream, context);
+    }
+
+    /**
+     * Deserializes the remaining bytes of the given buffer with this plan.
+     */
+    public Object deserialize(ByteBuffer payloadBuffer) throws SerDesException {
+        return protocolHandler.handlePayloadDeserialization(payloadBuffer, context);
+    }
+
+    boolean matches(byte protocolId, Integer readerSchemaVersion) {
+        return this.protocolId == protocolId
+                && (this.readerSchemaVersion == null ? readerSchemaVersion == null : this.readerSchemaVersion.equals(readerSchemaVersion));
+    }
+
+    @Override
+    public String toString() {
+        return "DecodePlan{" +
+                "protocolId=" + protocolId +
+                ", schemaName=" + schemaMetadata.getName() +
+                ", writerSchemaVersion=" + writerSchemaVersion +
+                ", readerSchemaVersion=" + readerSchemaVersion +
+                '}';
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2016-2019 Cloudera, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hortonworks.registries.schemaregistry.serdes.avro;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalNotification;
+
+import java.util.Arrays;
+
+/**
+ * Bounded cache of {@link DecodePlan}s keyed by the primitive schema version id received on the wire.
+ * <p>
+ * Plans are held by a Guava cache bounded to the max size, which evicts schema versions one at a time. Lookups go first
+ * through a direct mapped array of slots keyed by the primitive id, so that a hit does not lock, box the id or allocate;
+ * the cache is only consulted, and its recency of the id updated, when the slot of an id holds another id. Plans of the
+ * same schema version id for different protocols or reader versions share an entry.
+ */
+final class DecodePlanCache {
+
+    private static final int MAX_SLOTS = 4096;
+
+    private final Cache<Long, DecodePlan[]> plans;
+    // slots are replaced, never mutated, so a racy read sees either the old or the new slot fully initialized
+    private final Slot[] slots;
+
+    DecodePlanCache(int maxSize) {
+        plans = CacheBuilder.newBuilder()
+                            .maximumSize(maxSize)
+                            // a single segment so that the least recently used entry of the whole cache is evicted
+                            .concurrencyLevel(1)
+                            .removalListener(this::onRemoval)
+                            .build();
+        slots = new Slot[maxSize <= 0 ? 0 : Integer.highestOneBit(Math.min(maxSize, MAX_SLOTS) * 2 - 1)];
+    }
+
+    DecodePlan get(long schemaVersionId, byte protocolId, Integer readerSchemaVersion) {
+        if (slots.length == 0) {
+            return null;
+        }
+
+        int index = index(schemaVersionId);
+        Slot slot = slots[index];
+        DecodePlan[] plansOfVersion;
+        if (slot != null && slot.schemaVersionId == schemaVersionId) {
+            plansOfVersion = slot.plans;
+        } else {
+            plansOfVersion = plans.getIfPresent(schemaVersionId);
+            if (plansOfVersion == null) {
+                return null;
+            }
+            slots[index] = new Slot(schemaVersionId, plansOfVersion);
+        }
+
+        for (DecodePlan plan : plansOfVersion) {
+            if (plan.matches(protocolId, readerSchemaVersion)) {
+                return plan;
+            }
+        }
+        return null;
+    }
+
+    synchronized void put(long schemaVersionId, DecodePlan plan) {
+        if (slots.length == 0) {
+            return;
+        }
+
+        DecodePlan[] existing = plans.getIfPresent(schemaVersionId);
+        DecodePlan[] plansOfVersion;
+        if (existing == null) {
+            plansOfVersion = new DecodePlan[] {plan};
+        } else {
+            for (DecodePlan existingPlan : existing) {
+                if (existingPlan.matches(plan.getProtocolId(), plan.getReaderSchemaVersion())) {
+                    return;
+                }
+            }
+            plansOfVersion = Arrays.copyOf(existing, existing.length + 1);
+            plansOfVersion[existing.length] = plan;
+        }
+
+        plans.put(schemaVersionId, plansOfVersion);
+        slots[index(schemaVersionId)] = new Slot(schemaVersionId, plansOfVersion);
+    }
+
+    synchronized void clear() {
+        plans.invalidateAll();
+        Arrays.fill(slots, null);
+    }
+
+    int size() {
+        return (int) plans.size();
+    }
+
+    private void onRemoval(RemovalNotification<Long, DecodePlan[]> notification) {
+        // the slot may already hold another id or the plans which replaced the removed ones
+        int index = index(notification.getKey());
+        Slot slot = slots[index];
+        if (slot != null && slot.plans == notification.getValue()) {
+            slots[index] = null;
+        }
+    }
+
+    private int index(long key) {
+        int hash = (int) (key ^ (key >>> 32)) * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & (slots.length - 1);
+    }
+
+    private static final class Slot {
+        private final long schemaVersionId;
+        private final DecodePlan[] plans;
+
+        private Slot(long schemaVersionId, DecodePlan[] plans) {
+            this.schemaVersionId = schemaVersionId;
+            this.plans = plans;
+        }
+    }
+}
@@ -18,22 +18,18 @@ package com.hortonworks.registries.schemaregistry.serdes.avro;
 import com.hortonworks.registries.schemaregistry.serdes.avro.exceptions.AvroException;
 import com.hortonworks.registries.schemaregistry.serdes.avro.exceptions.AvroRetryableException;
 import org.apache.avro.Schema;
-import org.apache.avro.generic.GenericDatumReader;
-import org.apache.avro.generic.GenericDatumWriter;
 import org.apache.avro.io.BinaryEncoder;
 import org.apache.avro.io.DatumReader;
 import org.apache.avro.io.DatumWriter;
-import org.apache.avro.io.DecoderFactory;
-import org.apache.avro.io.EncoderFactory;
 import org.apache.avro.specific.SpecificData;
-import org.apache.avro.specific.SpecificDatumReader;
-import org.apache.avro.specific.SpecificDatumWriter;
 import org.apache.avro.specific.SpecificRecord;
 import org.apache.commons.io.IOUtils;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -42,6 +38,7 @@ import java.util.concurrent.ConcurrentHashMap;
  */
 public class DefaultAvroSerDesHandler implements AvroSerDesHandler {
     private final Map<String, Schema> readerSchemaCache = new ConcurrentHashMap<>();
+    private final AvroDatumCache avroDatumCache = new AvroDatumCache(this::getReaderSchema);
 
     @Override
     public void handlePayloadSerialization(OutputStream outputStream, Object input) {
@@ -56,14 +53,8 @@ public class DefaultAvroSerDesHandler implements AvroSerDesHandler {
                 // get UTF-8 bytes and directly send those over instead of using avro.
                 outputStream.write(input.toString().getBytes("UTF-8"));
             } else {
-                BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(outputStream, null);
-                DatumWriter<Object> writer;
-                boolean isSpecificRecord = input instanceof SpecificRecord;
-                if (isSpecificRecord) {
-                    writer = new SpecificDatumWriter<>(schema);
-                } else {
-                    writer = new GenericDatumWriter<>(schema);
-                }
+                BinaryEncoder encoder = AvroDatumCache.binaryEncoder(outputStream);
+                DatumWriter<Object> writer = avroDatumCache.getDatumWriter(schema, input instanceof SpecificRecord);
 
                 writer.write(input, encoder);
                 encoder.flush();
@@ -90,8 +81,8 @@ public class DefaultAvroSerDesHandler implements AvroSerDesHandler {
                 // generate UTF-8 string object from the received bytes.
                 deserializedObj = new String(IOUtils.toByteArray(payloadInputStream), AvroUtils.UTF_8);
             } else {
-                DatumReader datumReader = getDatumReader(writerSchema, readerSchema, useSpecificAvroReader);
-                deserializedObj = datumReader.read(null, DecoderFactory.get().binaryDecoder(payloadInputStream, null));
+                DatumReader<Object> datumReader = avroDatumCache.getDatumReader(writerSchema, readerSchema, useSpecificAvroReader);
+                deserializedObj = datumReader.read(null, AvroDatumCache.binaryDecoder(payloadInputStream));
             }
         } catch (IOException e) {
             throw new AvroRetryableException(e);
@@ -101,16 +92,39 @@ public class DefaultAvroSerDesHandler implements AvroSerDesHandler {
         return deserializedObj;
     }
 
-    private DatumReader getDatumReader(Schema writerSchema, Schema readerSchema, boolean useSpecificAvroReader) {
-        if (useSpecificAvroReader) {
-            if (readerSchema == null) {
-                readerSchema = this.getReaderSchema(writerSchema);
-            }
+    @Override
+    public Object handlePayloadDeserialization(ByteBuffer payloadBuffer,
+                                               Schema writerSchema,
+                                               Schema readerSchema,
+                                               boolean useSpecificAvroReader) {
+        if (!payloadBuffer.hasArray()) {
+            return AvroSerDesHandler.super.handlePayloadDeserialization(payloadBuffer, writerSchema, readerSchema, useSpecificAvroReader);
+        }
 
-            return new SpecificDatumReader(writerSchema, readerSchema);
-        } else {
-            return readerSchema == null ? new GenericDatumReader(writerSchema) : new GenericDatumReader(writerSchema, readerSchema);
+        byte[] bytes = payloadBuffer.array();
+        int offset = payloadBuffer.arrayOffset() + payloadBuffer.position();
+        int length = payloadBuffer.remaining();
+        Object deserializedObj;
+        Schema.Type writerSchemaType = writerSchema.getType();
+        try {
+            if (Schema.Type.BYTES.equals(writerSchemaType)) {
+                // serializer writes byte array directly without going through avro encoder layers.
+                deserializedObj = Arrays.copyOfRange(bytes, offset, offset + length);
+            } else if (Schema.Type.STRING.equals(writerSchemaType)) {
+                // generate UTF-8 string object from the received bytes.
+                deserializedObj = new String(bytes, offset, length, AvroUtils.UTF_8);
+            } else {
+                DatumReader<Object> datumReader = avroDatumCache.getDatumReader(writerSchema, readerSchema, useSpecificAvroReader);
+                deserializedObj = datumReader.read(null, AvroDatumCache.binaryDecoder(bytes, offset, length));
+            }
+        } catch (IOException e) {
+            throw new AvroRetryableException(e);
+        } catch (Exception e) {
+            throw new AvroException(e);
         }
+        payloadBuffer.position(payloadBuffer.limit());
+
+        return deserializedObj;
     }
 
     private Schema getReaderSchema(Schema writerSchema) {
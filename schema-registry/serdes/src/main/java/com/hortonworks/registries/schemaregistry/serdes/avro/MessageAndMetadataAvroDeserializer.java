@@ -19,13 +19,11 @@ package com.hortonworks.registries.schemaregistry.serdes.avro;
 
 import com.hortonworks.registries.schemaregistry.SchemaIdVersion;
 import com.hortonworks.registries.schemaregistry.SchemaMetadata;
-import com.hortonworks.registries.schemaregistry.SchemaVersionInfo;
 import com.hortonworks.registries.schemaregistry.client.ISchemaRegistryClient;
-import com.hortonworks.registries.schemaregistry.exceptions.RegistryException;
 import com.hortonworks.registries.schemaregistry.serde.SerDesException;
 import com.hortonworks.registries.schemaregistry.serdes.avro.exceptions.AvroException;
 
-import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
 
 public class MessageAndMetadataAvroDeserializer extends AbstractAvroSnapshotDeserializer<MessageAndMetadata> {
 
@@ -36,32 +34,21 @@ public class MessageAndMetadataAvroDeserializer extends AbstractAvroSnapshotDese
         super(schemaRegistryClient);
     }
 
-    @Override
-    public Object deserialize(MessageAndMetadata context,
-                              Integer readerSchemaVersion) throws SerDesException {
-        byte protocolId = retrieveProtocolId(context);
-        SchemaIdVersion schemaIdVersion = retrieveSchemaIdVersion(protocolId, context);
-        SchemaMetadata schemaMetadata;
-        SchemaVersionInfo schemaVersionInfo;
-        try {
-            schemaVersionInfo = schemaRegistryClient.getSchemaVersionInfo(schemaIdVersion);
-            schemaMetadata = schemaRegistryClient.getSchemaMetadataInfo(schemaVersionInfo.getName()).getSchemaMetadata();
-        } catch (Exception e) {
-            throw new RegistryException(e);
-        }
-        return doDeserialize(context, protocolId, schemaMetadata, schemaVersionInfo.getVersion(), readerSchemaVersion);
-    }
-
     @Override
     protected Object doDeserialize(MessageAndMetadata context,
                                    byte protocolId,
                                    SchemaMetadata schemaMetadata,
                                    Integer writerSchemaVersion,
                                    Integer readerSchemaVersion) throws SerDesException {
-        return buildDeserializedObject(protocolId, new ByteArrayInputStream(context.payload()), schemaMetadata,
+        return buildDeserializedObject(protocolId, ByteBuffer.wrap(context.payload()), schemaMetadata,
                 writerSchemaVersion, readerSchemaVersion);
     }
 
+    @Override
+    protected Object doDeserialize(MessageAndMetadata context, DecodePlan decodePlan) throws SerDesException {
+        return decodePlan.deserialize(ByteBuffer.wrap(context.payload()));
+    }
+
     @Override
     protected byte retrieveProtocolId(MessageAndMetadata context) throws SerDesException {
         final byte[] metadata = context.metadata();
@@ -81,7 +68,7 @@ public class MessageAndMetadataAvroDeserializer extends AbstractAvroSnapshotDese
         final byte[] metadata = context.metadata();
         return SerDesProtocolHandlerRegistry.get()
                 .getSerDesProtocolHandler(protocolId)
-                .handleSchemaVersionDeserialization(new ByteArrayInputStream(metadata, 1, metadata.length));
+                .handleSchemaVersionDeserialization(ByteBuffer.wrap(metadata, 1, metadata.length - 1));
     }
 
 }
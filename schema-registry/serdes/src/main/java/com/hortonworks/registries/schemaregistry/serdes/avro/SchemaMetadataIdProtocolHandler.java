@@ -64,4 +64,18 @@ public class SchemaMetadataIdProtocolHandler extends AbstractAvroSerDesProtocolH
         return new SchemaIdVersion(schemaMetadataId, schemaVersion);
     }
 
+    @Override
+    public SchemaIdVersion handleSchemaVersionDeserialization(ByteBuffer byteBuffer) {
+        // 8 bytes : schema metadata Id
+        // 4 bytes : schema version
+        if (byteBuffer.remaining() < 12) {
+            throw insufficientBytesException(byteBuffer, 12);
+        }
+
+        long schemaMetadataId = getBigEndianLong(byteBuffer);
+        int schemaVersion = getBigEndianInt(byteBuffer);
+
+        return new SchemaIdVersion(schemaMetadataId, schemaVersion);
+    }
+
 }
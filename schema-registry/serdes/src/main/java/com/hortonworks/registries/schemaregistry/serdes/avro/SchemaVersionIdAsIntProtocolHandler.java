@@ -77,4 +77,14 @@ public class SchemaVersionIdAsIntProtocolHandler extends AbstractAvroSerDesProto
         return new SchemaIdVersion((long) schemaVersionId);
     }
 
+    @Override
+    public SchemaIdVersion handleSchemaVersionDeserialization(ByteBuffer byteBuffer) {
+        if (byteBuffer.remaining() < 4) {
+            throw insufficientBytesException(byteBuffer, 4);
+        }
+
+        int schemaVersionId = getBigEndianInt(byteBuffer);
+        return new SchemaIdVersion((long) schemaVersionId);
+    }
+
 }
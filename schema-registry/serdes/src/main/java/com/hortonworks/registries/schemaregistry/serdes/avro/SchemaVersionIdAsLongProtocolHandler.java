@@ -57,6 +57,16 @@ public class SchemaVersionIdAsLongProtocolHandler extends AbstractAvroSerDesProt
         return new SchemaIdVersion(byteBuffer.getLong());
     }
 
+    @Override
+    public SchemaIdVersion handleSchemaVersionDeserialization(ByteBuffer byteBuffer) {
+        if (byteBuffer.remaining() < 8) {
+            throw insufficientBytesException(byteBuffer, 8);
+        }
+
+        long schemaVersionId = getBigEndianLong(byteBuffer);
+        return new SchemaIdVersion(schemaVersionId);
+    }
+
     public Byte getProtocolId() {
         return protocolId;
     }
@@ -17,16 +17,22 @@ package com.hortonworks.registries.schemaregistry.serdes.avro.kafka;
 
 import com.hortonworks.registries.schemaregistry.client.ISchemaRegistryClient;
 import com.hortonworks.registries.schemaregistry.serdes.Utils;
-import com.hortonworks.registries.schemaregistry.serdes.avro.AvroSnapshotDeserializer;
+import com.hortonworks.registries.schemaregistry.serdes.avro.ByteBufferAvroSnapshotDeserializer;
 import com.hortonworks.registries.schemaregistry.serdes.avro.MessageAndMetadata;
 import com.hortonworks.registries.schemaregistry.serdes.avro.MessageAndMetadataAvroDeserializer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.common.header.Header;
 import org.apache.kafka.common.header.Headers;
 import org.apache.kafka.common.serialization.Deserializer;
 
-import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
 
 /**
  * This class can be configured as key or value deserializer for kafka consumer. This can be used like below with kafka consumers.
@@ -90,18 +96,18 @@ public class KafkaAvroDeserializer implements Deserializer<Object> {
     private boolean isKey;
     private Map<String, Integer> readerVersions;
 
-    private final AvroSnapshotDeserializer avroSnapshotDeserializer;
+    private final ByteBufferAvroSnapshotDeserializer avroSnapshotDeserializer;
     private final MessageAndMetadataAvroDeserializer messageAndMetadataAvroDeserializer;
     private String keySchemaVersionIdHeaderName;
     private String valueSchemaVersionIdHeaderName;
 
     public KafkaAvroDeserializer() {
-        avroSnapshotDeserializer = new AvroSnapshotDeserializer();
+        avroSnapshotDeserializer = new ByteBufferAvroSnapshotDeserializer();
         messageAndMetadataAvroDeserializer = new MessageAndMetadataAvroDeserializer();
     }
 
     public KafkaAvroDeserializer(ISchemaRegistryClient schemaRegistryClient) {
-        avroSnapshotDeserializer = new AvroSnapshotDeserializer(schemaRegistryClient);
+        avroSnapshotDeserializer = new ByteBufferAvroSnapshotDeserializer(schemaRegistryClient);
         messageAndMetadataAvroDeserializer = new MessageAndMetadataAvroDeserializer(schemaRegistryClient);
     }
 
@@ -128,18 +134,110 @@ public class KafkaAvroDeserializer implements Deserializer<Object> {
 
     @Override
     public Object deserialize(String topic, byte[] data) {
-        return avroSnapshotDeserializer.deserialize(new ByteArrayInputStream(data), readerVersions.get(topic));
+        return deserialize(topic, ByteBuffer.wrap(data));
+    }
+
+    /**
+     * Deserializes the remaining bytes of the given buffer which contain protocol id, schema version and payload
+     * without copying them.
+     *
+     * @param topic topic associated with the data
+     * @param data  serialized bytes
+     * @return deserialized object
+     */
+    public Object deserialize(String topic, ByteBuffer data) {
+        return avroSnapshotDeserializer.deserialize(data, readerVersions.get(topic));
     }
 
     @Override
     public Object deserialize(String topic, Headers headers, byte[] data) {
-        if (headers != null) {
-            final Header header = headers.lastHeader(isKey ? keySchemaVersionIdHeaderName : valueSchemaVersionIdHeaderName);
+        final Header header = getSchemaVersionIdHeader(headers);
+        if (header != null) {
+            return messageAndMetadataAvroDeserializer.deserialize(new MessageAndMetadata(header.value(), data), readerVersions.get(topic));
+        }
+        return deserialize(topic, data);
+    }
+
+    /**
+     * Deserializes all the given records of a topic. Records are grouped by their schema version, so that the schema
+     * of each version is resolved once and the records of a group are decoded together.
+     *
+     * @param topic topic associated with the data
+     * @param data  serialized bytes of the records
+     * @return deserialized objects in the same order as the given records
+     */
+    public List<Object> deserializeAll(String topic, List<byte[]> data) {
+        return deserializeAll(topic, data, null);
+    }
+
+    /**
+     * Deserializes all the given records of a topic like {@link #deserializeAll(String, List)}. When an
+     * {@code executor} is given, records with different schema versions are decoded in parallel on it.
+     *
+     * @param topic    topic associated with the data
+     * @param data     serialized bytes of the records
+     * @param executor executor to decode records in parallel, it can be null
+     * @return deserialized objects in the same order as the given records
+     */
+    public List<Object> deserializeAll(String topic, List<byte[]> data, Executor executor) {
+        List<ByteBuffer> payloads = new ArrayList<>(data.size());
+        for (byte[] bytes : data) {
+            payloads.add(ByteBuffer.wrap(bytes));
+        }
+        return avroSnapshotDeserializer.deserializeAll(payloads, readerVersions.get(topic), executor);
+    }
+
+    /**
+     * Deserializes the keys or values, as configured with {@link #configure(Map, boolean)}, of all the given consumer
+     * records like {@link #deserialize(String, Headers, byte[])}. Records are grouped by topic, by whether their schema
+     * version is stored in a header and by schema version, so that the schema of each version is resolved once and the
+     * records of a group are decoded together. When an {@code executor} is given, groups are decoded in parallel on it.
+     *
+     * @param records  records received from kafka, for example a {@code ConsumerRecords} instance
+     * @param executor executor to decode records in parallel, it can be null
+     * @return deserialized objects in the same order as the given records
+     */
+    public List<Object> deserializeAll(Iterable<ConsumerRecord<byte[], byte[]>> records, Executor executor) {
+        Map<String, TopicRecords> recordsByTopic = new LinkedHashMap<>();
+        int count = 0;
+        for (ConsumerRecord<byte[], byte[]> record : records) {
+            TopicRecords topicRecords = recordsByTopic.computeIfAbsent(record.topic(), topic -> new TopicRecords());
+            byte[] data = isKey ? record.key() : record.value();
+            Header header = getSchemaVersionIdHeader(record.headers());
             if (header != null) {
-                return messageAndMetadataAvroDeserializer.deserialize(new MessageAndMetadata(header.value(), data), readerVersions.get(topic));
+                topicRecords.messageIndexes.add(count++);
+                topicRecords.messages.add(new MessageAndMetadata(header.value(), data));
+            } else {
+                topicRecords.payloadIndexes.add(count++);
+                topicRecords.payloads.add(ByteBuffer.wrap(data));
             }
         }
-        return deserialize(topic, data);
+
+        Object[] results = new Object[count];
+        for (Map.Entry<String, TopicRecords> entry : recordsByTopic.entrySet()) {
+            Integer readerVersion = readerVersions.get(entry.getKey());
+            TopicRecords topicRecords = entry.getValue();
+            if (!topicRecords.payloads.isEmpty()) {
+                List<Object> deserialized = avroSnapshotDeserializer.deserializeAll(topicRecords.payloads, readerVersion, executor);
+                setResults(results, topicRecords.payloadIndexes, deserialized);
+            }
+            if (!topicRecords.messages.isEmpty()) {
+                List<Object> deserialized = messageAndMetadataAvroDeserializer.deserializeAll(topicRecords.messages, readerVersion, executor);
+                setResults(results, topicRecords.messageIndexes, deserialized);
+            }
+        }
+
+        return Arrays.asList(results);
+    }
+
+    private static void setResults(Object[] results, List<Integer> indexes, List<Object> deserialized) {
+        for (int i = 0; i < indexes.size(); i++) {
+            results[indexes.get(i)] = deserialized.get(i);
+        }
+    }
+
+    private Header getSchemaVersionIdHeader(Headers headers) {
+        return headers != null ? headers.lastHeader(isKey ? keySchemaVersionIdHeaderName : valueSchemaVersionIdHeaderName) : null;
     }
 
     @Override
@@ -150,4 +248,11 @@ public class KafkaAvroDeserializer implements Deserializer<Object> {
             throw new RuntimeException(e);
         }
     }
+
+    private static final class TopicRecords {
+        private final List<Integer> payloadIndexes = new ArrayList<>();
+        private final List<ByteBuffer> payloads = new ArrayList<>();
+        private final List<Integer> messageIndexes = new ArrayList<>();
+        private final List<MessageAndMetadata> messages = new ArrayList<>();
+    }
 }
@@ -16,9 +16,11 @@ package com.hortonworks.registries.schemaregistry.avro;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hortonworks.registries.schemaregistry.AggregatedSchemaBranch;
 import com.hortonworks.registries.schemaregistry.AggregatedSchemaMetadataInfo;
 import com.hortonworks.registries.schemaregistry.DefaultSchemaRegistry;
 import com.hortonworks.registries.schemaregistry.HAServerNotificationManager;
+import com.hortonworks.registries.schemaregistry.SchemaBranch;
 import com.hortonworks.registries.schemaregistry.SchemaCompatibility;
 import com.hortonworks.registries.schemaregistry.SchemaIdVersion;
 import com.hortonworks.registries.schemaregistry.SchemaMetadata;
@@ -26,10 +28,13 @@ import com.hortonworks.registries.schemaregistry.SchemaMetadataInfo;
 import com.hortonworks.registries.schemaregistry.SchemaVersion;
 import com.hortonworks.registries.schemaregistry.SchemaVersionInfo;
 import com.hortonworks.registries.schemaregistry.SchemaVersionKey;
+import com.hortonworks.registries.schemaregistry.SerDesInfo;
+import com.hortonworks.registries.schemaregistry.SerDesPair;
 import com.hortonworks.registries.schemaregistry.errors.IncompatibleSchemaException;
 import com.hortonworks.registries.schemaregistry.errors.InvalidSchemaException;
 import com.hortonworks.registries.schemaregistry.errors.SchemaBranchNotFoundException;
 import com.hortonworks.registries.schemaregistry.errors.SchemaNotFoundException;
+import com.hortonworks.registries.schemaregistry.locks.Lock;
 import com.hortonworks.registries.schemaregistry.locks.SchemaLockManager;
 import com.hortonworks.registries.storage.NOOPTransactionManager;
 import com.hortonworks.registries.storage.StorageManager;
@@ -44,11 +49,16 @@ import org.junit.rules.TestName;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
 /**
  *
@@ -158,6 +168,100 @@ public class AvroSchemaRegistryTest {
                         new TypeReference<Collection<AggregatedSchemaMetadataInfo>>() {});
     }
 
+    @Test
+    public void testAggregatedSchemaMetadataWithBranchesAndSerDes() throws Exception {
+        SchemaMetadata schemaMetadata = createSchemaInfo(TEST_NAME_RULE.getMethodName(), SchemaCompatibility.BACKWARD);
+        SchemaIdVersion v1 = schemaRegistry.addSchemaVersion(schemaMetadata, new SchemaVersion(schema1, "initial version of the schema"));
+        schemaRegistry.addSchemaVersion(schemaMetadata.getName(), new SchemaVersion(schema2, "second version of the schema"));
+        SchemaBranch schemaBranch = schemaRegistry.createSchemaBranch(v1.getSchemaVersionId(), new SchemaBranch("branch", schemaMetadata.getName()));
+        schemaRegistry.addSchemaVersion(schemaBranch.getName(), schemaMetadata, new SchemaVersion(schema2, "branch version of the schema"), false);
+        Long serDesId = schemaRegistry.addSerDes(new SerDesPair("serdes", "serdes", "file", "serializer", "deserializer"));
+        schemaRegistry.mapSchemaWithSerDes(schemaMetadata.getName(), serDesId);
+        registerSchemaVersion("other", schema1);
+
+        Map<String, AggregatedSchemaMetadataInfo> aggregatedSchemaMetadataInfos = new HashMap<>();
+        schemaRegistry.findAggregatedSchemaMetadata(Collections.emptyMap())
+                      .forEach(x -> aggregatedSchemaMetadataInfos.put(x.getSchemaMetadata().getName(), x));
+        Assert.assertEquals(2, aggregatedSchemaMetadataInfos.size());
+
+        AggregatedSchemaMetadataInfo aggregatedSchemaMetadataInfo = aggregatedSchemaMetadataInfos.get(schemaMetadata.getName());
+        Assert.assertEquals(Collections.singletonList(serDesId),
+                            aggregatedSchemaMetadataInfo.getSerDesInfos().stream().map(SerDesInfo::getId).collect(Collectors.toList()));
+        Assert.assertTrue(aggregatedSchemaMetadataInfos.get("other-schema").getSerDesInfos().isEmpty());
+
+        // branches and versions should be the same as the ones looked up branch by branch
+        Map<String, AggregatedSchemaBranch> expectedBranches = new HashMap<>();
+        schemaRegistry.getAggregatedSchemaBranch(schemaMetadata.getName())
+                      .forEach(x -> expectedBranches.put(x.getSchemaBranch().getName(), x));
+        Assert.assertEquals(2, aggregatedSchemaMetadataInfo.getSchemaBranches().size());
+        for (AggregatedSchemaBranch aggregatedSchemaBranch : aggregatedSchemaMetadataInfo.getSchemaBranches()) {
+            AggregatedSchemaBranch expected = expectedBranches.get(aggregatedSchemaBranch.getSchemaBranch().getName());
+            Assert.assertEquals(expected.getSchemaBranch(), aggregatedSchemaBranch.getSchemaBranch());
+            Assert.assertEquals(expected.getRootSchemaVersion(), aggregatedSchemaBranch.getRootSchemaVersion());
+            Assert.assertEquals(new ArrayList<>(expected.getSchemaVersionInfos()),
+                                new ArrayList<>(aggregatedSchemaBranch.getSchemaVersionInfos()));
+        }
+        Assert.assertEquals(v1.getSchemaVersionId(), expectedBranches.get("branch").getRootSchemaVersion());
+    }
+
+    @Test
+    public void testGetSchemaVersionInfos() throws Exception {
+        SchemaMetadata schemaMetadata = createSchemaInfo(TEST_NAME_RULE.getMethodName(), SchemaCompatibility.BACKWARD);
+        SchemaIdVersion v1 = schemaRegistry.addSchemaVersion(schemaMetadata, new SchemaVersion(schema1, "initial version of the schema"));
+        SchemaIdVersion v2 = schemaRegistry.addSchemaVersion(schemaMetadata.getName(), new SchemaVersion(schema2, "second version of the schema"));
+        // cached version
+        SchemaVersionInfo v1Info = schemaRegistry.getSchemaVersionInfo(v1);
+
+        Collection<SchemaVersionInfo> schemaVersionInfos =
+                schemaRegistry.getSchemaVersionInfos(Arrays.asList(v2.getSchemaVersionId(), Long.MAX_VALUE, v1.getSchemaVersionId(),
+                                                                   v2.getSchemaVersionId()));
+
+        // in the order of the given ids, without duplicates and unknown ids
+        Assert.assertEquals(Arrays.asList(schemaRegistry.getSchemaVersionInfo(v2), v1Info), new ArrayList<>(schemaVersionInfos));
+    }
+
+    @Test
+    public void testAddExistingSchemaVersionWithoutSchemaLock() throws Exception {
+        AtomicInteger writeLocks = new AtomicInteger();
+        SchemaLockManager schemaLockManager = new SchemaLockManager(new NOOPTransactionManager()) {
+            @Override
+            public Lock getWriteLock(String lockName) {
+                writeLocks.incrementAndGet();
+                return super.getWriteLock(lockName);
+            }
+        };
+        Collection<Map<String, Object>> schemaProvidersConfig = Collections.singleton(Collections.singletonMap("providerClass", AvroSchemaProvider.class.getName()));
+        DefaultSchemaRegistry registry = new DefaultSchemaRegistry(new InMemoryStorageManager(), null, schemaProvidersConfig, new HAServerNotificationManager(), schemaLockManager);
+        registry.init(Collections.<String, Object>emptyMap());
+
+        SchemaMetadata schemaMetadata = new SchemaMetadata.Builder(schemaName)
+                .type(AvroSchemaProvider.TYPE)
+                .compatibility(SchemaCompatibility.BACKWARD)
+                .schemaGroup(SCHEMA_GROUP).build();
+        registry.registerSchemaMetadata(schemaMetadata);
+
+        // a new schema text is added under the schema lock
+        int locksBefore = writeLocks.get();
+        SchemaIdVersion v1 = registry.addSchemaVersion(schemaMetadata, new SchemaVersion(schema1, "initial version"));
+        Assert.assertEquals(locksBefore + 1, writeLocks.get());
+
+        // registering the same text again with any of the overloads returns the existing version without the lock
+        locksBefore = writeLocks.get();
+        Assert.assertEquals(v1, registry.addSchemaVersion(schemaMetadata, new SchemaVersion(schema1, "again")));
+        Assert.assertEquals(v1, registry.addSchemaVersion(SchemaBranch.MASTER_BRANCH, schemaMetadata, new SchemaVersion(schema1, "again")));
+        Assert.assertEquals(v1, registry.addSchemaVersion(schemaName, new SchemaVersion(schema1, "again")));
+        Assert.assertEquals(v1, registry.addSchemaVersion(SchemaBranch.MASTER_BRANCH, schemaName, new SchemaVersion(schema1, "again")));
+        Assert.assertEquals(locksBefore, writeLocks.get());
+        Assert.assertEquals(1, registry.getAllVersions(schemaName).size());
+
+        // another text takes the lock and gets the next version
+        SchemaIdVersion v2 = registry.addSchemaVersion(schemaName, new SchemaVersion(schema2, "second version"));
+        Assert.assertEquals(locksBefore + 1, writeLocks.get());
+        Assert.assertEquals(Integer.valueOf(v1.getVersion() + 1), v2.getVersion());
+        Assert.assertEquals(v1.getSchemaMetadataId(), v2.getSchemaMetadataId());
+        Assert.assertNotEquals(v1.getSchemaVersionId(), v2.getSchemaVersionId());
+    }
+
     @Test
     public void testNonExistingSchemaMetadata() {
         SchemaMetadataInfo schemaMetadataInfo = schemaRegistry.getSchemaMetadataInfo(INVALID_SCHEMA_METADATA_KEY);
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2016-2019 Cloudera, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hortonworks.registries.schemaregistry.avro.serdes;
+
+import com.hortonworks.registries.schemaregistry.serdes.avro.AvroDatumCache;
+import com.hortonworks.registries.schemaregistry.serdes.avro.DefaultAvroSerDesHandler;
+import com.hortonworks.registries.serdes.Device;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericRecord;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+/**
+ *
+ */
+public class AvroDatumCacheTest {
+
+    @Test
+    public void testReadersAndWritersAreReused() {
+        AvroDatumCache avroDatumCache = new AvroDatumCache(schema -> Device.getClassSchema());
+        Schema schema = Device.getClassSchema();
+        Schema copy = new Schema.Parser().parse(schema.toString());
+
+        Assert.assertSame(avroDatumCache.getDatumReader(schema, null, false),
+                          avroDatumCache.getDatumReader(copy, null, false));
+        Assert.assertNotSame(avroDatumCache.getDatumReader(schema, null, false),
+                             avroDatumCache.getDatumReader(schema, null, true));
+        Assert.assertNotSame(avroDatumCache.getDatumReader(schema, null, false),
+                             avroDatumCache.getDatumReader(schema, schema, false));
+        Assert.assertSame(avroDatumCache.getDatumWriter(schema, true),
+                          avroDatumCache.getDatumWriter(copy, true));
+        Assert.assertNotSame(avroDatumCache.getDatumWriter(schema, true),
+                             avroDatumCache.getDatumWriter(schema, false));
+    }
+
+    @Test
+    public void testSerDesWithCachedReadersAndWriters() {
+        DefaultAvroSerDesHandler serDesHandler = new DefaultAvroSerDesHandler();
+        for (int i = 0; i < 3; i++) {
+            Device device = new Device((long) i, "device-" + i, i, System.currentTimeMillis());
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            serDesHandler.handlePayloadSerialization(outputStream, device);
+            byte[] payload = outputStream.toByteArray();
+
+            Object specificRecord = serDesHandler.handlePayloadDeserialization(new ByteArrayInputStream(payload),
+                                                                              device.getSchema(), null, true);
+            Assert.assertEquals(device, specificRecord);
+
+            GenericRecord genericRecord = (GenericRecord) serDesHandler.handlePayloadDeserialization(new ByteArrayInputStream(payload),
+                                                                                                    device.getSchema(), null, false);
+            Assert.assertEquals(device.getName().toString(), genericRecord.get("name").toString());
+        }
+    }
+}
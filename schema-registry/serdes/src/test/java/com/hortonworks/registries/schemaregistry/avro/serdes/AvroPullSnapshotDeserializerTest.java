@@ -0,0 +1,163 @@
+/*
+ * Copyright 2016-2019 Cloudera, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hortonworks.registries.schemaregistry.avro.serdes;
+
+import com.hortonworks.registries.schemaregistry.client.ISchemaRegistryClient;
+import com.hortonworks.registries.schemaregistry.client.MockSchemaRegistryClient;
+import com.hortonworks.registries.schemaregistry.serde.pull.PullEventContext;
+import com.hortonworks.registries.schemaregistry.serdes.avro.AbstractAvroSnapshotSerializer;
+import com.hortonworks.registries.schemaregistry.serdes.avro.AvroPullDeserializer;
+import com.hortonworks.registries.schemaregistry.serdes.avro.AvroPullSnapshotDeserializer;
+import com.hortonworks.registries.schemaregistry.serdes.avro.SerDesProtocolHandlerRegistry;
+import com.hortonworks.registries.schemaregistry.serdes.avro.kafka.KafkaAvroSerializer;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.generic.GenericRecordBuilder;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ *
+ */
+public class AvroPullSnapshotDeserializerTest {
+
+    private static final String TOPIC = "pull-topic";
+
+    private final Schema nestedSchema = SchemaBuilder.record("Nested").fields()
+                                                     .requiredString("id")
+                                                     .optionalDouble("value")
+                                                     .endRecord();
+    private final Schema schema = SchemaBuilder.record("WideRecord").namespace("com.hortonworks.registries.serdes").fields()
+                                               .requiredLong("id")
+                                               .name("nested").type(nestedSchema).noDefault()
+                                               .name("tags").type().array().items().stringType().noDefault()
+                                               .name("attributes").type().map().values().intType().noDefault()
+                                               .optionalString("name")
+                                               .name("payload").type().bytesType().noDefault()
+                                               .requiredInt("count")
+                                               .optionalLong("timestamp")
+                                               .endRecord();
+
+    private ISchemaRegistryClient schemaRegistryClient;
+    private GenericRecord record;
+
+    @Before
+    public void setup() {
+        schemaRegistryClient = new MockSchemaRegistryClient();
+
+        Map<String, Integer> attributes = new HashMap<>();
+        attributes.put("a", 1);
+        attributes.put("b", 2);
+        record = new GenericRecordBuilder(schema)
+                .set("id", 42L)
+                .set("nested", new GenericRecordBuilder(nestedSchema).set("id", "nested-id").set("value", 1.5).build())
+                .set("tags", new GenericData.Array<>(schema.getField("tags").schema(), Arrays.asList("x", "y", "z")))
+                .set("attributes", attributes)
+                .set("name", "wide")
+                .set("payload", ByteBuffer.wrap(new byte[]{1, 2, 3}))
+                .set("count", 7)
+                .set("timestamp", 1561013215000L)
+                .build();
+    }
+
+    @Test
+    public void testProjectedFieldsForAllProtocols() throws Exception {
+        for (Byte protocolId : SerDesProtocolHandlerRegistry.get().getRegisteredSerDesProtocolHandlers().keySet()) {
+            byte[] payload = serialize(protocolId);
+
+            AvroPullSnapshotDeserializer deserializer = new AvroPullSnapshotDeserializer(schemaRegistryClient);
+            deserializer.init(Collections.singletonMap(AvroPullSnapshotDeserializer.PROJECTED_FIELDS, "count, name"));
+
+            Map<String, Object> fields = pullFields(deserializer.deserialize(ByteBuffer.wrap(payload), null));
+            Assert.assertEquals(Arrays.asList("name", "count"), Arrays.asList(fields.keySet().toArray()));
+            Assert.assertEquals("wide", fields.get("name").toString());
+            Assert.assertEquals(7, fields.get("count"));
+            deserializer.close();
+        }
+    }
+
+    @Test
+    public void testAllFieldsWithoutProjection() throws Exception {
+        AvroPullSnapshotDeserializer deserializer = new AvroPullSnapshotDeserializer(schemaRegistryClient);
+        deserializer.init(Collections.emptyMap());
+
+        Map<String, Object> fields = pullFields(deserializer.deserialize(ByteBuffer.wrap(serialize(SerDesProtocolHandlerRegistry.CURRENT_PROTOCOL)), null));
+        Assert.assertEquals(schema.getFields().size(), fields.size());
+        Assert.assertEquals(42L, fields.get("id"));
+        Assert.assertEquals("nested-id", ((GenericRecord) fields.get("nested")).get("id").toString());
+        Assert.assertEquals(3, ((GenericData.Array<?>) fields.get("tags")).size());
+        Assert.assertEquals(2, ((Map<?, ?>) fields.get("attributes")).size());
+        Assert.assertEquals(ByteBuffer.wrap(new byte[]{1, 2, 3}), fields.get("payload"));
+        Assert.assertEquals(1561013215000L, fields.get("timestamp"));
+        deserializer.close();
+    }
+
+    @Test
+    public void testUnreadFieldValuesAreSkipped() throws Exception {
+        AvroPullSnapshotDeserializer deserializer = new AvroPullSnapshotDeserializer(schemaRegistryClient);
+        deserializer.init(Collections.singletonMap(AvroPullSnapshotDeserializer.PROJECTED_FIELDS, Arrays.asList("nested", "attributes", "timestamp")));
+
+        AvroPullDeserializer pullDeserializer = deserializer.deserialize(ByteBuffer.wrap(serialize(SerDesProtocolHandlerRegistry.CURRENT_PROTOCOL)), null);
+        Assert.assertTrue(pullDeserializer.next().startRecord());
+        PullEventContext.FieldValue<Schema.Field> nested = pullDeserializer.next().fieldValue();
+        Assert.assertEquals("nested", nested.field().name());
+        Assert.assertEquals("attributes", pullDeserializer.next().fieldValue().field().name());
+        PullEventContext<Schema.Field> timestamp = pullDeserializer.next();
+        Assert.assertEquals(1561013215000L, timestamp.fieldValue().value());
+        Assert.assertTrue(pullDeserializer.next().endRecord());
+        Assert.assertFalse(pullDeserializer.hasNext());
+
+        try {
+            nested.value();
+            Assert.fail("Value of a skipped field should not be readable");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        deserializer.close();
+    }
+
+    private byte[] serialize(byte protocolId) {
+        KafkaAvroSerializer serializer = new KafkaAvroSerializer(schemaRegistryClient);
+        serializer.configure(Collections.singletonMap(AbstractAvroSnapshotSerializer.SERDES_PROTOCOL_VERSION, protocolId), false);
+        return serializer.serialize(TOPIC, record);
+    }
+
+    private Map<String, Object> pullFields(AvroPullDeserializer pullDeserializer) {
+        Assert.assertEquals(schema, pullDeserializer.schema());
+        Map<String, Object> fields = new LinkedHashMap<>();
+        boolean ended = false;
+        while (pullDeserializer.hasNext()) {
+            PullEventContext<Schema.Field> context = pullDeserializer.next();
+            if (context.endField()) {
+                fields.put(context.fieldValue().field().name(), context.fieldValue().value());
+            } else if (context.endRecord()) {
+                ended = true;
+            }
+        }
+        Assert.assertTrue(ended);
+        return fields;
+    }
+}
@@ -24,6 +24,7 @@ import com.hortonworks.registries.schemaregistry.SchemaBranch;
 import com.hortonworks.registries.schemaregistry.SchemaFieldQuery;
 import com.hortonworks.registries.schemaregistry.SchemaIdVersion;
 import com.hortonworks.registries.schemaregistry.SchemaMetadata;
+import com.hortonworks.registries.schemaregistry.Page;
 import com.hortonworks.registries.schemaregistry.SchemaMetadataInfo;
 import com.hortonworks.registries.schemaregistry.SchemaProviderInfo;
 import com.hortonworks.registries.schemaregistry.SchemaVersion;
@@ -93,6 +94,11 @@ public class MockSchemaRegistryClient implements ISchemaRegistryClient {
         return schemaRegistry.addSchemaMetadata(schemaMetadata);
     }
 
+    @Override
+    public Page<SchemaMetadataInfo> listSchemas(String continuationToken, int pageSize) {
+        return schemaRegistry.listSchemas(continuationToken, pageSize);
+    }
+
     @Override
     public SchemaMetadataInfo updateSchemaMetadata(String schemaName, SchemaMetadata schemaMetadata) {
         return schemaRegistry.updateSchemaMetadata(schemaName, schemaMetadata);
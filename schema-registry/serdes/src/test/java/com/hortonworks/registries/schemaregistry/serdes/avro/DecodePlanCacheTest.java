@@ -0,0 +1,115 @@
+/*
+ * Copyright 2016-2019 Cloudera, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hortonworks.registries.schemaregistry.serdes.avro;
+
+import com.hortonworks.registries.schemaregistry.SchemaMetadata;
+import org.apache.avro.Schema;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ */
+public class DecodePlanCacheTest {
+
+    private final SchemaMetadata schemaMetadata = new SchemaMetadata.Builder("foo").type("avro").schemaGroup("bar").build();
+
+    @Test
+    public void testPlansForSchemaVersionIds() {
+        DecodePlanCache decodePlanCache = new DecodePlanCache(1024);
+        for (long id = -100; id < 500; id++) {
+            decodePlanCache.put(id, createPlan(SerDesProtocolHandlerRegistry.VERSION_ID_AS_INT_PROTOCOL, null));
+        }
+        // large ids which collide in lower bits
+        for (long id = 1; id < 10; id++) {
+            decodePlanCache.put(id << 40, createPlan(SerDesProtocolHandlerRegistry.VERSION_ID_AS_LONG_PROTOCOL, 3));
+        }
+
+        Assert.assertEquals(609, decodePlanCache.size());
+        for (long id = -100; id < 500; id++) {
+            Assert.assertNotNull(decodePlanCache.get(id, SerDesProtocolHandlerRegistry.VERSION_ID_AS_INT_PROTOCOL, null));
+            Assert.assertNull(decodePlanCache.get(id, SerDesProtocolHandlerRegistry.VERSION_ID_AS_LONG_PROTOCOL, null));
+            Assert.assertNull(decodePlanCache.get(id, SerDesProtocolHandlerRegistry.VERSION_ID_AS_INT_PROTOCOL, 1));
+        }
+        for (long id = 1; id < 10; id++) {
+            Assert.assertNotNull(decodePlanCache.get(id << 40, SerDesProtocolHandlerRegistry.VERSION_ID_AS_LONG_PROTOCOL, 3));
+        }
+        Assert.assertNull(decodePlanCache.get(500, SerDesProtocolHandlerRegistry.VERSION_ID_AS_INT_PROTOCOL, null));
+    }
+
+    @Test
+    public void testPlansForProtocolsAndReaderVersions() {
+        DecodePlanCache decodePlanCache = new DecodePlanCache(1024);
+        DecodePlan intPlan = createPlan(SerDesProtocolHandlerRegistry.VERSION_ID_AS_INT_PROTOCOL, null);
+        DecodePlan confluentPlan = createPlan(SerDesProtocolHandlerRegistry.CONFLUENT_VERSION_PROTOCOL, null);
+        DecodePlan readerPlan = createPlan(SerDesProtocolHandlerRegistry.VERSION_ID_AS_INT_PROTOCOL, 2);
+        decodePlanCache.put(7, intPlan);
+        decodePlanCache.put(7, confluentPlan);
+        decodePlanCache.put(7, readerPlan);
+        // existing plan is retained
+        decodePlanCache.put(7, createPlan(SerDesProtocolHandlerRegistry.VERSION_ID_AS_INT_PROTOCOL, null));
+
+        Assert.assertEquals(1, decodePlanCache.size());
+        Assert.assertSame(intPlan, decodePlanCache.get(7, SerDesProtocolHandlerRegistry.VERSION_ID_AS_INT_PROTOCOL, null));
+        Assert.assertSame(confluentPlan, decodePlanCache.get(7, SerDesProtocolHandlerRegistry.CONFLUENT_VERSION_PROTOCOL, null));
+        Assert.assertSame(readerPlan, decodePlanCache.get(7, SerDesProtocolHandlerRegistry.VERSION_ID_AS_INT_PROTOCOL, 2));
+    }
+
+    @Test
+    public void testMoreVersionsThanMaxSize_OldestEvictedOneAtATime() {
+        DecodePlanCache decodePlanCache = new DecodePlanCache(10);
+        for (long id = 0; id < 10; id++) {
+            decodePlanCache.put(id, createPlan(SerDesProtocolHandlerRegistry.VERSION_ID_AS_INT_PROTOCOL, null));
+        }
+        Assert.assertEquals(10, decodePlanCache.size());
+
+        decodePlanCache.put(10, createPlan(SerDesProtocolHandlerRegistry.VERSION_ID_AS_INT_PROTOCOL, null));
+        Assert.assertEquals(10, decodePlanCache.size());
+        Assert.assertNull(decodePlanCache.get(0, SerDesProtocolHandlerRegistry.VERSION_ID_AS_INT_PROTOCOL, null));
+        for (long id = 1; id <= 10; id++) {
+            Assert.assertNotNull(decodePlanCache.get(id, SerDesProtocolHandlerRegistry.VERSION_ID_AS_INT_PROTOCOL, null));
+        }
+
+        for (long id = 11; id < 1000; id++) {
+            decodePlanCache.put(id, createPlan(SerDesProtocolHandlerRegistry.VERSION_ID_AS_INT_PROTOCOL, null));
+            Assert.assertTrue(decodePlanCache.size() <= 10);
+        }
+        Assert.assertEquals(10, decodePlanCache.size());
+        for (long id = 0; id < 990; id++) {
+            Assert.assertNull(decodePlanCache.get(id, SerDesProtocolHandlerRegistry.VERSION_ID_AS_INT_PROTOCOL, null));
+        }
+        for (long id = 990; id < 1000; id++) {
+            Assert.assertNotNull(decodePlanCache.get(id, SerDesProtocolHandlerRegistry.VERSION_ID_AS_INT_PROTOCOL, null));
+        }
+    }
+
+    @Test
+    public void testClear() {
+        DecodePlanCache decodePlanCache = new DecodePlanCache(10);
+        decodePlanCache.put(1, createPlan(SerDesProtocolHandlerRegistry.VERSION_ID_AS_INT_PROTOCOL, null));
+
+        decodePlanCache.clear();
+
+        Assert.assertEquals(0, decodePlanCache.size());
+        Assert.assertNull(decodePlanCache.get(1, SerDesProtocolHandlerRegistry.VERSION_ID_AS_INT_PROTOCOL, null));
+    }
+
+    private DecodePlan createPlan(byte protocolId, Integer readerVersion) {
+        Schema schema = Schema.create(Schema.Type.STRING);
+        return new DecodePlan(protocolId, schemaMetadata, 1, readerVersion, schema, null,
+                              SerDesProtocolHandlerRegistry.get().getSerDesProtocolHandler(protocolId), false);
+    }
+}
@@ -15,30 +15,50 @@
  */
 package com.hortonworks.registries.schemaregistry.serdes.avro.kafka;
 
+import com.hortonworks.registries.schemaregistry.SchemaIdVersion;
+import com.hortonworks.registries.schemaregistry.SchemaMetadata;
+import com.hortonworks.registries.schemaregistry.SchemaVersion;
+import com.hortonworks.registries.schemaregistry.SchemaVersionInfo;
 import com.hortonworks.registries.schemaregistry.client.ISchemaRegistryClient;
 import com.hortonworks.registries.schemaregistry.client.MockSchemaRegistryClient;
+import com.hortonworks.registries.schemaregistry.errors.IncompatibleSchemaException;
+import com.hortonworks.registries.schemaregistry.errors.InvalidSchemaException;
+import com.hortonworks.registries.schemaregistry.errors.SchemaBranchNotFoundException;
+import com.hortonworks.registries.schemaregistry.errors.SchemaNotFoundException;
 import com.hortonworks.registries.schemaregistry.serdes.avro.AbstractAvroSnapshotDeserializer;
+import com.hortonworks.registries.schemaregistry.serdes.avro.AbstractAvroSnapshotSerializer;
 import com.hortonworks.registries.schemaregistry.serdes.avro.AvroSerDesHandler;
 import com.hortonworks.registries.schemaregistry.serdes.avro.AvroSnapshotDeserializer;
 import com.hortonworks.registries.schemaregistry.serdes.avro.DefaultAvroSerDesHandler;
+import com.hortonworks.registries.schemaregistry.serdes.avro.SerDesProtocolHandlerRegistry;
 import com.hortonworks.registries.schemaregistry.serdes.avro.TestRecord;
 import org.apache.avro.Schema;
 import org.apache.avro.generic.GenericData;
 import org.apache.avro.generic.GenericRecord;
 import org.apache.avro.generic.GenericRecordBuilder;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.common.header.Headers;
 import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
 import org.apache.kafka.common.serialization.Deserializer;
 import org.apache.kafka.common.serialization.Serializer;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  *
@@ -176,6 +196,141 @@ public class KafkaAvroSerdesTest {
         Assert.assertEquals(expected.get("field2"), actual.get("field2"));
     }
 
+    @Test
+    public void testByteBufferDeserializationForAllProtocols() {
+        GenericRecord record = new GenericRecordBuilder(schema).set("field1", "some value").set("field2", "some other value").build();
+        for (Byte protocolId : SerDesProtocolHandlerRegistry.get().getRegisteredSerDesProtocolHandlers().keySet()) {
+            Map<String, Object> config = new HashMap<>();
+            config.put(AbstractAvroSnapshotSerializer.SERDES_PROTOCOL_VERSION, protocolId);
+            KafkaAvroSerializer kafkaAvroSerializer = new KafkaAvroSerializer(schemaRegistryClient);
+            kafkaAvroSerializer.configure(config, false);
+            KafkaAvroDeserializer kafkaAvroDeserializer = new KafkaAvroDeserializer(schemaRegistryClient);
+            kafkaAvroDeserializer.configure(config, false);
+            AvroSnapshotDeserializer streamDeserializer = new AvroSnapshotDeserializer(schemaRegistryClient);
+            streamDeserializer.init(config);
+
+            byte[] bytes = kafkaAvroSerializer.serialize(topic, record);
+            checkGenericSerializedGenericDeserializedEquals(record, streamDeserializer.deserialize(new ByteArrayInputStream(bytes), null));
+            checkGenericSerializedGenericDeserializedEquals(record, kafkaAvroDeserializer.deserialize(topic, bytes));
+
+            // payload in the middle of a larger array
+            byte[] padded = new byte[bytes.length + 10];
+            System.arraycopy(bytes, 0, padded, 5, bytes.length);
+            ByteBuffer slice = ByteBuffer.wrap(padded, 5, bytes.length).slice();
+            checkGenericSerializedGenericDeserializedEquals(record, kafkaAvroDeserializer.deserialize(topic, slice));
+
+            // schema version information is big-endian whatever the order of the given buffer is
+            ByteBuffer littleEndian = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+            checkGenericSerializedGenericDeserializedEquals(record, kafkaAvroDeserializer.deserialize(topic, littleEndian));
+        }
+    }
+
+    @Test
+    public void testDecodePlanResolvedOncePerSchemaVersion() throws Exception {
+        AtomicInteger schemaVersionLookups = new AtomicInteger();
+        ISchemaRegistryClient countingClient = new MockSchemaRegistryClient() {
+            @Override
+            public SchemaVersionInfo getSchemaVersionInfo(SchemaIdVersion schemaIdVersion) throws SchemaNotFoundException {
+                schemaVersionLookups.incrementAndGet();
+                return super.getSchemaVersionInfo(schemaIdVersion);
+            }
+        };
+        KafkaAvroSerializer kafkaAvroSerializer = new KafkaAvroSerializer(countingClient);
+        kafkaAvroSerializer.configure(Collections.emptyMap(), false);
+        KafkaAvroDeserializer kafkaAvroDeserializer = new KafkaAvroDeserializer(countingClient);
+        kafkaAvroDeserializer.configure(Collections.emptyMap(), false);
+
+        for (int i = 0; i < 5; i++) {
+            GenericRecord record = new GenericRecordBuilder(schema).set("field1", "value-" + i).build();
+            checkGenericSerializedGenericDeserializedEquals(record, kafkaAvroDeserializer.deserialize(topic, kafkaAvroSerializer.serialize(topic, record)));
+        }
+        Assert.assertEquals(1, schemaVersionLookups.get());
+    }
+
+    @Test
+    public void testDeserializeAllGroupsRecordsBySchemaVersion() throws Exception {
+        AtomicInteger schemaVersionLookups = new AtomicInteger();
+        ISchemaRegistryClient countingClient = new MockSchemaRegistryClient() {
+            @Override
+            public SchemaVersionInfo getSchemaVersionInfo(SchemaIdVersion schemaIdVersion) throws SchemaNotFoundException {
+                schemaVersionLookups.incrementAndGet();
+                return super.getSchemaVersionInfo(schemaIdVersion);
+            }
+        };
+        Schema evolvedSchema = new Schema.Parser().parse(
+                "{\"type\":\"record\",\"name\":\"TestRecord\",\"namespace\":\"com.hortonworks.registries.schemaregistry.serdes.avro\",\"fields\":[{\"name\":\"field1\",\"type\":[\"null\",{\"type\":\"string\",\"avro.java.string\":\"String\"}],\"default\":null},{\"name\":\"field2\",\"type\":[\"null\",{\"type\":\"string\",\"avro.java.string\":\"String\"}],\"default\":null},{\"name\":\"field3\",\"type\":[\"null\",\"int\"],\"default\":null}]}");
+        KafkaAvroSerializer kafkaAvroSerializer = new KafkaAvroSerializer(countingClient);
+        kafkaAvroSerializer.configure(Collections.emptyMap(), false);
+        KafkaAvroSerializer headerSerializer = new KafkaAvroSerializer(countingClient);
+        headerSerializer.configure(Collections.singletonMap(KafkaAvroSerializer.STORE_SCHEMA_VERSION_ID_IN_HEADER, "true"), false);
+        KafkaAvroDeserializer kafkaAvroDeserializer = new KafkaAvroDeserializer(countingClient);
+        kafkaAvroDeserializer.configure(Collections.emptyMap(), false);
+
+        List<GenericRecord> records = new ArrayList<>();
+        List<byte[]> payloads = new ArrayList<>();
+        List<ConsumerRecord<byte[], byte[]>> consumerRecords = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            GenericRecord record = new GenericRecordBuilder(i % 2 == 0 ? schema : evolvedSchema).set("field1", "value-" + i).build();
+            records.add(record);
+            payloads.add(kafkaAvroSerializer.serialize(topic, record));
+
+            Headers headers = new RecordHeaders();
+            byte[] value = i % 3 == 0 ? headerSerializer.serialize(topic, headers, record) : kafkaAvroSerializer.serialize(topic, record);
+            consumerRecords.add(new ConsumerRecord<>(topic, 0, i, 0L, TimestampType.CREATE_TIME, null, 0, value.length, null, value, headers));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            schemaVersionLookups.set(0);
+            List<Object> deserialized = kafkaAvroDeserializer.deserializeAll(topic, payloads);
+            Assert.assertEquals(2, schemaVersionLookups.get());
+            for (int i = 0; i < records.size(); i++) {
+                checkGenericSerializedGenericDeserializedEquals(records.get(i), deserialized.get(i));
+            }
+
+            deserialized = kafkaAvroDeserializer.deserializeAll(topic, payloads, executor);
+            for (int i = 0; i < records.size(); i++) {
+                checkGenericSerializedGenericDeserializedEquals(records.get(i), deserialized.get(i));
+            }
+            Assert.assertEquals(2, schemaVersionLookups.get());
+
+            deserialized = kafkaAvroDeserializer.deserializeAll(consumerRecords, executor);
+            Assert.assertEquals(records.size(), deserialized.size());
+            for (int i = 0; i < records.size(); i++) {
+                checkGenericSerializedGenericDeserializedEquals(records.get(i), deserialized.get(i));
+            }
+            // records with the schema version in headers are decoded by a deserializer with its own decode plans
+            Assert.assertEquals(4, schemaVersionLookups.get());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testSchemaVersionCachedForSchemaInstance() throws Exception {
+        AtomicInteger addSchemaVersionCount = new AtomicInteger();
+        ISchemaRegistryClient countingClient = new MockSchemaRegistryClient() {
+            @Override
+            public SchemaIdVersion addSchemaVersion(SchemaMetadata schemaMetadata, SchemaVersion schemaVersion, boolean disableCanonicalCheck)
+                    throws InvalidSchemaException, IncompatibleSchemaException, SchemaNotFoundException, SchemaBranchNotFoundException {
+                addSchemaVersionCount.incrementAndGet();
+                return super.addSchemaVersion(schemaMetadata, schemaVersion, disableCanonicalCheck);
+            }
+        };
+        KafkaAvroSerializer kafkaAvroSerializer = new KafkaAvroSerializer(countingClient);
+        kafkaAvroSerializer.configure(Collections.emptyMap(), false);
+
+        for (int i = 0; i < 5; i++) {
+            GenericRecord record = new GenericRecordBuilder(schema).set("field1", "value-" + i).build();
+            kafkaAvroSerializer.serialize(topic, record);
+        }
+        Assert.assertEquals(1, addSchemaVersionCount.get());
+
+        // same schema for a different topic is registered against that topic's schema metadata
+        kafkaAvroSerializer.serialize("other-" + topic, new GenericRecordBuilder(schema).set("field1", "value").build());
+        Assert.assertEquals(2, addSchemaVersionCount.get());
+    }
+
     @Test
     public void testDefaultSchemaHeaderNames() {
         testSchemaHeaderNames(KafkaAvroSerde.DEFAULT_KEY_SCHEMA_VERSION_ID, KafkaAvroSerde.DEFAULT_VALUE_SCHEMA_VERSION_ID);
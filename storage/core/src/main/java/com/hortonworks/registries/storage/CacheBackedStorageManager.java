@@ -60,6 +60,16 @@ public class CacheBackedStorageManager implements StorageManager {
         }
     }
 
+    @Override
+    public void addAll(Collection<? extends Storable> storables) throws StorageException {
+        writer.addAll(storables);
+        for (Storable storable : storables) {
+            if (storable.isCacheable()) {
+                cache.put(storable.getStorableKey(), storable);
+            }
+        }
+    }
+
     @Override
     public <T extends Storable> T remove(StorableKey key) throws StorageException {
         Storable storable = (Storable) writer.remove(key);
@@ -18,7 +18,9 @@ package com.hortonworks.registries.storage;
 import com.hortonworks.registries.common.QueryParam;
 import com.hortonworks.registries.storage.exception.StorageException;
 import com.hortonworks.registries.storage.search.SearchQuery;
+import com.hortonworks.registries.storage.search.WhereClause;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
@@ -50,6 +52,19 @@ public interface StorageManager {
      */
     void add(Storable storable) throws StorageException;
 
+    /**
+     * Adds all the given storables to storage layer as {@link #add(Storable)} does for each of them. Implementations
+     * may write them in fewer round trips, in which case existing storables are not checked for.
+     *
+     * @param storables the storables
+     * @throws StorageException
+     */
+    default void addAll(Collection<? extends Storable> storables) throws StorageException {
+        for (Storable storable : storables) {
+            add(storable);
+        }
+    }
+
     /**
      * Removes a {@link Storable} object identified by a {@link StorableKey}.
      * If the key does not exist a null value is returned, no exception is thrown.
@@ -60,6 +75,25 @@ public interface StorageManager {
      */
     <T extends Storable> T remove(StorableKey key) throws StorageException;
 
+    /**
+     * Removes the {@link Storable} objects of the given namespace whose value of the given field is less than the given
+     * value, in one statement where the storage supports it.
+     *
+     * @param namespace the namespace
+     * @param fieldName name of the field compared with the value
+     * @param value the value
+     * @return the number of removed objects
+     * @throws StorageException
+     */
+    default int removeLessThan(String namespace, String fieldName, Object value) throws StorageException {
+        Collection<Storable> storables = search(SearchQuery.searchFrom(namespace)
+                                                           .where(WhereClause.begin().lt(fieldName, value).combine()));
+        for (Storable storable : storables) {
+            remove(storable.getStorableKey());
+        }
+        return storables.size();
+    }
+
     /**
      * Unlike add, if the storage entity already exists, it will be updated. If it does not exist, it will be created.
      *
@@ -151,6 +185,23 @@ public interface StorageManager {
 
     Long nextId(String namespace) throws StorageException;
 
+    /**
+     * Allocates ids for several storables of the given namespace at once, for ex. before {@link #addAll(Collection)}.
+     * As with {@link #nextId(String)}, the ids are null when the storage generates them on insert.
+     *
+     * @param namespace the namespace
+     * @param count number of ids to allocate
+     * @return the allocated ids
+     * @throws StorageException
+     */
+    default List<Long> nextIds(String namespace, int count) throws StorageException {
+        List<Long> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add(nextId(namespace));
+        }
+        return ids;
+    }
+
     /**
      * Registers a Collection of {@link Storable}} classes to be used in {@link StorableFactory} for creating instances
      * of a given namespace.
@@ -16,8 +16,10 @@
 
 package com.hortonworks.registries.storage;
 
+import com.hortonworks.registries.storage.transaction.TransactionContext;
 import com.hortonworks.registries.storage.transaction.TransactionIsolation;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 public interface TransactionManager {
 
@@ -49,6 +51,39 @@ public interface TransactionManager {
      */
     void commitTransaction();
 
+    /**
+     * Captures the active transaction of the current thread, so that work handed to another thread, e.g. a stage of a
+     * {@code CompletableFuture} or a virtual thread, can run in it with {@link #attachTransaction(TransactionContext)}.
+     *
+     * @return the active transaction of the current thread, null if there is none or transactions are not supported
+     */
+    default TransactionContext captureTransaction() {
+        return null;
+    }
+
+    /**
+     * Makes the current thread work in the given transaction till the returned scope is closed. The transaction is
+     * owned by one thread at a time, so the capturing thread can not use it till the scope is closed. Attaching null
+     * does nothing.
+     *
+     * @throws com.hortonworks.registries.storage.exception.TransactionException if the transaction can not be attached
+     */
+    default TransactionContext.Scope attachTransaction(TransactionContext transactionContext) {
+        return () -> { };
+    }
+
+    /**
+     * @return supplier which runs the given one in the active transaction of the current thread, whichever thread calls it
+     */
+    default <T> Supplier<T> propagateTransaction(Supplier<T> supplier) {
+        TransactionContext transactionContext = captureTransaction();
+        return () -> {
+            try (TransactionContext.Scope ignored = attachTransaction(transactionContext)) {
+                return supplier.get();
+            }
+        };
+    }
+
     /**
      * @return true if able to obtain a read lock on a row with {@link StorableKey} within the specified time
      */
@@ -20,6 +20,7 @@ import com.hortonworks.registries.storage.Storable;
 import com.hortonworks.registries.storage.StorableKey;
 import com.hortonworks.registries.storage.StorageManager;
 
+import java.util.Collection;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
@@ -41,6 +42,10 @@ public class StorageWriteBehind implements StorageWriter {
         executorService.submit(() -> dao.add(storable));
     }
 
+    public void addAll(Collection<? extends Storable> storables) {
+        executorService.submit(() -> dao.addAll(storables));
+    }
+
     public void addOrUpdate(Storable storable) {
         executorService.submit(() -> dao.addOrUpdate(storable));
     }
@@ -4,6 +4,8 @@ import com.hortonworks.registries.storage.Storable;
 import com.hortonworks.registries.storage.StorableKey;
 import com.hortonworks.registries.storage.StorageManager;
 
+import java.util.Collection;
+
 /**
  * Created by hlouro on 8/7/15.
  */
@@ -18,6 +20,10 @@ public class StorageWriteThrough implements StorageWriter {
         dao.add(storable);
     }
 
+    public void addAll(Collection<? extends Storable> storables) {
+        dao.addAll(storables);
+    }
+
     public void addOrUpdate(Storable storable) {
         dao.addOrUpdate(storable);
     }
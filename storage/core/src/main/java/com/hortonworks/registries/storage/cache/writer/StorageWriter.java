@@ -19,10 +19,14 @@ package com.hortonworks.registries.storage.cache.writer;
 import com.hortonworks.registries.storage.StorableKey;
 import com.hortonworks.registries.storage.Storable;
 
+import java.util.Collection;
+
 
 public interface StorageWriter {
     void add(Storable storable);
 
+    void addAll(Collection<? extends Storable> storables);
+
     void addOrUpdate(Storable storable);
 
     void update(Storable storable);
@@ -19,7 +19,6 @@ package com.hortonworks.registries.storage.catalog;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.hortonworks.registries.common.Schema;
 import com.hortonworks.registries.common.exception.ParserException;
-import com.hortonworks.registries.common.util.ReflectionHelper;
 import com.hortonworks.registries.storage.Storable;
 import com.hortonworks.registries.storage.StorableKey;
 import com.hortonworks.registries.storage.annotation.SchemaIgnore;
@@ -27,14 +26,12 @@ import com.hortonworks.registries.storage.exception.StorageException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
 
 /**
  * Default implementations go here
@@ -58,16 +55,16 @@ public abstract class AbstractStorable implements Storable {
      * @return the map
      */
     public Map<String, Object> toMap() {
-        Set<String> instanceVariableNames = ReflectionHelper.getFieldNamesToTypes(this.getClass()).keySet();
+        Collection<StorableAccessors.FieldAccessor> fields = StorableAccessors.of(this.getClass()).getFields();
         Map<String, Object> fieldToVal = new HashMap<>();
-        for(String fieldName : instanceVariableNames) {
+        for(StorableAccessors.FieldAccessor field : fields) {
             try {
-                Object val = ReflectionHelper.invokeGetter(fieldName, this);
-                fieldToVal.put(fieldName, val);
+                Object val = field.get(this);
+                fieldToVal.put(field.getName(), val);
                 if(LOG.isTraceEnabled()) {
-                    LOG.trace("toMap: Adding fieldName {} = {} ", fieldName, val);
+                    LOG.trace("toMap: Adding fieldName {} = {} ", field.getName(), val);
                 }
-            } catch (NoSuchMethodException|InvocationTargetException|IllegalAccessException e) {
+            } catch (NoSuchMethodException e) {
                 throw new StorageException(e);
             }
         }
@@ -84,12 +81,13 @@ public abstract class AbstractStorable implements Storable {
      * @return the storable
      */
     public Storable fromMap(Map<String, Object> map) {
+        StorableAccessors accessors = StorableAccessors.of(this.getClass());
         for(Map.Entry<String, Object> entry: map.entrySet()) {
             try {
                 if(entry.getValue() != null) {
-                    ReflectionHelper.invokeSetter(entry.getKey(), this, entry.getValue());
+                    accessors.set(this, entry.getKey(), entry.getValue());
                 }
-            } catch (NoSuchMethodException|InvocationTargetException|IllegalAccessException e) {
+            } catch (NoSuchMethodException e) {
                 throw new StorageException(e);
             }
         }
@@ -104,16 +102,16 @@ public abstract class AbstractStorable implements Storable {
      */
     @JsonIgnore
     public Schema getSchema() {
-        Map<String, Class> fieldNamesToTypes = ReflectionHelper.getFieldNamesToTypes(this.getClass());
+        Collection<StorableAccessors.FieldAccessor> fieldAccessors = StorableAccessors.of(this.getClass()).getFields();
         List<Schema.Field> fields = new ArrayList<>();
 
-        for(Map.Entry<String, Class> entry : fieldNamesToTypes.entrySet()) {
+        for(StorableAccessors.FieldAccessor fieldAccessor : fieldAccessors) {
             try {
-                getField(entry.getKey(), entry.getValue()).ifPresent(field -> {
+                getField(fieldAccessor).ifPresent(field -> {
                     fields.add(field);
                     LOG.trace("getSchema: Adding {}", field);
                 });
-            } catch (NoSuchFieldException|NoSuchMethodException|InvocationTargetException|IllegalAccessException|ParserException e) {
+            } catch (NoSuchFieldException|NoSuchMethodException|ParserException e) {
                 throw new StorageException(e);
             }
         }
@@ -121,19 +119,22 @@ public abstract class AbstractStorable implements Storable {
         return Schema.of(fields);
     }
 
-    private Optional<Schema.Field> getField(String name, Class<?> clazz) throws NoSuchFieldException,
-            NoSuchMethodException, IllegalAccessException, InvocationTargetException, ParserException {
-        Field field = this.getClass().getDeclaredField(name);
-        if (field.getAnnotation(SchemaIgnore.class) != null) {
-            LOG.debug("Ignoring field {}", field);
+    private Optional<Schema.Field> getField(StorableAccessors.FieldAccessor fieldAccessor) throws NoSuchFieldException,
+            NoSuchMethodException, ParserException {
+        String name = fieldAccessor.getName();
+        if (!fieldAccessor.isDeclaredInStorableClass()) {
+            throw new NoSuchFieldException(name);
+        }
+        if (fieldAccessor.isSchemaIgnored()) {
+            LOG.debug("Ignoring field {}", name);
             return Optional.empty();
         }
-        Object val = ReflectionHelper.invokeGetter(name, this);
+        Object val = fieldAccessor.get(this);
         Schema.Type type;
         if (val != null) {
             type = Schema.fromJavaType(val);
         } else {
-            type = Schema.fromJavaType(clazz);
+            type = Schema.fromJavaType(fieldAccessor.getType());
         }
         return Optional.of(new Schema.Field(name, type));
     }
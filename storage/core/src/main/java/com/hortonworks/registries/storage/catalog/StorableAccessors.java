@@ -0,0 +1,192 @@
+/**
+ * Copyright 2016-2019 Cloudera, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package com.hortonworks.registries.storage.catalog;
+
+import com.hortonworks.registries.common.util.ReflectionHelper;
+import com.hortonworks.registries.storage.annotation.SchemaIgnore;
+import com.hortonworks.registries.storage.exception.StorageException;
+import org.apache.commons.lang3.StringUtils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Getters and setters of a {@link AbstractStorable} class resolved once as method handles, so that converting
+ * storables to and from maps for every row does not look up and reflectively invoke methods again.
+ * <p>
+ * Resolution follows {@link ReflectionHelper#invokeGetter(String, Object)} and
+ * {@link ReflectionHelper#invokeSetter(String, Object, Object)}, a missing accessor only fails when it is used.
+ */
+final class StorableAccessors {
+
+    private static final ClassValue<StorableAccessors> ACCESSORS = new ClassValue<StorableAccessors>() {
+        @Override
+        protected StorableAccessors computeValue(Class<?> type) {
+            return new StorableAccessors(type);
+        }
+    };
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private final Class<?> storableClass;
+    private final List<FieldAccessor> fields;
+    private final Map<String, Setters> setters = new ConcurrentHashMap<>();
+
+    private StorableAccessors(Class<?> storableClass) {
+        this.storableClass = storableClass;
+        List<FieldAccessor> fields = new ArrayList<>();
+        for (Map.Entry<String, Class> entry : ReflectionHelper.getFieldNamesToTypes(storableClass).entrySet()) {
+            fields.add(new FieldAccessor(entry.getKey(), entry.getValue()));
+        }
+        this.fields = Collections.unmodifiableList(fields);
+    }
+
+    static StorableAccessors of(Class<?> storableClass) {
+        return ACCESSORS.get(storableClass);
+    }
+
+    /**
+     * @return accessors of all the instance fields of the storable class including the ones of its super classes
+     */
+    Collection<FieldAccessor> getFields() {
+        return fields;
+    }
+
+    /**
+     * Invokes the setter of the given property with the given non null value.
+     */
+    void set(Object storable, String propertyName, Object value) throws NoSuchMethodException {
+        MethodHandle setter = setters.computeIfAbsent(propertyName, Setters::new).forValueType(value.getClass());
+        try {
+            setter.invokeExact(storable, value);
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new StorageException(e);
+        }
+    }
+
+    private static MethodHandle toHandle(Method method, MethodType methodType) {
+        try {
+            method.setAccessible(true);
+            return MethodHandles.lookup().unreflect(method).asType(methodType);
+        } catch (IllegalAccessException | RuntimeException e) {
+            throw new StorageException("Failed to access " + method, e);
+        }
+    }
+
+    final class FieldAccessor {
+        private final String name;
+        private final Class<?> type;
+        private final MethodHandle getter;
+        private final boolean schemaIgnored;
+        private final boolean declaredInStorableClass;
+
+        private FieldAccessor(String name, Class<?> type) {
+            this.name = name;
+            this.type = type;
+            MethodHandle getter;
+            try {
+                getter = toHandle(storableClass.getMethod("get" + StringUtils.capitalize(name)), GETTER_TYPE);
+            } catch (NoSuchMethodException e) {
+                getter = null;
+            }
+            this.getter = getter;
+
+            Field field = null;
+            try {
+                field = storableClass.getDeclaredField(name);
+            } catch (NoSuchFieldException e) {
+                // declared in a super class
+            }
+            this.declaredInStorableClass = field != null;
+            this.schemaIgnored = field != null && field.getAnnotation(SchemaIgnore.class) != null;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        Class<?> getType() {
+            return type;
+        }
+
+        boolean isSchemaIgnored() {
+            return schemaIgnored;
+        }
+
+        boolean isDeclaredInStorableClass() {
+            return declaredInStorableClass;
+        }
+
+        Object get(Object storable) throws NoSuchMethodException {
+            if (getter == null) {
+                throw new NoSuchMethodException(storableClass.getName() + ".get" + StringUtils.capitalize(name) + "()");
+            }
+            try {
+                return getter.invokeExact(storable);
+            } catch (Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new StorageException(e);
+            }
+        }
+    }
+
+    // setters of a property, resolved per type of the value being set
+    private final class Setters {
+        private final String methodName;
+        private final Map<Class<?>, MethodHandle> handles = new ConcurrentHashMap<>();
+
+        private Setters(String propertyName) {
+            this.methodName = "set" + StringUtils.capitalize(propertyName);
+        }
+
+        MethodHandle forValueType(Class<?> valueType) throws NoSuchMethodException {
+            MethodHandle handle = handles.get(valueType);
+            if (handle == null) {
+                handle = toHandle(resolve(valueType), SETTER_TYPE);
+                handles.put(valueType, handle);
+            }
+            return handle;
+        }
+
+        private Method resolve(Class<?> valueType) throws NoSuchMethodException {
+            try {
+                return storableClass.getMethod(methodName, valueType);
+            } catch (NoSuchMethodException ex) {
+                // try setters that accept super types
+                for (Method method : storableClass.getMethods()) {
+                    if (method.getName().equals(methodName) && method.getParameterCount() == 1
+                            && method.getParameterTypes()[0].isAssignableFrom(valueType)) {
+                        return method;
+                    }
+                }
+                throw ex;
+            }
+        }
+    }
+}
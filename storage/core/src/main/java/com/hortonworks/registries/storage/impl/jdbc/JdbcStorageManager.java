@@ -16,9 +16,13 @@
 package com.hortonworks.registries.storage.impl.jdbc;
 
 
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.SharedMetricRegistries;
+import com.codahale.metrics.Timer;
 import com.hortonworks.registries.common.QueryParam;
 import com.hortonworks.registries.common.Schema;
 import com.hortonworks.registries.storage.common.DatabaseType;
+import com.hortonworks.registries.storage.transaction.TransactionContext;
 import com.hortonworks.registries.storage.transaction.TransactionIsolation;
 import com.hortonworks.registries.storage.OrderByField;
 import com.hortonworks.registries.storage.PrimaryKey;
@@ -29,31 +33,59 @@ import com.hortonworks.registries.storage.StorageManager;
 import com.hortonworks.registries.storage.TransactionManager;
 import com.hortonworks.registries.storage.exception.AlreadyExistsException;
 import com.hortonworks.registries.storage.exception.IllegalQueryParameterException;
+import com.hortonworks.registries.storage.exception.LockWaitTimeoutException;
 import com.hortonworks.registries.storage.exception.StorageException;
+import com.hortonworks.registries.storage.impl.jdbc.config.ExecutionConfig;
 import com.hortonworks.registries.storage.impl.jdbc.provider.QueryExecutorFactory;
 import com.hortonworks.registries.storage.impl.jdbc.provider.sql.factory.QueryExecutor;
 import com.hortonworks.registries.storage.impl.jdbc.provider.sql.query.SqlSelectQuery;
+import com.hortonworks.registries.storage.impl.jdbc.util.ColumnValueConverters;
 import com.hortonworks.registries.storage.impl.jdbc.util.Columns;
 import com.hortonworks.registries.storage.search.SearchQuery;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.sql.SQLException;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
-import java.util.function.Supplier;
 
 //Use unique constraints on respective columns of a table for handling concurrent inserts etc.
 public class JdbcStorageManager implements TransactionManager, StorageManager {
     private static final Logger log = LoggerFactory.getLogger(StorageManager.class);
     public static final String DB_TYPE = "db.type";
+    public static final String LOCK_WAIT_TIMEOUT_MS = "lockWaitTimeoutInMs";
+    /**
+     * Name of the shared metric registry with lock wait times of this storage manager.
+     */
+    public static final String METRIC_REGISTRY_NAME = "registries.storage";
+
+    private static final int LOCK_STRIPES = 64;
+    private static final long MIN_MISSING_LOCK_ROW_BACKOFF_MS = 10L;
+    private static final long MAX_MISSING_LOCK_ROW_BACKOFF_MS = 500L;
 
     private final StorableFactory storableFactory = new StorableFactory();
+    private final StorableKeyLocks storableKeyLocks = new StorableKeyLocks(LOCK_STRIPES);
+    // column metadata of tables by namespace, reloaded when a query parameter does not match a cached column.
+    private final ConcurrentMap<String, Columns> columnsCache = new ConcurrentHashMap<>();
+    private final ThreadLocal<Integer> transactionDepth = ThreadLocal.withInitial(() -> 0);
+    private final Timer readLockWaitTimer;
+    private final Timer writeLockWaitTimer;
+    private final Timer lockWaitTimeoutTimer;
     private QueryExecutor queryExecutor;
 
+    {
+        MetricRegistry metricRegistry = SharedMetricRegistries.getOrCreate(METRIC_REGISTRY_NAME);
+        readLockWaitTimer = metricRegistry.timer(MetricRegistry.name(JdbcStorageManager.class, "readLock", "wait"));
+        writeLockWaitTimer = metricRegistry.timer(MetricRegistry.name(JdbcStorageManager.class, "writeLock", "wait"));
+        lockWaitTimeoutTimer = metricRegistry.timer(MetricRegistry.name(JdbcStorageManager.class, "lock", "timeouts"));
+    }
+
     public JdbcStorageManager() {
     }
 
@@ -68,6 +100,12 @@ public class JdbcStorageManager implements TransactionManager, StorageManager {
         queryExecutor.insert(storable);
     }
 
+    @Override
+    public void addAll(Collection<? extends Storable> storables) throws StorageException {
+        log.debug("Adding [{}] storables", storables.size());
+        queryExecutor.insertAll(storables);
+    }
+
     @Override
     public <T extends Storable> T remove(StorableKey key) throws StorageException {
         T oldVal = get(key);
@@ -78,6 +116,16 @@ public class JdbcStorageManager implements TransactionManager, StorageManager {
         return oldVal;
     }
 
+    @Override
+    public int removeLessThan(String namespace, String fieldName, Object value) throws StorageException {
+        log.debug("Removing entries of table [{}] with [{}] less than [{}]", namespace, fieldName, value);
+        Schema.Field field = storableFactory.create(namespace).getSchema().getField(fieldName);
+        if (field == null) {
+            throw new IllegalArgumentException("Field " + fieldName + " does not exist in namespace " + namespace);
+        }
+        return queryExecutor.deleteLessThan(new StorableKey(namespace, new PrimaryKey(Collections.singletonMap(field, value))));
+    }
+
     @Override
     public void addOrUpdate(Storable storable) throws StorageException {
         log.debug("Adding or updating storable [{}]", storable);
@@ -109,12 +157,11 @@ public class JdbcStorageManager implements TransactionManager, StorageManager {
     public boolean readLock(StorableKey key, Long time, TimeUnit timeUnit) {
         log.debug("Obtaining a read lock for entry with storable key [{}]", key);
 
-        Supplier<Collection<Storable>> supplier = () -> queryExecutor.selectForShare(key);
-
         try {
-            return getLock(supplier, time, timeUnit);
+            return getLock(key, false, time, timeUnit);
         } catch (InterruptedException e) {
-            throw new StorageException("Failed to obtain a write lock for storable key : " + key);
+            Thread.currentThread().interrupt();
+            throw new StorageException("Failed to obtain a read lock for storable key : " + key);
         }
     }
 
@@ -122,34 +169,76 @@ public class JdbcStorageManager implements TransactionManager, StorageManager {
     public boolean writeLock(StorableKey key, Long time, TimeUnit timeUnit) {
         log.debug("Obtaining a write lock for entry with storable key [{}]", key);
 
-        Supplier<Collection<Storable>> supplier = () -> queryExecutor.selectForUpdate(key);
-
         try {
-            return getLock(supplier, time, timeUnit);
+            return getLock(key, true, time, timeUnit);
         } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
             throw new StorageException("Failed to obtain a write lock for storable key : " + key);
         }
     }
 
-    private boolean getLock(Supplier<Collection<Storable>> supplier, Long time, TimeUnit timeUnit) throws InterruptedException {
-        long remainingTime = TimeUnit.MILLISECONDS.convert(time, timeUnit);
+    /**
+     * Obtains the lock on the row of the given key. Inside a transaction, contenders of this process are first queued on
+     * an in-process lock which is held while awaiting the row lock, the row lock itself is awaited in the database with
+     * the remaining time as lock wait timeout, at most the configured {@link ExecutionConfig#getLockWaitTimeoutMs()} per
+     * query. Locks are released when the transaction is committed or rolled back.
+     */
+    private boolean getLock(StorableKey key, boolean exclusive, Long time, TimeUnit timeUnit) throws InterruptedException {
+        long timeoutMs = TimeUnit.MILLISECONDS.convert(time, timeUnit);
 
-        if(remainingTime < 0) {
+        if (timeoutMs < 0) {
             throw new IllegalArgumentException("Wait time for obtaining the lock can't be negative");
         }
 
-        long startTime = System.currentTimeMillis();
-        do {
-            Collection<Storable> storables = supplier.get();
-            if (storables != null && !storables.isEmpty()) {
-                return true;
-            } else {
-                Thread.sleep(500);
+        long startTime = System.nanoTime();
+        boolean isLocked = false;
+        boolean isQueuedLocally = false;
+        try {
+            if (transactionDepth.get() > 0) {
+                if (!storableKeyLocks.acquire(key, exclusive, timeoutMs)) {
+                    return false;
+                }
+                isQueuedLocally = true;
             }
-        } while((System.currentTimeMillis() - startTime) < remainingTime);
 
+            long maxLockWaitTimeoutMs = queryExecutor.getConfig().getLockWaitTimeoutMs();
+            long backoffMs = MIN_MISSING_LOCK_ROW_BACKOFF_MS;
+            long remainingMs = Math.max(timeoutMs - elapsedMs(startTime), 1);
+            do {
+                long lockWaitTimeoutMs = maxLockWaitTimeoutMs > 0 ? Math.min(remainingMs, maxLockWaitTimeoutMs) : remainingMs;
+                try {
+                    Collection<Storable> storables = exclusive
+                                                     ? queryExecutor.selectForUpdate(key, lockWaitTimeoutMs)
+                                                     : queryExecutor.selectForShare(key, lockWaitTimeoutMs);
+                    if (storables != null && !storables.isEmpty()) {
+                        isLocked = true;
+                        return true;
+                    }
+
+                    // lock row does not exist yet, it may be inserted by a concurrent transaction.
+                    Thread.sleep(Math.min(backoffMs, remainingMs));
+                    backoffMs = Math.min(backoffMs * 2, MAX_MISSING_LOCK_ROW_BACKOFF_MS);
+                } catch (LockWaitTimeoutException e) {
+                    log.debug("Timed out waiting for lock on storable key [{}]", key, e);
+                }
+                remainingMs = timeoutMs - elapsedMs(startTime);
+            } while (remainingMs > 0);
+
+            return false;
+        } finally {
+            if (isQueuedLocally) {
+                storableKeyLocks.release(isLocked);
+            }
+            long waitTime = System.nanoTime() - startTime;
+            (exclusive ? writeLockWaitTimer : readLockWaitTimer).update(waitTime, TimeUnit.NANOSECONDS);
+            if (!isLocked) {
+                lockWaitTimeoutTimer.update(waitTime, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
 
-        return false;
+    private static long elapsedMs(long startTimeNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTimeNanos);
     }
 
     @Override
@@ -205,6 +294,7 @@ public class JdbcStorageManager implements TransactionManager, StorageManager {
 
     @Override
     public void cleanup() throws StorageException {
+        columnsCache.clear();
         queryExecutor.cleanup();
     }
 
@@ -216,9 +306,41 @@ public class JdbcStorageManager implements TransactionManager, StorageManager {
         return queryExecutor.nextId(namespace);
     }
 
+    @Override
+    public List<Long> nextIds(String namespace, int count) {
+        log.debug("Finding [{}] next ids for table [{}]", count, namespace);
+        return queryExecutor.nextIds(namespace, count);
+    }
+
     @Override
     public void registerStorables(Collection<Class<? extends Storable>> classes) throws StorageException {
         storableFactory.addStorableClasses(classes);
+
+        // load column metadata of the registered tables upfront, tables which are not yet created are loaded on first use.
+        for (Class<? extends Storable> clazz : classes) {
+            String namespace;
+            try {
+                namespace = clazz.newInstance().getNameSpace();
+            } catch (InstantiationException | IllegalAccessException e) {
+                throw new StorageException(e);
+            }
+            try {
+                loadColumns(namespace);
+            } catch (Exception e) {
+                log.debug("Column metadata of namespace [{}] is not available yet", namespace, e);
+            }
+        }
+    }
+
+    private Columns getColumns(String namespace) throws SQLException {
+        Columns columns = columnsCache.get(namespace);
+        return columns != null ? columns : loadColumns(namespace);
+    }
+
+    private Columns loadColumns(String namespace) throws SQLException {
+        Columns columns = queryExecutor.getColumns(namespace);
+        columnsCache.put(namespace, columns);
+        return columns;
     }
 
     // private helper methods
@@ -236,14 +358,21 @@ public class JdbcStorageManager implements TransactionManager, StorageManager {
         StorableKey storableKey = null;
 
         try {
-            Columns columns = queryExecutor.getColumns(namespace);
+            Columns columns = getColumns(namespace);
+            for (QueryParam qp : queryParams) {
+                if (columns.getType(qp.getName()) == null) {
+                    // the table may have been altered since its columns were cached
+                    columns = loadColumns(namespace);
+                    break;
+                }
+            }
             for (QueryParam qp : queryParams) {
                 Schema.Type type = columns.getType(qp.getName());
                 if (type == null) {
                     log.warn("Query parameter [{}] does not exist for namespace [{}]. Query parameter ignored.", qp.getName(), namespace);
                 } else {
                     fieldsToVal.put(new Schema.Field(qp.getName(), type),
-                            type.getJavaType().getConstructor(String.class).newInstance(qp.getValue()));
+                            ColumnValueConverters.fromString(type, qp.getValue()));
                 }
             }
 
@@ -265,7 +394,8 @@ public class JdbcStorageManager implements TransactionManager, StorageManager {
 
     /**
      * Initializes this instance with {@link QueryExecutor} created from the given {@code properties}.
-     * Some of these properties are jdbcDriverClass, jdbcUrl, queryTimeoutInSecs.
+     * Some of these properties are jdbcDriverClass, jdbcUrl, queryTimeoutInSecs and lockWaitTimeoutInMs, the longest
+     * time a single locking query of the configured database waits for a row lock.
      *
      * @param properties properties with name/value pairs
      */
@@ -280,7 +410,15 @@ public class JdbcStorageManager implements TransactionManager, StorageManager {
         log.info("jdbc provider type: [{}]", type);
         Map<String, Object> dbProperties = (Map<String, Object>) properties.get("db.properties");
 
-        QueryExecutor queryExecutor = QueryExecutorFactory.get(type, dbProperties);
+        long lockWaitTimeoutMs = -1;
+        if (properties.containsKey(LOCK_WAIT_TIMEOUT_MS)) {
+            lockWaitTimeoutMs = ((Number) properties.get(LOCK_WAIT_TIMEOUT_MS)).longValue();
+            if (lockWaitTimeoutMs <= 0) {
+                throw new IllegalArgumentException(LOCK_WAIT_TIMEOUT_MS + " property must be positive");
+            }
+        }
+
+        QueryExecutor queryExecutor = QueryExecutorFactory.get(type, dbProperties, lockWaitTimeoutMs);
 
         this.queryExecutor = queryExecutor;
         this.queryExecutor.setStorableFactory(storableFactory);
@@ -289,6 +427,7 @@ public class JdbcStorageManager implements TransactionManager, StorageManager {
     @Override
     public void beginTransaction(TransactionIsolation transactionIsolationLevel) {
         queryExecutor.beginTransaction(transactionIsolationLevel);
+        transactionDepth.set(transactionDepth.get() + 1);
     }
 
     @Override
@@ -299,11 +438,44 @@ public class JdbcStorageManager implements TransactionManager, StorageManager {
 
         // Another implementations of QueryExecutor should provide a way of guaranteeing the
         // behavior, like call closeConnection() when rollbackTransaction() is failing.
-        queryExecutor.rollbackTransaction();
+        try {
+            queryExecutor.rollbackTransaction();
+        } finally {
+            endTransaction();
+        }
     }
 
     @Override
     public void commitTransaction() {
-        queryExecutor.commitTransaction();
+        try {
+            queryExecutor.commitTransaction();
+        } finally {
+            endTransaction();
+        }
+    }
+
+    /**
+     * Only the transaction on the database connection is captured. In-process locks stay with the thread which
+     * obtained them, a thread the transaction is attached to relies on the database locks only.
+     */
+    @Override
+    public TransactionContext captureTransaction() {
+        return queryExecutor.captureTransaction();
+    }
+
+    @Override
+    public TransactionContext.Scope attachTransaction(TransactionContext transactionContext) {
+        return queryExecutor.attachTransaction(transactionContext);
+    }
+
+    private void endTransaction() {
+        int depth = transactionDepth.get();
+        if (depth > 1) {
+            transactionDepth.set(depth - 1);
+        } else {
+            // database locks are released with the outermost transaction, contenders may be queued locally again.
+            transactionDepth.remove();
+            storableKeyLocks.releaseAll();
+        }
     }
 }
@@ -0,0 +1,102 @@
+/**
+ * Copyright 2016-2019 Cloudera, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package com.hortonworks.registries.storage.impl.jdbc;
+
+import com.google.common.util.concurrent.Striped;
+import com.hortonworks.registries.storage.StorableKey;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+
+/**
+ * In-process read/write locks on {@link StorableKey}s which a thread holds while it waits for the database row lock of
+ * the key, from {@link #acquire(StorableKey, boolean, long)} till {@link #release(boolean)}. Threads of the same
+ * process contending for a row lock queue here instead of each of them pinning a connection which waits in the
+ * database.
+ * <p>
+ * A thread which already holds row locks in its transaction leaves further locks to the database, so that it never
+ * waits here on a contender which itself waits in the database for one of those row locks.
+ */
+public class StorableKeyLocks {
+
+    private final Striped<ReadWriteLock> locks;
+    private final ThreadLocal<Lock> waitingLock = new ThreadLocal<>();
+    private final ThreadLocal<Boolean> holdsRowLocks = new ThreadLocal<>();
+
+    public StorableKeyLocks(int stripes) {
+        locks = Striped.lazyWeakReadWriteLock(stripes);
+    }
+
+    /**
+     * Acquires the local lock for the given key unless the current thread already holds row locks. It must be followed
+     * by {@link #release(boolean)} once the row lock is obtained or given up.
+     *
+     * @return false if the lock could not be acquired within the given time, true otherwise
+     */
+    public boolean acquire(StorableKey key, boolean exclusive, long timeoutMs) throws InterruptedException {
+        if (holdsRowLocks()) {
+            return true;
+        }
+
+        ReadWriteLock readWriteLock = locks.get(key);
+        Lock lock = exclusive ? readWriteLock.writeLock() : readWriteLock.readLock();
+        if (lock.tryLock(timeoutMs, TimeUnit.MILLISECONDS)) {
+            waitingLock.set(lock);
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Releases the local lock acquired by the current thread, if any.
+     *
+     * @param rowLocked true if the current thread obtained the row lock it was waiting for
+     */
+    public void release(boolean rowLocked) {
+        Lock lock = waitingLock.get();
+        if (lock != null) {
+            waitingLock.remove();
+            lock.unlock();
+        }
+        if (rowLocked) {
+            holdsRowLocks.set(Boolean.TRUE);
+        }
+    }
+
+    /**
+     * @return true if the current thread holds a local lock
+     */
+    public boolean holdsLocks() {
+        return waitingLock.get() != null;
+    }
+
+    /**
+     * @return true if the current thread obtained row locks since its transaction began
+     */
+    public boolean holdsRowLocks() {
+        return holdsRowLocks.get() != null;
+    }
+
+    /**
+     * Forgets the row locks of the current thread once its transaction has ended.
+     */
+    public void releaseAll() {
+        release(false);
+        holdsRowLocks.remove();
+    }
+}
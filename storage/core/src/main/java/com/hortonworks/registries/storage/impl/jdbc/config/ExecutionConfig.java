@@ -30,16 +30,21 @@ public class ExecutionConfig {
 
     private final int queryTimeoutSecs;
     private final DatabaseType databaseType;
+    private final long lockWaitTimeoutMs;
 
     // Replace constructors with Builder pattern as more configuration options become available
-    public ExecutionConfig(int queryTimeoutSecs, DatabaseType databaseType) {
+    public ExecutionConfig(int queryTimeoutSecs, DatabaseType databaseType, long lockWaitTimeoutMs) {
         this.queryTimeoutSecs = queryTimeoutSecs;
         this.databaseType = databaseType;
+        this.lockWaitTimeoutMs = lockWaitTimeoutMs;
+    }
+
+    public ExecutionConfig(int queryTimeoutSecs, DatabaseType databaseType) {
+        this(queryTimeoutSecs, databaseType, -1);
     }
 
     public ExecutionConfig(int queryTimeoutSecs) {
-        this.queryTimeoutSecs = queryTimeoutSecs;
-        this.databaseType = null;
+        this(queryTimeoutSecs, null);
     }
 
     public int getQueryTimeoutSecs() {
@@ -49,4 +54,12 @@ public class ExecutionConfig {
     public DatabaseType getDatabaseType() {
         return databaseType;
     }
+
+    /**
+     * @return the longest time a single locking query waits in the database for a row lock, -1 if it waits as long as
+     * the lock was requested for
+     */
+    public long getLockWaitTimeoutMs() {
+        return lockWaitTimeoutMs;
+    }
 }
@@ -41,9 +41,16 @@ public class QueryExecutorFactory {
     }
 
     public static QueryExecutor get(DatabaseType type, Map<String, Object> dbProperties) {
+        return get(type, dbProperties, -1);
+    }
+
+    /**
+     * @param lockWaitTimeoutMs longest time a single locking query waits for a row lock, -1 to wait as long as requested
+     */
+    public static QueryExecutor get(DatabaseType type, Map<String, Object> dbProperties, long lockWaitTimeoutMs) {
 
         HikariCPConnectionBuilder connectionBuilder = getHikariCPConnnectionBuilder(type, dbProperties);
-        ExecutionConfig executionConfig = getExecutionConfig(type, dbProperties);
+        ExecutionConfig executionConfig = getExecutionConfig(type, dbProperties, lockWaitTimeoutMs);
 
         QueryExecutor queryExecutor = null;
         switch (type) {
@@ -77,7 +84,7 @@ public class QueryExecutorFactory {
         return new HikariCPConnectionBuilder(hikariConfig);
     }
 
-    private static ExecutionConfig getExecutionConfig(DatabaseType type, Map<String, Object> dbProperties) {
+    private static ExecutionConfig getExecutionConfig(DatabaseType type, Map<String, Object> dbProperties, long lockWaitTimeoutMs) {
         int queryTimeOutInSecs = -1;
         if (dbProperties.containsKey("queryTimeoutInSecs")) {
             queryTimeOutInSecs = (Integer) dbProperties.get("queryTimeoutInSecs");
@@ -86,6 +93,6 @@ public class QueryExecutorFactory {
             }
         }
 
-        return new ExecutionConfig(queryTimeOutInSecs, type);
+        return new ExecutionConfig(queryTimeOutInSecs, type, lockWaitTimeoutMs);
     }
 }
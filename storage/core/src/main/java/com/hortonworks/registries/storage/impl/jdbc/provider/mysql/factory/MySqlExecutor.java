@@ -33,8 +33,16 @@ import com.hortonworks.registries.storage.impl.jdbc.provider.sql.query.SqlQuery;
 import com.hortonworks.registries.storage.impl.jdbc.provider.sql.statement.PreparedStatementBuilder;
 import com.hortonworks.registries.storage.search.SearchQuery;
 
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 
 /**
  * SQL query executor for MySQL DB.
@@ -47,6 +55,12 @@ import java.util.List;
  */
 public class MySqlExecutor extends AbstractQueryExecutor {
 
+    // ER_LOCK_WAIT_TIMEOUT
+    private static final int LOCK_WAIT_TIMEOUT_ERROR_CODE = 1205;
+
+    // session lock wait timeouts of the transaction connections, restored before they are returned to the pool
+    private final ConcurrentMap<Connection, Long> savedLockWaitTimeouts = new ConcurrentHashMap<>();
+
     /**
      * @param config Object that contains arbitrary configuration that may be needed for any of the steps of the query execution process
      * @param connectionBuilder Object that establishes the connection to the database
@@ -69,7 +83,19 @@ public class MySqlExecutor extends AbstractQueryExecutor {
 
     @Override
     public void insert(Storable storable) {
-        insertOrUpdateWithUniqueId(storable, new MySqlInsertQuery(storable));
+        insertOrUpdateWithUniqueId(storable, createInsertQuery(storable));
+    }
+
+    @Override
+    protected SqlQuery createInsertQuery(Storable storable) {
+        return new MySqlInsertQuery(storable);
+    }
+
+    @Override
+    protected boolean supportsBatchGeneratedKeys(DatabaseMetaData databaseMetaData) throws SQLException {
+        // other databases may be accessed with this dialect, e.g. H2 in tests, whose drivers return only the last key
+        String productName = databaseMetaData.getDatabaseProductName();
+        return "MySQL".equals(productName) || "MariaDB".equals(productName);
     }
 
     @Override
@@ -123,6 +149,38 @@ public class MySqlExecutor extends AbstractQueryExecutor {
         return executeQuery(storableKey.getNameSpace(), new MySqlSelectForUpdateQuery(storableKey));
     }
 
+    @Override
+    protected void setLockWaitTimeout(Connection connection, long lockWaitTimeoutMs) throws SQLException {
+        // innodb_lock_wait_timeout is in seconds and can't be lower than 1
+        long lockWaitTimeoutSecs = Math.max(1, (lockWaitTimeoutMs + TimeUnit.SECONDS.toMillis(1) - 1) / TimeUnit.SECONDS.toMillis(1));
+        try (Statement statement = connection.createStatement()) {
+            if (!savedLockWaitTimeouts.containsKey(connection)) {
+                try (ResultSet resultSet = statement.executeQuery("SELECT @@SESSION.innodb_lock_wait_timeout")) {
+                    if (resultSet.next()) {
+                        savedLockWaitTimeouts.put(connection, resultSet.getLong(1));
+                    }
+                }
+            }
+            statement.execute("SET SESSION innodb_lock_wait_timeout = " + lockWaitTimeoutSecs);
+        }
+    }
+
+    @Override
+    protected void resetLockWaitTimeout(Connection connection) throws SQLException {
+        // unlike the other settings of the transaction, the session variable outlives it
+        Long lockWaitTimeoutSecs = savedLockWaitTimeouts.remove(connection);
+        if (lockWaitTimeoutSecs != null) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET SESSION innodb_lock_wait_timeout = " + lockWaitTimeoutSecs);
+            }
+        }
+    }
+
+    @Override
+    protected boolean isLockWaitTimeout(SQLException e) {
+        return e.getErrorCode() == LOCK_WAIT_TIMEOUT_ERROR_CODE;
+    }
+
     private void insertOrUpdateWithUniqueId(final Storable storable, final SqlQuery sqlQuery) {
         try {
             Long id = storable.getId();
@@ -24,6 +24,7 @@ import com.hortonworks.registries.storage.StorableKey;
 import com.hortonworks.registries.storage.exception.StorageException;
 import com.hortonworks.registries.storage.impl.jdbc.config.ExecutionConfig;
 import com.hortonworks.registries.storage.impl.jdbc.connection.ConnectionBuilder;
+import com.hortonworks.registries.storage.impl.jdbc.provider.oracle.query.OracleDeleteLessThanQuery;
 import com.hortonworks.registries.storage.impl.jdbc.provider.oracle.query.OracleDeleteQuery;
 import com.hortonworks.registries.storage.impl.jdbc.provider.oracle.query.OracleInsertQuery;
 import com.hortonworks.registries.storage.impl.jdbc.provider.oracle.query.OracleInsertUpdateDuplicate;
@@ -42,13 +43,17 @@ import com.hortonworks.registries.storage.search.SearchQuery;
 import java.sql.Connection;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 
 public class OracleExecutor extends AbstractQueryExecutor {
 
     private static final OracleDataTypeContext ORACLE_DATA_TYPE_CONTEXT = new OracleDataTypeContext();
+    // ORA-30006: resource busy; acquire with WAIT timeout expired
+    private static final int LOCK_WAIT_TIMEOUT_ERROR_CODE = 30006;
 
     public OracleExecutor(ExecutionConfig config, ConnectionBuilder connectionBuilder) {
         super(config, connectionBuilder, ORACLE_DATA_TYPE_CONTEXT);
@@ -61,7 +66,12 @@ public class OracleExecutor extends AbstractQueryExecutor {
 
     @Override
     public void insert(Storable storable) {
-        executeUpdate(new OracleInsertQuery(storable));
+        executeUpdate(createInsertQuery(storable));
+    }
+
+    @Override
+    protected SqlQuery createInsertQuery(Storable storable) {
+        return new OracleInsertQuery(storable);
     }
 
     @Override
@@ -78,6 +88,11 @@ public class OracleExecutor extends AbstractQueryExecutor {
         executeUpdate(new OracleDeleteQuery(storableKey));
     }
 
+    @Override
+    public int deleteLessThan(StorableKey storableKey) {
+        return executeUpdate(new OracleDeleteLessThanQuery(storableKey));
+    }
+
     @Override
     public <T extends Storable> Collection<T> select(SearchQuery searchQuery) {
         return executeQuery(searchQuery.getNameSpace(), new OracleSelectQuery(searchQuery, storableFactory.create(searchQuery.getNameSpace()).getSchema()));
@@ -119,6 +134,19 @@ public class OracleExecutor extends AbstractQueryExecutor {
         return executeQuery(storableKey.getNameSpace(), new OracleSelectForUpdateQuery(storableKey));
     }
 
+    @Override
+    public <T extends Storable> Collection<T> selectForUpdate(StorableKey storableKey, long lockWaitTimeoutMs) {
+        // Oracle has no session level lock timeout, it is given with the query instead.
+        long waitSecs = Math.max(1, (lockWaitTimeoutMs + TimeUnit.SECONDS.toMillis(1) - 1) / TimeUnit.SECONDS.toMillis(1));
+        return executeLockingQuery(() -> executeQuery(storableKey.getNameSpace(), new OracleSelectForUpdateQuery(storableKey, waitSecs)),
+                                   lockWaitTimeoutMs);
+    }
+
+    @Override
+    protected boolean isLockWaitTimeout(SQLException e) {
+        return e.getErrorCode() == LOCK_WAIT_TIMEOUT_ERROR_CODE;
+    }
+
     @Override
     public Long nextId(String namespace) {
         OracleSequenceIdQuery oracleSequenceIdQuery = new OracleSequenceIdQuery(namespace, queryTimeoutSecs, ORACLE_DATA_TYPE_CONTEXT);
@@ -128,7 +156,24 @@ public class OracleExecutor extends AbstractQueryExecutor {
             Long id = oracleSequenceIdQuery.getNextID(connection);
             return id;
         } finally {
-            if(!transactionBookKeeper.hasActiveTransaction(Thread.currentThread().getId())) {
+            if(!transactionBookKeeper.hasActiveTransaction()) {
+                closeConnection(connection);
+            }
+        }
+    }
+
+    @Override
+    public List<Long> nextIds(String namespace, int count) {
+        if (count == 0) {
+            return new ArrayList<>();
+        }
+        OracleSequenceIdQuery oracleSequenceIdQuery = new OracleSequenceIdQuery(namespace, queryTimeoutSecs, ORACLE_DATA_TYPE_CONTEXT);
+        Connection connection = null;
+        try {
+            connection = getConnection();
+            return oracleSequenceIdQuery.getNextIDs(connection, count);
+        } finally {
+            if(!transactionBookKeeper.hasActiveTransaction()) {
                 closeConnection(connection);
             }
         }
@@ -151,7 +196,7 @@ public class OracleExecutor extends AbstractQueryExecutor {
             log.error(e.getMessage(), e);
             throw new RuntimeException(e);
         } finally {
-            if(!transactionBookKeeper.hasActiveTransaction(Thread.currentThread().getId())) {
+            if(!transactionBookKeeper.hasActiveTransaction()) {
                 closeConnection(connection);
             }
         }
@@ -20,14 +20,27 @@ import com.hortonworks.registries.storage.StorableKey;
 
 public class OracleSelectForUpdateQuery extends OracleSelectQuery {
 
+    private final Long waitSecs;
+
     public OracleSelectForUpdateQuery(StorableKey storableKey) {
+        this(storableKey, null);
+    }
+
+    /**
+     * @param waitSecs seconds to wait for a conflicting lock to be released, waits indefinitely when null
+     */
+    public OracleSelectForUpdateQuery(StorableKey storableKey, Long waitSecs) {
         super(storableKey);
+        this.waitSecs = waitSecs;
     }
 
     @Override
     protected String getParameterizedSql() {
         String sql = super.getParameterizedSql();
         sql += " FOR UPDATE";
+        if (waitSecs != null) {
+            sql += " WAIT " + waitSecs;
+        }
 
         LOG.debug(sql);
         return sql;
@@ -85,6 +85,11 @@ public class OracleSelectQuery extends AbstractSelectQuery {
         return sql;
     }
 
+    @Override
+    protected String limitSql(int limit) {
+        return " FETCH FIRST " + limit + " ROWS ONLY";
+    }
+
     @Override
     protected String fieldEncloser() {
         return "\"";
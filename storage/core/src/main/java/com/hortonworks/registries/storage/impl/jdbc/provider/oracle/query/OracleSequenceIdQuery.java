@@ -27,6 +27,8 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
 
 public class OracleSequenceIdQuery {
     private static final Logger log = LoggerFactory.getLogger(OracleSequenceIdQuery.class);
@@ -62,6 +64,31 @@ public class OracleSequenceIdQuery {
         return nextId;
     }
 
+    /**
+     * @return the next {@code count} values of the sequence, fetched with a single query
+     */
+    public List<Long> getNextIDs(Connection connection, int count) {
+        OracleSqlQuery nextValuesQuery = new OracleSqlQuery(String.format("SELECT \"%s\".%s from DUAL CONNECT BY LEVEL <= %d",
+                                                                          namespace.toUpperCase(), nextValueFunction, count));
+        List<Long> nextIds = new ArrayList<>(count);
+
+        try (PreparedStatement preparedStatement = PreparedStatementBuilder.of(connection, new ExecutionConfig(queryTimeoutSecs), oracleDatabaseStorageContext, nextValuesQuery).getPreparedStatement(nextValuesQuery);
+             ResultSet selectResultSet = preparedStatement.executeQuery()) {
+            while (selectResultSet.next()) {
+                nextIds.add(selectResultSet.getLong(nextValueFunction));
+            }
+            if (nextIds.size() != count) {
+                throw new RuntimeException("Expected " + count + " sequence-ids for the current sequence of [" + namespace + "] but got " + nextIds.size());
+            }
+            log.debug("Generated sequence ids [{}] for [{}]", nextIds, namespace);
+        } catch (SQLException e) {
+            log.error(e.getMessage(), e);
+            throw new RuntimeException(e);
+        }
+
+        return nextIds;
+    }
+
     static class OracleSqlQuery extends AbstractSqlQuery {
 
         private String sql;
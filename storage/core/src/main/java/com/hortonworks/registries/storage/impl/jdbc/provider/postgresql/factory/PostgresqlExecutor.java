@@ -27,6 +27,7 @@ import com.hortonworks.registries.storage.Storable;
 import com.hortonworks.registries.storage.StorableKey;
 import com.hortonworks.registries.storage.impl.jdbc.config.ExecutionConfig;
 import com.hortonworks.registries.storage.impl.jdbc.connection.ConnectionBuilder;
+import com.hortonworks.registries.storage.impl.jdbc.provider.postgresql.query.PostgresqlDeleteLessThanQuery;
 import com.hortonworks.registries.storage.impl.jdbc.provider.postgresql.query.PostgresqlDeleteQuery;
 import com.hortonworks.registries.storage.impl.jdbc.provider.postgresql.query.PostgresqlInsertQuery;
 import com.hortonworks.registries.storage.impl.jdbc.provider.postgresql.query.PostgresqlSelectForShareQuery;
@@ -38,7 +39,11 @@ import com.hortonworks.registries.storage.impl.jdbc.provider.sql.query.SqlQuery;
 import com.hortonworks.registries.storage.impl.jdbc.provider.sql.statement.PreparedStatementBuilder;
 import com.hortonworks.registries.storage.search.SearchQuery;
 
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
 import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
@@ -53,6 +58,9 @@ import java.util.Map;
  */
 public class PostgresqlExecutor extends AbstractQueryExecutor {
 
+    // lock_not_available
+    private static final String LOCK_NOT_AVAILABLE_SQL_STATE = "55P03";
+
     /**
      * @param config            Object that contains arbitrary configuration that may be needed for any of the steps of the query execution process
      * @param connectionBuilder Object that establishes the connection to the database
@@ -75,7 +83,18 @@ public class PostgresqlExecutor extends AbstractQueryExecutor {
 
     @Override
     public void insert(Storable storable) {
-        insertOrUpdateWithUniqueId(storable, new PostgresqlInsertQuery(storable));
+        insertOrUpdateWithUniqueId(storable, createInsertQuery(storable));
+    }
+
+    @Override
+    protected SqlQuery createInsertQuery(Storable storable) {
+        return new PostgresqlInsertQuery(storable);
+    }
+
+    @Override
+    protected boolean supportsBatchGeneratedKeys(DatabaseMetaData databaseMetaData) throws SQLException {
+        String productName = databaseMetaData.getDatabaseProductName();
+        return "PostgreSQL".equals(productName);
     }
 
     @Override
@@ -128,6 +147,11 @@ public class PostgresqlExecutor extends AbstractQueryExecutor {
         executeUpdate(new PostgresqlDeleteQuery(storableKey));
     }
 
+    @Override
+    public int deleteLessThan(StorableKey storableKey) {
+        return executeUpdate(new PostgresqlDeleteLessThanQuery(storableKey));
+    }
+
     @Override
     public Long nextId(String namespace) {
         // We intentionally return null. Please refer the class javadoc for more details.
@@ -150,6 +174,25 @@ public class PostgresqlExecutor extends AbstractQueryExecutor {
         return executeQuery(storableKey.getNameSpace(), new PostgresqlSelectForUpdateQuery(storableKey));
     }
 
+    @Override
+    protected void setLockWaitTimeout(Connection connection, long lockWaitTimeoutMs) throws SQLException {
+        // SET LOCAL only lasts till the end of the current transaction, lock_timeout of 0 disables the timeout.
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SET LOCAL lock_timeout = " + Math.max(1, lockWaitTimeoutMs));
+        }
+    }
+
+    @Override
+    protected boolean isTransactionAbortedOnLockWaitTimeout() {
+        // any further statement of the transaction fails with 25P02 till it is rolled back to a savepoint.
+        return true;
+    }
+
+    @Override
+    protected boolean isLockWaitTimeout(SQLException e) {
+        return LOCK_NOT_AVAILABLE_SQL_STATE.equals(e.getSQLState());
+    }
+
     // this is required since the Id type in Storable is long and Postgres supports Int type for SERIAL (auto increment) field
     @Override
     protected QueryExecution getQueryExecution(SqlQuery sqlQuery) {
@@ -27,7 +27,7 @@ public class PostgresqlSelectForShareQuery extends PostgresqlSelectQuery {
     @Override
     protected String getParameterizedSql() {
         String sql = super.getParameterizedSql();
-        sql += " FOR SHARE SKIP LOCKED";
+        sql += " FOR SHARE";
 
         LOG.debug(sql);
         return sql;
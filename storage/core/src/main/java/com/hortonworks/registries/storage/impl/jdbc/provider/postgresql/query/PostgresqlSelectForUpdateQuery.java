@@ -27,7 +27,7 @@ public class PostgresqlSelectForUpdateQuery extends PostgresqlSelectQuery{
     @Override
     protected String getParameterizedSql() {
         String sql = super.getParameterizedSql();
-        sql += " FOR UPDATE SKIP LOCKED";
+        sql += " FOR UPDATE";
 
         LOG.debug(sql);
         return sql;
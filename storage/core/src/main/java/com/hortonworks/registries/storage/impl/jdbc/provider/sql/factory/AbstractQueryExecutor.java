@@ -24,10 +24,12 @@ import com.hortonworks.registries.storage.transaction.TransactionIsolation;
 import com.hortonworks.registries.storage.Storable;
 import com.hortonworks.registries.storage.StorableFactory;
 import com.hortonworks.registries.storage.StorableKey;
+import com.hortonworks.registries.storage.exception.LockWaitTimeoutException;
 import com.hortonworks.registries.storage.exception.StorageException;
 import com.hortonworks.registries.storage.exception.TransactionException;
 import com.hortonworks.registries.storage.impl.jdbc.config.ExecutionConfig;
 import com.hortonworks.registries.storage.impl.jdbc.connection.ConnectionBuilder;
+import com.hortonworks.registries.storage.impl.jdbc.provider.sql.query.SqlDeleteLessThanQuery;
 import com.hortonworks.registries.storage.impl.jdbc.provider.sql.query.SqlDeleteQuery;
 import com.hortonworks.registries.storage.impl.jdbc.provider.sql.query.SqlQuery;
 import com.hortonworks.registries.storage.impl.jdbc.provider.sql.query.SqlSelectQuery;
@@ -37,22 +39,26 @@ import com.hortonworks.registries.storage.impl.jdbc.provider.sql.statement.Stora
 import com.hortonworks.registries.storage.impl.jdbc.util.Columns;
 import com.hortonworks.registries.storage.impl.jdbc.util.Util;
 import com.hortonworks.registries.storage.transaction.TransactionBookKeeper;
+import com.hortonworks.registries.storage.transaction.TransactionContext;
 import com.hortonworks.registries.storage.transaction.TransactionState;
 
 import java.sql.Connection;
+import java.sql.DatabaseMetaData;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import java.sql.Savepoint;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
-import java.util.LinkedList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
 
 /**
  *
@@ -67,6 +73,7 @@ public abstract class AbstractQueryExecutor implements QueryExecutor {
     protected final TransactionBookKeeper transactionBookKeeper = new TransactionBookKeeper();
 
     private final Cache<SqlQuery, PreparedStatementBuilder> cache;
+    private volatile Boolean batchGeneratedKeysSupported;
     protected StorableFactory storableFactory;
 
     public AbstractQueryExecutor(ExecutionConfig config, ConnectionBuilder connectionBuilder) {
@@ -90,11 +97,48 @@ public abstract class AbstractQueryExecutor implements QueryExecutor {
         activeConnections = Collections.synchronizedList(new ArrayList<Connection>());
     }
 
+    @Override
+    public void insertAll(Collection<? extends Storable> storables) {
+        Map<String, List<Storable>> namespaceToStorables = new LinkedHashMap<>();
+        for (Storable storable : storables) {
+            namespaceToStorables.computeIfAbsent(storable.getNameSpace(), namespace -> new ArrayList<>()).add(storable);
+        }
+
+        for (List<Storable> namespaceStorables : namespaceToStorables.values()) {
+            // rows with and without id have different column lists, so they can not share a prepared statement
+            List<Storable> storablesWithKey = new ArrayList<>();
+            List<Storable> storablesWithoutId = new ArrayList<>();
+            for (Storable storable : namespaceStorables) {
+                if (hasMissingId(storable)) {
+                    storablesWithoutId.add(storable);
+                } else {
+                    storablesWithKey.add(storable);
+                }
+            }
+
+            if (!storablesWithKey.isEmpty()) {
+                executeBatchInsert(storablesWithKey, false);
+            }
+            if (!storablesWithoutId.isEmpty()) {
+                if (isBatchGeneratedKeysSupported()) {
+                    executeBatchInsert(storablesWithoutId, true);
+                } else {
+                    storablesWithoutId.forEach(this::insert);
+                }
+            }
+        }
+    }
+
     @Override
     public void delete(StorableKey storableKey) {
         executeUpdate(new SqlDeleteQuery(storableKey));
     }
 
+    @Override
+    public int deleteLessThan(StorableKey storableKey) {
+        return executeUpdate(new SqlDeleteLessThanQuery(storableKey));
+    }
+
     @Override
     public <T extends Storable> Collection<T> select(final String namespace) {
         return executeQuery(namespace, new SqlSelectQuery(namespace));
@@ -105,6 +149,16 @@ public abstract class AbstractQueryExecutor implements QueryExecutor {
         return executeQuery(storableKey.getNameSpace(), new SqlSelectQuery(storableKey));
     }
 
+    @Override
+    public <T extends Storable> Collection<T> selectForShare(StorableKey storableKey, long lockWaitTimeoutMs) {
+        return executeLockingQuery(() -> selectForShare(storableKey), lockWaitTimeoutMs);
+    }
+
+    @Override
+    public <T extends Storable> Collection<T> selectForUpdate(StorableKey storableKey, long lockWaitTimeoutMs) {
+        return executeLockingQuery(() -> selectForUpdate(storableKey), lockWaitTimeoutMs);
+    }
+
     public abstract Long nextId(String namespace);
 
     public ExecutionConfig getConfig() {
@@ -114,10 +168,10 @@ public abstract class AbstractQueryExecutor implements QueryExecutor {
     @Override
     public Connection getConnection() {
         Connection connection;
-        if (transactionBookKeeper.hasActiveTransaction(Thread.currentThread().getId())) {
-            return transactionBookKeeper.getConnection(Thread.currentThread().getId());
+        if (transactionBookKeeper.hasActiveTransaction()) {
+            return transactionBookKeeper.getConnection();
         } else {
-            log.info("No active transaction is associated with the thread id : [{}] ", Thread.currentThread().getId());
+            log.info("No active transaction is associated with the thread : [{}] ", Thread.currentThread().getName());
             connection = connectionBuilder.getConnection();
             log.debug("Created new connection: [{}], active connection size: [{}]", connection, activeConnections.size());
             activeConnections.add(connection);
@@ -143,7 +197,7 @@ public abstract class AbstractQueryExecutor implements QueryExecutor {
             log.error(e.getMessage(), e);
             throw new RuntimeException(e);
         } finally {
-            if(!transactionBookKeeper.hasActiveTransaction(Thread.currentThread().getId())) {
+            if(!transactionBookKeeper.hasActiveTransaction()) {
                 closeConnection(connection);
             }
         }
@@ -204,7 +258,7 @@ public abstract class AbstractQueryExecutor implements QueryExecutor {
                 final PreparedStatementBuilder preparedStatementBuilder = notification.getValue();
                 log.debug("Removed entry from cache [key:{}, val: {}]", notification.getKey(), preparedStatementBuilder);
                 log.debug("Cache size: {}", cache.size());
-                if(preparedStatementBuilder != null && !transactionBookKeeper.hasActiveTransaction(Thread.currentThread().getId())) {
+                if(preparedStatementBuilder != null && !transactionBookKeeper.hasActiveTransaction()) {
                     closeConnection(preparedStatementBuilder.getConnection());
                 }
             }
@@ -226,12 +280,12 @@ public abstract class AbstractQueryExecutor implements QueryExecutor {
 
     @Override
     public void beginTransaction(TransactionIsolation transactionIsolationLevel) {
-        long currentThreadId = Thread.currentThread().getId();
+        String currentThread = Thread.currentThread().getName();
         try {
-            if (!transactionBookKeeper.hasActiveTransaction(currentThreadId)) {
+            if (!transactionBookKeeper.hasActiveTransaction()) {
                 Connection connection = connectionBuilder.getConnection();
                 if (transactionIsolationLevel == TransactionIsolation.JDBC_DEFAULT) {
-                    log.debug(" --- Begin transaction for thread id : {} with isolation level : {} --- ", currentThreadId, transactionIsolationLevel.name());
+                    log.debug(" --- Begin transaction for thread : {} with isolation level : {} --- ", currentThread, transactionIsolationLevel.name());
                     // Use the transaction isolation as recommended by the JDBC driver
                 } else if (transactionIsolationLevel == TransactionIsolation.DATABASE_SENSITIVE) {
                     int transactionIsolation;
@@ -248,23 +302,23 @@ public abstract class AbstractQueryExecutor implements QueryExecutor {
                         default:
                             throw new TransactionException(String.format("Failed to set transaction isolation level for unknown database : %s", config.getDatabaseType().toString()));
                     }
-                    log.debug(" --- Begin transaction for thread id : {} with isolation level : {} and jdbc transaction isolation level : {} --- ",
-                            currentThreadId, transactionIsolationLevel.name(), transactionIsolation);
+                    log.debug(" --- Begin transaction for thread : {} with isolation level : {} and jdbc transaction isolation level : {} --- ",
+                            currentThread, transactionIsolationLevel.name(), transactionIsolation);
                     connection.setTransactionIsolation(transactionIsolation);
                 } else {
-                    log.debug(" --- Begin transaction for thread id : {} with isolation level : {} --- ", currentThreadId, transactionIsolationLevel.name());
+                    log.debug(" --- Begin transaction for thread : {} with isolation level : {} --- ", currentThread, transactionIsolationLevel.name());
                     connection.setTransactionIsolation(transactionIsolationLevel.getValue());
                 }
                 log.debug("Opened connection {}", connection);
                 activeConnections.add(connection);
                 connection.setAutoCommit(false);
-                transactionBookKeeper.addTransaction(currentThreadId, connection);
+                transactionBookKeeper.addTransaction(connection);
             } else {
-                log.debug(" --- Reusing transaction for thread if : {} --- ", currentThreadId);
+                log.debug(" --- Reusing transaction for thread : {} --- ", currentThread);
                 if (transactionIsolationLevel != TransactionIsolation.JDBC_DEFAULT &&
-                        transactionBookKeeper.getConnection(currentThreadId).getTransactionIsolation() != transactionIsolationLevel.getValue())
+                        transactionBookKeeper.getConnection().getTransactionIsolation() != transactionIsolationLevel.getValue())
                     throw new TransactionException("Attempted to change the isolation level amidst an active transaction");
-                transactionBookKeeper.incrementNestedTransactionCount(currentThreadId);
+                transactionBookKeeper.incrementNestedTransactionCount();
             }
         } catch (SQLException e) {
             log.error("Failed to start transaction", e);
@@ -274,22 +328,21 @@ public abstract class AbstractQueryExecutor implements QueryExecutor {
 
     @Override
     public void rollbackTransaction() {
-        long currentThreadId = Thread.currentThread().getId();
-        if (transactionBookKeeper.hasActiveTransaction(currentThreadId)) {
-            Connection connection = transactionBookKeeper.getConnection(currentThreadId);
+        String currentThread = Thread.currentThread().getName();
+        if (transactionBookKeeper.hasActiveTransaction()) {
+            Connection connection = transactionBookKeeper.getConnection();
             try {
-                closeTransactionIfUnused(currentThreadId, TransactionState.ROLLBACK);
-                log.debug(" --- Rolled back transaction for thread id : {} --- ", currentThreadId);
+                closeTransactionIfUnused(TransactionState.ROLLBACK);
+                log.debug(" --- Rolled back transaction for thread : {} --- ", currentThread);
             } catch (SQLException e) {
                 throw new TransactionException("Failed to roll back transaction", e);
             } finally {
-                if (!transactionBookKeeper.hasActiveTransaction(currentThreadId)) {
-                    transactionBookKeeper.removeTransaction(currentThreadId);
-                    closeConnection(connection);
+                if (!transactionBookKeeper.hasActiveTransaction()) {
+                    endTransaction(connection);
                 }
             }
         } else {
-            throw new TransactionException(String.format("Failed to rollback, No active transaction is associated with thread id : %s", Long.toString(currentThreadId)));
+            throw new TransactionException(String.format("Failed to rollback, No active transaction is associated with thread : %s", currentThread));
         }
 
     }
@@ -297,36 +350,226 @@ public abstract class AbstractQueryExecutor implements QueryExecutor {
 
     @Override
     public void commitTransaction() {
-        long currentThreadId = Thread.currentThread().getId();
-        if (transactionBookKeeper.hasActiveTransaction(currentThreadId)) {
-            Connection connection = transactionBookKeeper.getConnection(currentThreadId);
+        String currentThread = Thread.currentThread().getName();
+        if (transactionBookKeeper.hasActiveTransaction()) {
+            Connection connection = transactionBookKeeper.getConnection();
             try {
-                closeTransactionIfUnused(currentThreadId, TransactionState.COMMIT);
-                log.debug(" --- Committed transaction for thread id : {} --- ", currentThreadId);
+                closeTransactionIfUnused(TransactionState.COMMIT);
+                log.debug(" --- Committed transaction for thread : {} --- ", currentThread);
             } catch (SQLException e) {
                 throw new TransactionException("Failed to commit transaction", e);
             } finally {
-                if (!transactionBookKeeper.hasActiveTransaction(currentThreadId)) {
-                    transactionBookKeeper.removeTransaction(currentThreadId);
-                    closeConnection(connection);
+                if (!transactionBookKeeper.hasActiveTransaction()) {
+                    endTransaction(connection);
                 }
             }
         } else {
-            throw new TransactionException(String.format("Failed to commit, No active transaction is associated with thread id : %s", Long.toString(currentThreadId)));
+            throw new TransactionException(String.format("Failed to commit, No active transaction is associated with thread : %s", currentThread));
         }
     }
 
-    private void closeTransactionIfUnused(long threadId, TransactionState currentTransactionState) throws SQLException {
-        long currentThreadId = Thread.currentThread().getId();
-        transactionBookKeeper.decrementNestedTransactionCount(currentThreadId, currentTransactionState);
-        if (!transactionBookKeeper.hasActiveTransaction(currentThreadId)) {
-            if (transactionBookKeeper.whereThereAnyRollbacks(currentThreadId))
-                transactionBookKeeper.getConnection(currentThreadId).rollback();
-            else if (transactionBookKeeper.whereThereAnyCommits(currentThreadId))
-                transactionBookKeeper.getConnection(currentThreadId).commit();
+    @Override
+    public TransactionContext captureTransaction() {
+        return transactionBookKeeper.capture();
+    }
+
+    @Override
+    public TransactionContext.Scope attachTransaction(TransactionContext transactionContext) {
+        return transactionBookKeeper.attach(transactionContext);
+    }
+
+    private void endTransaction(Connection connection) {
+        transactionBookKeeper.removeTransaction();
+        try {
+            resetLockWaitTimeout(connection);
+        } catch (SQLException e) {
+            log.warn("Failed to reset lock wait timeout of connection [{}]", connection, e);
+        }
+        closeConnection(connection);
+    }
+
+    private void closeTransactionIfUnused(TransactionState currentTransactionState) throws SQLException {
+        transactionBookKeeper.decrementNestedTransactionCount(currentTransactionState);
+        if (!transactionBookKeeper.hasActiveTransaction()) {
+            if (transactionBookKeeper.whereThereAnyRollbacks())
+                transactionBookKeeper.getConnection().rollback();
+            else if (transactionBookKeeper.whereThereAnyCommits())
+                transactionBookKeeper.getConnection().commit();
             else
                 throw new TransactionException("Attempted to close a transaction without explicit call to commit or rollback");
-            transactionBookKeeper.getConnection(threadId).setAutoCommit(true);
+            transactionBookKeeper.getConnection().setAutoCommit(true);
+        }
+    }
+
+    // =============== Methods for supporting row locks ===============
+
+    /**
+     * Runs the given locking query after limiting the time the active transaction of this thread waits for row locks, so
+     * that contenders are queued by the database instead of polling it. For databases which abort the transaction when
+     * a lock wait times out, the attempt is run under a savepoint which is rolled back to, so that the transaction can
+     * retry the lock.
+     */
+    protected <T extends Storable> Collection<T> executeLockingQuery(Supplier<Collection<T>> lockingQuery,
+                                                                     long lockWaitTimeoutMs) {
+        Connection connection = null;
+        Savepoint savepoint = null;
+        if (transactionBookKeeper.hasActiveTransaction()) {
+            connection = transactionBookKeeper.getConnection();
+            if (isTransactionAbortedOnLockWaitTimeout()) {
+                try {
+                    savepoint = connection.setSavepoint();
+                } catch (SQLException e) {
+                    throw new StorageException(e);
+                }
+            }
+            try {
+                setLockWaitTimeout(connection, lockWaitTimeoutMs);
+            } catch (SQLException e) {
+                log.warn("Failed to set lock wait timeout of [{}] ms, database default is used instead", lockWaitTimeoutMs, e);
+            }
+        }
+
+        try {
+            Collection<T> result = lockingQuery.get();
+            if (savepoint != null) {
+                connection.releaseSavepoint(savepoint);
+            }
+            return result;
+        } catch (StorageException e) {
+            if (e.getCause() instanceof SQLException && isLockWaitTimeout((SQLException) e.getCause())) {
+                if (savepoint != null) {
+                    rollbackToSavepoint(connection, savepoint);
+                }
+                throw new LockWaitTimeoutException("Failed to obtain row lock in " + lockWaitTimeoutMs + " ms", e.getCause());
+            }
+            throw e;
+        } catch (SQLException e) {
+            throw new StorageException(e);
+        }
+    }
+
+    private void rollbackToSavepoint(Connection connection, Savepoint savepoint) {
+        try {
+            connection.rollback(savepoint);
+        } catch (SQLException e) {
+            throw new StorageException(e);
+        }
+    }
+
+    /**
+     * Limits the time statements on the given transaction connection wait for row locks. Databases which do not support
+     * it keep waiting as per their own configuration.
+     */
+    protected void setLockWaitTimeout(Connection connection, long lockWaitTimeoutMs) throws SQLException {
+    }
+
+    /**
+     * Undoes {@link #setLockWaitTimeout(Connection, long)} once the transaction has ended, for databases where it outlives
+     * the transaction, so that the connection goes back to the pool with the lock wait timeout it was taken with.
+     */
+    protected void resetLockWaitTimeout(Connection connection) throws SQLException {
+    }
+
+    /**
+     * @return true if the database aborts the whole transaction once a statement of it failed to obtain a row lock in
+     * time, so that each locking query has to be run under a savepoint
+     */
+    protected boolean isTransactionAbortedOnLockWaitTimeout() {
+        return false;
+    }
+
+    /**
+     * @return true if the given exception was raised by the database as a row lock could not be obtained in time
+     */
+    protected boolean isLockWaitTimeout(SQLException e) {
+        return false;
+    }
+
+    // =============== Methods for supporting batch inserts ===============
+
+    /**
+     * @return the dialect specific query which inserts the given storable, the same one used by {@link #insert(Storable)}
+     */
+    protected abstract SqlQuery createInsertQuery(Storable storable);
+
+    /**
+     * @return true if the driver of the given database returns the keys generated for every row of a batch, so that rows
+     * without id can be inserted in one batch. Otherwise they are inserted one at a time.
+     */
+    protected boolean supportsBatchGeneratedKeys(DatabaseMetaData databaseMetaData) throws SQLException {
+        return false;
+    }
+
+    private boolean isBatchGeneratedKeysSupported() {
+        if (batchGeneratedKeysSupported == null) {
+            Connection connection = null;
+            try {
+                connection = getConnection();
+                batchGeneratedKeysSupported = supportsBatchGeneratedKeys(connection.getMetaData());
+            } catch (SQLException e) {
+                throw new StorageException(e);
+            } finally {
+                if (!transactionBookKeeper.hasActiveTransaction()) {
+                    closeConnection(connection);
+                }
+            }
+        }
+        return batchGeneratedKeysSupported;
+    }
+
+    private boolean hasMissingId(Storable storable) {
+        try {
+            return storable.getId() == null;
+        } catch (UnsupportedOperationException e) {
+            // storables keyed by other fields do not have an id
+            return false;
+        }
+    }
+
+    private void executeBatchInsert(List<Storable> storables, boolean returnGeneratedKeys) {
+        final SqlQuery firstQuery = createInsertQuery(storables.get(0));
+        Connection connection = null;
+        try {
+            connection = getConnection();
+            PreparedStatementBuilder preparedStatementBuilder = returnGeneratedKeys
+                    ? PreparedStatementBuilder.supportReturnGeneratedKeys(connection, config, storageDataTypeContext, firstQuery)
+                    : PreparedStatementBuilder.of(connection, config, storageDataTypeContext, firstQuery);
+
+            // the builder binds the values of each query on the same statement
+            try (PreparedStatement preparedStatement = preparedStatementBuilder.getPreparedStatement(firstQuery)) {
+                preparedStatement.addBatch();
+                for (Storable storable : storables.subList(1, storables.size())) {
+                    preparedStatementBuilder.getPreparedStatement(createInsertQuery(storable)).addBatch();
+                }
+                preparedStatement.executeBatch();
+                log.debug("Inserted batch of [{}] rows into [{}]", storables.size(), storables.get(0).getNameSpace());
+
+                if (returnGeneratedKeys) {
+                    setGeneratedIds(preparedStatement, storables);
+                }
+            }
+        } catch (SQLException e) {
+            throw new StorageException(e);
+        } finally {
+            if (!transactionBookKeeper.hasActiveTransaction()) {
+                closeConnection(connection);
+            }
+        }
+    }
+
+    private void setGeneratedIds(PreparedStatement preparedStatement, List<Storable> storables) throws SQLException {
+        List<Long> generatedIds = new ArrayList<>(storables.size());
+        try (ResultSet generatedKeys = preparedStatement.getGeneratedKeys()) {
+            while (generatedKeys.next()) {
+                generatedIds.add(generatedKeys.getLong(1));
+            }
+        }
+        if (generatedIds.size() != storables.size()) {
+            throw new StorageException("Expected " + storables.size() + " generated keys for batch insert into ["
+                    + storables.get(0).getNameSpace() + "] but got " + generatedIds.size());
+        }
+        for (int i = 0; i < storables.size(); i++) {
+            storables.get(i).setId(generatedIds.get(i));
         }
     }
 
@@ -377,7 +620,7 @@ public abstract class AbstractQueryExecutor implements QueryExecutor {
 
         void closeConn() {
             // Close every opened connection if not using cache. If using cache, cache expiry manages connections
-            if (!isCacheEnabled() && !transactionBookKeeper.hasActiveTransaction(Thread.currentThread().getId())) {
+            if (!isCacheEnabled() && !transactionBookKeeper.hasActiveTransaction()) {
                 closeConnection(connection);
             }
         }
@@ -498,7 +741,7 @@ public abstract class AbstractQueryExecutor implements QueryExecutor {
             try {
                 boolean next = resultSet.next();
                 if (next) {
-                    maps = new LinkedList<>();
+                    maps = new ArrayList<>();
                     ResultSetMetaData rsMetadata = resultSet.getMetaData();
                     do {
                         Map<String, Object> map = storageDataTypeContext.getMapWithRowContents(resultSet, rsMetadata);
@@ -15,6 +15,7 @@
 
 package com.hortonworks.registries.storage.impl.jdbc.provider.sql.factory;
 
+import com.hortonworks.registries.storage.transaction.TransactionContext;
 import com.hortonworks.registries.storage.transaction.TransactionIsolation;
 import com.hortonworks.registries.storage.OrderByField;
 import com.hortonworks.registries.storage.Storable;
@@ -29,6 +30,7 @@ import org.slf4j.LoggerFactory;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 
@@ -43,6 +45,12 @@ public interface QueryExecutor {
      */
     void insert(Storable storable);
 
+    /**
+     * Inserts all the specified {@link Storable}s in storage, sending the rows of each namespace to the database as one
+     * batch. Ids generated by the database for storables without an id are set on them as with {@link #insert(Storable)}.
+     */
+    void insertAll(Collection<? extends Storable> storables);
+
     /**
      * Inserts or updates the specified {@link Storable} in storage
      */
@@ -60,6 +68,14 @@ public interface QueryExecutor {
      */
     void delete(StorableKey storableKey);
 
+    /**
+     * Deletes the entries of the namespace of the specified {@link StorableKey} whose values of its fields are less than
+     * the values in the key
+     *
+     * @return the number of rows deleted
+     */
+    int deleteLessThan(StorableKey storableKey);
+
     /**
      * @return all entries in the given namespace
      */
@@ -96,6 +112,17 @@ public interface QueryExecutor {
      */
     Long nextId(String namespace);
 
+    /**
+     * @return {@code count} available ids for the autoincrement column in the specified {@code namespace}
+     */
+    default List<Long> nextIds(String namespace, int count) {
+        List<Long> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add(nextId(namespace));
+        }
+        return ids;
+    }
+
     /**
      * @return an open connection to the underlying storage
      */
@@ -137,6 +164,16 @@ public interface QueryExecutor {
      */
     void commitTransaction();
 
+    /**
+     * @return the active transaction of the current thread, null if there is none
+     */
+    TransactionContext captureTransaction();
+
+    /**
+     *  Makes the current thread work in the given transaction till the returned scope is closed
+     */
+    TransactionContext.Scope attachTransaction(TransactionContext transactionContext);
+
     /**
      * @return all entries that match the specified {@link StorableKey} with share lock
      */
@@ -147,4 +184,20 @@ public interface QueryExecutor {
      */
     <T extends Storable> Collection<T> selectForUpdate(StorableKey storableKey);
 
+    /**
+     * Same as {@link #selectForShare(StorableKey)} but waits in the database for at most {@code lockWaitTimeoutMs}
+     * for a conflicting lock to be released.
+     *
+     * @throws com.hortonworks.registries.storage.exception.LockWaitTimeoutException if the lock was not obtained in time
+     */
+    <T extends Storable> Collection<T> selectForShare(StorableKey storableKey, long lockWaitTimeoutMs);
+
+    /**
+     * Same as {@link #selectForUpdate(StorableKey)} but waits in the database for at most {@code lockWaitTimeoutMs}
+     * for a conflicting lock to be released.
+     *
+     * @throws com.hortonworks.registries.storage.exception.LockWaitTimeoutException if the lock was not obtained in time
+     */
+    <T extends Storable> Collection<T> selectForUpdate(StorableKey storableKey, long lockWaitTimeoutMs);
+
 }
@@ -17,7 +17,6 @@
  */
 package com.hortonworks.registries.storage.impl.jdbc.provider.sql.query;
 
-import com.google.common.collect.Lists;
 import com.hortonworks.registries.common.Schema;
 import com.hortonworks.registries.storage.OrderByField;
 import com.hortonworks.registries.storage.PrimaryKey;
@@ -29,7 +28,11 @@ import com.hortonworks.registries.storage.search.SearchQuery;
 import com.hortonworks.registries.storage.search.WhereClause;
 import com.hortonworks.registries.storage.search.WhereClauseCombiner;
 import org.apache.commons.lang.StringUtils;
+import org.apache.commons.lang3.tuple.Pair;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -44,6 +47,7 @@ public abstract class AbstractSelectQuery extends AbstractStorableKeyQuery {
 
     protected SearchQuery searchQuery;
     protected Schema schema;
+    private List<Pair<Schema.Field, Object>> searchBindings;
 
     public AbstractSelectQuery(String nameSpace) {
         this(nameSpace, null);
@@ -72,6 +76,20 @@ public abstract class AbstractSelectQuery extends AbstractStorableKeyQuery {
     protected abstract String getParameterizedSql();
     protected abstract String orderBySql();
 
+    /**
+     * @return the clause which restricts the result to the first {@code limit} rows, appended after the ORDER BY clause.
+     */
+    protected String limitSql(int limit) {
+        return " LIMIT " + limit;
+    }
+
+    /**
+     * @return values of the search query parameters in the order they appear in the sql, null if this is not a search query
+     */
+    public List<Pair<Schema.Field, Object>> getSearchBindings() {
+        return searchBindings;
+    }
+
     @Override
     protected final String createParameterizedSql() {
         if (searchQuery != null) {
@@ -90,7 +108,7 @@ public abstract class AbstractSelectQuery extends AbstractStorableKeyQuery {
         String sql = "SELECT * FROM " + fieldEncloser() + tableName + fieldEncloser();
 
         WhereClause whereClause = searchQuery.getWhereClause();
-        Map<Schema.Field, Object> fieldsToValues = new HashMap<>();
+        List<Pair<Schema.Field, Object>> bindings = new ArrayList<>();
         if (whereClause != null) {
             sql += " WHERE ";
             StringBuilder clauseString = new StringBuilder();
@@ -98,7 +116,7 @@ public abstract class AbstractSelectQuery extends AbstractStorableKeyQuery {
                 WhereClauseCombiner.Operation combinerOperation = predicateCombinerPair.getCombinerOperation();
 
                 Predicate predicate = predicateCombinerPair.getPredicate();
-                clauseString.append(generateClauseString(predicate, fieldsToValues, schema));
+                clauseString.append(generateClauseString(predicate, bindings, schema));
                 if (combinerOperation != null) {
                     String opStr;
                     switch (combinerOperation) {
@@ -127,15 +145,23 @@ public abstract class AbstractSelectQuery extends AbstractStorableKeyQuery {
             );
         }
 
+        if (searchQuery.getLimit() != null) {
+            sql += limitSql(searchQuery.getLimit());
+        }
+
+        // a field can be bound more than once, e.g. for range predicates, so values are kept in the order of the parameters
+        Map<Schema.Field, Object> fieldsToValues = new HashMap<>();
+        bindings.forEach(binding -> fieldsToValues.put(binding.getKey(), binding.getValue()));
         primaryKey = new PrimaryKey(fieldsToValues);
-        columns = Lists.newArrayList(fieldsToValues.keySet());
+        columns = bindings.stream().map(Pair::getKey).collect(Collectors.toList());
+        searchBindings = bindings;
 
         return sql;
     }
 
     protected abstract String fieldEncloser();
 
-    private String generateClauseString(Predicate predicate, Map<Schema.Field, Object> fieldsToValues, Schema schema) {
+    private String generateClauseString(Predicate predicate, List<Pair<Schema.Field, Object>> bindings, Schema schema) {
         if(predicate == null) {
             return "";
         }
@@ -145,6 +171,7 @@ public abstract class AbstractSelectQuery extends AbstractStorableKeyQuery {
         String fq = fieldEncloser();
 
         Object predicateValue = predicate.getValue();
+        Schema.Field field = schema.getField(predicate.getField());
         switch (operation) {
             case CONTAINS:
                 result = " " + fq + predicate.getField() + fq + " LIKE ?";
@@ -165,12 +192,16 @@ public abstract class AbstractSelectQuery extends AbstractStorableKeyQuery {
             case LTE:
                 result = " " + fq + predicate.getField() + fq + " <= ? ";
                 break;
+            case IN:
+                Collection<?> values = (Collection<?>) predicateValue;
+                result = " " + fq + predicate.getField() + fq + " IN (" + join(Collections.nCopies(values.size(), "?"), ", ") + ") ";
+                values.forEach(value -> bindings.add(Pair.of(field, value)));
+                return result;
             default:
                 throw new IllegalArgumentException("Given operation " + operation + " is not supported!");
         }
 
-        Schema.Field field = schema.getField(predicate.getField());
-        fieldsToValues.put(field, predicateValue);
+        bindings.add(Pair.of(field, predicateValue));
 
         return result;
     }
@@ -183,6 +214,7 @@ public abstract class AbstractSelectQuery extends AbstractStorableKeyQuery {
 
         AbstractSelectQuery that = (AbstractSelectQuery) o;
 
+        if (searchQuery != null ? !searchQuery.equals(that.searchQuery) : that.searchQuery != null) return false;
         return orderByFields != null ? orderByFields.equals(that.orderByFields) : that.orderByFields == null;
     }
 
@@ -190,6 +222,7 @@ public abstract class AbstractSelectQuery extends AbstractStorableKeyQuery {
     public int hashCode() {
         int result = super.hashCode();
         result = 31 * result + (orderByFields != null ? orderByFields.hashCode() : 0);
+        result = 31 * result + (searchQuery != null ? searchQuery.hashCode() : 0);
         return result;
     }
 
@@ -0,0 +1,37 @@
+/**
+ * Copyright 2016-2019 Cloudera, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package com.hortonworks.registries.storage.impl.jdbc.provider.sql.query;
+
+import com.hortonworks.registries.storage.StorableKey;
+
+/**
+ * Deletes the rows whose values of the key fields are less than the values of the given key.
+ */
+public class SqlDeleteLessThanQuery extends AbstractStorableKeyQuery {
+
+    public SqlDeleteLessThanQuery(StorableKey storableKey) {
+        super(storableKey);
+    }
+
+    // "DELETE FROM DB.TABLE WHERE id1 < val1 AND id2 < val2"
+    @Override
+    protected String createParameterizedSql() {
+        String sql = "DELETE FROM " + tableName + " WHERE "
+                + join(getColumnNames(columns, "%s < ?"), " AND ");
+        LOG.debug(sql);
+        return sql;
+    }
+}
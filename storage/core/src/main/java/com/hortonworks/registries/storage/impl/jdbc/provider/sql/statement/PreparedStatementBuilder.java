@@ -19,6 +19,7 @@ package com.hortonworks.registries.storage.impl.jdbc.provider.sql.statement;
 import com.hortonworks.registries.common.Schema;
 import com.hortonworks.registries.storage.exception.MalformedQueryException;
 import com.hortonworks.registries.storage.impl.jdbc.config.ExecutionConfig;
+import com.hortonworks.registries.storage.impl.jdbc.provider.sql.query.AbstractSelectQuery;
 import com.hortonworks.registries.storage.impl.jdbc.provider.sql.query.AbstractStorableKeyQuery;
 import com.hortonworks.registries.storage.impl.jdbc.provider.sql.query.AbstractStorableSqlQuery;
 import com.hortonworks.registries.storage.impl.jdbc.provider.sql.query.AbstractStorableUpdateQuery;
@@ -164,6 +165,8 @@ public class PreparedStatementBuilder {
         // If more types become available consider subclassing instead of going with this approach, which was chosen here for simplicity
         if (sqlBuilder instanceof AbstractStorableUpdateQuery) {
             setStorableUpdatePreparedStatement((AbstractStorableUpdateQuery)sqlBuilder);
+        } else if (sqlBuilder instanceof AbstractSelectQuery && ((AbstractSelectQuery) sqlBuilder).getSearchBindings() != null) {
+            setSearchPreparedStatement((AbstractSelectQuery) sqlBuilder);
         } else if (sqlBuilder instanceof AbstractStorableKeyQuery) {
             setStorableKeyPreparedStatement(sqlBuilder);
         } else if (sqlBuilder instanceof AbstractStorableSqlQuery) {
@@ -197,6 +200,14 @@ public class PreparedStatementBuilder {
         }
     }
 
+    private void setSearchPreparedStatement(AbstractSelectQuery selectQuery) throws SQLException {
+        List<Pair<Schema.Field, Object>> bindings = selectQuery.getSearchBindings();
+        for (int i = 0; i < bindings.size(); i++) {
+            Pair<Schema.Field, Object> binding = bindings.get(i);
+            storageDataTypeContext.setPreparedStatementParams(preparedStatement, binding.getKey().getType(), i + 1, binding.getValue());
+        }
+    }
+
     private void setStorablePreparedStatement(SqlQuery sqlBuilder) throws SQLException {
         final List<Schema.Field> columns = sqlBuilder.getColumns();
 
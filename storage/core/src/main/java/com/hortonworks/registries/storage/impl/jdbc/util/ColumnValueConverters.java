@@ -0,0 +1,83 @@
+/**
+ * Copyright 2016-2019 Cloudera, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package com.hortonworks.registries.storage.impl.jdbc.util;
+
+import com.hortonworks.registries.common.Schema;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Converters of string values, like the ones of {@link com.hortonworks.registries.common.QueryParam}, to the java
+ * type of a column. Converters are resolved once per {@link Schema.Type} instead of looking up the type's
+ * {@code String} constructor for every value.
+ */
+public final class ColumnValueConverters {
+
+    private static final Map<Schema.Type, Function<String, Object>> CONVERTERS = buildConverters();
+
+    private ColumnValueConverters() {
+    }
+
+    private static Map<Schema.Type, Function<String, Object>> buildConverters() {
+        Map<Schema.Type, Function<String, Object>> converters = new EnumMap<>(Schema.Type.class);
+        converters.put(Schema.Type.BOOLEAN, Boolean::valueOf);
+        converters.put(Schema.Type.BYTE, Byte::valueOf);
+        converters.put(Schema.Type.SHORT, Short::valueOf);
+        converters.put(Schema.Type.INTEGER, Integer::valueOf);
+        converters.put(Schema.Type.LONG, Long::valueOf);
+        converters.put(Schema.Type.FLOAT, Float::valueOf);
+        converters.put(Schema.Type.DOUBLE, Double::valueOf);
+        converters.put(Schema.Type.STRING, value -> value);
+        for (Schema.Type type : Schema.Type.values()) {
+            if (!converters.containsKey(type)) {
+                converters.put(type, constructorConverter(type));
+            }
+        }
+        return Collections.unmodifiableMap(converters);
+    }
+
+    // types without a well known parse method are created with their String constructor when they have one.
+    private static Function<String, Object> constructorConverter(Schema.Type type) {
+        Constructor<?> constructor;
+        try {
+            constructor = type.getJavaType().getConstructor(String.class);
+        } catch (NoSuchMethodException e) {
+            return value -> {
+                throw new IllegalArgumentException("Values of type " + type + " can not be created from a string", e);
+            };
+        }
+
+        return value -> {
+            try {
+                return constructor.newInstance(value);
+            } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
+                throw new IllegalArgumentException("Failed to create value of type " + type + " from " + value, e);
+            }
+        };
+    }
+
+    /**
+     * @return the given string value converted to the java type of the given {@code type}
+     */
+    public static Object fromString(Schema.Type type, String value) {
+        return CONVERTERS.get(type).apply(value);
+    }
+}
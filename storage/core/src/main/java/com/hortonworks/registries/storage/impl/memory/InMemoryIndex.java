@@ -0,0 +1,191 @@
+/**
+ * Copyright 2016-2019 Cloudera, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package com.hortonworks.registries.storage.impl.memory;
+
+import com.hortonworks.registries.common.QueryParam;
+import com.hortonworks.registries.common.util.ReflectionHelper;
+import com.hortonworks.registries.storage.PrimaryKey;
+import com.hortonworks.registries.storage.Storable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Storables of a namespace with hash indexes on the columns they are looked up by with {@link QueryParam}s. A column
+ * is indexed on the first lookup by it and the index is kept up to date by adding, updating and removing storables
+ * through this class.
+ * <p>
+ * Values are indexed by their string form as {@link QueryParam} values are compared with it.
+ * <p>
+ * Values are captured when a storable is put. A storable changed in place is re-checked against its current values
+ * when it is found under its old ones and indexed again, but it is not found under its new values till it is put again
+ * or found that way.
+ */
+class InMemoryIndex {
+    private static final Logger LOG = LoggerFactory.getLogger(InMemoryIndex.class);
+
+    private final ConcurrentHashMap<PrimaryKey, Storable> storables = new ConcurrentHashMap<>();
+    // column -> value -> keys of the storables with the value
+    private final Map<String, Map<String, Set<PrimaryKey>>> columnIndexes = new HashMap<>();
+    // values the storables are indexed by, the storables may have been changed since
+    private final Map<PrimaryKey, Map<String, String>> indexedValues = new HashMap<>();
+    private final Set<String> unindexableColumns = new HashSet<>();
+
+    Map<PrimaryKey, Storable> getStorables() {
+        return storables;
+    }
+
+    synchronized Storable put(Storable storable) {
+        PrimaryKey primaryKey = storable.getPrimaryKey();
+        Storable previous = storables.put(primaryKey, storable);
+        unindex(primaryKey);
+        if (!columnIndexes.isEmpty()) {
+            Map<String, String> values = new HashMap<>();
+            for (Map.Entry<String, Map<String, Set<PrimaryKey>>> columnIndex : columnIndexes.entrySet()) {
+                String value = valueOf(storable, columnIndex.getKey());
+                if (value != null) {
+                    columnIndex.getValue().computeIfAbsent(value, v -> new LinkedHashSet<>()).add(primaryKey);
+                    values.put(columnIndex.getKey(), value);
+                }
+            }
+            indexedValues.put(primaryKey, values);
+        }
+        return previous;
+    }
+
+    synchronized Storable remove(PrimaryKey primaryKey) {
+        unindex(primaryKey);
+        return storables.remove(primaryKey);
+    }
+
+    /**
+     * @return the storables with all the given values, null if one of the columns can not be indexed
+     */
+    synchronized List<Storable> find(List<QueryParam> queryParams) {
+        List<Set<PrimaryKey>> matches = new ArrayList<>(queryParams.size());
+        for (QueryParam queryParam : queryParams) {
+            Map<String, Set<PrimaryKey>> columnIndex = columnIndex(queryParam.getName());
+            if (columnIndex == null) {
+                return null;
+            }
+            matches.add(columnIndex.getOrDefault(queryParam.getValue(), Collections.emptySet()));
+        }
+        if (matches.isEmpty()) {
+            return new ArrayList<>(storables.values());
+        }
+
+        // probe the other indexes with the keys of the most selective one
+        matches.sort(Comparator.comparingInt(Set::size));
+        List<Storable> result = new ArrayList<>(matches.get(0).size());
+        List<Storable> changed = null;
+        for (PrimaryKey primaryKey : matches.get(0)) {
+            boolean matchesAll = true;
+            for (int i = 1; i < matches.size() && matchesAll; i++) {
+                matchesAll = matches.get(i).contains(primaryKey);
+            }
+            if (matchesAll) {
+                Storable storable = storables.get(primaryKey);
+                if (hasValues(storable, queryParams)) {
+                    result.add(storable);
+                } else {
+                    // changed in place since it was indexed
+                    if (changed == null) {
+                        changed = new ArrayList<>();
+                    }
+                    changed.add(storable);
+                }
+            }
+        }
+        if (changed != null) {
+            changed.forEach(this::put);
+        }
+        return result;
+    }
+
+    private boolean hasValues(Storable storable, List<QueryParam> queryParams) {
+        for (QueryParam queryParam : queryParams) {
+            if (!Objects.equals(queryParam.getValue(), valueOf(storable, queryParam.getName()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Map<String, Set<PrimaryKey>> columnIndex(String column) {
+        Map<String, Set<PrimaryKey>> columnIndex = columnIndexes.get(column);
+        if (columnIndex != null || unindexableColumns.contains(column)) {
+            return columnIndex;
+        }
+
+        columnIndex = new HashMap<>();
+        for (Map.Entry<PrimaryKey, Storable> entry : storables.entrySet()) {
+            String value;
+            try {
+                value = invokeGetter(entry.getValue(), column);
+            } catch (ReflectiveOperationException e) {
+                LOG.debug("Column {} of namespace {} can not be indexed", column, entry.getValue().getNameSpace(), e);
+                unindexableColumns.add(column);
+                return null;
+            }
+            if (value != null) {
+                columnIndex.computeIfAbsent(value, v -> new LinkedHashSet<>()).add(entry.getKey());
+                indexedValues.computeIfAbsent(entry.getKey(), k -> new HashMap<>()).put(column, value);
+            }
+        }
+        columnIndexes.put(column, columnIndex);
+        return columnIndex;
+    }
+
+    private void unindex(PrimaryKey primaryKey) {
+        Map<String, String> values = indexedValues.remove(primaryKey);
+        if (values != null) {
+            for (Map.Entry<String, String> value : values.entrySet()) {
+                Map<String, Set<PrimaryKey>> columnIndex = columnIndexes.get(value.getKey());
+                Set<PrimaryKey> primaryKeys = columnIndex.get(value.getValue());
+                primaryKeys.remove(primaryKey);
+                if (primaryKeys.isEmpty()) {
+                    columnIndex.remove(value.getValue());
+                }
+            }
+        }
+    }
+
+    private String valueOf(Storable storable, String column) {
+        try {
+            return invokeGetter(storable, column);
+        } catch (ReflectiveOperationException e) {
+            // storables of a namespace are expected to be of the same class
+            LOG.error("FAILED to invoke getter for indexed column {}", column, e);
+            return null;
+        }
+    }
+
+    private static String invokeGetter(Storable storable, String column) throws ReflectiveOperationException {
+        Object value = ReflectionHelper.invokeGetter(column, storable);
+        return value != null ? value.toString() : null;
+    }
+}
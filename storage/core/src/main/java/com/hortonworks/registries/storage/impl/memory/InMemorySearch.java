@@ -0,0 +1,166 @@
+/**
+ * Copyright 2016-2019 Cloudera, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package com.hortonworks.registries.storage.impl.memory;
+
+import com.hortonworks.registries.storage.Storable;
+import com.hortonworks.registries.storage.search.OrderBy;
+import com.hortonworks.registries.storage.search.Predicate;
+import com.hortonworks.registries.storage.search.PredicateCombinerPair;
+import com.hortonworks.registries.storage.search.SearchQuery;
+import com.hortonworks.registries.storage.search.WhereClause;
+import com.hortonworks.registries.storage.search.WhereClauseCombiner;
+
+import java.math.BigDecimal;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Runs a {@link SearchQuery} on storables held in memory with the same semantics as the sql generated for it, where
+ * AND takes precedence over OR and null values sort first.
+ */
+class InMemorySearch {
+
+    private final SearchQuery searchQuery;
+    // predicates and combiner operations of the where clause in the order they appear in the query
+    private final List<Object> tokens = new ArrayList<>();
+    private int position;
+
+    InMemorySearch(SearchQuery searchQuery) {
+        this.searchQuery = searchQuery;
+        WhereClause whereClause = searchQuery.getWhereClause();
+        if (whereClause != null) {
+            for (PredicateCombinerPair predicateCombinerPair : whereClause.getPredicateCombinerPairs()) {
+                if (predicateCombinerPair.getPredicate() != null) {
+                    tokens.add(predicateCombinerPair.getPredicate());
+                }
+                if (predicateCombinerPair.getCombinerOperation() != null) {
+                    tokens.add(predicateCombinerPair.getCombinerOperation());
+                }
+            }
+        }
+    }
+
+    <T extends Storable> Collection<T> run(Collection<T> storables) {
+        Stream<Map.Entry<T, Map<String, Object>>> rows = storables.stream()
+                .<Map.Entry<T, Map<String, Object>>>map(storable -> new AbstractMap.SimpleImmutableEntry<>(storable, storable.toMap()))
+                .filter(row -> matches(row.getValue()));
+
+        List<OrderBy> orderByFields = searchQuery.getOrderByFields();
+        if (orderByFields != null && !orderByFields.isEmpty()) {
+            Comparator<Map<String, Object>> comparator = null;
+            for (OrderBy orderBy : orderByFields) {
+                Comparator<Map<String, Object>> fieldComparator =
+                        (x, y) -> compare(x.get(orderBy.getFieldName()), y.get(orderBy.getFieldName()));
+                fieldComparator = orderBy.isAsc() ? fieldComparator : fieldComparator.reversed();
+                comparator = comparator == null ? fieldComparator : comparator.thenComparing(fieldComparator);
+            }
+            rows = rows.sorted(Map.Entry.comparingByValue(comparator));
+        }
+
+        if (searchQuery.getLimit() != null) {
+            rows = rows.limit(searchQuery.getLimit());
+        }
+
+        return rows.map(Map.Entry::getKey).collect(Collectors.toList());
+    }
+
+    private boolean matches(Map<String, Object> values) {
+        if (tokens.isEmpty()) {
+            return true;
+        }
+        position = 0;
+        return orExpression(values);
+    }
+
+    private boolean orExpression(Map<String, Object> values) {
+        boolean result = andExpression(values);
+        while (position < tokens.size() && tokens.get(position) == WhereClauseCombiner.Operation.OR) {
+            position++;
+            // evaluated first so that the position always moves past the operand
+            result = andExpression(values) || result;
+        }
+        return result;
+    }
+
+    private boolean andExpression(Map<String, Object> values) {
+        boolean result = operand(values);
+        while (position < tokens.size() && tokens.get(position) == WhereClauseCombiner.Operation.AND) {
+            position++;
+            result = operand(values) && result;
+        }
+        return result;
+    }
+
+    private boolean operand(Map<String, Object> values) {
+        Object token = tokens.get(position++);
+        if (token == WhereClauseCombiner.Operation.ENCL_START) {
+            boolean result = orExpression(values);
+            // skips the matching ENCL_FINISH
+            position++;
+            return result;
+        }
+        if (!(token instanceof Predicate)) {
+            throw new IllegalArgumentException("Unexpected " + token + " in where clause of " + searchQuery);
+        }
+
+        Predicate predicate = (Predicate) token;
+        Object value = values.get(predicate.getField());
+        Object predicateValue = predicate.getValue();
+        if (value == null || predicateValue == null) {
+            return false;
+        }
+        switch (predicate.getOperation()) {
+            case CONTAINS:
+                return value.toString().contains(predicateValue.toString());
+            case EQ:
+                return compare(value, predicateValue) == 0;
+            case GT:
+                return compare(value, predicateValue) > 0;
+            case GTE:
+                return compare(value, predicateValue) >= 0;
+            case LT:
+                return compare(value, predicateValue) < 0;
+            case LTE:
+                return compare(value, predicateValue) <= 0;
+            case IN:
+                return ((Collection<?>) predicateValue).stream().anyMatch(x -> compare(value, x) == 0);
+            default:
+                throw new IllegalArgumentException("Given operation " + predicate.getOperation() + " is not supported!");
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static int compare(Object x, Object y) {
+        if (x == null || y == null) {
+            return x == null ? (y == null ? 0 : -1) : 1;
+        }
+        if (x instanceof Number && y instanceof Number) {
+            // values may differ in their boxed types, e.g. when the query was read from json
+            return new BigDecimal(x.toString()).compareTo(new BigDecimal(y.toString()));
+        }
+        if (x instanceof Comparable && x.getClass() == y.getClass()) {
+            return ((Comparable<Object>) x).compareTo(y);
+        }
+        return Objects.equals(x, y) ? 0 : x.toString().compareTo(y.toString());
+    }
+}
@@ -43,7 +43,7 @@ import java.util.concurrent.atomic.AtomicLong;
 public class InMemoryStorageManager implements StorageManager {
     private static final Logger LOG = LoggerFactory.getLogger(InMemoryStorageManager.class);
 
-    private final ConcurrentHashMap<String, ConcurrentHashMap<PrimaryKey, Storable>> storageMap = new ConcurrentHashMap<String, ConcurrentHashMap<PrimaryKey, Storable>>();
+    private final ConcurrentHashMap<String, InMemoryIndex> storageMap = new ConcurrentHashMap<String, InMemoryIndex>();
     private final ConcurrentHashMap<String, AtomicLong> sequenceMap = new ConcurrentHashMap<>();
     private final ConcurrentHashMap<String, Class<?>> nameSpaceClassMap = new ConcurrentHashMap<String, Class<?>>();
 
@@ -78,29 +78,28 @@ public class InMemoryStorageManager implements StorageManager {
         String namespace = storable.getNameSpace();
         PrimaryKey id = storable.getPrimaryKey();
         if (!storageMap.containsKey(namespace)) {
-            storageMap.putIfAbsent(namespace, new ConcurrentHashMap<PrimaryKey, Storable>());
+            storageMap.putIfAbsent(namespace, new InMemoryIndex());
             nameSpaceClassMap.putIfAbsent(namespace, storable.getClass());
         }
-        if (!storageMap.get(namespace).containsKey(id)) {
+        if (!storageMap.get(namespace).getStorables().containsKey(id)) {
             nextId(namespace);
         }
-        storageMap.get(namespace).put(id, storable);
+        storageMap.get(namespace).put(storable);
     }
 
     @Override
     public void update(Storable storable) {
         String namespace = storable.getNameSpace();
-        PrimaryKey pk = storable.getPrimaryKey();
         if (!storageMap.containsKey(namespace)) {
             throw new StorageException("Row could not be updated");
         }
-        storageMap.get(namespace).put(pk, storable);
+        storageMap.get(namespace).put(storable);
     }
 
     @Override
     public <T extends Storable> T get(StorableKey key) throws StorageException {
         return storageMap.containsKey(key.getNameSpace())
-                ? (T) storageMap.get(key.getNameSpace()).get(key.getPrimaryKey())
+                ? (T) storageMap.get(key.getNameSpace()).getStorables().get(key.getPrimaryKey())
                 : null;
     }
 
@@ -142,10 +141,12 @@ public class InMemoryStorageManager implements StorageManager {
         } else {
             Class<?> clazz = nameSpaceClassMap.get(namespace);
             if (clazz != null) {
-                Map<PrimaryKey, Storable> storableMap = storageMap.get(namespace);
-                if (storableMap != null) {
-                    for (Storable val : storableMap.values()) {
-                        if (matches(val, queryParams, clazz)) {
+                InMemoryIndex index = storageMap.get(namespace);
+                if (index != null) {
+                    // scan only if some of the columns can not be indexed
+                    List<Storable> found = index.find(queryParams);
+                    for (Storable val : found != null ? found : index.getStorables().values()) {
+                        if (found != null || matches(val, queryParams, clazz)) {
                             storables.add((T) val);
                         }
                     }
@@ -193,14 +194,13 @@ public class InMemoryStorageManager implements StorageManager {
 
     @Override
     public <T extends Storable> Collection<T> search(SearchQuery searchQuery) {
-        LOG.warn("This storage manager does not support search query, returning all instances with the given namespace [{}]", searchQuery.getNameSpace());
-        return list(searchQuery.getNameSpace());
+        return new InMemorySearch(searchQuery).run(this.<T>list(searchQuery.getNameSpace()));
     }
 
     @Override
     public <T extends Storable> Collection<T> list(String namespace) throws StorageException {
         return storageMap.containsKey(namespace)
-                ? (Collection<T>) storageMap.get(namespace).values() : Collections.<T>emptyList();
+                ? (Collection<T>) storageMap.get(namespace).getStorables().values() : Collections.<T>emptyList();
     }
 
     @Override
@@ -33,6 +33,7 @@ public class SearchQuery implements Serializable {
     private String nameSpace;
     private List<OrderBy> orderByFields;
     private WhereClause whereClause;
+    private Integer limit;
 
     private SearchQuery() {
     }
@@ -62,6 +63,18 @@ public class SearchQuery implements Serializable {
         return this;
     }
 
+    /**
+     * Restricts the result to the first {@code limit} entries as per the order of this query, which along with a
+     * where clause on the ordered fields allows to fetch large results page by page.
+     */
+    public SearchQuery limit(int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("limit should be greater than zero but was " + limit);
+        }
+        this.limit = limit;
+        return this;
+    }
+
     public String getNameSpace() {
         return nameSpace;
     }
@@ -74,12 +87,17 @@ public class SearchQuery implements Serializable {
         return whereClause;
     }
 
+    public Integer getLimit() {
+        return limit;
+    }
+
     @Override
     public String toString() {
         return "SearchQuery{" +
                 "nameSpace='" + nameSpace + '\'' +
                 ", orderByFields=" + orderByFields +
                 ", clause=" + whereClause +
+                ", limit=" + limit +
                 '}';
     }
 
@@ -93,7 +111,8 @@ public class SearchQuery implements Serializable {
         if (nameSpace != null ? !nameSpace.equals(that.nameSpace) : that.nameSpace != null) return false;
         if (orderByFields != null ? !orderByFields.equals(that.orderByFields) : that.orderByFields != null)
             return false;
-        return whereClause != null ? whereClause.equals(that.whereClause) : that.whereClause == null;
+        if (whereClause != null ? !whereClause.equals(that.whereClause) : that.whereClause != null) return false;
+        return limit != null ? limit.equals(that.limit) : that.limit == null;
     }
 
     @Override
@@ -101,6 +120,7 @@ public class SearchQuery implements Serializable {
         int result = nameSpace != null ? nameSpace.hashCode() : 0;
         result = 31 * result + (orderByFields != null ? orderByFields.hashCode() : 0);
         result = 31 * result + (whereClause != null ? whereClause.hashCode() : 0);
+        result = 31 * result + (limit != null ? limit.hashCode() : 0);
         return result;
     }
 
@@ -18,9 +18,11 @@
 package com.hortonworks.registries.storage.search;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.google.common.base.Preconditions;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 
@@ -41,6 +43,13 @@ import java.util.List;
 public class WhereClause implements Serializable {
     private static final long serialVersionUID = 901279529557954101L;
 
+    /**
+     * Maximum number of values callers should pass to a single {@link Builder#in(String, Collection)} predicate. Larger
+     * collections should be partitioned into several queries to stay well below the limits of the supported databases,
+     * e.g. 1000 on Oracle.
+     */
+    public static final int MAX_IN_LIST_SIZE = 500;
+
     protected List<PredicateCombinerPair> predicateCombinerPairs;
 
     private WhereClause() {
@@ -102,6 +111,14 @@ public class WhereClause implements Serializable {
             return new WhereClauseCombiner(this, new Predicate(fieldName, value, Predicate.Operation.CONTAINS));
         }
 
+        /**
+         * Matches the rows whose field value is one of the given values, see {@link #MAX_IN_LIST_SIZE}.
+         */
+        public WhereClauseCombiner in(String fieldName, Collection<?> values) {
+            Preconditions.checkArgument(values != null && !values.isEmpty(), "Values of an IN predicate can not be empty");
+            return new WhereClauseCombiner(this, new Predicate(fieldName, new ArrayList<>(values), Predicate.Operation.IN));
+        }
+
         public WhereClauseCombiner lt(String fieldName, Object value) {
             return new WhereClauseCombiner(this, new Predicate(fieldName, value, Predicate.Operation.LT));
         }
@@ -19,61 +19,123 @@ package com.hortonworks.registries.storage.transaction;
 import com.hortonworks.registries.storage.exception.TransactionException;
 
 import java.sql.Connection;
-import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Keeps the {@link TransactionContext} of the transaction each thread works in.
+ * <p>
+ * A transaction is bound to the thread which began it. It can be captured with {@link #capture()} and attached to
+ * another thread with {@link #attach(TransactionContext)}, e.g. by a stage of a {@code CompletableFuture}, so the work
+ * of that thread joins the transaction instead of running on a connection of its own.
+ * <p>
+ * A connection must not be used concurrently, so a transaction is owned by one thread at a time and attached to at
+ * most one other thread at a time. Attaching moves the ownership to the attaching thread and closing the returned
+ * scope moves it back. Using the transaction from a thread which does not own it, like the capturing thread while the
+ * transaction is attached elsewhere, fails with a {@link TransactionException} instead of silently running on another
+ * connection. So do attaching it to a second thread and attaching it once it has ended.
+ */
 public class TransactionBookKeeper {
 
-    protected final ConcurrentHashMap<Long, TransactionContext> threadIdToConnectionMap = new ConcurrentHashMap<>();
+    protected final ThreadLocal<TransactionContext> currentTransaction = new ThreadLocal<>();
 
-    public boolean hasActiveTransaction(Long threadId) {
-        return threadIdToConnectionMap.containsKey(threadId) && threadIdToConnectionMap.get(threadId).getNestedTransactionCount() != 0;
+    public boolean hasActiveTransaction() {
+        TransactionContext transactionContext = currentTransaction.get();
+        return transactionContext != null && transactionContext.getNestedTransactionCount() != 0;
     }
 
-    public Connection getConnection(Long threadId) {
-        return threadIdToConnectionMap.get(threadId).getConnection();
+    public Connection getConnection() {
+        return ownedTransaction().getConnection();
     }
 
-    public void addTransaction(Long threadId, Connection connection) {
-        if (!threadIdToConnectionMap.containsKey(threadId)) {
-            threadIdToConnectionMap.put(threadId, new TransactionContext(connection));
-        } else {
-            throw new TransactionException(String.format("A transaction is already associated with thread id : %s", Long.toString(threadId)));
+    public void addTransaction(Connection connection) {
+        if (hasActiveTransaction()) {
+            throw new TransactionException(String.format("A transaction is already associated with thread : %s", Thread.currentThread().getName()));
         }
+        TransactionContext transactionContext = new TransactionContext(connection);
+        transactionContext.setOwner(Thread.currentThread());
+        currentTransaction.set(transactionContext);
+    }
+
+    public void incrementNestedTransactionCount() {
+        ownedTransaction().incrementNestedTransactionCount();
+    }
+
+    public void decrementNestedTransactionCount(TransactionState transactionState) {
+        TransactionContext transactionContext = ownedTransaction();
+        transactionContext.decrementNestedTransactionCount();
+        if (transactionContext.getNestedTransactionCount() < 0)
+            throw new TransactionException("Transaction was rolledback/committed more than necessary");
+        transactionContext.recordState(transactionState);
+    }
+
+    public boolean whereThereAnyRollbacks() {
+        return (ownedTransaction().getTransactionState() & TransactionState.ROLLBACK.value) == TransactionState.ROLLBACK.value;
     }
 
-    public void incrementNestedTransactionCount(Long threadId) {
-        if (threadIdToConnectionMap.containsKey(threadId)) {
-            TransactionContext transactionContext = threadIdToConnectionMap.get(threadId);
-            transactionContext.incrementNestedTransactionCount();
-            threadIdToConnectionMap.put(threadId, transactionContext);
-        } else
-            throw new TransactionException(String.format("No transaction is associated with thread id : %s", Long.toString(threadId)));
+    public boolean whereThereAnyCommits() {
+        return (ownedTransaction().getTransactionState() & TransactionState.COMMIT.value) == TransactionState.COMMIT.value;
     }
 
-    public void decrementNestedTransactionCount(Long threadId, TransactionState transactionState) {
-        if (threadIdToConnectionMap.containsKey(threadId)) {
-            TransactionContext transactionContext = threadIdToConnectionMap.get(threadId);
-            transactionContext.decrementNestedTransactionCount();
-            if (transactionContext.getNestedTransactionCount() < 0)
-                throw new TransactionException("Transaction was rolledback/committed more than necessary");
-            transactionContext.recordState(transactionState);
-        } else
-            throw new TransactionException(String.format("No transaction is associated with thread id : %s", Long.toString(threadId)));
+    public void removeTransaction() {
+        ownedTransaction();
+        currentTransaction.remove();
     }
 
-    public boolean whereThereAnyRollbacks(Long threadId) {
-        return (threadIdToConnectionMap.get(threadId).getTransactionState() & TransactionState.ROLLBACK.value) == TransactionState.ROLLBACK.value;
+    /**
+     * @return the active transaction of the current thread to be attached to another thread, null if there is none
+     */
+    public TransactionContext capture() {
+        return hasActiveTransaction() ? currentTransaction.get() : null;
     }
 
-    public boolean whereThereAnyCommits(Long threadId) {
-        return (threadIdToConnectionMap.get(threadId).getTransactionState() & TransactionState.COMMIT.value) == TransactionState.COMMIT.value;
+    /**
+     * Attaches the given transaction to the current thread till the returned scope is closed. Attaching null or the
+     * transaction which is already attached to the current thread does nothing.
+     *
+     * @throws TransactionException if the current thread is in another transaction, if the given transaction has ended
+     *                              or if it is attached to yet another thread
+     */
+    public TransactionContext.Scope attach(TransactionContext transactionContext) {
+        TransactionContext previous = currentTransaction.get();
+        if (transactionContext == null || transactionContext == previous) {
+            return () -> { };
+        }
+        if (hasActiveTransaction()) {
+            throw new TransactionException(String.format("Failed to attach transaction, another transaction is associated with thread : %s",
+                                                         Thread.currentThread().getName()));
+        }
+        if (transactionContext.getNestedTransactionCount() == 0) {
+            throw new TransactionException("Failed to attach transaction, it has already ended");
+        }
+
+        if (!transactionContext.markAttached()) {
+            throw new TransactionException(String.format("Failed to attach transaction, it is attached to thread : %s",
+                                                         transactionContext.getOwner().getName()));
+        }
+        Thread previousOwner = transactionContext.getOwner();
+        transactionContext.setOwner(Thread.currentThread());
+        currentTransaction.set(transactionContext);
+
+        return () -> {
+            if (previous != null) {
+                currentTransaction.set(previous);
+            } else {
+                currentTransaction.remove();
+            }
+            transactionContext.setOwner(previousOwner);
+            transactionContext.markDetached();
+        };
     }
 
-    public void removeTransaction(Long threadId) {
-        if(threadIdToConnectionMap.containsKey(threadId)) {
-            threadIdToConnectionMap.remove(threadId);
-        } else {
-            throw new TransactionException(String.format("No transaction is associated with thread id : %s", Long.toString(threadId)));
+    private TransactionContext ownedTransaction() {
+        TransactionContext transactionContext = currentTransaction.get();
+        if (transactionContext == null) {
+            throw new TransactionException(String.format("No transaction is associated with thread : %s", Thread.currentThread().getName()));
+        }
+        Thread owner = transactionContext.getOwner();
+        if (owner != Thread.currentThread()) {
+            throw new TransactionException(String.format("The transaction of thread : %s is attached to thread : %s",
+                                                         Thread.currentThread().getName(), owner != null ? owner.getName() : null));
         }
+        return transactionContext;
     }
 }
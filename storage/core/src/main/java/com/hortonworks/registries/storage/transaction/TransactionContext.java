@@ -17,11 +17,19 @@
 package com.hortonworks.registries.storage.transaction;
 
 import java.sql.Connection;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+/**
+ * State of a transaction and the connection it runs on. It can be captured by the thread owning the transaction and
+ * attached to another thread, see {@link TransactionBookKeeper}.
+ */
 public class TransactionContext {
     private int nestedTransactionCount = 1;
     private final Connection connection;
     private int transactionState = TransactionState.INITIALIZED.value;
+    // the only thread allowed to use the connection, handing it over publishes the state above to the new owner
+    private volatile Thread owner;
+    private final AtomicBoolean attached = new AtomicBoolean();
 
     public TransactionContext(Connection connection) {
         this.connection = connection;
@@ -50,4 +58,31 @@ public class TransactionContext {
     public void recordState(TransactionState state) {
         transactionState |= state.value;
     }
+
+    public Thread getOwner() {
+        return owner;
+    }
+
+    public void setOwner(Thread owner) {
+        this.owner = owner;
+    }
+
+    /**
+     * @return false if the transaction is already attached to another thread
+     */
+    public boolean markAttached() {
+        return attached.compareAndSet(false, true);
+    }
+
+    public void markDetached() {
+        attached.set(false);
+    }
+
+    /**
+     * Attachment of a transaction to a thread, closing it detaches the transaction from that thread.
+     */
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
 }
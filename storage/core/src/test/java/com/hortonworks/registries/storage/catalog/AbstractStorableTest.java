@@ -0,0 +1,118 @@
+/**
+ * Copyright 2016-2019 Cloudera, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package com.hortonworks.registries.storage.catalog;
+
+import com.hortonworks.registries.common.Schema;
+import com.hortonworks.registries.storage.PrimaryKey;
+import com.hortonworks.registries.storage.annotation.SchemaIgnore;
+import com.hortonworks.registries.storage.exception.StorageException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+
+public class AbstractStorableTest {
+
+    public static class TestStorable extends AbstractStorable {
+        private Long id;
+        private String name;
+        private Number count;
+        @SchemaIgnore
+        private String note;
+
+        @Override
+        public String getNameSpace() {
+            return "test_storable";
+        }
+
+        @Override
+        public PrimaryKey getPrimaryKey() {
+            return new PrimaryKey(Collections.singletonMap(new Schema.Field("id", Schema.Type.LONG), id));
+        }
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public Number getCount() {
+            return count;
+        }
+
+        public void setCount(Number count) {
+            this.count = count;
+        }
+
+        public String getNote() {
+            return note;
+        }
+
+        public void setNote(String note) {
+            this.note = note;
+        }
+    }
+
+    @Test
+    public void testToMapAndFromMap() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("id", 1L);
+        map.put("name", "foo");
+        // setter accepting a super type of the value
+        map.put("count", 10);
+        map.put("note", null);
+
+        TestStorable storable = (TestStorable) new TestStorable().fromMap(map);
+        Assert.assertEquals(Long.valueOf(1L), storable.getId());
+        Assert.assertEquals("foo", storable.getName());
+        Assert.assertEquals(10, storable.getCount());
+        Assert.assertNull(storable.getNote());
+
+        Assert.assertEquals(map, storable.toMap());
+        Assert.assertEquals(map, new TestStorable().fromMap(storable.toMap()).toMap());
+    }
+
+    @Test
+    public void testSchema() {
+        TestStorable storable = new TestStorable();
+        storable.setCount(2L);
+        Assert.assertEquals(new HashSet<>(Arrays.asList(new Schema.Field("id", Schema.Type.LONG),
+                                                        new Schema.Field("name", Schema.Type.STRING),
+                                                        new Schema.Field("count", Schema.Type.LONG))),
+                            new HashSet<>(storable.getSchema().getFields()));
+    }
+
+    @Test(expected = StorageException.class)
+    public void testFromMapWithoutSetter() {
+        new TestStorable().fromMap(Collections.singletonMap("name", 1));
+    }
+}
@@ -0,0 +1,250 @@
+/**
+ * Copyright 2016-2019 Cloudera, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package com.hortonworks.registries.storage.impl.jdbc;
+
+import com.hortonworks.registries.common.Schema;
+import com.hortonworks.registries.storage.PrimaryKey;
+import com.hortonworks.registries.storage.catalog.AbstractStorable;
+import com.hortonworks.registries.storage.impl.jdbc.config.ExecutionConfig;
+import com.hortonworks.registries.storage.impl.jdbc.config.HikariBasicConfig;
+import com.hortonworks.registries.storage.impl.jdbc.connection.ConnectionBuilder;
+import com.hortonworks.registries.storage.impl.jdbc.connection.HikariCPConnectionBuilder;
+import com.hortonworks.registries.storage.impl.jdbc.provider.mysql.factory.MySqlExecutor;
+import com.hortonworks.registries.storage.transaction.TransactionIsolation;
+import org.h2.tools.SimpleResultSet;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class JdbcStorageManagerBatchInsertTest {
+    private HikariCPConnectionBuilder connectionBuilder;
+    private JdbcStorageManager jdbcStorageManager;
+
+    @Before
+    public void setUp() throws Exception {
+        connectionBuilder = new HikariCPConnectionBuilder(HikariBasicConfig.getH2HikariConfig());
+        execute("CREATE TABLE IF NOT EXISTS batch_storable (id BIGINT AUTO_INCREMENT NOT NULL, name VARCHAR(255) NOT NULL, PRIMARY KEY (id))");
+        jdbcStorageManager = new JdbcStorageManager(new MySqlExecutor(new ExecutionConfig(-1), connectionBuilder));
+        jdbcStorageManager.registerStorables(Collections.singletonList(BatchStorable.class));
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        execute("DROP TABLE batch_storable");
+        jdbcStorageManager.cleanup();
+        connectionBuilder.cleanup();
+    }
+
+    @Test
+    public void testAddAll_StorablesWithIds_AllInserted() {
+        List<BatchStorable> storables = new ArrayList<>();
+        for (long id = 1; id <= 10; id++) {
+            storables.add(new BatchStorable(id, "name-" + id));
+        }
+
+        jdbcStorageManager.beginTransaction(TransactionIsolation.READ_COMMITTED);
+        jdbcStorageManager.addAll(storables);
+        jdbcStorageManager.commitTransaction();
+
+        Collection<BatchStorable> stored = jdbcStorageManager.list(BatchStorable.NAMESPACE);
+        Assert.assertEquals(storables.size(), stored.size());
+        for (BatchStorable storable : storables) {
+            BatchStorable storedStorable = jdbcStorageManager.get(storable.getStorableKey());
+            Assert.assertEquals(storable.getName(), storedStorable.getName());
+        }
+    }
+
+    @Test
+    public void testAddAll_StorablesWithoutIds_GeneratedIdsSet() {
+        List<BatchStorable> storables = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            storables.add(new BatchStorable(null, "name-" + i));
+        }
+
+        jdbcStorageManager.addAll(storables);
+
+        for (BatchStorable storable : storables) {
+            Assert.assertNotNull(storable.getId());
+            BatchStorable storedStorable = jdbcStorageManager.get(storable.getStorableKey());
+            Assert.assertEquals(storable.getName(), storedStorable.getName());
+        }
+    }
+
+    @Test
+    public void testAddAll_BatchGeneratedKeysSupported_GeneratedIdsSetFromBatch() {
+        // H2 is accessed with the MySQL dialect, which inserts rows without id one at a time unless the driver is MySQL's
+        JdbcStorageManager batchStorageManager = new JdbcStorageManager(new MySqlExecutor(new ExecutionConfig(-1),
+                                                                                          new BatchGeneratedKeysConnectionBuilder()) {
+            @Override
+            protected boolean supportsBatchGeneratedKeys(DatabaseMetaData databaseMetaData) {
+                return true;
+            }
+        });
+        batchStorageManager.registerStorables(Collections.singletonList(BatchStorable.class));
+
+        List<BatchStorable> storables = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            storables.add(new BatchStorable(null, "name-" + i));
+        }
+
+        batchStorageManager.beginTransaction(TransactionIsolation.READ_COMMITTED);
+        batchStorageManager.addAll(storables);
+        batchStorageManager.commitTransaction();
+
+        Set<Long> ids = new HashSet<>();
+        for (BatchStorable storable : storables) {
+            Assert.assertTrue(ids.add(storable.getId()));
+            BatchStorable storedStorable = batchStorageManager.get(storable.getStorableKey());
+            Assert.assertEquals(storable.getName(), storedStorable.getName());
+        }
+        Assert.assertEquals(storables.size(), batchStorageManager.list(BatchStorable.NAMESPACE).size());
+    }
+
+    @Test
+    public void testAddAll_RolledBackTransaction_NothingInserted() {
+        jdbcStorageManager.beginTransaction(TransactionIsolation.READ_COMMITTED);
+        jdbcStorageManager.addAll(Collections.singletonList(new BatchStorable(1L, "name")));
+        jdbcStorageManager.rollbackTransaction();
+
+        Assert.assertTrue(jdbcStorageManager.list(BatchStorable.NAMESPACE).isEmpty());
+    }
+
+    private void execute(String sql) throws SQLException {
+        try (Connection connection = connectionBuilder.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    /**
+     * Returns the keys generated for all the rows of a batch, as the MySQL driver does, where the H2 driver only returns
+     * the key of the last row. Keys of auto increment columns are consecutive within a batch.
+     */
+    private class BatchGeneratedKeysConnectionBuilder implements ConnectionBuilder<Object> {
+        @Override
+        public void prepare() {
+        }
+
+        @Override
+        public Connection getConnection() {
+            Connection connection = connectionBuilder.getConnection();
+            return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {Connection.class}, (proxy, method, args) -> {
+                Object result = invoke(connection, method, args);
+                return result instanceof PreparedStatement ? batchGeneratedKeys((PreparedStatement) result) : result;
+            });
+        }
+
+        private PreparedStatement batchGeneratedKeys(PreparedStatement preparedStatement) {
+            int[] batchSize = new int[1];
+            return (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {PreparedStatement.class}, (proxy, method, args) -> {
+                if ("addBatch".equals(method.getName())) {
+                    batchSize[0]++;
+                } else if ("getGeneratedKeys".equals(method.getName())) {
+                    long lastKey;
+                    try (ResultSet lastKeys = preparedStatement.getGeneratedKeys()) {
+                        lastKeys.next();
+                        lastKey = lastKeys.getLong(1);
+                    }
+                    SimpleResultSet generatedKeys = new SimpleResultSet();
+                    generatedKeys.addColumn("ID", Types.BIGINT, 19, 0);
+                    for (long key = lastKey - batchSize[0] + 1; key <= lastKey; key++) {
+                        generatedKeys.addRow(key);
+                    }
+                    return generatedKeys;
+                }
+                return invoke(preparedStatement, method, args);
+            });
+        }
+
+        private Object invoke(Object target, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        @Override
+        public Object getConfig() {
+            return null;
+        }
+
+        @Override
+        public void cleanup() {
+        }
+    }
+
+    public static class BatchStorable extends AbstractStorable {
+        public static final String NAMESPACE = "batch_storable";
+
+        private Long id;
+        private String name;
+
+        public BatchStorable() {
+        }
+
+        BatchStorable(Long id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+
+        @Override
+        public String getNameSpace() {
+            return NAMESPACE;
+        }
+
+        @Override
+        public PrimaryKey getPrimaryKey() {
+            return new PrimaryKey(Collections.singletonMap(new Schema.Field("id", Schema.Type.LONG), id));
+        }
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+}
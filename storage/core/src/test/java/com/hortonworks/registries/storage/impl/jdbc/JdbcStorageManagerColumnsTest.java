@@ -0,0 +1,72 @@
+/**
+ * Copyright 2016-2019 Cloudera, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package com.hortonworks.registries.storage.impl.jdbc;
+
+import com.hortonworks.registries.common.QueryParam;
+import com.hortonworks.registries.storage.impl.jdbc.JdbcStorageManagerBatchInsertTest.BatchStorable;
+import com.hortonworks.registries.storage.impl.jdbc.config.ExecutionConfig;
+import com.hortonworks.registries.storage.impl.jdbc.config.HikariBasicConfig;
+import com.hortonworks.registries.storage.impl.jdbc.connection.HikariCPConnectionBuilder;
+import com.hortonworks.registries.storage.impl.jdbc.provider.mysql.factory.MySqlExecutor;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collection;
+import java.util.Collections;
+
+public class JdbcStorageManagerColumnsTest {
+    private HikariCPConnectionBuilder connectionBuilder;
+    private JdbcStorageManager jdbcStorageManager;
+
+    @Before
+    public void setUp() throws Exception {
+        connectionBuilder = new HikariCPConnectionBuilder(HikariBasicConfig.getH2HikariConfig());
+        execute("CREATE TABLE IF NOT EXISTS batch_storable (id BIGINT AUTO_INCREMENT NOT NULL, PRIMARY KEY (id))");
+        jdbcStorageManager = new JdbcStorageManager(new MySqlExecutor(new ExecutionConfig(-1), connectionBuilder));
+        jdbcStorageManager.registerStorables(Collections.singletonList(BatchStorable.class));
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        execute("DROP TABLE batch_storable");
+        jdbcStorageManager.cleanup();
+        connectionBuilder.cleanup();
+    }
+
+    @Test
+    public void testFind_ColumnAddedAfterRegistration_QueryParamUsed() throws Exception {
+        execute("ALTER TABLE batch_storable ADD COLUMN name VARCHAR(255)");
+        execute("INSERT INTO batch_storable (id, name) VALUES (1, 'name-1'), (2, 'name-2')");
+
+        Collection<BatchStorable> found = jdbcStorageManager.find(BatchStorable.NAMESPACE,
+                Collections.singletonList(new QueryParam("name", "name-2")));
+
+        Assert.assertEquals(1, found.size());
+        Assert.assertEquals(Long.valueOf(2), found.iterator().next().getId());
+    }
+
+    private void execute(String sql) throws SQLException {
+        try (Connection connection = connectionBuilder.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+}
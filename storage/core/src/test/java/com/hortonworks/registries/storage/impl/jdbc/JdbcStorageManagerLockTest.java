@@ -0,0 +1,233 @@
+/**
+ * Copyright 2016-2019 Cloudera, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package com.hortonworks.registries.storage.impl.jdbc;
+
+import com.hortonworks.registries.storage.StorableKey;
+import com.hortonworks.registries.storage.common.DatabaseType;
+import com.hortonworks.registries.storage.exception.LockWaitTimeoutException;
+import com.hortonworks.registries.storage.impl.jdbc.JdbcStorageManagerBatchInsertTest.BatchStorable;
+import com.hortonworks.registries.storage.impl.jdbc.config.ExecutionConfig;
+import com.hortonworks.registries.storage.impl.jdbc.config.HikariBasicConfig;
+import com.hortonworks.registries.storage.impl.jdbc.connection.HikariCPConnectionBuilder;
+import com.hortonworks.registries.storage.impl.jdbc.provider.mysql.factory.MySqlExecutor;
+import com.hortonworks.registries.storage.impl.jdbc.provider.postgresql.factory.PostgresqlExecutor;
+import com.hortonworks.registries.storage.impl.jdbc.provider.sql.factory.QueryExecutor;
+import com.hortonworks.registries.storage.transaction.TransactionIsolation;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class JdbcStorageManagerLockTest {
+    private static final int H2_LOCK_TIMEOUT_ERROR_CODE = 50200;
+
+    private HikariCPConnectionBuilder connectionBuilder;
+    private JdbcStorageManager jdbcStorageManager;
+    private StorableKey lockKey;
+
+    @Before
+    public void setUp() throws Exception {
+        connectionBuilder = new HikariCPConnectionBuilder(HikariBasicConfig.getH2HikariConfig());
+        execute("CREATE TABLE IF NOT EXISTS batch_storable (id BIGINT AUTO_INCREMENT NOT NULL, name VARCHAR(255) NOT NULL, PRIMARY KEY (id))");
+        jdbcStorageManager = new JdbcStorageManager(new H2MySqlExecutor(new ExecutionConfig(-1), connectionBuilder));
+        jdbcStorageManager.registerStorables(Collections.singletonList(BatchStorable.class));
+
+        BatchStorable lockRow = new BatchStorable(1L, "lock");
+        jdbcStorageManager.add(lockRow);
+        lockKey = lockRow.getStorableKey();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        execute("DROP TABLE batch_storable");
+        jdbcStorageManager.cleanup();
+        connectionBuilder.cleanup();
+    }
+
+    @Test
+    public void testWriteLock_HeldByAnotherTransaction_ObtainedOnceReleased() throws Exception {
+        jdbcStorageManager.beginTransaction(TransactionIsolation.READ_COMMITTED);
+        Assert.assertTrue(jdbcStorageManager.writeLock(lockKey, 1L, TimeUnit.SECONDS));
+
+        Assert.assertFalse(writeLockInAnotherTransaction(200L));
+
+        jdbcStorageManager.commitTransaction();
+        Assert.assertTrue(writeLockInAnotherTransaction(1000L));
+    }
+
+    @Test
+    public void testWriteLock_NestedTransaction_HeldTillOutermostEnds() throws Exception {
+        jdbcStorageManager.beginTransaction(TransactionIsolation.READ_COMMITTED);
+        jdbcStorageManager.beginTransaction(TransactionIsolation.READ_COMMITTED);
+        Assert.assertTrue(jdbcStorageManager.writeLock(lockKey, 1L, TimeUnit.SECONDS));
+        jdbcStorageManager.commitTransaction();
+
+        Assert.assertFalse(writeLockInAnotherTransaction(200L));
+
+        jdbcStorageManager.commitTransaction();
+        Assert.assertTrue(writeLockInAnotherTransaction(1000L));
+    }
+
+    @Test
+    public void testWriteLock_MissingRow_FalseAfterTimeout() {
+        StorableKey missingKey = new BatchStorable(2L, "missing").getStorableKey();
+
+        jdbcStorageManager.beginTransaction(TransactionIsolation.READ_COMMITTED);
+        try {
+            long startTime = System.nanoTime();
+            Assert.assertFalse(jdbcStorageManager.writeLock(missingKey, 300L, TimeUnit.MILLISECONDS));
+            Assert.assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime) >= 300L);
+        } finally {
+            jdbcStorageManager.rollbackTransaction();
+        }
+    }
+
+    @Test
+    public void testPostgresSelectForUpdate_RowLockHeld_WaitsTillLockWaitTimeout() throws Exception {
+        QueryExecutor queryExecutor = new H2PostgresqlExecutor(new ExecutionConfig(-1, DatabaseType.POSTGRESQL), connectionBuilder);
+        new JdbcStorageManager(queryExecutor).registerStorables(Collections.singletonList(BatchStorable.class));
+
+        jdbcStorageManager.beginTransaction(TransactionIsolation.READ_COMMITTED);
+        Assert.assertTrue(jdbcStorageManager.writeLock(lockKey, 1L, TimeUnit.SECONDS));
+        try {
+            CompletableFuture.runAsync(() -> {
+                queryExecutor.beginTransaction(TransactionIsolation.READ_COMMITTED);
+                try {
+                    long startTime = System.nanoTime();
+                    try {
+                        queryExecutor.selectForUpdate(lockKey, 300L);
+                        Assert.fail("Row lock held by another transaction must not be obtained");
+                    } catch (LockWaitTimeoutException e) {
+                        Assert.assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime) >= 300L);
+                    }
+                    // the transaction is still usable after the attempt is rolled back to its savepoint
+                    Assert.assertEquals(1, queryExecutor.select(lockKey).size());
+                } finally {
+                    queryExecutor.rollbackTransaction();
+                }
+            }).get(10, TimeUnit.SECONDS);
+        } finally {
+            jdbcStorageManager.commitTransaction();
+        }
+    }
+
+    @Test
+    public void testPostgresWriteLock_RowLockHeld_ObtainedOnceReleased() throws Exception {
+        JdbcStorageManager postgresStorageManager = new JdbcStorageManager(
+                new H2PostgresqlExecutor(new ExecutionConfig(-1, DatabaseType.POSTGRESQL, 200L), connectionBuilder));
+        postgresStorageManager.registerStorables(Collections.singletonList(BatchStorable.class));
+
+        jdbcStorageManager.beginTransaction(TransactionIsolation.READ_COMMITTED);
+        Assert.assertTrue(jdbcStorageManager.writeLock(lockKey, 1L, TimeUnit.SECONDS));
+
+        CountDownLatch waiting = new CountDownLatch(1);
+        CompletableFuture<Boolean> contender = CompletableFuture.supplyAsync(() -> {
+            postgresStorageManager.beginTransaction(TransactionIsolation.READ_COMMITTED);
+            try {
+                waiting.countDown();
+                // waits in the database over several lock wait timeouts of the same transaction
+                return postgresStorageManager.writeLock(lockKey, 10L, TimeUnit.SECONDS);
+            } finally {
+                postgresStorageManager.rollbackTransaction();
+            }
+        });
+
+        Assert.assertTrue(waiting.await(10, TimeUnit.SECONDS));
+        Thread.sleep(700L);
+        Assert.assertFalse(contender.isDone());
+
+        jdbcStorageManager.commitTransaction();
+        Assert.assertTrue(contender.get(10, TimeUnit.SECONDS));
+    }
+
+    private boolean writeLockInAnotherTransaction(long timeoutMs) throws Exception {
+        return CompletableFuture.supplyAsync(() -> {
+            jdbcStorageManager.beginTransaction(TransactionIsolation.READ_COMMITTED);
+            try {
+                return jdbcStorageManager.writeLock(lockKey, timeoutMs, TimeUnit.MILLISECONDS);
+            } finally {
+                jdbcStorageManager.rollbackTransaction();
+            }
+        }).get(10, TimeUnit.SECONDS);
+    }
+
+    private void execute(String sql) throws SQLException {
+        try (Connection connection = connectionBuilder.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private static void setH2LockTimeout(Connection connection, long lockWaitTimeoutMs) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SET LOCK_TIMEOUT " + lockWaitTimeoutMs);
+        }
+    }
+
+    private static boolean isH2LockTimeout(SQLException e) {
+        return e.getErrorCode() == H2_LOCK_TIMEOUT_ERROR_CODE;
+    }
+
+    /**
+     * MySQL dialect with the lock wait timeout of H2.
+     */
+    private static class H2MySqlExecutor extends MySqlExecutor {
+        H2MySqlExecutor(ExecutionConfig config, HikariCPConnectionBuilder connectionBuilder) {
+            super(config, connectionBuilder);
+        }
+
+        @Override
+        protected void setLockWaitTimeout(Connection connection, long lockWaitTimeoutMs) throws SQLException {
+            setH2LockTimeout(connection, lockWaitTimeoutMs);
+        }
+
+        @Override
+        protected void resetLockWaitTimeout(Connection connection) throws SQLException {
+        }
+
+        @Override
+        protected boolean isLockWaitTimeout(SQLException e) {
+            return isH2LockTimeout(e);
+        }
+    }
+
+    /**
+     * PostgreSQL dialect with the lock wait timeout of H2, whose rows are locked by the same FOR UPDATE queries.
+     */
+    private static class H2PostgresqlExecutor extends PostgresqlExecutor {
+        H2PostgresqlExecutor(ExecutionConfig config, HikariCPConnectionBuilder connectionBuilder) {
+            super(config, connectionBuilder);
+        }
+
+        @Override
+        protected void setLockWaitTimeout(Connection connection, long lockWaitTimeoutMs) throws SQLException {
+            setH2LockTimeout(connection, lockWaitTimeoutMs);
+        }
+
+        @Override
+        protected boolean isLockWaitTimeout(SQLException e) {
+            return isH2LockTimeout(e);
+        }
+    }
+}
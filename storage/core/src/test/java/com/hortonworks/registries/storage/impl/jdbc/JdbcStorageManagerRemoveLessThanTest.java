@@ -0,0 +1,81 @@
+/**
+ * Copyright 2016-2019 Cloudera, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package com.hortonworks.registries.storage.impl.jdbc;
+
+import com.hortonworks.registries.storage.impl.jdbc.JdbcStorageManagerBatchInsertTest.BatchStorable;
+import com.hortonworks.registries.storage.impl.jdbc.config.ExecutionConfig;
+import com.hortonworks.registries.storage.impl.jdbc.config.HikariBasicConfig;
+import com.hortonworks.registries.storage.impl.jdbc.connection.HikariCPConnectionBuilder;
+import com.hortonworks.registries.storage.impl.jdbc.provider.mysql.factory.MySqlExecutor;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+public class JdbcStorageManagerRemoveLessThanTest {
+    private HikariCPConnectionBuilder connectionBuilder;
+    private JdbcStorageManager jdbcStorageManager;
+
+    @Before
+    public void setUp() throws Exception {
+        connectionBuilder = new HikariCPConnectionBuilder(HikariBasicConfig.getH2HikariConfig());
+        execute("CREATE TABLE IF NOT EXISTS batch_storable (id BIGINT AUTO_INCREMENT NOT NULL, name VARCHAR(255) NOT NULL, PRIMARY KEY (id))");
+        jdbcStorageManager = new JdbcStorageManager(new MySqlExecutor(new ExecutionConfig(-1), connectionBuilder));
+        jdbcStorageManager.registerStorables(Collections.singletonList(BatchStorable.class));
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        execute("DROP TABLE batch_storable");
+        jdbcStorageManager.cleanup();
+        connectionBuilder.cleanup();
+    }
+
+    @Test
+    public void testRemoveLessThan_OnlySmallerValuesRemoved() {
+        for (long id = 1; id <= 10; id++) {
+            jdbcStorageManager.add(new BatchStorable(id, "name-" + id));
+        }
+
+        Assert.assertEquals(6, jdbcStorageManager.removeLessThan(BatchStorable.NAMESPACE, "id", 7L));
+
+        Collection<BatchStorable> remaining = jdbcStorageManager.list(BatchStorable.NAMESPACE);
+        Set<Long> remainingIds = remaining.stream().map(BatchStorable::getId).collect(Collectors.toSet());
+        Assert.assertEquals(new HashSet<>(Arrays.asList(7L, 8L, 9L, 10L)), remainingIds);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRemoveLessThan_UnknownField_Rejected() {
+        jdbcStorageManager.removeLessThan(BatchStorable.NAMESPACE, "missing", 7L);
+    }
+
+    private void execute(String sql) throws SQLException {
+        try (Connection connection = connectionBuilder.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+}
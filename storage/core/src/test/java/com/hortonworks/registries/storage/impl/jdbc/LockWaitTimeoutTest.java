@@ -0,0 +1,175 @@
+/**
+ * Copyright 2016-2019 Cloudera, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package com.hortonworks.registries.storage.impl.jdbc;
+
+import com.hortonworks.registries.common.Schema;
+import com.hortonworks.registries.storage.PrimaryKey;
+import com.hortonworks.registries.storage.StorableKey;
+import com.hortonworks.registries.storage.common.DatabaseType;
+import com.hortonworks.registries.storage.impl.jdbc.config.ExecutionConfig;
+import com.hortonworks.registries.storage.impl.jdbc.connection.ConnectionBuilder;
+import com.hortonworks.registries.storage.impl.jdbc.provider.mysql.factory.MySqlExecutor;
+import com.hortonworks.registries.storage.impl.jdbc.provider.oracle.factory.OracleExecutor;
+import com.hortonworks.registries.storage.impl.jdbc.provider.sql.factory.QueryExecutor;
+import com.hortonworks.registries.storage.transaction.TransactionIsolation;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Checks the statements each dialect runs to limit the time a locking query waits for a row lock, against a connection
+ * which records them.
+ */
+public class LockWaitTimeoutTest {
+    private static final String NAMESPACE = "lock_storable";
+    private static final long SESSION_LOCK_WAIT_TIMEOUT_SECS = 50;
+
+    private final List<String> statements = Collections.synchronizedList(new ArrayList<>());
+    private final StorableKey storableKey = new StorableKey(NAMESPACE, new PrimaryKey(
+            Collections.singletonMap(new Schema.Field("id", Schema.Type.LONG), 1L)));
+
+    @Test
+    public void testMySql_LockWaitTimeoutSet_SessionValueRestoredWithTransaction() {
+        QueryExecutor queryExecutor = new MySqlExecutor(new ExecutionConfig(-1, DatabaseType.MYSQL), new RecordingConnectionBuilder());
+
+        queryExecutor.beginTransaction(TransactionIsolation.JDBC_DEFAULT);
+        queryExecutor.selectForUpdate(storableKey, 2500);
+        Assert.assertEquals(Collections.singletonList("SET SESSION innodb_lock_wait_timeout = 3"),
+                            statements("innodb_lock_wait_timeout ="));
+
+        queryExecutor.commitTransaction();
+        Assert.assertEquals(Arrays.asList("SET SESSION innodb_lock_wait_timeout = 3",
+                                          "SET SESSION innodb_lock_wait_timeout = " + SESSION_LOCK_WAIT_TIMEOUT_SECS),
+                            statements("innodb_lock_wait_timeout ="));
+    }
+
+    @Test
+    public void testMySql_NoLockingQuery_SessionUntouched() {
+        QueryExecutor queryExecutor = new MySqlExecutor(new ExecutionConfig(-1, DatabaseType.MYSQL), new RecordingConnectionBuilder());
+
+        queryExecutor.beginTransaction(TransactionIsolation.JDBC_DEFAULT);
+        queryExecutor.select(storableKey);
+        queryExecutor.rollbackTransaction();
+
+        Assert.assertTrue(statements("innodb_lock_wait_timeout").isEmpty());
+    }
+
+    @Test
+    public void testOracle_SelectForUpdate_WaitsInQuery() {
+        QueryExecutor queryExecutor = new OracleExecutor(new ExecutionConfig(-1, DatabaseType.ORACLE), new RecordingConnectionBuilder());
+
+        queryExecutor.beginTransaction(TransactionIsolation.JDBC_DEFAULT);
+        queryExecutor.selectForUpdate(storableKey, 2500);
+        queryExecutor.commitTransaction();
+
+        List<String> lockingQueries = statements("FOR UPDATE");
+        Assert.assertEquals(1, lockingQueries.size());
+        Assert.assertTrue(lockingQueries.get(0), lockingQueries.get(0).endsWith("FOR UPDATE WAIT 3"));
+    }
+
+    @Test
+    public void testWriteLock_ConfiguredLockWaitTimeout_LimitsEachQuery() {
+        ExecutionConfig config = new ExecutionConfig(-1, DatabaseType.MYSQL, 1000);
+        JdbcStorageManager jdbcStorageManager = new JdbcStorageManager(new MySqlExecutor(config, new RecordingConnectionBuilder()));
+
+        jdbcStorageManager.beginTransaction(TransactionIsolation.JDBC_DEFAULT);
+        // the lock row does not exist, so it is queried till the lock is given up
+        Assert.assertFalse(jdbcStorageManager.writeLock(storableKey, 1500L, TimeUnit.MILLISECONDS));
+        jdbcStorageManager.rollbackTransaction();
+
+        List<String> timeouts = statements("SET SESSION innodb_lock_wait_timeout = 1");
+        Assert.assertTrue(timeouts.size() > 1);
+    }
+
+    private List<String> statements(String part) {
+        synchronized (statements) {
+            return statements.stream().filter(statement -> statement.contains(part)).collect(Collectors.toList());
+        }
+    }
+
+    private Object recording(Class<?> type) {
+        return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {type}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return type.getSimpleName();
+                default:
+            }
+            if (args != null && args.length > 0 && args[0] instanceof String) {
+                statements.add((String) args[0]);
+                if (((String) args[0]).startsWith("SELECT @@SESSION.innodb_lock_wait_timeout")) {
+                    return sessionLockWaitTimeout();
+                }
+            }
+            Class<?> returnType = method.getReturnType();
+            if (returnType == boolean.class) {
+                return false;
+            } else if (returnType == int.class) {
+                return 0;
+            } else if (returnType == long.class) {
+                return 0L;
+            } else if (returnType.isInterface()) {
+                return recording(returnType);
+            }
+            return null;
+        });
+    }
+
+    private Object sessionLockWaitTimeout() {
+        boolean[] read = new boolean[1];
+        return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {java.sql.ResultSet.class}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "next":
+                    return !read[0] && (read[0] = true);
+                case "getLong":
+                    return SESSION_LOCK_WAIT_TIMEOUT_SECS;
+                default:
+                    return null;
+            }
+        });
+    }
+
+    private class RecordingConnectionBuilder implements ConnectionBuilder<Object> {
+        @Override
+        public void prepare() {
+        }
+
+        @Override
+        public Connection getConnection() {
+            return (Connection) recording(Connection.class);
+        }
+
+        @Override
+        public Object getConfig() {
+            return null;
+        }
+
+        @Override
+        public void cleanup() {
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/**
+ * Copyright 2016-2019 Cloudera, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package com.hortonworks.registries.storage.impl.jdbc;
+
+import com.hortonworks.registries.common.Schema;
+import com.hortonworks.registries.storage.PrimaryKey;
+import com.hortonworks.registries.storage.StorableKey;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class StorableKeyLocksTest {
+
+    private final StorableKeyLocks storableKeyLocks = new StorableKeyLocks(16);
+
+    private static StorableKey key(String name) {
+        return new StorableKey("schema_lock",
+                               new PrimaryKey(Collections.singletonMap(new Schema.Field("name", Schema.Type.STRING), name)));
+    }
+
+    @Test
+    public void testWriteLockQueuesContendersTillReleased() throws Exception {
+        Assert.assertTrue(storableKeyLocks.acquire(key("a"), true, 0));
+        Assert.assertTrue(storableKeyLocks.holdsLocks());
+
+        CountDownLatch timedOut = new CountDownLatch(1);
+        CompletableFuture<Boolean> contender = CompletableFuture.supplyAsync(() -> {
+            try {
+                Assert.assertFalse(storableKeyLocks.acquire(key("a"), true, 10));
+                timedOut.countDown();
+                boolean isLocked = storableKeyLocks.acquire(key("a"), false, TimeUnit.SECONDS.toMillis(30));
+                storableKeyLocks.release(isLocked);
+                storableKeyLocks.releaseAll();
+                return isLocked;
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        });
+
+        Assert.assertTrue(timedOut.await(30, TimeUnit.SECONDS));
+        storableKeyLocks.release(false);
+        Assert.assertFalse(storableKeyLocks.holdsLocks());
+        Assert.assertTrue(contender.get(30, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testReadLocksAreShared() throws Exception {
+        Assert.assertTrue(storableKeyLocks.acquire(key("a"), false, 0));
+
+        CompletableFuture<Boolean> reader = CompletableFuture.supplyAsync(() -> {
+            try {
+                boolean isLocked = storableKeyLocks.acquire(key("a"), false, 0);
+                storableKeyLocks.release(isLocked);
+                return isLocked;
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        });
+
+        Assert.assertTrue(reader.get(30, TimeUnit.SECONDS));
+        storableKeyLocks.release(true);
+        storableKeyLocks.releaseAll();
+    }
+
+    @Test
+    public void testLocalLockReleasedOnceRowLockObtained() throws Exception {
+        Assert.assertTrue(storableKeyLocks.acquire(key("a"), true, 0));
+        storableKeyLocks.release(true);
+        Assert.assertFalse(storableKeyLocks.holdsLocks());
+        Assert.assertTrue(storableKeyLocks.holdsRowLocks());
+
+        // the stripe is free for other keys while this thread keeps its row lock
+        Assert.assertTrue(acquireAndReleaseInAnotherThread(key("a"), true));
+
+        // further locks of a thread holding row locks are left to the database
+        Assert.assertTrue(storableKeyLocks.acquire(key("b"), true, 0));
+        Assert.assertFalse(storableKeyLocks.holdsLocks());
+        storableKeyLocks.release(true);
+
+        storableKeyLocks.releaseAll();
+        Assert.assertFalse(storableKeyLocks.holdsRowLocks());
+    }
+
+    @Test
+    public void testLocalLockReleasedWhenRowLockNotObtained() throws Exception {
+        Assert.assertTrue(storableKeyLocks.acquire(key("a"), true, 0));
+        storableKeyLocks.release(false);
+        Assert.assertFalse(storableKeyLocks.holdsLocks());
+        Assert.assertFalse(storableKeyLocks.holdsRowLocks());
+
+        Assert.assertTrue(acquireAndReleaseInAnotherThread(key("a"), true));
+    }
+
+    private boolean acquireAndReleaseInAnotherThread(StorableKey key, boolean exclusive) throws Exception {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                boolean isLocked = storableKeyLocks.acquire(key, exclusive, 0);
+                storableKeyLocks.release(false);
+                return isLocked;
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        }).get(30, TimeUnit.SECONDS);
+    }
+}
@@ -22,6 +22,10 @@ import com.hortonworks.registries.storage.OrderByField;
 import com.hortonworks.registries.storage.PrimaryKey;
 import com.hortonworks.registries.storage.StorableKey;
 import com.hortonworks.registries.storage.impl.jdbc.provider.mysql.query.MySqlSelectQuery;
+import com.hortonworks.registries.storage.search.OrderBy;
+import com.hortonworks.registries.storage.search.SearchQuery;
+import com.hortonworks.registries.storage.search.WhereClause;
+import org.apache.commons.lang3.tuple.Pair;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -29,6 +33,7 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
  *
@@ -71,4 +76,40 @@ public class MySqlSelectQueryTest {
         Assert.assertEquals("SELECT * FROM topic WHERE `foo` = ? ORDER BY `foo` DESC, ORDER BY `bar` ASC", parametrizedSql);
 
     }
+
+    @Test
+    public void testSelectQueryWithSearchQueryLimit() throws Exception {
+        Schema schema = Schema.of(Schema.Field.of("name", Schema.Type.STRING), Schema.Field.of("id", Schema.Type.LONG));
+        SearchQuery searchQuery = SearchQuery.searchFrom(nameSpace)
+                                             .where(WhereClause.begin()
+                                                               .gt("name", "bar")
+                                                               .and()
+                                                               .lt("name", "foo")
+                                                               .combine())
+                                             .orderBy(OrderBy.asc("name"))
+                                             .limit(10);
+        MySqlSelectQuery mySqlSelectQuery = new MySqlSelectQuery(searchQuery, schema);
+        String parametrizedSql = mySqlSelectQuery.getParametrizedSql();
+
+        Assert.assertEquals("SELECT * FROM `topic` WHERE  `name` > ? AND `name` < ?  ORDER BY `name` ASC  LIMIT 10", parametrizedSql);
+        Assert.assertEquals(Arrays.asList("bar", "foo"),
+                            mySqlSelectQuery.getSearchBindings().stream().map(Pair::getValue).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testSelectQueryWithSearchQueryIn() throws Exception {
+        Schema schema = Schema.of(Schema.Field.of("name", Schema.Type.STRING), Schema.Field.of("id", Schema.Type.LONG));
+        SearchQuery searchQuery = SearchQuery.searchFrom(nameSpace)
+                                             .where(WhereClause.begin()
+                                                               .in("id", Arrays.asList(1L, 2L, 3L))
+                                                               .and()
+                                                               .eq("name", "foo")
+                                                               .combine());
+        MySqlSelectQuery mySqlSelectQuery = new MySqlSelectQuery(searchQuery, schema);
+        String parametrizedSql = mySqlSelectQuery.getParametrizedSql();
+
+        Assert.assertEquals("SELECT * FROM `topic` WHERE  `id` IN (?, ?, ?) AND `name` = ? ", parametrizedSql);
+        Assert.assertEquals(Arrays.asList(1L, 2L, 3L, "foo"),
+                            mySqlSelectQuery.getSearchBindings().stream().map(Pair::getValue).collect(Collectors.toList()));
+    }
 }
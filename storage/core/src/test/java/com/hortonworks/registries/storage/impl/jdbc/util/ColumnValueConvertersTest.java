@@ -0,0 +1,45 @@
+/**
+ * Copyright 2016-2019 Cloudera, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package com.hortonworks.registries.storage.impl.jdbc.util;
+
+import com.hortonworks.registries.common.Schema;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ColumnValueConvertersTest {
+
+    @Test
+    public void testConversions() {
+        Assert.assertEquals(Boolean.TRUE, ColumnValueConverters.fromString(Schema.Type.BOOLEAN, "true"));
+        Assert.assertEquals((byte) 1, ColumnValueConverters.fromString(Schema.Type.BYTE, "1"));
+        Assert.assertEquals((short) 2, ColumnValueConverters.fromString(Schema.Type.SHORT, "2"));
+        Assert.assertEquals(3, ColumnValueConverters.fromString(Schema.Type.INTEGER, "3"));
+        Assert.assertEquals(4L, ColumnValueConverters.fromString(Schema.Type.LONG, "4"));
+        Assert.assertEquals(5.5f, ColumnValueConverters.fromString(Schema.Type.FLOAT, "5.5"));
+        Assert.assertEquals(6.5d, ColumnValueConverters.fromString(Schema.Type.DOUBLE, "6.5"));
+        Assert.assertEquals("seven", ColumnValueConverters.fromString(Schema.Type.STRING, "seven"));
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void testInvalidNumber() {
+        ColumnValueConverters.fromString(Schema.Type.LONG, "not-a-number");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTypeWithoutStringConversion() {
+        ColumnValueConverters.fromString(Schema.Type.NESTED, "{}");
+    }
+}
@@ -0,0 +1,90 @@
+/**
+ * Copyright 2016-2019 Cloudera, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package com.hortonworks.registries.storage.impl.memory;
+
+import com.hortonworks.registries.common.QueryParam;
+import com.hortonworks.registries.storage.StorableKey;
+import com.hortonworks.registries.storage.StorageManager;
+import com.hortonworks.registries.storage.impl.memory.InMemorySearchTest.Item;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+public class InMemoryIndexTest {
+    private StorageManager storageManager;
+
+    @Before
+    public void setUp() {
+        storageManager = new InMemoryStorageManager();
+        long id = 0;
+        for (String name : Arrays.asList("alpha", "bravo", "alpha", "charlie")) {
+            storageManager.add(new Item(++id, name));
+        }
+    }
+
+    @Test
+    public void testFind_IndexedColumns_MatchingEntries() {
+        Assert.assertEquals(ids(1L, 3L), ids(storageManager.find(Item.NAMESPACE, QueryParam.params("name", "alpha"))));
+        Assert.assertEquals(ids(3L), ids(storageManager.find(Item.NAMESPACE, QueryParam.params("name", "alpha", "id", "3"))));
+        Assert.assertTrue(storageManager.find(Item.NAMESPACE, QueryParam.params("name", "delta")).isEmpty());
+    }
+
+    @Test
+    public void testFind_UpdatedAndRemovedEntries_IndexesUpToDate() {
+        Assert.assertEquals(ids(1L, 3L), ids(storageManager.find(Item.NAMESPACE, QueryParam.params("name", "alpha"))));
+
+        storageManager.addOrUpdate(new Item(1L, "delta"));
+        Item removed = new Item(3L, "alpha");
+        storageManager.remove(new StorableKey(Item.NAMESPACE, removed.getPrimaryKey()));
+        storageManager.add(new Item(5L, "alpha"));
+
+        Assert.assertEquals(ids(5L), ids(storageManager.find(Item.NAMESPACE, QueryParam.params("name", "alpha"))));
+        Assert.assertEquals(ids(1L), ids(storageManager.find(Item.NAMESPACE, QueryParam.params("name", "delta"))));
+    }
+
+    @Test
+    public void testFind_EntryChangedInPlace_NotFoundUnderOldValue() {
+        Assert.assertEquals(ids(1L, 3L), ids(storageManager.find(Item.NAMESPACE, QueryParam.params("name", "alpha"))));
+
+        Item changed = storageManager.get(new StorableKey(Item.NAMESPACE, new Item(1L, "alpha").getPrimaryKey()));
+        changed.setName("delta");
+
+        Assert.assertEquals(ids(3L), ids(storageManager.find(Item.NAMESPACE, QueryParam.params("name", "alpha"))));
+        // indexed again under its current value once it is found changed
+        Assert.assertEquals(ids(1L), ids(storageManager.find(Item.NAMESPACE, QueryParam.params("name", "delta"))));
+    }
+
+    @Test
+    public void testFind_UnknownColumn_NoEntries() {
+        Assert.assertTrue(storageManager.find(Item.NAMESPACE, QueryParam.params("unknown", "alpha")).isEmpty());
+        Assert.assertEquals(ids(1L, 2L, 3L, 4L), ids(storageManager.find(Item.NAMESPACE, Collections.emptyList())));
+    }
+
+    private Set<Long> ids(Long... ids) {
+        return new HashSet<>(Arrays.asList(ids));
+    }
+
+    private Set<Long> ids(Collection<Item> items) {
+        return items.stream().map(Item::getId).collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,137 @@
+/**
+ * Copyright 2016-2019 Cloudera, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package com.hortonworks.registries.storage.impl.memory;
+
+import com.hortonworks.registries.common.Schema;
+import com.hortonworks.registries.storage.PrimaryKey;
+import com.hortonworks.registries.storage.StorageManager;
+import com.hortonworks.registries.storage.catalog.AbstractStorable;
+import com.hortonworks.registries.storage.search.OrderBy;
+import com.hortonworks.registries.storage.search.SearchQuery;
+import com.hortonworks.registries.storage.search.WhereClause;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class InMemorySearchTest {
+    private StorageManager storageManager;
+
+    @Before
+    public void setUp() {
+        storageManager = new InMemoryStorageManager();
+        long id = 0;
+        for (String name : Arrays.asList("delta", "alpha", "echo", "charlie", "bravo")) {
+            storageManager.add(new Item(++id, name));
+        }
+    }
+
+    @Test
+    public void testSearch_OrderByAndLimit_FirstEntriesInOrder() {
+        SearchQuery searchQuery = SearchQuery.searchFrom(Item.NAMESPACE).orderBy(OrderBy.asc("name")).limit(2);
+
+        Assert.assertEquals(Arrays.asList("alpha", "bravo"), names(storageManager.search(searchQuery)));
+    }
+
+    @Test
+    public void testSearch_KeysetWhereClause_NextEntries() {
+        SearchQuery searchQuery = SearchQuery.searchFrom(Item.NAMESPACE)
+                                             .where(WhereClause.begin().gt("name", "bravo").combine())
+                                             .orderBy(OrderBy.desc("name"));
+
+        Assert.assertEquals(Arrays.asList("echo", "delta", "charlie"), names(storageManager.search(searchQuery)));
+    }
+
+    @Test
+    public void testSearch_EnclosedClauses_AndTakesPrecedence() {
+        // id = 1 OR (name contains "a" AND id > 3) OR id = 5
+        SearchQuery searchQuery = SearchQuery.searchFrom(Item.NAMESPACE)
+                                             .where(WhereClause.begin()
+                                                               .eq("id", 1)
+                                                               .or()
+                                                               .enclose(WhereClause.begin()
+                                                                                   .contains("name", "a")
+                                                                                   .and()
+                                                                                   .gt("id", 3L))
+                                                               .or()
+                                                               .eq("id", 5L)
+                                                               .combine())
+                                             .orderBy(OrderBy.asc("id"));
+
+        Assert.assertEquals(Arrays.asList("delta", "charlie", "bravo"), names(storageManager.search(searchQuery)));
+    }
+
+    @Test
+    public void testSearch_InClause_MatchesListedValues() {
+        SearchQuery searchQuery = SearchQuery.searchFrom(Item.NAMESPACE)
+                                             .where(WhereClause.begin().in("id", Arrays.asList(2, 4L, 9L)).combine())
+                                             .orderBy(OrderBy.asc("name"));
+
+        Assert.assertEquals(Arrays.asList("alpha", "charlie"), names(storageManager.search(searchQuery)));
+    }
+
+    private List<String> names(Collection<Item> items) {
+        return items.stream().map(Item::getName).collect(Collectors.toList());
+    }
+
+    public static class Item extends AbstractStorable {
+        static final String NAMESPACE = "item";
+
+        private Long id;
+        private String name;
+
+        public Item() {
+        }
+
+        Item(Long id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+
+        @Override
+        public String getNameSpace() {
+            return NAMESPACE;
+        }
+
+        @Override
+        public PrimaryKey getPrimaryKey() {
+            return new PrimaryKey(Collections.singletonMap(new Schema.Field("id", Schema.Type.LONG), id));
+        }
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+/**
+ * Copyright 2016-2019 Cloudera, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package com.hortonworks.registries.storage.transaction;
+
+import com.hortonworks.registries.storage.exception.TransactionException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+public class TransactionBookKeeperTest {
+
+    private final TransactionBookKeeper transactionBookKeeper = new TransactionBookKeeper();
+    private final Connection connection = (Connection) Proxy.newProxyInstance(getClass().getClassLoader(),
+                                                                              new Class<?>[] {Connection.class},
+                                                                              (proxy, method, args) -> null);
+
+    @Test
+    public void testTransactionAttachedToAnotherThread() throws Exception {
+        transactionBookKeeper.addTransaction(connection);
+        TransactionContext transactionContext = transactionBookKeeper.capture();
+
+        Connection attachedConnection = CompletableFuture.supplyAsync(() -> {
+            Assert.assertFalse(transactionBookKeeper.hasActiveTransaction());
+            try (TransactionContext.Scope ignored = transactionBookKeeper.attach(transactionContext)) {
+                transactionBookKeeper.incrementNestedTransactionCount();
+                transactionBookKeeper.decrementNestedTransactionCount(TransactionState.COMMIT);
+                return transactionBookKeeper.getConnection();
+            }
+        }).get(10, TimeUnit.SECONDS);
+
+        Assert.assertSame(connection, attachedConnection);
+        // the transaction is handed back when the scope is closed
+        Assert.assertSame(connection, transactionBookKeeper.getConnection());
+        transactionBookKeeper.decrementNestedTransactionCount(TransactionState.COMMIT);
+        Assert.assertTrue(transactionBookKeeper.whereThereAnyCommits());
+        transactionBookKeeper.removeTransaction();
+        Assert.assertNull(transactionBookKeeper.capture());
+    }
+
+    @Test
+    public void testTransactionOwnedByOneThreadAtATime() throws Exception {
+        transactionBookKeeper.addTransaction(connection);
+        TransactionContext transactionContext = transactionBookKeeper.capture();
+
+        CountDownLatch attached = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(1);
+        CompletableFuture<Void> stage = CompletableFuture.runAsync(() -> {
+            try (TransactionContext.Scope ignored = transactionBookKeeper.attach(transactionContext)) {
+                attached.countDown();
+                done.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        Assert.assertTrue(attached.await(10, TimeUnit.SECONDS));
+
+        try {
+            transactionBookKeeper.getConnection();
+            Assert.fail("Transaction attached to another thread must not be used");
+        } catch (TransactionException e) {
+            // expected
+        }
+        try {
+            CompletableFuture.runAsync(() -> transactionBookKeeper.attach(transactionContext)).get(10, TimeUnit.SECONDS);
+            Assert.fail("Transaction attached to another thread must not be attached again");
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof TransactionException);
+        }
+
+        done.countDown();
+        stage.get(10, TimeUnit.SECONDS);
+        Assert.assertSame(connection, transactionBookKeeper.getConnection());
+    }
+
+    @Test(expected = TransactionException.class)
+    public void testEndedTransactionCanNotBeAttached() throws Exception {
+        transactionBookKeeper.addTransaction(connection);
+        TransactionContext transactionContext = transactionBookKeeper.capture();
+        transactionBookKeeper.decrementNestedTransactionCount(TransactionState.ROLLBACK);
+        transactionBookKeeper.removeTransaction();
+
+        try {
+            CompletableFuture.runAsync(() -> transactionBookKeeper.attach(transactionContext)).get(10, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            throw (Exception) e.getCause();
+        }
+    }
+}
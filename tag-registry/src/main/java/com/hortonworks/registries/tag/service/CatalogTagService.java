@@ -172,13 +172,15 @@ public class CatalogTagService implements TagService {
     @Override
     public void addTagsForStorable(TaggedEntity taggedEntity, List<Tag> tags) {
         if (tags != null) {
+            List<TagStorableMapping> tagStorables = new ArrayList<>(tags.size());
             for (Tag tag : tags) {
                 TagStorableMapping tagStorable = new TagStorableMapping();
                 tagStorable.setTagId(tag.getId());
                 tagStorable.setStorableNamespace(taggedEntity.getNamespace());
                 tagStorable.setStorableId(taggedEntity.getId());
-                this.dao.add(tagStorable);
+                tagStorables.add(tagStorable);
             }
+            this.dao.addAll(tagStorables);
         }
     }
 
@@ -14,6 +14,7 @@
  **/
 package com.hortonworks.registries.webservice;
 
+import com.codahale.metrics.SharedMetricRegistries;
 import com.hortonworks.registries.common.FileStorageConfiguration;
 import com.hortonworks.registries.common.GenericExceptionMapper;
 import com.hortonworks.registries.common.HAConfiguration;
@@ -38,8 +39,10 @@ import com.hortonworks.registries.common.ha.LocalLeader;
 import com.hortonworks.registries.common.util.FileStorage;
 import com.hortonworks.registries.storage.StorageManager;
 import com.hortonworks.registries.storage.StorageManagerAware;
+import com.hortonworks.registries.storage.impl.jdbc.JdbcStorageManager;
 import com.hortonworks.registries.storage.StorageProviderConfiguration;
 import io.dropwizard.Application;
+import io.dropwizard.lifecycle.Managed;
 import io.dropwizard.lifecycle.ServerLifecycleListener;
 import io.dropwizard.setup.Bootstrap;
 import io.dropwizard.setup.Environment;
@@ -56,6 +59,7 @@ import org.slf4j.LoggerFactory;
 import javax.servlet.DispatcherType;
 import javax.servlet.Filter;
 import javax.servlet.FilterRegistration;
+import java.io.Closeable;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.EnumSet;
@@ -74,6 +78,7 @@ public class RegistryApplication extends Application<RegistryConfiguration> {
     protected HAServerNotificationManager haServerNotificationManager = new HAServerNotificationManager();
     protected TransactionManager transactionManager;
     protected RefreshHAServerManagedTask refreshHAServerManagedTask;
+    protected List<Closeable> closeableModules = new ArrayList<>();
 
     @Override
     public void run(RegistryConfiguration registryConfiguration, Environment environment) throws Exception {
@@ -82,6 +87,25 @@ public class RegistryApplication extends Application<RegistryConfiguration> {
         registerHA(registryConfiguration.getHaConfig(), environment);
 
         registerResources(environment, registryConfiguration);
+        environment.metrics().registerAll(SharedMetricRegistries.getOrCreate(JdbcStorageManager.METRIC_REGISTRY_NAME));
+        environment.metrics().registerAll(SharedMetricRegistries.getOrCreate(HAServerNotificationManager.METRIC_REGISTRY_NAME));
+        environment.lifecycle().manage(new Managed() {
+            @Override
+            public void start() {
+            }
+
+            @Override
+            public void stop() {
+                for (Closeable closeableModule : closeableModules) {
+                    try {
+                        closeableModule.close();
+                    } catch (IOException e) {
+                        LOG.warn("Error occurred while closing module [{}]", closeableModule, e);
+                    }
+                }
+                haServerNotificationManager.close();
+            }
+        });
 
         environment.jersey().register(GenericExceptionMapper.class);
         environment.healthChecks().register("dummy", new DummyHealthCheck());
@@ -138,6 +162,8 @@ public class RegistryApplication extends Application<RegistryConfiguration> {
                     if (moduleConfiguration.getClassName().equals("com.hortonworks.registries.schemaregistry.webservice.SchemaRegistryModule")) {
                        options = new DefaultSchemaRegistry.Options(moduleConfiguration.getConfig());
                        haServerNotificationManager.setIsCacheEnabled(options.isCacheEnabled());
+                       haServerNotificationManager.setTimeouts(options.getHaNotificationConnectTimeoutMs(),
+                                                               options.getHaNotificationReadTimeoutMs());
                     }
                 }
 
@@ -275,6 +301,10 @@ public class RegistryApplication extends Application<RegistryConfiguration> {
                 leadershipAware.setHAServerConfigManager(haServerNotificationManager);
             }
 
+            if (moduleRegistration instanceof Closeable) {
+                closeableModules.add((Closeable) moduleRegistration);
+            }
+
             resourcesToRegister.addAll(moduleRegistration.getResources());
         }
 